@@ -27,6 +27,7 @@ import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEdition;
 import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
 import de.tudarmstadt.ukp.jwktl.api.entry.BerkeleyDBWiktionaryEdition;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryCollection;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPageCache;
 import de.tudarmstadt.ukp.jwktl.parser.IWritableWiktionaryEdition;
 import de.tudarmstadt.ukp.jwktl.parser.WiktionaryArticleParser;
 import de.tudarmstadt.ukp.jwktl.parser.WiktionaryDumpParser;
@@ -95,6 +96,19 @@ public class JWKTL {
 		return new BerkeleyDBWiktionaryEdition(parsedDump, cacheSize);
 	}
 	
+	/** Opens the parsed Wiktionary language edition stored at the given 
+	 *  location. This method uses the given cache size for connecting 
+	 *  to the Berkeley DB and the given page cache for keeping frequently 
+	 *  requested pages in memory (see {@link WiktionaryPageCache}).
+	 *  @throws WiktionaryException in case of any JWKTL-related error. */
+	public static IWiktionaryEdition openEdition(final File parsedDump,
+			final Long cacheSize, final WiktionaryPageCache pageCache) {
+		BerkeleyDBWiktionaryEdition result = new BerkeleyDBWiktionaryEdition(
+				parsedDump, cacheSize);
+		result.setPageCache(pageCache);
+		return result;
+	}
+	
 	
 	// -- Parse dump files --
 	
@@ -140,6 +154,42 @@ public class JWKTL {
 		parser.parse(dumpFile);
 	}
 	
+	/** Updates a previously parsed Wiktionary database in the specified 
+	 *  target directory with a newer XML dump file of the same language
+	 *  edition. Only pages with a new revision are parsed and saved 
+	 *  again; pages that are no longer contained in the dump file are 
+	 *  removed. Note that Wikisaurus information is not updated.
+	 *  @param dumpFile file name of the Wiktionary dump in XML format.
+	 * 	@param targetDirectory directory of the previously parsed data. 
+	 * 	@throws WiktionaryException in case of any parser errors or if
+	 * 		there is no parsed Wiktionary in the targetDirectory. */	 
+	public static void updateWiktionaryDump(final File dumpFile,
+			final File targetDirectory) {
+		IWritableWiktionaryEdition wiktionaryDB = WritableBerkeleyDBWiktionaryEdition
+				.openForUpdate(targetDirectory, Runtime.getRuntime().maxMemory() / 2);
+		WiktionaryDumpParser parser = new WiktionaryDumpParser();
+		parser.register(new WiktionaryArticleParser(wiktionaryDB));
+		parser.parse(dumpFile);
+	}
+	
+	/** Continues an interrupted parse of the given XML dump file into the
+	 *  specified target directory. The partially parsed database is 
+	 *  reopened in the state of its last checkpoint, and all pages up to 
+	 *  the checkpoint are skipped. Note that Wikisaurus information is not
+	 *  parsed when resuming.
+	 *  @param dumpFile file name of the Wiktionary dump in XML format.
+	 * 	@param targetDirectory directory of the partially parsed data. 
+	 * 	@throws WiktionaryException in case of any parser errors or if
+	 * 		there is no checkpoint in the targetDirectory. */	 
+	public static void resumeWiktionaryDump(final File dumpFile,
+			final File targetDirectory) {
+		WritableBerkeleyDBWiktionaryEdition wiktionaryDB = WritableBerkeleyDBWiktionaryEdition
+				.openForResume(targetDirectory, Runtime.getRuntime().maxMemory() / 2);
+		WiktionaryDumpParser parser = new WiktionaryDumpParser();
+		parser.register(new WiktionaryArticleParser(wiktionaryDB));
+		parser.resume(dumpFile, wiktionaryDB.getCheckpointPageId());
+	}
+	
 	/** Deletes all files from a previously parsed Wiktionary from the
 	 *  specified directory. This method is equivalent to
 	 *  {@link BerkeleyDBWiktionaryEdition#deleteParsedWiktionary(File)}. */
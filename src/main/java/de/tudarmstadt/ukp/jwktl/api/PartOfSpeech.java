@@ -17,6 +17,7 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.api;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -193,6 +194,12 @@ public enum PartOfSpeech {
 	
 
 	private static final Logger logger = Logger.getLogger(PartOfSpeech.class.getName());
+
+	private static final Map<String, PartOfSpeech> nameIndex = new HashMap<>();
+	static {
+		for (PartOfSpeech partOfSpeech : values())
+			nameIndex.put(partOfSpeech.name(), partOfSpeech);
+	}
 	
 	protected static Set<String> unknownPos;
 		
@@ -214,23 +221,26 @@ public enum PartOfSpeech {
 		if (name == null || name.isEmpty())
 			return null;
 		
-		StringBuilder label = new StringBuilder();
-		for (char p : name.trim().toCharArray())
+		String trimmed = name.trim();
+		StringBuilder label = new StringBuilder(trimmed.length());
+		for (int i = 0; i < trimmed.length(); i++) {
+			char p = trimmed.charAt(i);
 			if (p == ' ' || p == '\n' || p == '\r' || p == '\t')
 				label.append('_');
 			else
 				label.append(Character.toUpperCase(p));
+		}
+		String key = label.toString();
 		
 		PartOfSpeech result = null;
 		if (additionalMap != null)
-			result = additionalMap.get(label.toString());
+			result = additionalMap.get(key);
 		
-		if (result == null)
-			try {
-				result = PartOfSpeech.valueOf(label.toString());
-			} catch (IllegalArgumentException e) {
-				logger.finer("Unknown part of speech: " + label.toString());
-			}
+		if (result == null) {
+			result = nameIndex.get(key);
+			if (result == null)
+				logger.finer("Unknown part of speech: " + key);
+		}
 		
 		/*if (result == null) {
 			if (unknownPos == null)
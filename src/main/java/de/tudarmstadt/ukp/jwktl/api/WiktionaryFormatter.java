@@ -33,12 +33,11 @@ public class WiktionaryFormatter {
 
 	// -- Singleton interface --
 	
-	private static WiktionaryFormatter instance;
+	private static final WiktionaryFormatter instance = new WiktionaryFormatter();
 	
-	/** Returns the static singleton reference. */
+	/** Returns the static singleton reference. The formatter is stateless
+	 *  and thus can be used by multiple threads. */
 	public static WiktionaryFormatter instance() {
-		if (instance == null)
-			instance = new WiktionaryFormatter();
 		return instance;
 	}
 	
@@ -23,10 +23,10 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import com.sleepycat.je.CursorConfig;
@@ -55,7 +55,12 @@ import de.tudarmstadt.ukp.jwktl.api.util.WiktionaryIterator;
 /**
  * Implementation of the {@link IWiktionaryEdition} interface, which makes
  * use of a Berkeley DB to store and retrieve the parsed Wiktionary 
- * information.
+ * information. An opened edition may be shared by multiple threads for
+ * concurrent read access, which avoids opening a separate database 
+ * environment (and cache) per thread. The returned pages, entries, and 
+ * senses should then be considered read-only. Iterators must not be 
+ * shared between threads, and the edition must not be closed while other
+ * threads still access it.
  * @author Christian M. Meyer
  */
 public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
@@ -99,6 +104,12 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 		public long getEntryId() {
 			return entryId;
 		}
+
+		/** Assigns a new entry ID. This method should not be called 
+		 *  directly; it is solely used for re-indexing the entries. */
+		public void setEntryId(long entryId) {
+			this.entryId = entryId;
+		}
 		
 		/** Return the page ID of the referenced {@link IWiktionaryEntry}. */
 		public long getPageId() {
@@ -162,6 +173,109 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 		
 	}
 
+	/**
+	 * Storage record of a single {@link WiktionaryEntry}. If the entries 
+	 * are stored separately from their pages, an entry can be loaded 
+	 * without deserializing the other entries of its page.
+	 */
+	@Entity
+	public static class WiktionaryEntryRecord {
+
+		@PrimaryKey
+		protected String entryKey;
+
+		protected WiktionaryEntry entry;
+
+		/** Instanciates an empty entry record. This constructor should not 
+		 *  be called directly; it is solely used by the database API. */
+		public WiktionaryEntryRecord() {}
+
+		/** Instanciates a record for storing the given entry. */
+		public WiktionaryEntryRecord(final WiktionaryEntry entry) {
+			entryKey = entry.getKey();
+			this.entry = entry;
+		}
+
+		/** Return the key of the stored {@link IWiktionaryEntry}. */
+		public String getEntryKey() {
+			return entryKey;
+		}
+
+		/** Return the stored {@link IWiktionaryEntry}. */
+		public WiktionaryEntry getEntry() {
+			return entry;
+		}
+
+	}
+
+	/**
+	 * Storage record of a single {@link WiktionaryEntry} in the compact
+	 * binary format of the {@link WiktionaryEntryCodec}.
+	 */
+	@Entity
+	public static class WiktionaryEncodedEntryRecord {
+
+		@PrimaryKey
+		protected String entryKey;
+
+		protected byte[] data;
+
+		/** Instanciates an empty entry record. This constructor should not 
+		 *  be called directly; it is solely used by the database API. */
+		public WiktionaryEncodedEntryRecord() {}
+
+		/** Instanciates a record for storing the given encoded entry. */
+		public WiktionaryEncodedEntryRecord(final String entryKey, final byte[] data) {
+			this.entryKey = entryKey;
+			this.data = data;
+		}
+
+		/** Return the key of the stored {@link IWiktionaryEntry}. */
+		public String getEntryKey() {
+			return entryKey;
+		}
+
+		/** Return the binary representation of the stored entry. */
+		public byte[] getData() {
+			return data;
+		}
+
+	}
+
+	/**
+	 * Storage record of a single value of the dictionary used by the
+	 * {@link WiktionaryEntryCodec}.
+	 */
+	@Entity
+	public static class WiktionaryCodeRecord {
+
+		@PrimaryKey
+		protected int code;
+
+		protected String value;
+
+		/** Instanciates an empty code record. This constructor should not 
+		 *  be called directly; it is solely used by the database API. */
+		public WiktionaryCodeRecord() {}
+
+		/** Instanciates a record for storing the given dictionary value. */
+		public WiktionaryCodeRecord(int code, final String value) {
+			this.code = code;
+			this.value = value;
+		}
+
+		/** Return the dictionary code. */
+		public int getCode() {
+			return code;
+		}
+
+		/** Return the value encoded by the dictionary code. */
+		public String getValue() {
+			return value;
+		}
+
+	}
+
 	
 	private static final Logger logger = Logger.getLogger(BerkeleyDBWiktionaryEdition.class.getName());
 		
@@ -169,12 +283,28 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 	public static final String DATABASE_NAME = "WIKTIONARY";
 	/** The name of the property file containing info about the parsed DB. */
 	public static final String PROPERTY_FILE_NAME = "wiktionary.properties";
+	/** The property denoting that the entry IDs have been assigned in
+	 *  alphabetical order of the page titles. */
+	public static final String ENTRY_INDEX_BY_TITLE_PROPERTY = "database.entry_index_by_title";
+	/** The property denoting that the entries are stored separately from
+	 *  their pages. */
+	public static final String SEPARATE_ENTRIES_PROPERTY = "database.separate_entries";
+	/** The property denoting the version of the {@link WiktionaryEntryCodec}
+	 *  used for storing the entries. If missing, the entries are stored
+	 *  using the reflection-based binding of the Berkeley DB. */
+	public static final String ENTRY_CODEC_PROPERTY = "database.entry_codec";
 
 	protected Environment env;
 	protected EntityStore store;
 	protected File dbPath;
 	protected Properties properties;
 	protected ILanguage language;
+	protected boolean titleOrderedEntryIds;
+	protected boolean separateEntries;
+	protected boolean lazyEntryLoading;
+	protected int entryCodecVersion;
+	protected WiktionaryEntryCodec entryCodec;
+	protected int storedCodeCount;
 	
 	protected PrimaryIndex<Long, WiktionaryPage> pageById;
 	protected SecondaryIndex<String, Long, WiktionaryPage> pageByTitle;
@@ -182,7 +312,11 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 	protected PrimaryIndex<String, WiktionaryEntryProxy> entryByKey;
 	protected SecondaryIndex<Long, String, WiktionaryEntryProxy> entryById;
 	protected PrimaryIndex<String, WiktionarySenseProxy> senseByKey;
+	protected PrimaryIndex<String, WiktionaryEntryRecord> entryRecordByKey;
+	protected PrimaryIndex<String, WiktionaryEncodedEntryRecord> encodedEntryByKey;
+	protected PrimaryIndex<Integer, WiktionaryCodeRecord> codeRecordByCode;
 	protected Set<EntityCursor<?>> openCursors;
+	protected WiktionaryPageCache pageCache;
 		
 	/** Connects to the parsed Wiktionary contained in the specified directory.
 	 * 	@param dbPath the path of the database files. 
@@ -237,11 +371,8 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 		env = new Environment(dbPath, envConfig);
 
 		// Configure store.
-		StoreConfig storeConfig = new StoreConfig();
-		storeConfig.setAllowCreate(allowCreateNew);
-		storeConfig.setTransactional(false);
-		storeConfig.setReadOnly(isReadOnly);
-		store = new EntityStore(env, DATABASE_NAME, storeConfig);
+		store = new EntityStore(env, DATABASE_NAME,
+				createStoreConfig(isReadOnly, allowCreateNew));
 
 		// Load properties.
 		properties = new Properties();
@@ -259,6 +390,18 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 			if (lang == null)
 				lang = properties.getProperty("entry_language");
 			language = Language.get(lang);
+			titleOrderedEntryIds = Boolean.parseBoolean(
+					properties.getProperty(ENTRY_INDEX_BY_TITLE_PROPERTY));
+			separateEntries = Boolean.parseBoolean(
+					properties.getProperty(SEPARATE_ENTRIES_PROPERTY));
+			entryCodecVersion = Integer.parseInt(
+					properties.getProperty(ENTRY_CODEC_PROPERTY, "0"));
+		}
+		if (entryCodecVersion > WiktionaryEntryCodec.VERSION) {
+			store.close();
+			env.close();
+			throw new WiktionaryException("Unsupported entry codec version " 
+					+ entryCodecVersion + "; please use a newer JWKTL version");
 		}
 
 		// Load index.
@@ -269,8 +412,37 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 		entryByKey = store.getPrimaryIndex(String.class, WiktionaryEntryProxy.class);
 		entryById = store.getSecondaryIndex(entryByKey, Long.class, "entryId");
 		senseByKey = store.getPrimaryIndex(String.class, WiktionarySenseProxy.class);
+		if (separateEntries || (!isReadOnly && allowCreateNew))
+			entryRecordByKey = store.getPrimaryIndex(String.class, WiktionaryEntryRecord.class);
+		if (entryCodecVersion > 0 || (!isReadOnly && allowCreateNew)) {
+			encodedEntryByKey = store.getPrimaryIndex(String.class, WiktionaryEncodedEntryRecord.class);
+			codeRecordByCode = store.getPrimaryIndex(Integer.class, WiktionaryCodeRecord.class);
+		}
+		if (entryCodecVersion > 0)
+			loadEntryCodec();
+
+		openCursors = ConcurrentHashMap.newKeySet();
+	}
+
+	/** Loads the dictionary of the codec used for storing the entries. */
+	protected void loadEntryCodec() throws DatabaseException {
+		separateEntries = true;
+		entryCodec = new WiktionaryEntryCodec();
+		try (EntityCursor<WiktionaryCodeRecord> cursor = codeRecordByCode.entities()) {
+			for (WiktionaryCodeRecord record : cursor)
+				entryCodec.putValue(record.getCode(), record.getValue());
+		}
+		storedCodeCount = entryCodec.getValueCount();
+	}
 
-		openCursors = new HashSet<>();
+	/** Factory method for the configuration of the entity store. */
+	protected StoreConfig createStoreConfig(boolean isReadOnly,
+			boolean allowCreateNew) {
+		StoreConfig storeConfig = new StoreConfig();
+		storeConfig.setAllowCreate(allowCreateNew);
+		storeConfig.setTransactional(false);
+		storeConfig.setReadOnly(isReadOnly);
+		return storeConfig;
 	}
 
 	/** Creates the given target dictionary if necessary. Removes a previously
@@ -305,6 +477,8 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 				return true;
 			if (name.equals("wiktionary.properties"))
 				return true;
+			if (name.startsWith("wiktionary.checkpoint"))
+				return true;
 
 			return false;
 		});
@@ -318,8 +492,13 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 	
 	public WiktionaryPage getPageForId(long id) {
 		ensureOpen();
+		if (pageCache != null) {
+			WiktionaryPage result = pageCache.get(id);
+			if (result != null)
+				return result;
+		}
 		try {
-			return loadPage(pageById.get(id), null);
+			return cachePage(loadPage(pageById.get(id), null));
 		} catch (DatabaseException e) {
 			throw new WiktionaryException(e);
 		}
@@ -329,13 +508,18 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 		ensureOpen();
 		if (word == null)
 			return null;
+		if (pageCache != null) {
+			WiktionaryPage result = pageCache.getByTitle(word);
+			if (result != null)
+				return result;
+		}
 		
 		try {
 			/*if (normalize)
 				return loadPage(pageByNormalizedTitle.get(
 						WiktionaryPage.normalizeTitle(word)), null);
 			else*/
-			return loadPage(pageByTitle.get(word), null);
+			return cachePage(loadPage(pageByTitle.get(word), null));
 		} catch (DatabaseException e) {
 			throw new WiktionaryException(e);
 		}
@@ -399,19 +583,229 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 
 	protected WiktionaryPage loadPage(final WiktionaryPage page,
 			final IWiktionaryPageFilter filter) {
-		if (page != null && (filter == null || filter.accept(page))) {
-			page.init();
-			return page;
-		} else
+		if (page == null)
 			return null;
+
+		if (separateEntries) {
+			final long pageId = page.getId();
+			page.setEntryLoader(() -> loadEntries(pageId));
+			if (!lazyEntryLoading)
+				page.loadEntries();
+		} else {
+			page.init();
+			if (titleOrderedEntryIds)
+				loadEntryIds(page);
+		}
+		return (filter == null || filter.accept(page) ? page : null);
+	}
+
+	// Adds the page to the cache after loading all of its entries, which
+	// prevents the cached page from being modified later on.
+	protected WiktionaryPage cachePage(final WiktionaryPage page) {
+		if (page != null && pageCache != null) {
+			page.loadEntries();
+			pageCache.put(page);
+		}
+		return page;
+	}
+
+	/** Returns the cache of initialized pages or <code>null</code> if
+	 *  no cache is used. */
+	public WiktionaryPageCache getPageCache() {
+		return pageCache;
+	}
+
+	/** Activates the given cache for the pages retrieved by their ID or
+	 *  title. Use <code>null</code> to disable caching (default). */
+	public void setPageCache(final WiktionaryPageCache pageCache) {
+		this.pageCache = pageCache;
+	}
+
+	/** Returns <code>true</code> if the entries of a page are loaded on
+	 *  first access. */
+	public boolean isLazyEntryLoading() {
+		return lazyEntryLoading;
+	}
+
+	/** Controls when the entries of a page are loaded if the entries are 
+	 *  stored separately from their pages. If enabled, the entries are 
+	 *  loaded on first access, and {@link #getEntryForId(long, int)} only 
+	 *  loads the requested entry and the page header. The entries of a
+	 *  page can then not be accessed after the edition has been closed. 
+	 *  By default, the entries are loaded together with their page, so
+	 *  the pages remain usable after closing the edition. The setting has
+	 *  no effect if the entries are embedded in their pages. */
+	public void setLazyEntryLoading(boolean lazyEntryLoading) {
+		this.lazyEntryLoading = lazyEntryLoading;
+	}
+
+	/** Stores the given page in the page index and returns the previously
+	 *  stored page with the same ID. If the entries are stored separately, 
+	 *  the page is stored without its entries; these need to be stored
+	 *  using {@link #storeEntries(WiktionaryPage)}. */
+	protected WiktionaryPage storePage(final WiktionaryPage page) {
+		if (pageCache != null)
+			pageCache.invalidate(page.getId());
+		if (!separateEntries)
+			return pageById.put(page);
+
+		List<WiktionaryEntry> entries = page.loadEntries();
+		page.entries = null;
+		try {
+			return pageById.put(page);
+		} finally {
+			page.entries = entries;
+		}
+	}
+
+	/** Stores the entries of the given page separately and removes any
+	 *  remaining entries of a previous version of the page. */
+	protected void storeEntries(final WiktionaryPage page) {
+		PrimaryIndex<String, ?> index;
+		if (entryCodec != null) {
+			for (WiktionaryEntry entry : page.loadEntries())
+				encodedEntryByKey.putNoReturn(new WiktionaryEncodedEntryRecord(
+						entry.getKey(), entryCodec.encode(entry)));
+			storeCodes();
+			index = encodedEntryByKey;
+		} else {
+			for (WiktionaryEntry entry : page.loadEntries())
+				entryRecordByKey.putNoReturn(new WiktionaryEntryRecord(entry));
+			index = entryRecordByKey;
+		}
+		int entryIdx = page.getEntryCount();
+		while (index.delete(page.getId() + ":" + entryIdx))
+			entryIdx++;
+	}
+
+	/** Stores the values that have been added to the dictionary of the 
+	 *  entry codec since the last call. */
+	protected void storeCodes() {
+		int valueCount = entryCodec.getValueCount();
+		for (int code = storedCodeCount; code < valueCount; code++)
+			codeRecordByCode.putNoReturn(new WiktionaryCodeRecord(code, entryCodec.getValue(code)));
+		storedCodeCount = valueCount;
+	}
+
+	/** Loads the separately stored entry with the given key or returns
+	 *  <code>null</code> if there is no such entry. */
+	protected WiktionaryEntry loadEntry(final String entryKey) {
+		if (entryCodec != null) {
+			WiktionaryEncodedEntryRecord record = encodedEntryByKey.get(entryKey);
+			return (record == null ? null : entryCodec.decode(record.getData()));
+		} else {
+			WiktionaryEntryRecord record = entryRecordByKey.get(entryKey);
+			return (record == null ? null : record.getEntry());
+		}
+	}
+
+	/** Loads the separately stored entries of the given page using a 
+	 *  single cursor over the key range of the page. */
+	protected List<WiktionaryEntry> loadEntries(long pageId) {
+		ensureOpen();
+		try {
+			// All entry keys of the page lie between "<id>:" and "<id>;".
+			String fromKey = pageId + ":";
+			String toKey = pageId + ";";
+			List<WiktionaryEntry> result = new ArrayList<>();
+			if (entryCodec != null) {
+				try (EntityCursor<WiktionaryEncodedEntryRecord> cursor = encodedEntryByKey
+						.entities(null, fromKey, true, toKey, false, CursorConfig.DEFAULT)) {
+					for (WiktionaryEncodedEntryRecord record : cursor)
+						putEntry(result, record.getEntryKey(), entryCodec.decode(record.getData()));
+				}
+			} else {
+				try (EntityCursor<WiktionaryEntryRecord> cursor = entryRecordByKey
+						.entities(null, fromKey, true, toKey, false, CursorConfig.DEFAULT)) {
+					for (WiktionaryEntryRecord record : cursor)
+						putEntry(result, record.getEntryKey(), record.getEntry());
+				}
+			}
+			int missingIdx = result.indexOf(null);
+			if (missingIdx >= 0)
+				result.subList(missingIdx, result.size()).clear();
+
+			if (titleOrderedEntryIds && !result.isEmpty()) {
+				WiktionaryEntryProxy firstEntry = entryByKey.get(result.get(0).getKey());
+				if (firstEntry != null) {
+					long entryId = firstEntry.getEntryId();
+					for (WiktionaryEntry entry : result)
+						entry.setId(entryId++);
+				}
+			}
+			return result;
+		} catch (DatabaseException e) {
+			throw new WiktionaryException(e);
+		}
+	}
+
+	// The cursor returns the keys in lexicographic order (e.g., "5:10" 
+	// before "5:2"), so the entries are placed by their index.
+	private static void putEntry(final List<WiktionaryEntry> entries,
+			final String entryKey, final WiktionaryEntry entry) {
+		int entryIdx = Integer.parseInt(entryKey.substring(entryKey.indexOf(':') + 1));
+		while (entries.size() <= entryIdx)
+			entries.add(null);
+		entries.set(entryIdx, entry);
+	}
+
+	/** Assigns the title-ordered entry IDs to the entries of the given page.
+	 *  The entries of a page are numbered consecutively, so only the ID of
+	 *  the first entry needs to be obtained from the entry index. */
+	protected void loadEntryIds(final WiktionaryPage page) {
+		if (page.getEntryCount() == 0)
+			return;
+
+		WiktionaryEntryProxy firstEntry = entryByKey.get(page.getEntry(0).getKey());
+		if (firstEntry == null)
+			return;
+
+		long entryId = firstEntry.getEntryId();
+		for (WiktionaryEntry entry : page.entries())
+			entry.setId(entryId++);
 	}
 
 
 	// -- Entries --
 
+	/** Returns the specified entry. If the entries are stored separately 
+	 *  from their pages and loaded lazily, only the requested entry and 
+	 *  the page header are loaded. Returns <code>null</code> if there is
+	 *  no such page or entry. */
+	@Override
+	public IWiktionaryEntry getEntryForId(long pageId, int entryIdx) {
+		ensureOpen();
+		if (!separateEntries || !lazyEntryLoading) {
+			WiktionaryPage page = getPageForId(pageId);
+			return (page == null || entryIdx < 0 || entryIdx >= page.getEntryCount()
+					? null : page.getEntry(entryIdx));
+		}
+
+		try {
+			String entryKey = pageId + ":" + entryIdx;
+			WiktionaryEntry result = loadEntry(entryKey);
+			WiktionaryPage page = (result == null ? null 
+					: loadPage(pageById.get(pageId), null));
+			if (page == null)
+				return null;
+
+			result.init(page);
+			if (titleOrderedEntryIds) {
+				WiktionaryEntryProxy entry = entryByKey.get(entryKey);
+				if (entry != null)
+					result.setId(entry.getEntryId());
+			}
+			return result;
+		} catch (DatabaseException e) {
+			throw new WiktionaryException(e);
+		}
+	}
+
 	public IWiktionaryEntry getEntryForId(long entryId) {
 		ensureOpen();
 		WiktionaryEntryProxy entry = entryById.get(entryId);
+		if (entry == null)
+			return null;
 		return getEntryForId(entry.getPageId(), entry.getEntryIndex());
 	}
 
@@ -421,6 +815,8 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 	public IWiktionarySense getSenseForKey(final String key) {
 		ensureOpen();
 		WiktionarySenseProxy sense = senseByKey.get(key);
+		if (sense == null)
+			return null;
 		return getSenseForId(sense.getPageId(), sense.getEntryIndex(), sense.getSenseIndex());
 	}
 
@@ -452,6 +848,8 @@ public class BerkeleyDBWiktionaryEdition extends WiktionaryEdition {
 		try {
 			openCursors.forEach(EntityCursor::close);
 			openCursors.clear();
+			if (pageCache != null)
+				pageCache.clear();
 
 			store.close();
 			env.close();
@@ -18,8 +18,16 @@
 package de.tudarmstadt.ukp.jwktl.api.entry;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryCollection;
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEdition;
@@ -38,17 +46,24 @@ import de.tudarmstadt.ukp.jwktl.api.util.Language;
  * Default implementation of the {@link IWiktionaryCollection} interface. The 
  * implementation can be initialized with multiple {@link IWiktionaryEdition}s
  * in order to access parsed Wiktionary information of multiple language 
- * editions.
+ * editions. Optionally, the editions can be queried concurrently by 
+ * setting an {@link Executor}; the results are always returned in the 
+ * order in which the editions have been added. The asynchronous lookup
+ * methods use this executor or, if none is set, a thread pool owned by
+ * the collection, which is shut down when closing the collection.
  * @author Christian M. Meyer
  */
 public class WiktionaryCollection extends AbstractWiktionary 
 		implements IWiktionaryCollection {
 	
 	protected List<IWiktionaryEdition> editions;
+	protected Executor executor;
+	protected ExecutorService lookupExecutor;
+	protected boolean lookupClosed;
 
 	/** Initializes the Wiktionary collection. */
 	public WiktionaryCollection() {
-		editions = new LinkedList<>();
+		editions = new CopyOnWriteArrayList<>();
 	}
 
 	public void addEdition(final IWiktionaryEdition edition) {
@@ -69,13 +84,7 @@ public class WiktionaryCollection extends AbstractWiktionary
 	// -- Pages --
 	
 	public List<IWiktionaryPage> getPagesForId(long id) {
-		List<IWiktionaryPage> result = new ArrayList<>();
-		for (IWiktionaryEdition edition : editions) {
-			IWiktionaryPage page = edition.getPageForId(id);
-			if (page != null)
-				result.add(page);
-		}
-		return result;
+		return collect(edition -> asList(edition.getPageForId(id), null));
 	}
 	
 	public IWiktionaryPage getPageForId(long id, final ILanguage entryLanguage) {
@@ -92,21 +101,21 @@ public class WiktionaryCollection extends AbstractWiktionary
 	
 	public List<IWiktionaryPage> getPagesForWord(final String word,
 			final IWiktionaryPageFilter filter) {
-		List<IWiktionaryPage> result = new ArrayList<>();
-		for (IWiktionaryEdition edition : editions) {
-			IWiktionaryPage page = edition.getPageForWord(word);
-			if (page != null && (filter == null || filter.accept(page)))
-				result.add(page);
-		}
-		return result;
+		return collect(edition -> asList(edition.getPageForWord(word), filter));
 	}
 	
 	public List<IWiktionaryPage> getPagesForWord(final String word,
 			final IWiktionaryPageFilter filter, boolean normalize) {
-		List<IWiktionaryPage> result = new ArrayList<>();
-		for (IWiktionaryEdition edition : editions)
-			result.addAll(edition.getPagesForWord(word, filter, normalize));
-		return result;
+		return collect(edition -> edition.getPagesForWord(word, filter, normalize));
+	}
+
+	/** Asynchronous variant of {@link #getPagesForWord(String, 
+	 *  IWiktionaryPageFilter, boolean)}, which queries the editions 
+	 *  concurrently. */
+	public CompletableFuture<List<IWiktionaryPage>> getPagesForWordAsync(
+			final String word, final IWiktionaryPageFilter filter, 
+			boolean normalize) {
+		return collectAsync(edition -> edition.getPagesForWord(word, filter, normalize));
 	}
 	
 	public IWiktionaryIterator<IWiktionaryPage> getAllPages(
@@ -125,10 +134,16 @@ public class WiktionaryCollection extends AbstractWiktionary
 
 	public List<IWiktionaryEntry> getEntriesForWord(final String word,
 			final IWiktionaryEntryFilter filter, boolean normalize) {
-		List<IWiktionaryEntry> result = new ArrayList<>();
-		for (IWiktionaryEdition edition : editions)
-			result.addAll(edition.getEntriesForWord(word, filter, normalize));
-		return result;
+		return collect(edition -> edition.getEntriesForWord(word, filter, normalize));
+	}
+
+	/** Asynchronous variant of {@link #getEntriesForWord(String, 
+	 *  IWiktionaryEntryFilter, boolean)}, which queries the editions 
+	 *  concurrently. */
+	public CompletableFuture<List<IWiktionaryEntry>> getEntriesForWordAsync(
+			final String word, final IWiktionaryEntryFilter filter, 
+			boolean normalize) {
+		return collectAsync(edition -> edition.getEntriesForWord(word, filter, normalize));
 	}
 	
 	public IWiktionaryIterator<IWiktionaryEntry> getAllEntries(
@@ -155,10 +170,16 @@ public class WiktionaryCollection extends AbstractWiktionary
 
 	public List<IWiktionarySense> getSensesForWord(final String word,
 			final IWiktionarySenseFilter filter, boolean normalize) {
-		List<IWiktionarySense> result = new ArrayList<>();
-		for (IWiktionaryEdition edition : editions)
-			result.addAll(edition.getSensesForWord(word, filter, normalize));
-		return result;
+		return collect(edition -> edition.getSensesForWord(word, filter, normalize));
+	}
+
+	/** Asynchronous variant of {@link #getSensesForWord(String, 
+	 *  IWiktionarySenseFilter, boolean)}, which queries the editions 
+	 *  concurrently. */
+	public CompletableFuture<List<IWiktionarySense>> getSensesForWordAsync(
+			final String word, final IWiktionarySenseFilter filter, 
+			boolean normalize) {
+		return collectAsync(edition -> edition.getSensesForWord(word, filter, normalize));
 	}
 	
 	public IWiktionaryIterator<IWiktionarySense> getAllSenses(
@@ -173,9 +194,96 @@ public class WiktionaryCollection extends AbstractWiktionary
 	}
 
 
+	// -- Concurrent lookup --
+
+	/** Returns the executor used for querying the editions concurrently
+	 *  or <code>null</code> if they are queried sequentially. */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/** Sets the executor used for querying the editions concurrently. 
+	 *  The results are merged in the order of the editions. Use 
+	 *  <code>null</code> to query the editions sequentially (default). 
+	 *  Note that the editions need to support concurrent access. */
+	public void setExecutor(final Executor executor) {
+		this.executor = executor;
+	}
+
+	// Query all editions and merge their results in the edition order.
+	protected <T> List<T> collect(
+			final Function<IWiktionaryEdition, List<? extends T>> lookup) {
+		if (executor == null || editions.size() < 2) {
+			List<T> result = new ArrayList<>();
+			for (IWiktionaryEdition edition : editions)
+				result.addAll(lookup.apply(edition));
+			return result;
+		}
+
+		try {
+			return collectAsync(lookup).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	protected <T> CompletableFuture<List<T>> collectAsync(
+			final Function<IWiktionaryEdition, List<? extends T>> lookup) {
+		Executor lookupExecutor = getLookupExecutor();
+		List<CompletableFuture<List<? extends T>>> futures = new ArrayList<>();
+		for (IWiktionaryEdition edition : editions)
+			futures.add(CompletableFuture.supplyAsync(() -> lookup.apply(edition), lookupExecutor));
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+				.thenApply(done -> {
+					List<T> result = new ArrayList<>();
+					for (CompletableFuture<List<? extends T>> future : futures)
+						result.addAll(future.join());
+					return result;
+				});
+	}
+
+	// Returns the configured executor or the collection's own thread pool,
+	// which is not recreated once the collection has been closed.
+	protected synchronized Executor getLookupExecutor() {
+		if (lookupClosed)
+			throw new IllegalStateException("WiktionaryCollection was already closed.");
+		if (executor != null)
+			return executor;
+
+		if (lookupExecutor == null) {
+			final AtomicInteger threadNumber = new AtomicInteger(1);
+			lookupExecutor = Executors.newCachedThreadPool(runnable -> {
+				Thread result = new Thread(runnable, "jwktl-lookup-" + threadNumber.getAndIncrement());
+				result.setDaemon(true);
+				return result;
+			});
+		}
+		return lookupExecutor;
+	}
+
+	protected static List<IWiktionaryPage> asList(final IWiktionaryPage page,
+			final IWiktionaryPageFilter filter) {
+		if (page != null && (filter == null || filter.accept(page)))
+			return Collections.singletonList(page);
+		else
+			return Collections.emptyList();
+	}
+
+
 	// -- Close --
 	
 	public void close() {
+		synchronized (this) {
+			if (lookupExecutor != null)
+				lookupExecutor.shutdown();
+			lookupExecutor = null;
+			lookupClosed = true;
+		}
 		editions.forEach(IWiktionaryEdition::close);
 	}
 
@@ -39,7 +39,7 @@ import de.tudarmstadt.ukp.jwktl.api.util.WiktionaryIterator;
 public abstract class WiktionaryEdition extends AbstractWiktionary
 		implements IWiktionaryEdition {
 
-	protected boolean isClosed;
+	protected volatile boolean isClosed;
 	
 	/** Initializes the Wiktionary edition. */
 	public WiktionaryEdition() {
@@ -214,7 +214,7 @@ public abstract class WiktionaryEdition extends AbstractWiktionary
 	 *  closing the connection, so this should be done prior to terminating
 	 *  the application. Nothing happens on calling the method more than 
 	 *  once. */
-	public void close() {
+	public synchronized void close() {
 		if (isClosed) 
 			return;
 		
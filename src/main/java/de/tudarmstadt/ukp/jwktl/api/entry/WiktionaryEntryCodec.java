@@ -0,0 +1,911 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.api.entry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import de.tudarmstadt.ukp.jwktl.api.IPronunciation;
+import de.tudarmstadt.ukp.jwktl.api.IPronunciation.PronunciationType;
+import de.tudarmstadt.ukp.jwktl.api.IQuotation;
+import de.tudarmstadt.ukp.jwktl.api.IWikiString;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryExample;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryRelation;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryRelation.LinkType;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryTranslation;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryWordForm;
+import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
+import de.tudarmstadt.ukp.jwktl.api.RelationType;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalAspect;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalCase;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalDegree;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalGender;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalMood;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalNumber;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalPerson;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalTense;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
+import de.tudarmstadt.ukp.jwktl.api.util.NonFiniteForm;
+
+/**
+ * Compact binary storage format for a {@link WiktionaryEntry} including
+ * its senses, which can be used instead of the reflection-based binding
+ * of the Berkeley DB. A record starts with the format version, followed by
+ * a sequence of fields. Each field is preceded by an explicit tag made of
+ * the field number and the wire type, which is either a variable-length
+ * integer or a length-prefixed text or nested message. Readers skip fields
+ * they do not know, so that later versions may add fields without breaking
+ * existing databases. Texts are encoded as CESU-8, i.e., UTF-8 that keeps
+ * unpaired surrogates intact.<br>
+ * Symbolic values, such as language codes, parts of speech, relation
+ * types, and grammatical features, are replaced by the codes of a
+ * dictionary that is shared by all records of a database. New values are
+ * added to the dictionary while encoding; they need to be stored along
+ * with the records (see {@link #getValueCount()} and
+ * {@link #getValue(int)}) and put into the dictionary again before decoding
+ * (see {@link #putValue(int, String)}). The dictionary is thread-safe.<br>
+ * The page ID and the sense's entry ID are not stored, since they are
+ * restored by {@link WiktionaryEntry#init(WiktionaryPage)}. The raw sense
+ * of a translation is usually shared by all translations of a translation
+ * table, so it is only stored if it differs from the raw sense of the 
+ * preceding translation. A
+ * {@link WikiString} without text is decoded as <code>null</code>.
+ */
+public class WiktionaryEntryCodec {
+
+	/** The version of the record format written by this codec. */
+	public static final int VERSION = 1;
+	/** The oldest version of the record format that can be decoded. */
+	public static final int MIN_VERSION = 1;
+
+	// Wire types.
+	protected static final int VARINT = 0;
+	protected static final int LENGTH_DELIMITED = 2;
+
+	// Fields of an entry.
+	protected static final int ENTRY_ID = 1;
+	protected static final int ENTRY_INDEX = 2;
+	protected static final int ENTRY_HEADER = 3;
+	protected static final int ENTRY_WORD_LANGUAGE = 4;
+	protected static final int ENTRY_PART_OF_SPEECH = 5;
+	protected static final int ENTRY_GENDER = 6;
+	protected static final int ENTRY_ETYMOLOGY = 7;
+	protected static final int ENTRY_USAGE_NOTES = 8;
+	protected static final int ENTRY_LINK = 9;
+	protected static final int ENTRY_LINK_TYPE = 10;
+	protected static final int ENTRY_PRONUNCIATION = 11;
+	protected static final int ENTRY_WORD_FORM = 12;
+	protected static final int ENTRY_SENSE = 13;
+
+	// Fields of a pronunciation.
+	protected static final int PRONUNCIATION_TYPE = 1;
+	protected static final int PRONUNCIATION_TEXT = 2;
+	protected static final int PRONUNCIATION_NOTE = 3;
+
+	// Fields of a word form.
+	protected static final int WORD_FORM_TEXT = 1;
+	protected static final int WORD_FORM_NUMBER = 2;
+	protected static final int WORD_FORM_CASE = 3;
+	protected static final int WORD_FORM_PERSON = 4;
+	protected static final int WORD_FORM_TENSE = 5;
+	protected static final int WORD_FORM_MOOD = 6;
+	protected static final int WORD_FORM_DEGREE = 7;
+	protected static final int WORD_FORM_ASPECT = 8;
+	protected static final int WORD_FORM_NON_FINITE = 9;
+
+	// Fields of a sense.
+	protected static final int SENSE_INDEX = 1;
+	protected static final int SENSE_MARKER = 2;
+	protected static final int SENSE_GLOSS = 3;
+	protected static final int SENSE_EXAMPLE = 4;
+	protected static final int SENSE_QUOTATION = 5;
+	protected static final int SENSE_REFERENCE = 6;
+	protected static final int SENSE_RELATION = 7;
+	protected static final int SENSE_TRANSLATION = 8;
+
+	// Fields of an example.
+	protected static final int EXAMPLE_TEXT = 1;
+	protected static final int EXAMPLE_TRANSLATION = 2;
+
+	// Fields of a quotation.
+	protected static final int QUOTATION_SOURCE = 1;
+	protected static final int QUOTATION_LINE = 2;
+
+	// Fields of a relation.
+	protected static final int RELATION_TARGET = 1;
+	protected static final int RELATION_TYPE = 2;
+	protected static final int RELATION_TARGET_SENSE = 3;
+	protected static final int RELATION_LINK_TYPE = 4;
+
+	// Fields of a translation.
+	protected static final int TRANSLATION_LANGUAGE = 1;
+	protected static final int TRANSLATION_TEXT = 2;
+	protected static final int TRANSLATION_TRANSLITERATION = 3;
+	protected static final int TRANSLATION_ADDITIONAL_INFORMATION = 4;
+	protected static final int TRANSLATION_RAW_SENSE = 5;
+	protected static final int TRANSLATION_CHECK_NEEDED = 6;
+	protected static final int TRANSLATION_GENDER = 7;
+	protected static final int TRANSLATION_SAME_RAW_SENSE = 8;
+
+	protected final Map<String, Integer> codes;
+	protected volatile String[] values;
+	protected int valueCount;
+
+	/** Creates a new codec with an empty dictionary. */
+	public WiktionaryEntryCodec() {
+		codes = new HashMap<>();
+		values = new String[64];
+	}
+
+
+	// -- Dictionary --
+
+	/** Returns the number of values in the dictionary. The codes of these
+	 *  values range from 0 to the returned number (exclusive). */
+	public synchronized int getValueCount() {
+		return valueCount;
+	}
+
+	/** Returns the dictionary value with the given code. 
+	 *  @throws WiktionaryException if there is no such value. */
+	public String getValue(int code) {
+		String[] values = this.values;
+		String result = (code >= 0 && code < values.length ? values[code] : null);
+		if (result == null)
+			throw new WiktionaryException("Unknown dictionary code " + code);
+		return result;
+	}
+
+	/** Adds the given value with the given code to the dictionary. This is
+	 *  used for restoring a previously stored dictionary. */
+	public synchronized void putValue(int code, final String value) {
+		if (code < 0 || value == null)
+			throw new IllegalArgumentException("Invalid dictionary value " + code + "=" + value);
+
+		String[] values = this.values;
+		if (code >= values.length)
+			values = Arrays.copyOf(values, Math.max(values.length * 2, code + 1));
+		values[code] = value;
+		codes.putIfAbsent(value, code);
+		valueCount = Math.max(valueCount, code + 1);
+		this.values = values; // publish the new value.
+	}
+
+	/** Returns the code of the given value and adds the value to the
+	 *  dictionary if necessary. */
+	protected synchronized int getCode(final String value) {
+		Integer result = codes.get(value);
+		if (result != null)
+			return result;
+
+		int code = valueCount;
+		putValue(code, value);
+		return code;
+	}
+
+
+	// -- Encoding --
+
+	/** Returns the binary representation of the given entry. Values that
+	 *  are not yet in the dictionary are added. */
+	public byte[] encode(final WiktionaryEntry entry) {
+		Output out = new Output(512);
+		out.writeVarint(getVersion());
+		writeEntry(out, entry);
+		return out.toByteArray();
+	}
+
+	protected void writeEntry(final Output out, final WiktionaryEntry entry) {
+		out.writeNumber(ENTRY_ID, entry.id);
+		out.writeNumber(ENTRY_INDEX, entry.index);
+		out.writeText(ENTRY_HEADER, entry.header);
+		writeValue(out, ENTRY_WORD_LANGUAGE, entry.wordLanguageStr);
+		for (PartOfSpeech partOfSpeech : entry.partsOfSpeech)
+			writeValueElement(out, ENTRY_PART_OF_SPEECH, nameOf(partOfSpeech));
+		if (entry.genders != null)
+			for (GrammaticalGender gender : entry.genders)
+				writeValueElement(out, ENTRY_GENDER, nameOf(gender));
+		writeWikiString(out, ENTRY_ETYMOLOGY, entry.etymology);
+		writeWikiString(out, ENTRY_USAGE_NOTES, entry.usageNotes);
+		out.writeText(ENTRY_LINK, entry.entryLink);
+		writeValue(out, ENTRY_LINK_TYPE, entry.entryLinkType);
+
+		if (entry.pronunciations != null)
+			for (IPronunciation pronunciation : entry.pronunciations) {
+				if (pronunciation == null) {
+					out.writeNull(ENTRY_PRONUNCIATION);
+					continue;
+				}
+				int start = out.beginMessage(ENTRY_PRONUNCIATION);
+				writeValue(out, PRONUNCIATION_TYPE, nameOf(pronunciation.getType()));
+				out.writeText(PRONUNCIATION_TEXT, pronunciation.getText());
+				out.writeText(PRONUNCIATION_NOTE, pronunciation.getNote());
+				out.endMessage(start);
+			}
+
+		if (entry.wordForms != null)
+			for (IWiktionaryWordForm wordForm : entry.wordForms) {
+				if (wordForm == null) {
+					out.writeNull(ENTRY_WORD_FORM);
+					continue;
+				}
+				int start = out.beginMessage(ENTRY_WORD_FORM);
+				out.writeText(WORD_FORM_TEXT, wordForm.getWordForm());
+				writeValue(out, WORD_FORM_NUMBER, nameOf(wordForm.getNumber()));
+				writeValue(out, WORD_FORM_CASE, nameOf(wordForm.getCase()));
+				writeValue(out, WORD_FORM_PERSON, nameOf(wordForm.getPerson()));
+				writeValue(out, WORD_FORM_TENSE, nameOf(wordForm.getTense()));
+				writeValue(out, WORD_FORM_MOOD, nameOf(wordForm.getMood()));
+				writeValue(out, WORD_FORM_DEGREE, nameOf(wordForm.getDegree()));
+				writeValue(out, WORD_FORM_ASPECT, nameOf(wordForm.getAspect()));
+				writeValue(out, WORD_FORM_NON_FINITE, nameOf(wordForm.getNonFiniteForm()));
+				out.endMessage(start);
+			}
+
+		for (WiktionarySense sense : entry.senses) {
+			int start = out.beginMessage(ENTRY_SENSE);
+			writeSense(out, sense);
+			out.endMessage(start);
+		}
+	}
+
+	protected void writeSense(final Output out, final WiktionarySense sense) {
+		out.writeNumber(SENSE_INDEX, sense.index);
+		out.writeText(SENSE_MARKER, sense.marker);
+		writeWikiString(out, SENSE_GLOSS, sense.gloss);
+
+		if (sense.examples != null)
+			for (IWiktionaryExample example : sense.examples) {
+				if (example == null) {
+					out.writeNull(SENSE_EXAMPLE);
+					continue;
+				}
+				int start = out.beginMessage(SENSE_EXAMPLE);
+				writeWikiString(out, EXAMPLE_TEXT, example.getExample());
+				writeWikiString(out, EXAMPLE_TRANSLATION, example.getTranslation());
+				out.endMessage(start);
+			}
+
+		if (sense.quotations != null)
+			for (IQuotation quotation : sense.quotations) {
+				if (quotation == null) {
+					out.writeNull(SENSE_QUOTATION);
+					continue;
+				}
+				int start = out.beginMessage(SENSE_QUOTATION);
+				writeWikiString(out, QUOTATION_SOURCE, quotation.getSource());
+				for (IWikiString line : quotation.getLines())
+					writeWikiStringElement(out, QUOTATION_LINE, line);
+				out.endMessage(start);
+			}
+
+		if (sense.references != null)
+			for (IWikiString reference : sense.references)
+				writeWikiStringElement(out, SENSE_REFERENCE, reference);
+
+		if (sense.relations != null)
+			for (IWiktionaryRelation relation : sense.relations) {
+				if (relation == null) {
+					out.writeNull(SENSE_RELATION);
+					continue;
+				}
+				int start = out.beginMessage(SENSE_RELATION);
+				out.writeText(RELATION_TARGET, relation.getTarget());
+				writeValue(out, RELATION_TYPE, nameOf(relation.getRelationType()));
+				out.writeText(RELATION_TARGET_SENSE, relation.getTargetSense());
+				writeValue(out, RELATION_LINK_TYPE, nameOf(relation.getLinkType()));
+				out.endMessage(start);
+			}
+
+		if (sense.translations != null) {
+			String rawSense = null;
+			for (IWiktionaryTranslation translation : sense.translations) {
+				if (translation == null) {
+					out.writeNull(SENSE_TRANSLATION);
+					rawSense = null;
+					continue;
+				}
+				int start = out.beginMessage(SENSE_TRANSLATION);
+				writeTranslation(out, translation, rawSense);
+				out.endMessage(start);
+				rawSense = translation.getRawSense();
+			}
+		}
+	}
+
+	protected void writeTranslation(final Output out,
+			final IWiktionaryTranslation translation, final String previousRawSense) {
+		String language;
+		String gender = null;
+		if (translation instanceof WiktionaryTranslation) {
+			// Keep codes of languages that are unknown to this version.
+			language = ((WiktionaryTranslation) translation).languageStr;
+			gender = ((WiktionaryTranslation) translation).gender;
+		} else {
+			ILanguage lang = translation.getLanguage();
+			language = (lang == null ? null : lang.getCode());
+		}
+		writeValue(out, TRANSLATION_LANGUAGE, language);
+		out.writeText(TRANSLATION_TEXT, translation.getTranslation());
+		out.writeText(TRANSLATION_TRANSLITERATION, translation.getTransliteration());
+		out.writeText(TRANSLATION_ADDITIONAL_INFORMATION, translation.getAdditionalInformation());
+		String rawSense = translation.getRawSense();
+		if (rawSense != null && rawSense.equals(previousRawSense))
+			out.writeNumber(TRANSLATION_SAME_RAW_SENSE, 1);
+		else
+			out.writeText(TRANSLATION_RAW_SENSE, rawSense);
+		if (translation.isCheckNeeded())
+			out.writeNumber(TRANSLATION_CHECK_NEEDED, 1);
+		writeValue(out, TRANSLATION_GENDER, gender);
+	}
+
+	// Writes the dictionary code of the given value, which is incremented
+	// by one, since 0 denotes null. Null values are omitted.
+	protected void writeValue(final Output out, int field, final String value) {
+		if (value != null)
+			out.writeNumber(field, getCode(value) + 1);
+	}
+
+	protected void writeValueElement(final Output out, int field, final String value) {
+		out.writeNumber(field, value == null ? 0 : getCode(value) + 1);
+	}
+
+	protected static void writeWikiString(final Output out, int field,
+			final IWikiString text) {
+		if (text != null)
+			out.writeText(field, text.getText());
+	}
+
+	protected static void writeWikiStringElement(final Output out, int field,
+			final IWikiString text) {
+		if (text == null || text.getText() == null)
+			out.writeNull(field);
+		else
+			out.writeText(field, text.getText());
+	}
+
+	protected static String nameOf(final Enum<?> value) {
+		return (value == null ? null : value.name());
+	}
+
+
+	/** Returns the version of the records written by this codec. Records
+	 *  of this version and all prior versions down to 
+	 *  {@link #MIN_VERSION} can be decoded. */
+	protected int getVersion() {
+		return VERSION;
+	}
+
+
+	// -- Decoding --
+
+	/** Restores the entry from the given binary representation. The
+	 *  returned entry needs to be initialized using 
+	 *  {@link WiktionaryEntry#init(WiktionaryPage)}.
+	 *  Records written by a prior version are read as well; fields they
+	 *  do not contain keep their default values.
+	 *  @throws WiktionaryException if the data is malformed, uses an
+	 *    unsupported version, or refers to unknown dictionary codes. */
+	public WiktionaryEntry decode(final byte[] data) {
+		Input in = new Input(data);
+		try {
+			int version = (int) in.readVarint();
+			if (version < MIN_VERSION || version > getVersion())
+				throw new WiktionaryException("Unsupported entry record version " + version);
+			return readEntry(in, data.length);
+		} catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new WiktionaryException("Malformed entry record", e);
+		}
+	}
+
+	protected WiktionaryEntry readEntry(final Input in, int end) {
+		WiktionaryEntry result = new WiktionaryEntry();
+		result.senses.clear();
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case ENTRY_ID:
+					result.id = in.readNumber(wireType);
+					break;
+				case ENTRY_INDEX:
+					result.index = (int) in.readNumber(wireType);
+					break;
+				case ENTRY_HEADER:
+					result.header = in.readText(wireType);
+					break;
+				case ENTRY_WORD_LANGUAGE:
+					result.wordLanguageStr = readValue(in, wireType);
+					break;
+				case ENTRY_PART_OF_SPEECH:
+					result.partsOfSpeech.add(readEnum(PartOfSpeech.class, in, wireType));
+					break;
+				case ENTRY_GENDER:
+					if (result.genders == null)
+						result.genders = new LinkedList<>();
+					result.genders.add(readEnum(GrammaticalGender.class, in, wireType));
+					break;
+				case ENTRY_ETYMOLOGY:
+					result.etymology = readWikiString(in, wireType);
+					break;
+				case ENTRY_USAGE_NOTES:
+					result.usageNotes = readWikiString(in, wireType);
+					break;
+				case ENTRY_LINK:
+					result.entryLink = in.readText(wireType);
+					break;
+				case ENTRY_LINK_TYPE:
+					result.entryLinkType = readValue(in, wireType);
+					break;
+				case ENTRY_PRONUNCIATION:
+					result.addPronunciation(readPronunciation(in, in.readMessage(wireType)));
+					break;
+				case ENTRY_WORD_FORM:
+					result.addWordForm(readWordForm(in, in.readMessage(wireType)));
+					break;
+				case ENTRY_SENSE:
+					result.senses.add(readSense(in, in.readMessage(wireType)));
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return result;
+	}
+
+	protected Pronunciation readPronunciation(final Input in, int end) {
+		if (end < 0)
+			return null;
+
+		PronunciationType type = null;
+		String text = null;
+		String note = null;
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case PRONUNCIATION_TYPE:
+					type = readEnum(PronunciationType.class, in, wireType);
+					break;
+				case PRONUNCIATION_TEXT:
+					text = in.readText(wireType);
+					break;
+				case PRONUNCIATION_NOTE:
+					note = in.readText(wireType);
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return new Pronunciation(type, text, note);
+	}
+
+	protected WiktionaryWordForm readWordForm(final Input in, int end) {
+		if (end < 0)
+			return null;
+
+		WiktionaryWordForm result = new WiktionaryWordForm();
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case WORD_FORM_TEXT:
+					result.wordForm = in.readText(wireType);
+					break;
+				case WORD_FORM_NUMBER:
+					result.grammaticalNumber = readEnum(GrammaticalNumber.class, in, wireType);
+					break;
+				case WORD_FORM_CASE:
+					result.grammaticalCase = readEnum(GrammaticalCase.class, in, wireType);
+					break;
+				case WORD_FORM_PERSON:
+					result.grammaticalPerson = readEnum(GrammaticalPerson.class, in, wireType);
+					break;
+				case WORD_FORM_TENSE:
+					result.grammaticalTense = readEnum(GrammaticalTense.class, in, wireType);
+					break;
+				case WORD_FORM_MOOD:
+					result.grammaticalMood = readEnum(GrammaticalMood.class, in, wireType);
+					break;
+				case WORD_FORM_DEGREE:
+					result.grammaticalDegree = readEnum(GrammaticalDegree.class, in, wireType);
+					break;
+				case WORD_FORM_ASPECT:
+					result.grammaticalAspect = readEnum(GrammaticalAspect.class, in, wireType);
+					break;
+				case WORD_FORM_NON_FINITE:
+					result.nonFiniteForm = readEnum(NonFiniteForm.class, in, wireType);
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return result;
+	}
+
+	protected WiktionarySense readSense(final Input in, int end) {
+		WiktionarySense result = new WiktionarySense();
+		WiktionaryTranslation translation = null;
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case SENSE_INDEX:
+					result.index = (int) in.readNumber(wireType);
+					break;
+				case SENSE_MARKER:
+					result.marker = in.readText(wireType);
+					break;
+				case SENSE_GLOSS:
+					result.gloss = readWikiString(in, wireType);
+					break;
+				case SENSE_EXAMPLE:
+					result.addExample(readExample(in, in.readMessage(wireType)));
+					break;
+				case SENSE_QUOTATION:
+					result.addQuotation(readQuotation(in, in.readMessage(wireType)));
+					break;
+				case SENSE_REFERENCE:
+					result.addReference(readWikiString(in, wireType));
+					break;
+				case SENSE_RELATION:
+					result.addRelation(readRelation(in, in.readMessage(wireType)));
+					break;
+				case SENSE_TRANSLATION:
+					translation = readTranslation(in, in.readMessage(wireType), 
+							translation == null ? null : translation.rawSense);
+					result.addTranslation(translation);
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return result;
+	}
+
+	protected WiktionaryExample readExample(final Input in, int end) {
+		if (end < 0)
+			return null;
+
+		IWikiString example = null;
+		IWikiString translation = null;
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case EXAMPLE_TEXT:
+					example = readWikiString(in, wireType);
+					break;
+				case EXAMPLE_TRANSLATION:
+					translation = readWikiString(in, wireType);
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return new WiktionaryExample(example, translation);
+	}
+
+	protected Quotation readQuotation(final Input in, int end) {
+		if (end < 0)
+			return null;
+
+		Quotation result = new Quotation();
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case QUOTATION_SOURCE:
+					result.setSource(readWikiString(in, wireType));
+					break;
+				case QUOTATION_LINE:
+					result.addLine(readWikiString(in, wireType));
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return result;
+	}
+
+	protected WiktionaryRelation readRelation(final Input in, int end) {
+		if (end < 0)
+			return null;
+
+		WiktionaryRelation result = new WiktionaryRelation();
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case RELATION_TARGET:
+					result.target = in.readText(wireType);
+					break;
+				case RELATION_TYPE:
+					result.type = readEnum(RelationType.class, in, wireType);
+					break;
+				case RELATION_TARGET_SENSE:
+					result.targetSense = in.readText(wireType);
+					break;
+				case RELATION_LINK_TYPE:
+					result.linkType = readEnum(LinkType.class, in, wireType);
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return result;
+	}
+
+	protected WiktionaryTranslation readTranslation(final Input in, int end,
+			final String previousRawSense) {
+		if (end < 0)
+			return null;
+
+		WiktionaryTranslation result = new WiktionaryTranslation();
+		while (in.position < end) {
+			int tag = (int) in.readVarint();
+			int wireType = tag & 7;
+			switch (tag >>> 3) {
+				case TRANSLATION_LANGUAGE:
+					result.languageStr = readValue(in, wireType);
+					break;
+				case TRANSLATION_TEXT:
+					result.translation = in.readText(wireType);
+					break;
+				case TRANSLATION_TRANSLITERATION:
+					result.transliteration = in.readText(wireType);
+					break;
+				case TRANSLATION_ADDITIONAL_INFORMATION:
+					result.additionalInformation = in.readText(wireType);
+					break;
+				case TRANSLATION_RAW_SENSE:
+					result.rawSense = in.readText(wireType);
+					break;
+				case TRANSLATION_CHECK_NEEDED:
+					result.checkNeeded = (in.readNumber(wireType) != 0);
+					break;
+				case TRANSLATION_GENDER:
+					result.gender = readValue(in, wireType);
+					break;
+				case TRANSLATION_SAME_RAW_SENSE:
+					if (in.readNumber(wireType) != 0)
+						result.rawSense = previousRawSense;
+					break;
+				default:
+					in.skip(wireType);
+			}
+		}
+		return result;
+	}
+
+	protected String readValue(final Input in, int wireType) {
+		int code = (int) in.readNumber(wireType);
+		return (code == 0 ? null : getValue(code - 1));
+	}
+
+	protected <E extends Enum<E>> E readEnum(final Class<E> type,
+			final Input in, int wireType) {
+		String name = readValue(in, wireType);
+		return (name == null ? null : Enum.valueOf(type, name));
+	}
+
+	protected static WikiString readWikiString(final Input in, int wireType) {
+		String text = in.readText(wireType);
+		return (text == null ? null : new WikiString(text));
+	}
+
+
+	// -- Buffers --
+
+	/** Growing buffer for writing a record. */
+	protected static class Output {
+
+		protected byte[] buffer;
+		protected int length;
+
+		public Output(int capacity) {
+			buffer = new byte[capacity];
+		}
+
+		protected void ensureCapacity(int count) {
+			if (length + count > buffer.length)
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + count));
+		}
+
+		public void writeVarint(long value) {
+			ensureCapacity(10);
+			while ((value & ~0x7FL) != 0) {
+				buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buffer[length++] = (byte) value;
+		}
+
+		public void writeNumber(int field, long value) {
+			writeVarint((field << 3) | VARINT);
+			writeVarint(value);
+		}
+
+		/** Writes a null element of a list of texts or messages. */
+		public void writeNull(int field) {
+			writeNumber(field, 0);
+		}
+
+		/** Writes the given text unless it is null. */
+		public void writeText(int field, final String text) {
+			if (text == null)
+				return;
+
+			int n = text.length();
+			int size = n;
+			for (int i = 0; i < n; i++) {
+				char c = text.charAt(i);
+				if (c >= 0x80)
+					size += (c < 0x800 ? 1 : 2);
+			}
+			writeVarint((field << 3) | LENGTH_DELIMITED);
+			writeVarint(size);
+			ensureCapacity(size);
+			byte[] buffer = this.buffer;
+			int pos = length;
+			for (int i = 0; i < n; i++) {
+				char c = text.charAt(i);
+				if (c < 0x80)
+					buffer[pos++] = (byte) c;
+				else if (c < 0x800) {
+					buffer[pos++] = (byte) (0xC0 | (c >> 6));
+					buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+				} else {
+					buffer[pos++] = (byte) (0xE0 | (c >> 12));
+					buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+				}
+			}
+			length = pos;
+		}
+
+		/** Starts a nested message and returns the position of its length,
+		 *  for which one byte is reserved. */
+		public int beginMessage(int field) {
+			writeVarint((field << 3) | LENGTH_DELIMITED);
+			ensureCapacity(1);
+			return length++;
+		}
+
+		/** Completes the nested message started at the given position. */
+		public void endMessage(int start) {
+			int size = length - start - 1;
+			int extra = 0;
+			for (int s = size >>> 7; s != 0; s >>>= 7)
+				extra++;
+			if (extra > 0) {
+				ensureCapacity(extra);
+				System.arraycopy(buffer, start + 1, buffer, start + 1 + extra, size);
+				length += extra;
+			}
+			int pos = start;
+			while ((size & ~0x7F) != 0) {
+				buffer[pos++] = (byte) ((size & 0x7F) | 0x80);
+				size >>>= 7;
+			}
+			buffer[pos] = (byte) size;
+		}
+
+		public byte[] toByteArray() {
+			return Arrays.copyOf(buffer, length);
+		}
+
+	}
+
+	/** Cursor for reading a record. */
+	protected static class Input {
+
+		protected final byte[] data;
+		protected int position;
+		protected char[] chars;
+
+		public Input(final byte[] data) {
+			this.data = data;
+		}
+
+		public long readVarint() {
+			long result = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				byte b = data[position++];
+				result |= (long) (b & 0x7F) << shift;
+				if (b >= 0)
+					return result;
+			}
+			throw new IllegalArgumentException("Malformed variable-length integer");
+		}
+
+		public long readNumber(int wireType) {
+			if (wireType != VARINT)
+				throw new IllegalArgumentException("Unexpected wire type " + wireType);
+			return readVarint();
+		}
+
+		/** Returns the text at the current position or null if there 
+		 *  is a null element. */
+		public String readText(int wireType) {
+			int size = readLength(wireType);
+			if (size < 0)
+				return null;
+
+			int end = position + size;
+			if (end > data.length)
+				throw new ArrayIndexOutOfBoundsException(end);
+			if (chars == null || chars.length < size)
+				chars = new char[Math.max(size, 64)];
+			char[] chars = this.chars;
+			byte[] data = this.data;
+			int n = 0;
+			int pos = position;
+			while (pos < end) {
+				int b = data[pos++];
+				if (b >= 0)
+					chars[n++] = (char) b;
+				else if ((b & 0xE0) == 0xC0)
+					chars[n++] = (char) (((b & 0x1F) << 6) | (data[pos++] & 0x3F));
+				else
+					chars[n++] = (char) (((b & 0x0F) << 12)
+							| ((data[pos++] & 0x3F) << 6) | (data[pos++] & 0x3F));
+			}
+			position = end;
+			return new String(chars, 0, n);
+		}
+
+		/** Returns the end position of the nested message at the current 
+		 *  position or -1 if there is a null element. */
+		public int readMessage(int wireType) {
+			int size = readLength(wireType);
+			return (size < 0 ? -1 : position + size);
+		}
+
+		protected int readLength(int wireType) {
+			if (wireType == VARINT) {
+				if (readVarint() != 0)
+					throw new IllegalArgumentException("Malformed null element");
+				return -1;
+			}
+			if (wireType != LENGTH_DELIMITED)
+				throw new IllegalArgumentException("Unexpected wire type " + wireType);
+
+			long result = readVarint();
+			if (result > data.length - position)
+				throw new IllegalArgumentException("Malformed length " + result);
+			return (int) result;
+		}
+
+		/** Skips a field of an unknown number. */
+		public void skip(int wireType) {
+			if (wireType == VARINT)
+				readVarint();
+			else {
+				int size = readLength(wireType);
+				position += size;
+			}
+		}
+
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import com.sleepycat.persist.model.Entity;
 import com.sleepycat.persist.model.PrimaryKey;
@@ -62,6 +63,7 @@ public class WiktionaryPage implements IWiktionaryPage {
 	protected String redirectTarget;
 	
 	protected List<WiktionaryEntry> entries;
+	protected transient Supplier<List<WiktionaryEntry>> entryLoader;
 
 	/** Instanciates a new, empty page. */
 	public WiktionaryPage() {
@@ -72,8 +74,33 @@ public class WiktionaryPage implements IWiktionaryPage {
 	
 	/** Initialize the page and all of its entries. */
 	public void init() {
-		for (WiktionaryEntry entry : entries)
-			entry.init(this);
+		if (entries != null)
+			for (WiktionaryEntry entry : entries)
+				entry.init(this);
+	}
+
+	/** Defers loading the entries of this page until they are first 
+	 *  accessed. This is used if the entries are not stored along with 
+	 *  the page itself. */
+	protected synchronized void setEntryLoader(final Supplier<List<WiktionaryEntry>> entryLoader) {
+		this.entries = null;
+		this.entryLoader = entryLoader;
+	}
+
+	/** Returns the entries of this page and loads them if necessary. The
+	 *  method is synchronized, since a lazily loaded page may be shared 
+	 *  by multiple threads (e.g., through a {@link WiktionaryPageCache}); 
+	 *  the entries are only published after being attached to the page. */
+	protected synchronized List<WiktionaryEntry> loadEntries() {
+		if (entries == null) {
+			List<WiktionaryEntry> loaded = (entryLoader == null 
+					? new ArrayList<>() : entryLoader.get());
+			for (WiktionaryEntry entry : loaded)
+				entry.init(this);
+			entries = loaded;
+			entryLoader = null;
+		}
+		return entries;
 	}
 
 	/** Factory method for creating a new entry. */
@@ -185,26 +212,27 @@ public class WiktionaryPage implements IWiktionaryPage {
 	
 	/** Add the given entry to the list of senses. */
 	public void addEntry(WiktionaryEntry entry) {
+		List<WiktionaryEntry> entries = loadEntries();
 		entry.index = entries.size();
 		entry.setId(entry.getIndex());
 		entries.add(entry);
 	}
 	
 	public WiktionaryEntry getEntry(int index) {
-		return entries.get(index);
+		return loadEntries().get(index);
 	}
 	
 	public int getEntryCount() {
-		return entries.size();
+		return loadEntries().size();
 	}
 	
 	public List<? extends IWiktionaryEntry> getEntries() {
-		return entries;
+		return loadEntries();
 	}
 	
 	/** Internal interface that is used by the parsers. */
 	public List<WiktionaryEntry> entries()  {
-		return entries;
+		return loadEntries();
 	}
 	
 	@Override
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.api.entry;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.tudarmstadt.ukp.jwktl.api.IWikiString;
+
+/**
+ * Bounded cache of initialized {@link WiktionaryPage}s that avoids
+ * deserializing frequently requested pages again and again. The cache
+ * evicts the least recently used pages as soon as either the maximum
+ * number of pages or the maximum estimated size (in bytes) is exceeded.
+ * The cache is thread-safe and keeps statistics on the number of hits,
+ * misses, and evictions. Use
+ * {@link BerkeleyDBWiktionaryEdition#setPageCache(WiktionaryPageCache)}
+ * to activate the cache for a certain Wiktionary edition. Note that the
+ * cached pages are shared by all callers and thus must not be modified.
+ */
+public class WiktionaryPageCache {
+
+	protected final int maxPages;
+	protected final long maxBytes;
+
+	protected final LinkedHashMap<Long, WiktionaryPage> pages;
+	protected final Map<Long, Long> pageSizes;
+	protected final Map<String, Long> pageIdByTitle;
+	protected long estimatedBytes;
+
+	protected long hitCount;
+	protected long missCount;
+	protected long evictionCount;
+
+	/** Creates a cache holding at most the given number of pages. */
+	public WiktionaryPageCache(int maxPages) {
+		this(maxPages, 0);
+	}
+
+	/** Creates a cache holding at most the given number of pages and
+	 *  the given estimated number of bytes. Use 0 to leave either of the
+	 *  two limits unbounded. */
+	public WiktionaryPageCache(int maxPages, long maxBytes) {
+		if (maxPages < 0 || maxBytes < 0)
+			throw new IllegalArgumentException("Cache limits must not be negative");
+		if (maxPages == 0 && maxBytes == 0)
+			throw new IllegalArgumentException("At least one cache limit required");
+
+		this.maxPages = maxPages;
+		this.maxBytes = maxBytes;
+		pages = new LinkedHashMap<>(16, 0.75f, true);
+		pageSizes = new HashMap<>();
+		pageIdByTitle = new HashMap<>();
+	}
+
+	/** Returns the cached page with the given ID or <code>null</code> if
+	 *  there is no such page in the cache. */
+	public synchronized WiktionaryPage get(long pageId) {
+		WiktionaryPage result = pages.get(pageId);
+		if (result != null)
+			hitCount++;
+		else
+			missCount++;
+		return result;
+	}
+
+	/** Returns the cached page with the given title or <code>null</code>
+	 *  if there is no such page in the cache. */
+	public synchronized WiktionaryPage getByTitle(final String title) {
+		Long pageId = pageIdByTitle.get(title);
+		if (pageId == null) {
+			missCount++;
+			return null;
+		}
+		return get(pageId);
+	}
+
+	/** Adds the given page to the cache and evicts the least recently
+	 *  used pages if necessary. */
+	public synchronized void put(final WiktionaryPage page) {
+		invalidate(page.getId());
+		long size = estimateSize(page);
+		pages.put(page.getId(), page);
+		pageSizes.put(page.getId(), size);
+		if (page.getTitle() != null)
+			pageIdByTitle.put(page.getTitle(), page.getId());
+		estimatedBytes += size;
+
+		Iterator<WiktionaryPage> iter = pages.values().iterator();
+		while (pages.size() > 1 && isFull() && iter.hasNext()) {
+			WiktionaryPage eldest = iter.next();
+			iter.remove();
+			removed(eldest);
+			evictionCount++;
+		}
+	}
+
+	/** Removes the page with the given ID from the cache. */
+	public synchronized void invalidate(long pageId) {
+		WiktionaryPage page = pages.remove(pageId);
+		if (page != null)
+			removed(page);
+	}
+
+	/** Removes all pages from the cache. The statistics are retained. */
+	public synchronized void clear() {
+		pages.clear();
+		pageSizes.clear();
+		pageIdByTitle.clear();
+		estimatedBytes = 0;
+	}
+
+	protected boolean isFull() {
+		return (maxPages > 0 && pages.size() > maxPages)
+				|| (maxBytes > 0 && estimatedBytes > maxBytes);
+	}
+
+	protected void removed(final WiktionaryPage page) {
+		Long size = pageSizes.remove(page.getId());
+		if (size != null)
+			estimatedBytes -= size;
+		if (page.getTitle() != null)
+			pageIdByTitle.remove(page.getTitle(), page.getId());
+	}
+
+	/** Returns a rough estimate of the memory (in bytes) occupied by the
+	 *  given page. */
+	protected long estimateSize(final WiktionaryPage page) {
+		return estimatePageSize(page);
+	}
+
+	/** Returns a rough estimate of the memory (in bytes) occupied by the
+	 *  given page, which is based on the number and length of its
+	 *  elements. */
+	public static long estimatePageSize(final WiktionaryPage page) {
+		long result = 256 + estimateSize(page.getTitle());
+		for (WiktionaryEntry entry : page.entries()) {
+			result += 256 + 64 * size(entry.getWordForms());
+			for (WiktionarySense sense : entry.senses()) {
+				result += 128 + estimateSize(sense.getGloss());
+				result += 96 * (size(sense.getExamples())
+						+ size(sense.getQuotations())
+						+ size(sense.getRelations())
+						+ size(sense.getTranslations()));
+			}
+		}
+		return result;
+	}
+
+	private static long estimateSize(final IWikiString text) {
+		return (text == null ? 0 : estimateSize(text.getText()));
+	}
+
+	private static long estimateSize(final String text) {
+		return (text == null ? 0 : 40 + 2L * text.length());
+	}
+
+	private static int size(final List<?> list) {
+		return (list == null ? 0 : list.size());
+	}
+
+
+	// -- Statistics --
+
+	/** Returns the number of cached pages. */
+	public synchronized int size() {
+		return pages.size();
+	}
+
+	/** Returns the estimated memory (in bytes) of the cached pages. */
+	public synchronized long getEstimatedBytes() {
+		return estimatedBytes;
+	}
+
+	/** Returns the number of requests answered from the cache. */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/** Returns the number of requests that could not be answered from
+	 *  the cache. */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/** Returns the number of pages removed to satisfy the cache limits. */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/** Returns the ratio of requests answered from the cache. */
+	public synchronized double getHitRate() {
+		long requests = hitCount + missCount;
+		return (requests == 0 ? 0.0 : (double) hitCount / requests);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return getClass().getSimpleName() + "[pages=" + pages.size()
+				+ ", bytes=" + estimatedBytes + ", hits=" + hitCount
+				+ ", misses=" + missCount + ", evictions=" + evictionCount + "]";
+	}
+
+}
@@ -20,8 +20,9 @@ package de.tudarmstadt.ukp.jwktl.api.util;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * Implementation of the {@link ILanguage} interface. This class should
@@ -105,81 +106,174 @@ public class Language implements ILanguage {
 	/** The Russian language. */
 	public static final ILanguage RUSSIAN = get("rus");
 	
-	private static boolean initialized;
-	private static Map<String, ILanguage> languageIndex;
-	private static Map<String, String> additionalCodeIndex;
-	private static Map<String, String> additionalNameIndex;
-	
-	// Avoid two threads interleaving!
-	private static synchronized void initialize() {
-		if (initialized)
-			return;
-		
-		languageIndex = new TreeMap<>();
-		additionalCodeIndex = new TreeMap<>();
-		additionalNameIndex = new TreeMap<>();
-		
-		try {
+	/** Immutable index of all registered languages, which is loaded once
+	 *  the first language is requested (initialization-on-demand holder).
+	 *  After that, all lookups are lock-free. */
+	private static final class Registry {
+
+		static final Map<String, ILanguage> LANGUAGES;
+		static final Map<String, ILanguage> CODES;
+		static final NameIndex NAMES;
+
+		static {
+			Map<String, ILanguage> languages = new HashMap<>(16384);
+			Map<String, ILanguage> codes = new HashMap<>(32768);
+			NameIndex names = new NameIndex(16384);
 			try (BufferedReader reader = new BufferedReader(new InputStreamReader(
 					Language.class.getResourceAsStream("language_codes.txt"), "UTF-8"))) {
 				String line;
-				while ((line = reader.readLine()) != null) {
-					// Extract the fields.
-					String[] fields = new String[8];
-					int i;
-					int idx = 0;
-					do {
-						i = line.indexOf('\t');
-						if (i >= 0) {
-							fields[idx++] = line.substring(0, i);
-							line = line.substring(i + 1);
-						}
-					} while (i >= 0);
-					if (idx < 0)
-						continue;
-					fields[idx] = line;
-
-					// Save the main language entry.
-					ILanguage language = new Language(fields[0], fields[1],
-							fields[2], fields[3], fields[4], fields[5]);
-					languageIndex.put(language.getCode(), language);
-					additionalCodeIndex.put(language.getCode(), language.getCode());
-					additionalNameIndex.put(language.getName().toLowerCase(), language.getCode());
-
-					// Save additional language codes.
-					String additionalCodes = fields[6];
-					if (!additionalCodes.isEmpty()) {
-						do {
-							i = additionalCodes.indexOf(';');
-							if (i >= 0) {
-								String addCode = additionalCodes.substring(0, i);
-								additionalCodeIndex.put(addCode, language.getCode());
-								additionalCodes = additionalCodes.substring(i + 1);
-							}
-						} while (i >= 0);
-						additionalCodeIndex.put(additionalCodes, language.getCode());
-					}
-
-					// Save additional language names.
-					String additionalNames = fields[7];
-					if (!additionalNames.isEmpty()) {
-						do {
-							i = additionalNames.indexOf(';');
-							if (i >= 0) {
-								String addName = additionalNames.substring(0, i);
-								additionalNameIndex.put(addName.toLowerCase(), language.getCode());
-								additionalNames = additionalNames.substring(i + 1);
-							}
-						} while (i >= 0);
-						additionalNameIndex.put(additionalNames.toLowerCase(), language.getCode());
-					}
+				while ((line = reader.readLine()) != null)
+					addLanguage(line, languages, codes, names);
+			} catch (IOException e) {
+				throw new RuntimeException("Unable to load language code index", e);
+			}
+			LANGUAGES = Collections.unmodifiableMap(languages);
+			CODES = Collections.unmodifiableMap(codes);
+			NAMES = names;
+		}
+
+		// Parsing a line is kept out of the static initializer, which would
+		// otherwise run in interpreted mode for the whole file.
+		private static void addLanguage(final String line,
+				final Map<String, ILanguage> languages,
+				final Map<String, ILanguage> codes, final NameIndex names) {
+			// Extract the fields.
+			String[] fields = new String[8];
+			int idx = 0;
+			int start = 0;
+			int end;
+			while (idx < fields.length - 1 && (end = line.indexOf('\t', start)) >= 0) {
+				fields[idx++] = line.substring(start, end);
+				start = end + 1;
+			}
+			fields[idx] = line.substring(start);
+			while (++idx < fields.length)
+				fields[idx] = "";
+
+			// Save the main language entry.
+			ILanguage language = new Language(fields[0], fields[1],
+					fields[2], fields[3], fields[4], fields[5]);
+			ILanguage previous = languages.put(language.getCode(), language);
+			if (previous != null) {
+				// A redefined code replaces the language everywhere.
+				for (Map.Entry<String, ILanguage> entry : codes.entrySet())
+					if (entry.getValue() == previous)
+						entry.setValue(language);
+				names.replace(previous, language);
+			}
+			codes.put(language.getCode(), language);
+			names.put(language.getName(), language);
+
+			// Save additional language codes and names.
+			String additionalCodes = fields[6];
+			if (!additionalCodes.isEmpty()) {
+				start = 0;
+				while ((end = additionalCodes.indexOf(';', start)) >= 0) {
+					codes.put(additionalCodes.substring(start, end), language);
+					start = end + 1;
 				}
+				codes.put(additionalCodes.substring(start), language);
+			}
+			String additionalNames = fields[7];
+			if (!additionalNames.isEmpty()) {
+				start = 0;
+				while ((end = additionalNames.indexOf(';', start)) >= 0) {
+					names.put(additionalNames.substring(start, end), language);
+					start = end + 1;
+				}
+				names.put(additionalNames.substring(start), language);
+			}
+		}
+
+	}
+
+	/** Open addressing hash index of the language names. A name is looked
+	 *  up case-insensitively and ignoring leading and trailing whitespace
+	 *  without creating a normalized copy of it. The index is only modified
+	 *  while loading the {@link Registry}. */
+	private static final class NameIndex {
+
+		protected String[] keys;
+		protected ILanguage[] values;
+		protected int size;
+
+		NameIndex(int expectedSize) {
+			int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) * 2;
+			keys = new String[capacity];
+			values = new ILanguage[capacity];
+		}
+
+		/** Returns the language with the given name or <code>null</code>
+		 *  if there is no such language. */
+		ILanguage get(final String name) {
+			int start = 0;
+			int end = name.length();
+			while (start < end && name.charAt(start) <= ' ')
+				start++;
+			while (end > start && name.charAt(end - 1) <= ' ')
+				end--;
+			return values[indexOf(name, start, end)];
+		}
+
+		void put(final String name, final ILanguage language) {
+			String key = name.trim();
+			StringBuilder lowerCase = new StringBuilder(key.length());
+			for (int i = 0; i < key.length(); i++)
+				lowerCase.append(Character.toLowerCase(key.charAt(i)));
+			key = lowerCase.toString();
+
+			int idx = indexOf(key, 0, key.length());
+			if (keys[idx] == null) {
+				keys[idx] = key;
+				size++;
 			}
-			
-			initialized = true;
-		} catch (IOException e) {
-			throw new RuntimeException("Unable to load language code index", e);
+			values[idx] = language;
+			if (size * 2 > keys.length)
+				resize();
 		}
+
+		void replace(final ILanguage previous, final ILanguage language) {
+			for (int i = 0; i < values.length; i++)
+				if (values[i] == previous)
+					values[i] = language;
+		}
+
+		protected int indexOf(final String name, int start, int end) {
+			int hash = 0;
+			for (int i = start; i < end; i++)
+				hash = 31 * hash + Character.toLowerCase(name.charAt(i));
+			hash ^= (hash >>> 16);
+
+			int mask = keys.length - 1;
+			int idx = hash & mask;
+			while (keys[idx] != null && !matches(keys[idx], name, start, end))
+				idx = (idx + 1) & mask;
+			return idx;
+		}
+
+		protected static boolean matches(final String key, final String name,
+				int start, int end) {
+			if (key.length() != end - start)
+				return false;
+			for (int i = 0; i < key.length(); i++)
+				if (key.charAt(i) != Character.toLowerCase(name.charAt(start + i)))
+					return false;
+			return true;
+		}
+
+		protected void resize() {
+			String[] oldKeys = keys;
+			ILanguage[] oldValues = values;
+			keys = new String[oldKeys.length * 2];
+			values = new ILanguage[oldKeys.length * 2];
+			for (int i = 0; i < oldKeys.length; i++)
+				if (oldKeys[i] != null) {
+					int idx = indexOf(oldKeys[i], 0, oldKeys[i].length());
+					keys[idx] = oldKeys[i];
+					values[idx] = oldValues[i];
+				}
+		}
+
 	}
 
 	/** Returns the language with the given internal code. Note that the
@@ -188,16 +282,14 @@ public class Language implements ILanguage {
 	 *  unsure about your code. If no language could be found, 
 	 *  <code>null</code> is returned. */
 	public static ILanguage get(final String code) {
-		initialize();
-		return (code == null ? null : languageIndex.get(code));
+		return (code == null ? null : Registry.LANGUAGES.get(code));
 	}
 	
 	/** Find the language with the given code. The method checks both for the
 	 *  internal language codes and for any ISO 639 code. If no language 
 	 *  could be found, <code>null</code> is returned. */
 	public static ILanguage findByCode(final String code) {
-		initialize();
-		return get(additionalCodeIndex.get(code));
+		return (code == null ? null : Registry.CODES.get(code));
 	}
 	
 	/** Find the language with the given name. The method checks both for the
@@ -205,10 +297,7 @@ public class Language implements ILanguage {
 	 *  or spelling errors found in Wiktionary. If no language could be found,
 	 *  <code>null</code> is returned. */
 	public static ILanguage findByName(final String name) {
-		if (name == null)
-			return null;
-		initialize();
-		return get(additionalNameIndex.get(name.trim().toLowerCase()));
+		return (name == null ? null : Registry.NAMES.get(name));
 	}
 
 	/** Tests if the specified languages are equal. The method returns 
@@ -23,12 +23,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import de.tudarmstadt.ukp.jwktl.parser.util.StringUtils;
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateTokenizer.TokenType;
 
 /**
  * Static helper class for parsing wiki markup text that contains templates. 
  * The template parser identifies templates in the given wiki text and 
- * replaces them as specified by a {@link ITemplateHandler}. 
+ * replaces them as specified by a {@link ITemplateHandler}. Nested
+ * templates and links are considered part of the enclosing template;
+ * see {@link TemplateTokenizer}.
  * @author Christian M. Meyer
  */
 public /*static*/ class TemplateParser {
@@ -47,6 +49,9 @@ public /*static*/ class TemplateParser {
 		protected String name;
 		protected Map<String, String> namedParams;
 		protected List<String> numberedParams;
+		protected CharSequence source;
+		protected int paramsStart;
+		protected int paramsEnd;
 		
 		/** Creates a new template with the given name. */
 		public Template(final String name) {
@@ -54,6 +59,48 @@ public /*static*/ class TemplateParser {
 			namedParams = new LinkedHashMap<>();
 			numberedParams = new ArrayList<>();
 		}
+
+		/** Creates a template from the given range of the text (without 
+		 *  the braces). Only the name is extracted immediately; the 
+		 *  parameters are extracted upon their first access. */
+		protected Template(final CharSequence text, int from, int to) {
+			int nameEnd = TemplateTokenizer.indexOfTopLevel(text, '|', from, to);
+			if (nameEnd < 0) {
+				name = text.subSequence(from, to).toString();
+				namedParams = new LinkedHashMap<>();
+				numberedParams = new ArrayList<>();
+			} else {
+				name = text.subSequence(from, nameEnd).toString();
+				source = text;
+				paramsStart = nameEnd + 1;
+				paramsEnd = to;
+			}
+		}
+
+		protected void ensureParams() {
+			if (source == null)
+				return;
+
+			CharSequence text = source;
+			source = null;
+			namedParams = new LinkedHashMap<>();
+			numberedParams = new ArrayList<>();
+			int from = paramsStart;
+			while (true) {
+				int to = TemplateTokenizer.indexOfTopLevel(text, '|', from, paramsEnd);
+				if (to < 0)
+					to = paramsEnd;
+				int j = TemplateTokenizer.indexOfTopLevel(text, '=', from, to);
+				if (j >= 0)
+					addParam(text.subSequence(from, j).toString(),
+							text.subSequence(j + 1, to).toString());
+				else
+					addParam(text.subSequence(from, to).toString());
+				if (to == paramsEnd)
+					break;
+				from = to + 1;
+			}
+		}
 		
 		/** Returns the name of the template. */
 		public String getName() {
@@ -62,11 +109,13 @@ public /*static*/ class TemplateParser {
 
 		/** Add a numbered parameter with the given value. */
 		public void addParam(final String value) {
+			ensureParams();
 			numberedParams.add(value);
 		}
 
 		/** Add a named parameter with the given key and value. */
 		public void addParam(final String key, final String value) {
+			ensureParams();
 			if (namedParams.containsKey(key)) {
 				int suffix = 2;
 				while (namedParams.containsKey(key + suffix))
@@ -79,38 +128,45 @@ public /*static*/ class TemplateParser {
 		/** Return the numbered parameter with the given index or <code>null/<code> 
 		 *  if no such parameter exists. */
 		public String getNumberedParam(int idx) {
+			ensureParams();
 			return numberedParams.get(idx);
 		}
 		
 		/** Return the named parameter with the given key or <code>null/<code> 
 		 *  if no such parameter exists. */
 		public String getNamedParam(final String key) {
+			ensureParams();
 			return namedParams.get(key);
 		}
 
 		/** Iterate over all numbered parameters. */
 		public Iterable<String> getNumberedParams() {
+			ensureParams();
 			return numberedParams;
 		}
 		
 		/** Iterate over all named parameters. */
 		public Iterable<Entry<String, String>> getNamedParams() {
+			ensureParams();
 			return namedParams.entrySet();
 		}
 		
 		/** Returns the number of all parameters (including numbered and named
 		 *  paramters). */
 		public int getParamsCount() {
+			ensureParams();
 			return numberedParams.size() + namedParams.size();
 		}
 		
 		/** Returns number of all numbered parameters. */
 		public int getNumberedParamsCount() {
+			ensureParams();
 			return numberedParams.size();
 		}
 		
 		/** Returns number of all named parameters. */
 		public int getNamedParamsCount() {
+			ensureParams();
 			return namedParams.size();
 		}
 		
@@ -172,35 +228,30 @@ public /*static*/ class TemplateParser {
 	 *  using the specified template handler. */
 	public static String parse(final String wikiText, 
 			final ITemplateHandler handler) {
-		StringBuilder result = new StringBuilder();
-		String text = wikiText;
-		int startIdx;
-		do {
-			startIdx = text.indexOf("{{");
-			if (startIdx >= 0) {
-				result.append(text.substring(0, startIdx));
-				int endIdx = text.indexOf("}}", startIdx);
-				if (endIdx >= 0) {
-					boolean handled = false;
-					String templateText = text.substring(startIdx + 2, endIdx);
-					if (handler != null) {
-						Template template = parseTemplate(templateText);
-						if (template != null) {
-							String replacement = handler.handle(template);
-							if (replacement != null) {
-								result.append(replacement);
-								handled = true;
-							}
-						}
-					}
-					if (!handled)
-						result.append("{{").append(templateText).append("}}");
-					text = text.substring(endIdx + 2);
-				} else
-					text = text.substring(startIdx + 2);
+		if (handler == null || wikiText.indexOf("{{") < 0)
+			return wikiText;
+
+		StringBuilder result = new StringBuilder(wikiText.length());
+		TemplateTokenizer tokenizer = new TemplateTokenizer(wikiText);
+		while (tokenizer.next()) {
+			int start = tokenizer.getStart();
+			int end = tokenizer.getEnd();
+			if (tokenizer.getType() == TokenType.TEMPLATE) {
+				String replacement = handler.handle(tokenizer.getTemplate());
+				if (replacement != null) {
+					result.append(replacement);
+					continue;
+				}
+			} else
+			if (tokenizer.getType() == TokenType.LINK) {
+				// Substitute the templates within the link.
+				result.append("[[")
+						.append(parse(wikiText.substring(start + 2, end - 2), handler))
+						.append("]]");
+				continue;
 			}
-		} while (startIdx >= 0);
-		result.append(text);
+			result.append(wikiText, start, end);
+		}
 		return result.toString();
 	}
 
@@ -208,30 +259,7 @@ public /*static*/ class TemplateParser {
 	 *  template's name and parameters are extracted from the text and
 	 *  stored in the template instance. */
 	public static Template parseTemplate(final String templateText) {
-		// Split the template text to access the parameters.
-		String[] params = StringUtils.split(templateText, '|');
-		if (params.length < 1)
-			return null;
-		
-		Template result = new Template(params[0]);
-		int idx = -1;
-		for (String param : params) {
-			// Skip the template name.
-			if (idx < 0) {
-				idx++;
-				continue;
-			}
-			
-			// Check for named params.
-			int j = param.indexOf('=');
-			if (j >= 0) {
-				String key = param.substring(0, j);
-				String value = param.substring(j + 1);				
-				result.addParam(key, value);
-			} else
-				result.addParam(param);			
-		}
-		return result;
+		return new Template(templateText, 0, templateText.length());
 	}
 	
 	
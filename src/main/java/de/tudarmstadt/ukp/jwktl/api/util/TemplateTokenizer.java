@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.api.util;
+
+import java.util.Arrays;
+
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser.Template;
+
+/**
+ * Tokenizer for wiki markup text that splits the text into templates
+ * (<code>{{...}}</code>), links (<code>[[...]]</code>), and the plain text 
+ * between them. Nested templates and links are part of the enclosing token,
+ * and brackets without a matching counterpart are treated as plain text.
+ * The tokenizer is a cursor over the given text: use {@link #next()} to
+ * advance to the next token and the getter methods to access the current
+ * token. Strings and {@link Template}s are only created upon request. 
+ * The text is processed in linear time, even if it contains unbalanced 
+ * brackets. A tokenizer instance is not thread-safe.
+ */
+public class TemplateTokenizer {
+
+	/** The type of a token. */
+	public enum TokenType {
+		/** Plain text. */
+		TEXT,
+		/** A template, including its braces. */
+		TEMPLATE,
+		/** A wiki link, including its brackets. */
+		LINK
+	}
+
+	protected static final int TEMPLATE_MARKER = 0;
+	protected static final int LINK_MARKER = 1;
+
+	protected final CharSequence text;
+	protected final int length;
+	protected int position;
+	protected TokenType type;
+	protected int start;
+	protected int end;
+	protected Template template;
+
+	// Stack of the opening brackets (position * 2 + marker).
+	protected int[] stack;
+	// Closing position of each opening bracket after the first unbalanced
+	// one (0 if not closed); null as long as all brackets are balanced.
+	protected int[] closings;
+	protected int closingsOffset;
+	protected int pendingEnd;
+	protected TokenType pendingType;
+
+	/** Creates a tokenizer for the given text. */
+	public TemplateTokenizer(final CharSequence text) {
+		this.text = text;
+		this.length = text.length();
+		pendingEnd = -1;
+	}
+
+	/** Advances to the next token and returns true, or returns false if 
+	 *  the end of the text has been reached. */
+	public boolean next() {
+		template = null;
+		if (pendingEnd >= 0) {
+			// The token following a text token has already been identified.
+			type = pendingType;
+			start = position;
+			end = pendingEnd;
+			position = end;
+			pendingEnd = -1;
+			return true;
+		}
+		if (position >= length)
+			return false;
+
+		int i = position;
+		while (i < length - 1) {
+			char c = text.charAt(i);
+			if ((c == '{' || c == '[') && text.charAt(i + 1) == c) {
+				int close = findClosing(i);
+				if (close > 0) {
+					TokenType markupType = (c == '{' ? TokenType.TEMPLATE : TokenType.LINK);
+					if (i == position) {
+						type = markupType;
+						start = i;
+						end = close;
+						position = close;
+					} else {
+						type = TokenType.TEXT;
+						start = position;
+						end = i;
+						position = i;
+						pendingType = markupType;
+						pendingEnd = close;
+					}
+					return true;
+				}
+				i += 2;
+			} else
+				i++;
+		}
+		type = TokenType.TEXT;
+		start = position;
+		end = length;
+		position = length;
+		return true;
+	}
+
+	/** Returns the end position (exclusive) of the template or link 
+	 *  opened at the given position or 0 if it is not closed. */
+	protected int findClosing(int open) {
+		if (closings != null)
+			return closings[open - closingsOffset];
+
+		int result = scan(open, false);
+		if (result > 0)
+			return result;
+
+		// Index all brackets of the remaining text to avoid scanning
+		// the text again for each of the unbalanced brackets.
+		closings = new int[length - open];
+		closingsOffset = open;
+		scan(open, true);
+		return closings[0];
+	}
+
+	/** Pairs opening and closing brackets starting with the (opening) 
+	 *  bracket at the given position. Unless indexAll is true, the method 
+	 *  returns as soon as the first bracket has been closed. */
+	protected int scan(int from, boolean indexAll) {
+		if (stack == null)
+			stack = new int[8];
+		int depth = 0;
+		int openTemplates = 0;
+		int openLinks = 0;
+		int i = from;
+		while (i < length - 1) {
+			char c = text.charAt(i);
+			char d = text.charAt(i + 1);
+			if (c == d && (c == '{' || c == '[')) {
+				if (depth == stack.length)
+					stack = Arrays.copyOf(stack, depth * 2);
+				int marker = (c == '{' ? TEMPLATE_MARKER : LINK_MARKER);
+				stack[depth++] = i * 2 + marker;
+				if (marker == TEMPLATE_MARKER)
+					openTemplates++;
+				else
+					openLinks++;
+				i += 2;
+			} else
+			if (c == d && (c == '}' || c == ']')) {
+				int marker = (c == '}' ? TEMPLATE_MARKER : LINK_MARKER);
+				if ((marker == TEMPLATE_MARKER ? openTemplates : openLinks) == 0) {
+					i++;
+					continue;
+				}
+
+				// Discard unclosed brackets nested in the closed one.
+				int open;
+				do {
+					open = stack[--depth];
+					if (open % 2 == TEMPLATE_MARKER)
+						openTemplates--;
+					else
+						openLinks--;
+				} while (open % 2 != marker);
+				i += 2;
+				if (indexAll)
+					closings[open / 2 - closingsOffset] = i;
+				else
+				if (depth == 0)
+					return i;
+			} else
+				i++;
+		}
+		return 0;
+	}
+
+	/** Returns the type of the current token. */
+	public TokenType getType() {
+		return type;
+	}
+
+	/** Returns the start position of the current token. */
+	public int getStart() {
+		return start;
+	}
+
+	/** Returns the end position (exclusive) of the current token. */
+	public int getEnd() {
+		return end;
+	}
+
+	/** Returns the text of the current token, including the brackets
+	 *  of templates and links. */
+	public String getText() {
+		return text.subSequence(start, end).toString();
+	}
+
+	/** Returns the text of the current token without the brackets of 
+	 *  templates and links. */
+	public String getContent() {
+		if (type == TokenType.TEXT)
+			return getText();
+		else
+			return text.subSequence(start + 2, end - 2).toString();
+	}
+
+	/** Returns the current token as a {@link Template} or 
+	 *  <code>null</code> if it is not a template. The parameters of the 
+	 *  template are only extracted when they are accessed. */
+	public Template getTemplate() {
+		if (type != TokenType.TEMPLATE)
+			return null;
+		if (template == null)
+			template = new Template(text, start + 2, end - 2);
+		return template;
+	}
+
+	/** Returns the position of the first occurrence of the given character
+	 *  in the given range of the text that is not nested in a template or 
+	 *  link, or -1 if there is no such position. */
+	public static int indexOfTopLevel(final CharSequence text, char c, 
+			int from, int to) {
+		int templates = 0;
+		int links = 0;
+		for (int i = from; i < to; i++) {
+			char p = text.charAt(i);
+			if (i + 1 < to && p == text.charAt(i + 1)) {
+				if (p == '{') {
+					templates++;
+					i++;
+					continue;
+				} else
+				if (p == '[') {
+					links++;
+					i++;
+					continue;
+				} else
+				if (p == '}' && templates > 0) {
+					templates--;
+					i++;
+					continue;
+				} else
+				if (p == ']' && links > 0) {
+					links--;
+					i++;
+					continue;
+				}
+			}
+			if (p == c && templates == 0 && links == 0)
+				return i;
+		}
+		return -1;
+	}
+
+}
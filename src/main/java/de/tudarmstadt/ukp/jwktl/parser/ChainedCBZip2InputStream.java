@@ -44,11 +44,44 @@ class ChainedCBZip2InputStream extends InputStream {
 
 	@Override
 	public int read() throws IOException {
+		if (!openNextStream()) {
+			return -1;
+		}
+
+		final int read = currentBZ2Stream.read();
+		if (read == -1) {
+			currentBZ2Stream = null;
+			return read();
+		} else {
+			return read;
+		}
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (!openNextStream()) {
+			return -1;
+		}
+
+		final int read = currentBZ2Stream.read(buffer, offset, length);
+		if (read <= 0) {
+			currentBZ2Stream = null;
+			return read(buffer, offset, length);
+		} else {
+			return read;
+		}
+	}
+
+	// Make sure there is a current bz2 stream; returns false at EOF.
+	private boolean openNextStream() throws IOException {
 		if (currentBZ2Stream == null) {
 			final byte[] header = new byte[2];
 			final int headerBytes = underlying.read(header);
 			if (headerBytes == -1) {
-				return -1;
+				return false;
 			} else if (headerBytes != 2) {
 				throw new IOException("could not read header");
 			} else if (header[0] != 'B' || header[1] != 'Z') {
@@ -56,14 +89,7 @@ class ChainedCBZip2InputStream extends InputStream {
 			}
 			currentBZ2Stream = new CBZip2InputStream(underlying);
 		}
-
-		final int read = currentBZ2Stream.read();
-		if (read == -1) {
-			currentBZ2Stream = null;
-			return read();
-		} else {
-			return read;
-		}
+		return true;
 	}
 
 	@Override
@@ -33,4 +33,21 @@ public interface IWiktionaryMultistreamDumpParser extends IWiktionaryDumpParser
 	void parseMultistream(File multistreamDumpFile,
 						  File indexFile,
 						  MultistreamFilter filter) throws WiktionaryException;
+
+	/**
+	 * Parses a multistream XML dump file using multiple threads. The streams
+	 * selected by the filter are decompressed and parsed concurrently, while
+	 * the registered page parsers are notified on the calling thread in
+	 * the order of the dump file.
+	 *
+	 * @param multistreamDumpFile the dumpfile (<code>*-pages-articles-multistream.xml.bz2</code>)
+	 * @param indexFile           the matching index file (<code>*-pages-articles-multistream-index.txt.bz2</code>)
+	 * @param filter              the filter to use to constrain the parsed pages
+	 * @param threadCount         the number of threads used for parsing the streams
+	 * @throws de.tudarmstadt.ukp.jwktl.api.WiktionaryException
+	 */
+	void parseMultistream(File multistreamDumpFile,
+						  File indexFile,
+						  MultistreamFilter filter,
+						  int threadCount) throws WiktionaryException;
 }
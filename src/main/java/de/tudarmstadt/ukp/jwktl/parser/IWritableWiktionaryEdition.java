@@ -17,6 +17,8 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser;
 
+import java.util.Collection;
+
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEdition;
 import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
@@ -45,7 +47,40 @@ public interface IWritableWiktionaryEdition extends IWiktionaryEdition {
 	 *  in a database). */
 	void savePage(final WiktionaryPage page);
 
-	/** Force a database commit of the pages saved so far. */
+	/** Adds the given pages to the Wiktionary edition. Implementations 
+	 *  may use this method to optimize the insertion of many pages 
+	 *  (e.g., by storing them in the order of their database keys). */
+	default void savePages(final Collection<WiktionaryPage> pages) {
+		for (WiktionaryPage page : pages)
+			savePage(page);
+	}
+
+	/** Saves the given pages again after they have been modified (e.g.,
+	 *  when integrating the Wikisaurus relations). In contrast to 
+	 *  {@link #savePages(Collection)}, the pages are not saved in the 
+	 *  order of the dump file and thus do not indicate the parsing 
+	 *  progress. */
+	default void updatePages(final Collection<WiktionaryPage> pages) {
+		savePages(pages);
+	}
+
+	/** Returns true if the Wiktionary edition already contains the page
+	 *  with the given ID in the given revision, which allows for skipping 
+	 *  unchanged pages when updating a previously parsed edition. By 
+	 *  default, all pages are considered changed. */
+	default boolean isUpToDate(long pageId, long revision) {
+		return false;
+	}
+
+	/** Notifies the Wiktionary edition that the (unchanged) page with the
+	 *  given ID is still contained in the dump file. When updating a 
+	 *  previously parsed edition, pages that have been neither saved nor
+	 *  retained are removed. */
+	default void retainPage(long pageId) {}
+
+	/** Force a database commit of the pages saved so far. Implementations
+	 *  are expected to commit periodically on their own; this method is
+	 *  only required for enforcing an additional commit. */
 	void commit();
 	
 	/** Assigns the given language to the Wiktionary edition. */
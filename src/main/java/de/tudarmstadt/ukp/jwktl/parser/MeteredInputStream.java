@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import de.tudarmstadt.ukp.jwktl.parser.util.ImportMetrics;
+
+/**
+ * Input stream that reports the number of bytes read from the underlying
+ * (decompressing) stream and the time spent for reading them to the 
+ * given {@link ImportMetrics}.
+ */
+class MeteredInputStream extends FilterInputStream {
+
+	protected final ImportMetrics metrics;
+	protected long readNanos;
+
+	MeteredInputStream(final InputStream in, final ImportMetrics metrics) {
+		super(in);
+		this.metrics = metrics;
+	}
+
+	@Override
+	public int read() throws IOException {
+		long start = System.nanoTime();
+		int result = super.read();
+		record(result < 0 ? 0 : 1, System.nanoTime() - start);
+		return result;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		long start = System.nanoTime();
+		int result = super.read(b, off, len);
+		record(result, System.nanoTime() - start);
+		return result;
+	}
+
+	protected void record(int byteCount, long nanos) {
+		readNanos += nanos;
+		metrics.recordRead(byteCount, nanos);
+	}
+
+	/** Returns the time spent for reading from this stream so far. */
+	long getReadNanos() {
+		return readNanos;
+	}
+
+}
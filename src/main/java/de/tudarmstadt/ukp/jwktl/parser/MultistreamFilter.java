@@ -18,7 +18,9 @@
 package de.tudarmstadt.ukp.jwktl.parser;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @FunctionalInterface
 public interface MultistreamFilter {
@@ -27,14 +29,14 @@ public interface MultistreamFilter {
 
 	/** A filter which includes only page titles contained in  the specified list */
 	class IncludingNames implements MultistreamFilter {
-		private final List<String> pageNames;
+		private final Set<String> pageNames;
 
 		public IncludingNames(String... pageNames) {
 			this(Arrays.asList(pageNames));
 
 		}
 		public IncludingNames(List<String> pageNames) {
-			this.pageNames = pageNames;
+			this.pageNames = new HashSet<>(pageNames);
 		}
 
 		@Override
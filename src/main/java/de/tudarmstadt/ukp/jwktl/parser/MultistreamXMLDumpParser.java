@@ -17,6 +17,7 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -26,11 +27,25 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
 import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import org.apache.tools.bzip2.CBZip2InputStream;
 
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+
 /**
  * A parser which can deal with MediaWiki multistreams.
  *
@@ -43,6 +58,8 @@ import org.apache.tools.bzip2.CBZip2InputStream;
  *  ...
  * </pre>
  * The actual parsing is delegated to a standard {@link XMLDumpParser}.
+ * Alternatively, the streams can be parsed concurrently by a number of
+ * worker threads, each using its own file channel and XML parser.
  */
 class MultistreamXMLDumpParser {
 	private static final Logger logger = Logger.getLogger(MultistreamXMLDumpParser.class.getName());
@@ -72,6 +89,81 @@ class MultistreamXMLDumpParser {
 		}
 	}
 
+	/** Parses the streams selected by the filter concurrently using the
+	 *  given number of worker threads. Each stream is parsed by a new
+	 *  parser obtained from chunkParserFactory. The parsed chunks are passed
+	 *  to the chunkConsumer on the calling thread in the order of their
+	 *  offsets, which allows for merging the results without additional
+	 *  synchronization. */
+	public <T extends XMLDumpParser> void parseMultistream(File dumpFile,
+			File indexFile, MultistreamFilter filter, int threadCount,
+			Supplier<T> chunkParserFactory, Consumer<T> chunkConsumer) throws IOException {
+		parse(dumpFile, collectOffsets(indexFile, filter), threadCount,
+				chunkParserFactory, chunkConsumer);
+	}
+
+	protected <T extends XMLDumpParser> void parse(final File dumpFile,
+			TreeSet<Long> offsets, int threadCount,
+			final Supplier<T> chunkParserFactory,
+			final Consumer<T> chunkConsumer) throws IOException {
+		if (offsets.isEmpty()) {
+			throw new IOException("no valid offsets");
+		}
+		offsets.add(0L); // make sure header / siteInfo gets parsed
+
+		// Limit the number of parsed chunks waiting for the consumer.
+		final int maxPending = 2 * threadCount;
+		ExecutorService workers = Executors.newFixedThreadPool(threadCount,
+				ParallelWiktionaryArticleParser.createThreadFactory("jwktl-multistream-"));
+		try {
+			Deque<Future<T>> pending = new ArrayDeque<>(maxPending);
+			Iterator<Long> iter = offsets.iterator();
+			while (iter.hasNext() || !pending.isEmpty()) {
+				while (iter.hasNext() && pending.size() < maxPending) {
+					final long offset = iter.next();
+					pending.add(workers.submit(() ->
+							parseChunk(dumpFile, offset, chunkParserFactory.get())));
+				}
+				chunkConsumer.accept(awaitChunk(pending.poll()));
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+	private <T extends XMLDumpParser> T parseChunk(final File dumpFile,
+			long offset, final T chunkParser) throws IOException {
+		logger.fine("parsing contents at offset " + offset);
+		try (FileChannel channel = FileChannel.open(dumpFile.toPath(), StandardOpenOption.READ)) {
+			if (offset + 2 >= channel.size()) {
+				throw new IOException("read past EOF");
+			}
+			channel.position(offset + 2); // skip past 'BZ' header
+			InputStream is = new CBZip2InputStream(
+					new BufferedInputStream(Channels.newInputStream(channel)));
+			chunkParser.parseStream(wrapStream(is, offset));
+		}
+		return chunkParser;
+	}
+
+	private static <T> T awaitChunk(final Future<T> chunk) throws IOException {
+		try {
+			return chunk.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WiktionaryException("Interrupted while parsing multistream", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new WiktionaryException(cause);
+			}
+		}
+	}
+
 	protected TreeSet<Long> collectOffsets(File indexFile, MultistreamFilter filter) throws IOException {
 		logger.fine("parsing index file " + indexFile);
 		BufferedReader bufferedReader = null;
@@ -110,6 +202,11 @@ class MultistreamXMLDumpParser {
 			public void close() throws IOException {
 			}
 		});
+		return wrapStream(is, offset);
+	}
+
+	// Embed the stream's pages into a complete XML document.
+	private static InputStream wrapStream(final InputStream is, long offset) {
 		if (offset == 0) {
 			return new SequenceInputStream(is, new ByteArrayInputStream(MEDIAWIKI_CLOSING.getBytes()));
 		} else {
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Dump parser that collects the raw page records of a part of an XML dump
+ * without notifying any {@link IWiktionaryPageParser}s. The collected
+ * records can then be passed to another {@link WiktionaryDumpParser} using
+ * {@link WiktionaryDumpParser#replay(PageRecordCollector)}. This allows for
+ * reading multiple parts of a dump concurrently, while processing the pages
+ * on a single thread.
+ */
+class PageRecordCollector extends WiktionaryDumpParser {
+
+	/** The raw information of a single page. */
+	static class PageRecord {
+
+		protected Long pageId;
+		protected String title;
+		protected Long revision;
+		protected boolean hasTimestamp;
+		protected Date timestamp;
+		protected String author;
+		protected String text;
+
+	}
+
+	protected String baseURL;
+	protected List<String> namespaces;
+	protected boolean siteInfoComplete;
+	protected List<PageRecord> pages;
+	protected PageRecord current;
+
+	/** Creates a new collector without any registered page parsers. */
+	public PageRecordCollector() {
+		namespaces = new ArrayList<>();
+		pages = new ArrayList<>();
+	}
+
+	@Override
+	protected void onParserStart() {
+		inPage = false;
+	}
+
+	@Override
+	protected void onParserEnd() {}
+
+	@Override
+	protected void onSiteInfoComplete() {
+		siteInfoComplete = true;
+	}
+
+	@Override
+	protected void setBaseURL(final String baseURL) {
+		this.baseURL = baseURL;
+	}
+
+	@Override
+	protected void addNamespace(final String namespace) {
+		namespaces.add(namespace);
+	}
+
+	@Override
+	protected void onPageStart() {
+		current = new PageRecord();
+	}
+
+	@Override
+	protected void onPageEnd() {
+		pages.add(current);
+		current = null;
+	}
+
+	@Override
+	protected void setPageId(long pageId) {
+		current.pageId = pageId;
+	}
+
+	@Override
+	protected void setTitle(final String title) {
+		// The namespace is resolved when replaying the record.
+		current.title = title;
+	}
+
+	@Override
+	protected void setRevision(long revisionId) {
+		current.revision = revisionId;
+	}
+
+	@Override
+	protected void setTimestamp(final Date timestamp) {
+		current.hasTimestamp = true;
+		current.timestamp = timestamp;
+	}
+
+	@Override
+	protected void setAuthor(final String author) {
+		current.author = author;
+	}
+
+	@Override
+	protected void setText(final String text) {
+		current.text = text;
+	}
+
+	/** Returns the collected page records. */
+	public List<PageRecord> getPages() {
+		return pages;
+	}
+
+}
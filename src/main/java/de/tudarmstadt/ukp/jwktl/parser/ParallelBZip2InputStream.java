@@ -0,0 +1,450 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.tools.bzip2.CBZip2InputStream;
+
+/**
+ * An input stream which decompresses bzip2 data using multiple threads.
+ * The compressed input is scanned for the boundaries of the bzip2 blocks,
+ * which are repackaged into independent single-block bzip2 streams and
+ * decoded on a thread pool. The decompressed blocks are returned in their
+ * original order, so the result is identical to a sequential
+ * decompression using {@link ChainedCBZip2InputStream}. Concatenated
+ * bzip2 streams (e.g., the multistream dumps) are supported. Since the
+ * block magic may also occur within the compressed data, the CRC of each
+ * decoded block is verified; blocks failing the check are merged with
+ * their successors until the CRC matches. The combined CRC of each
+ * stream is verified as well.
+ */
+class ParallelBZip2InputStream extends InputStream {
+
+	protected static final long BLOCK_MAGIC = 0x314159265359L;
+	protected static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+	protected static final long MAGIC_MASK = 0xFFFFFFFFFFFFL;
+
+	/** Lookup table of the (non-reflected) CRC-32 used by bzip2. */
+	protected static final int[] CRC_TABLE = new int[256];
+	static {
+		for (int i = 0; i < 256; i++) {
+			int crc = i << 24;
+			for (int j = 0; j < 8; j++)
+				crc = (crc < 0 ? (crc << 1) ^ 0x04C11DB7 : crc << 1);
+			CRC_TABLE[i] = crc;
+		}
+	}
+
+	/** Compressed bits of a single bzip2 block. */
+	protected static class Block {
+
+		protected byte[] data;
+		protected long bitLength;
+		protected int level;
+		protected int crc;
+		protected boolean lastInStream;
+		protected int streamCrc;
+		protected Future<byte[]> result;
+
+		public Block(int level) {
+			this.level = level;
+			data = new byte[64 * 1024];
+		}
+
+		public void writeBit(int bit) {
+			int idx = (int) (bitLength >>> 3);
+			if (idx >= data.length)
+				data = Arrays.copyOf(data, data.length * 2);
+			if (bit != 0)
+				data[idx] |= 0x80 >>> (int) (bitLength & 7);
+			bitLength++;
+		}
+
+		public void writeBits(long value, int count) {
+			for (int i = count - 1; i >= 0; i--)
+				writeBit((int) (value >>> i) & 1);
+		}
+
+		/** Appends the bits of the given block. */
+		public void append(final Block block) {
+			if ((bitLength & 7) == 0) {
+				// Byte-aligned; unused trailing bits are always zero.
+				int offset = (int) (bitLength >>> 3);
+				int length = (int) ((block.bitLength + 7) >>> 3);
+				if (offset + length > data.length)
+					data = Arrays.copyOf(data, Math.max(offset + length, data.length * 2));
+				System.arraycopy(block.data, 0, data, offset, length);
+				bitLength += block.bitLength;
+				return;
+			}
+
+			for (long i = 0; i < block.bitLength; i++)
+				writeBit((block.data[(int) (i >>> 3)] >>> (7 - (int) (i & 7))) & 1);
+		}
+
+		/** Encodes the block as a self-contained bzip2 stream without the
+		 *  leading "BZ" signature, as expected by {@link CBZip2InputStream}. */
+		public byte[] toStream() {
+			Block result = new Block(level);
+			result.writeBits('h', 8);
+			result.writeBits('0' + level, 8);
+			result.append(this);
+			result.writeBits(END_OF_STREAM_MAGIC, 48);
+			// The combined CRC of a single-block stream is the block CRC.
+			result.writeBits(crc & 0xFFFFFFFFL, 32);
+			return Arrays.copyOf(result.data, (int) ((result.bitLength + 7) >>> 3));
+		}
+
+	}
+
+	protected final InputStream underlying;
+	protected final ExecutorService executor;
+	protected final int maxPendingBlocks;
+	protected final Deque<Block> pendingBlocks;
+
+	protected final byte[] inBuffer;
+	protected int inPos;
+	protected int inLimit;
+	protected int bitBuffer;
+	protected int bitCount;
+	protected int level;
+	protected long pendingMagic;
+	protected boolean endOfInput;
+
+	protected int combinedCrc;
+	protected byte[] current;
+	protected int currentPos;
+	protected boolean closed;
+
+	/** Creates a parallel bzip2 input stream for the given file using the
+	 *  specified number of decompression threads. */
+	public ParallelBZip2InputStream(final File input, int threadCount)
+			throws FileNotFoundException {
+		this(new FileInputStream(input), threadCount);
+	}
+
+	/** Creates a parallel bzip2 input stream for the given compressed data
+	 *  using the specified number of decompression threads. */
+	public ParallelBZip2InputStream(final InputStream input, int threadCount) {
+		if (threadCount < 1)
+			throw new IllegalArgumentException("At least one thread required");
+
+		this.underlying = input;
+		this.executor = Executors.newFixedThreadPool(threadCount,
+				ParallelWiktionaryArticleParser.createThreadFactory("jwktl-bzip2-"));
+		this.maxPendingBlocks = 2 * threadCount;
+		this.pendingBlocks = new ArrayDeque<>();
+		this.inBuffer = new byte[64 * 1024];
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureData())
+			return -1;
+
+		return current[currentPos++] & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0)
+			return 0;
+		if (!ensureData())
+			return -1;
+
+		int count = Math.min(length, current.length - currentPos);
+		System.arraycopy(current, currentPos, buffer, offset, count);
+		currentPos += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return (current == null ? 0 : current.length - currentPos);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+
+		closed = true;
+		executor.shutdownNow();
+		pendingBlocks.clear();
+		current = null;
+		underlying.close();
+	}
+
+	/** Makes sure that the current buffer contains unread data. Returns
+	 *  false if the end of the input has been reached. */
+	protected boolean ensureData() throws IOException {
+		if (closed)
+			throw new IOException("Stream closed");
+
+		while (current == null || currentPos >= current.length) {
+			fillPendingBlocks();
+			Block block = pendingBlocks.poll();
+			if (block == null)
+				return false;
+
+			current = decode(block);
+			currentPos = 0;
+		}
+		return true;
+	}
+
+	/** Retrieves the decompressed data of the given block. If the block
+	 *  cannot be decoded or fails the CRC check, its end has been a false
+	 *  positive match of the block magic within the compressed data; in 
+	 *  this case, the block is merged with its successors until it can be
+	 *  decoded. */
+	protected byte[] decode(final Block block) throws IOException {
+		byte[] result = null;
+		Throwable cause;
+		try {
+			result = block.result.get();
+			cause = null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while decompressing", e);
+		} catch (ExecutionException e) {
+			cause = e.getCause();
+		}
+
+		while (result == null) {
+			fillPendingBlocks();
+			Block next = pendingBlocks.peek();
+			if (block.lastInStream || next == null || next.level != block.level)
+				throw new IOException("Unable to decompress bzip2 block", cause);
+
+			pendingBlocks.poll();
+			next.result.cancel(true);
+			block.append(next);
+			block.lastInStream = next.lastInStream;
+			block.streamCrc = next.streamCrc;
+			try {
+				result = decodeBlock(block);
+			} catch (IOException | RuntimeException e) {
+				cause = e;
+			}
+		}
+
+		combinedCrc = ((combinedCrc << 1) | (combinedCrc >>> 31)) ^ block.crc;
+		if (block.lastInStream) {
+			if (combinedCrc != block.streamCrc)
+				throw new IOException("bz2 stream CRC mismatch");
+			combinedCrc = 0;
+		}
+		return result;
+	}
+
+	/** Scans the compressed input for further blocks and submits them for
+	 *  decompression until enough blocks are pending. */
+	protected void fillPendingBlocks() throws IOException {
+		while (pendingBlocks.size() < maxPendingBlocks) {
+			Block block = scanBlock();
+			if (block == null)
+				return;
+
+			block.result = executor.submit(() -> decodeBlock(block));
+			pendingBlocks.add(block);
+		}
+	}
+
+	/** Decompresses the given block and verifies its CRC. The 
+	 *  {@link CBZip2InputStream} only reports CRC errors on the console,
+	 *  so the check is required for detecting invalid blocks. */
+	protected static byte[] decodeBlock(final Block block) throws IOException {
+		byte[] stream = block.toStream();
+		ByteArrayOutputStream result = new ByteArrayOutputStream(stream.length * 8);
+		try (InputStream in = new CBZip2InputStream(new ByteArrayInputStream(stream))) {
+			byte[] buffer = new byte[64 * 1024];
+			int n;
+			while ((n = in.read(buffer, 0, buffer.length)) > 0)
+				result.write(buffer, 0, n);
+		}
+		byte[] data = result.toByteArray();
+		if (computeCrc(data) != block.crc)
+			throw new IOException("bz2 block CRC mismatch");
+		return data;
+	}
+
+	/** Returns the bzip2 CRC of the given data. */
+	protected static int computeCrc(final byte[] data) {
+		int crc = 0xFFFFFFFF;
+		for (byte b : data)
+			crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ b) & 0xFF];
+		return ~crc;
+	}
+
+	// -- Scanner --
+
+	/** Reads the next block from the compressed input. The returned block
+	 *  starts with the block magic and ends before the next block or
+	 *  end of stream marker. Returns <code>null</code> at the end of
+	 *  the input. */
+	protected Block scanBlock() throws IOException {
+		if (endOfInput)
+			return null;
+
+		// Expect a block or end of stream marker.
+		long magic;
+		do {
+			if (level == 0 && !readStreamHeader()) {
+				endOfInput = true;
+				return null;
+			}
+
+			magic = (pendingMagic != 0 ? pendingMagic : readBits(48));
+			pendingMagic = 0;
+			if (magic == END_OF_STREAM_MAGIC) {
+				readBits(32); // Combined CRC.
+				bitCount = 0; // Streams are byte-aligned.
+				level = 0;
+			} else
+			if (!isBlockMagic(magic))
+				throw new IOException("invalid bz2 block header");
+		} while (magic == END_OF_STREAM_MAGIC);
+
+		Block result = new Block(level);
+		result.writeBits(magic, 48);
+		result.crc = (int) readBits(32);
+		result.writeBits(result.crc & 0xFFFFFFFFL, 32);
+
+		// Copy the block contents until the next marker.
+		long window = 0;
+		int windowBits = 0;
+		while (true) {
+			int bit = readBit();
+			if (bit < 0)
+				throw new IOException("unexpected end of bz2 stream");
+
+			int out = (int) (window >>> 47) & 1;
+			window = ((window << 1) | bit) & MAGIC_MASK;
+			if (++windowBits > 48)
+				result.writeBit(out);
+
+			if (windowBits >= 48 && isBlockMagic(window)) {
+				pendingMagic = window;
+				return result;
+			}
+			if (windowBits >= 48 && window == END_OF_STREAM_MAGIC && isEndOfStream()) {
+				result.lastInStream = true;
+				result.streamCrc = (int) readBits(32);
+				bitCount = 0; // Streams are byte-aligned.
+				level = 0;
+				return result;
+			}
+		}
+	}
+
+	/** Checks if the given bits are a block marker. */
+	protected boolean isBlockMagic(long bits) {
+		return bits == BLOCK_MAGIC;
+	}
+
+	/** Checks if an end of stream marker has just been read. A valid marker
+	 *  is followed by the combined CRC, the padding to the next byte, and
+	 *  either the end of the input or the header of the next stream.
+	 *  Otherwise, the marker bits are part of the compressed data. */
+	protected boolean isEndOfStream() throws IOException {
+		// The marker is followed by 32 CRC bits, at most 7 padding bits,
+		// and the 3 byte header "BZh".
+		int headerOffset = (32 - bitCount + 7) / 8;
+		if (!fillInput(headerOffset + 3))
+			return inPos + headerOffset >= inLimit;
+
+		int headerStart = inPos + headerOffset;
+		return inBuffer[headerStart] == 'B' && inBuffer[headerStart + 1] == 'Z'
+				&& inBuffer[headerStart + 2] == 'h';
+	}
+
+	protected boolean readStreamHeader() throws IOException {
+		bitCount = 0;
+		if (!fillInput(1))
+			return false;
+		if (!fillInput(4) || inBuffer[inPos] != 'B' || inBuffer[inPos + 1] != 'Z'
+				|| inBuffer[inPos + 2] != 'h')
+			throw new IOException("invalid bz2 header");
+
+		int digit = inBuffer[inPos + 3];
+		if (digit < '1' || digit > '9')
+			throw new IOException("invalid bz2 block size");
+
+		level = digit - '0';
+		inPos += 4;
+		return true;
+	}
+
+	protected long readBits(int count) throws IOException {
+		long result = 0;
+		for (int i = 0; i < count; i++) {
+			int bit = readBit();
+			if (bit < 0)
+				throw new IOException("unexpected end of bz2 stream");
+			result = (result << 1) | bit;
+		}
+		return result;
+	}
+
+	protected int readBit() throws IOException {
+		if (bitCount == 0) {
+			if (inPos >= inLimit && !fillInput(1))
+				return -1;
+			bitBuffer = inBuffer[inPos++];
+			bitCount = 8;
+		}
+		bitCount--;
+		return (bitBuffer >>> bitCount) & 1;
+	}
+
+	/** Makes sure that at least the given number of unread bytes are in the
+	 *  input buffer. Returns false if the input ends before. */
+	protected boolean fillInput(int count) throws IOException {
+		if (inLimit - inPos >= count)
+			return true;
+
+		if (inPos > 0) {
+			System.arraycopy(inBuffer, inPos, inBuffer, 0, inLimit - inPos);
+			inLimit -= inPos;
+			inPos = 0;
+		}
+		while (inLimit < count) {
+			int n = underlying.read(inBuffer, inLimit, inBuffer.length - inLimit);
+			if (n < 0)
+				return false;
+			inLimit += n;
+		}
+		return true;
+	}
+
+}
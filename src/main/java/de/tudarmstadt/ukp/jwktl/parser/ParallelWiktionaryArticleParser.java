@@ -0,0 +1,413 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
+import de.tudarmstadt.ukp.jwktl.parser.util.IDumpInfo;
+import de.tudarmstadt.ukp.jwktl.parser.util.ImportMetrics;
+
+/**
+ * Variant of the {@link WiktionaryArticleParser} that distributes the
+ * parsing of the article pages over multiple threads. The processing is
+ * organized as a pipeline of three stages: (1) the thread running the
+ * {@link WiktionaryDumpParser} only collects the raw page records (id,
+ * title, revision, timestamp, author, and text), (2) a pool of worker
+ * threads parses the page texts, whereby each worker uses its own
+ * {@link IWiktionaryEntryParser} instance, and (3) a single writer thread
+ * saves the parsed pages to the {@link IWritableWiktionaryEdition} in the
+ * order of the dump file. Pages that are ready at the same time are saved
+ * as a batch using {@link IWritableWiktionaryEdition#savePages}. The 
+ * stages are connected by a bounded queue, which limits the number of 
+ * pages held in memory. Note that other page
+ * parsers registered for the same dump parser must not write to the
+ * Wiktionary edition before {@link #onParserEnd(IDumpInfo)}, since the
+ * edition is exclusively used by the writer thread during the parsing.
+ * The only exception is checking for unchanged pages when updating an 
+ * edition, which is guarded by the writer's store lock.
+ */
+public class ParallelWiktionaryArticleParser extends WiktionaryArticleParser {
+
+	private static final Logger logger = Logger.getLogger(
+			ParallelWiktionaryArticleParser.class.getName());
+
+	/** The default number of parsed pages that may wait for being
+	 *  saved. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+	/** The maximum number of parsed pages saved at once. */
+	protected static final int MAX_BATCH_SIZE = 250;
+
+	/** The interval (in milliseconds) for checking whether the writer 
+	 *  thread is still alive while waiting for it. */
+	protected static final long WAIT_INTERVAL = 100;
+
+	/** Marker in the writer queue that is completed by the writer thread
+	 *  once all previously queued pages have been saved. */
+	protected static class FlushRequest extends CompletableFuture<WiktionaryPage> {
+
+		protected final boolean isLast;
+
+		public FlushRequest(boolean isLast) {
+			this.isLast = isLast;
+		}
+
+	}
+
+	protected final int threadCount;
+	protected final int queueCapacity;
+	protected Supplier<IWiktionaryEntryParser> entryParserFactory;
+	protected ThreadLocal<IWiktionaryEntryParser> workerEntryParser;
+
+	protected ExecutorService workers;
+	protected BlockingQueue<Future<WiktionaryPage>> writeQueue;
+	protected Thread writer;
+	protected volatile Throwable failure;
+	protected final Object storeLock = new Object();
+	protected String text;
+
+	/** Creates a parallel article parser that saves the parsed Wiktionary
+	 *  data into the given edition using one worker thread per available
+	 *  processor. The entry parser will be created based on the dump's
+	 *  base URL. */
+	public ParallelWiktionaryArticleParser(
+			final IWritableWiktionaryEdition wiktionaryDB) {
+		this(wiktionaryDB, Runtime.getRuntime().availableProcessors());
+	}
+
+	/** Creates a parallel article parser that saves the parsed Wiktionary
+	 *  data into the given edition using the specified number of worker
+	 *  threads. The entry parser will be created based on the dump's
+	 *  base URL. */
+	public ParallelWiktionaryArticleParser(
+			final IWritableWiktionaryEdition wiktionaryDB, int threadCount) {
+		this(wiktionaryDB, null, threadCount, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/** Creates a parallel article parser that saves the parsed Wiktionary
+	 *  data into the given edition.
+	 *  @param entryParserFactory creates an entry parser for each worker
+	 *    thread. If <code>null</code>, the entry parser is created based
+	 *    on the dump's base URL.
+	 *  @param threadCount the number of worker threads.
+	 *  @param queueCapacity the maximum number of pages waiting for being
+	 *    saved by the writer thread. */
+	public ParallelWiktionaryArticleParser(
+			final IWritableWiktionaryEdition wiktionaryDB,
+			final Supplier<IWiktionaryEntryParser> entryParserFactory,
+			int threadCount, int queueCapacity) {
+		super(wiktionaryDB, null);
+		if (threadCount < 1)
+			throw new IllegalArgumentException(
+					"At least one worker thread required");
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be positive");
+
+		this.entryParserFactory = entryParserFactory;
+		this.threadCount = threadCount;
+		this.queueCapacity = queueCapacity;
+	}
+
+	@Override
+	public void onSiteInfoComplete(final IDumpInfo dumpInfo) {
+		if (entryParserFactory != null && entryParser == null)
+			entryParser = entryParserFactory.get();
+		super.onSiteInfoComplete(dumpInfo);
+		if (entryParserFactory == null) {
+			final ILanguage language = dumpInfo.getDumpLanguage();
+			entryParserFactory = () -> createEntryParser(language);
+		}
+		startPipeline();
+	}
+
+	/** Starts the worker and writer threads, unless they are already
+	 *  running (e.g., for subsequent streams of a multistream dump). */
+	protected void startPipeline() {
+		if (workers != null)
+			return;
+
+		failure = null;
+		final Supplier<IWiktionaryEntryParser> factory = entryParserFactory;
+		workerEntryParser = ThreadLocal.withInitial(
+				() -> configureEntryParser(factory.get()));
+		workers = Executors.newFixedThreadPool(threadCount,
+				createThreadFactory("jwktl-parser-"));
+		final BlockingQueue<Future<WiktionaryPage>> queue 
+				= new ArrayBlockingQueue<>(queueCapacity);
+		writeQueue = queue;
+		writer = createThreadFactory("jwktl-writer-")
+				.newThread(() -> writePages(queue));
+		writer.start();
+		ImportMetrics metrics = getMetrics();
+		if (metrics != null)
+			metrics.setQueueDepth(queue::size);
+		logger.fine("Started parser pipeline with " + threadCount + " workers");
+	}
+
+	@Override
+	public void onPageStart() {
+		super.onPageStart();
+		text = null;
+	}
+
+	@Override
+	public void setText(final String text) {
+		this.text = text;
+	}
+
+	@Override
+	public void onPageEnd() {
+		// The page is parsed and saved by the pipeline rather than
+		// by the dump parser's thread.
+		checkFailure();
+		if (!isAllowed(page)) {
+			logger.finer("Ignoring page " + page.getTitle());
+			return;
+		}
+		if (workers == null)
+			throw new IllegalStateException("Parser pipeline not started");
+		// The writer thread must not save pages during the check.
+		if (text != null)
+			synchronized (storeLock) {
+				if (isUpToDate(page)) {
+					wiktionaryDB.retainPage(page.getId());
+					return;
+				}
+			}
+
+		final WiktionaryPage parsedPage = page;
+		final String parsedText = text;
+		final ImportMetrics metrics = getMetrics();
+		enqueue(workers.submit(() -> {
+			if (parsedText != null) {
+				long start = (metrics == null ? 0 : System.nanoTime());
+				workerEntryParser.get().parse(parsedPage, parsedText);
+				if (metrics != null)
+					metrics.recordParse(System.nanoTime() - start);
+			}
+			return parsedPage;
+		}));
+	}
+
+	@Override
+	public void onParserEnd(final IDumpInfo dumpInfo) {
+		flush(false);
+		super.onParserEnd(dumpInfo);
+	}
+
+	@Override
+	public void onClose(final IDumpInfo dumpInfo) {
+		flush(true);
+		super.onClose(dumpInfo);
+	}
+
+	/** Blocks until all pages queued so far have been saved. If isLast
+	 *  is true, the worker and writer threads are terminated afterwards. */
+	protected void flush(boolean isLast) {
+		if (workers == null)
+			return;
+
+		FlushRequest request = new FlushRequest(isLast);
+		enqueue(request);
+		try {
+			// Do not wait forever if the writer thread terminated.
+			while (true)
+				try {
+					request.get(WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+					break;
+				} catch (TimeoutException e) {
+					checkWriter();
+				}
+			if (isLast) {
+				writer.join();
+				stopPipeline();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopPipeline();
+			throw new WiktionaryException("Interrupted while saving pages", e);
+		} catch (ExecutionException e) {
+			stopPipeline();
+			throw new WiktionaryException(e.getCause());
+		}
+		checkFailure();
+	}
+
+	protected void enqueue(final Future<WiktionaryPage> future) {
+		try {
+			while (!writeQueue.offer(future, WAIT_INTERVAL, TimeUnit.MILLISECONDS))
+				checkWriter();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopPipeline();
+			throw new WiktionaryException("Interrupted while queueing page", e);
+		}
+	}
+
+	/** Main loop of the writer thread. Pages are taken from the given
+	 *  queue in the order of the dump file and saved as soon as their
+	 *  worker has finished parsing them. Any error is recorded as the 
+	 *  pipeline failure; the writer then keeps draining the queue, so 
+	 *  that waiting threads are not blocked. */
+	protected void writePages(final BlockingQueue<Future<WiktionaryPage>> queue) {
+		List<WiktionaryPage> batch = new ArrayList<>(MAX_BATCH_SIZE);
+		try {
+			while (true) {
+				Future<WiktionaryPage> next = queue.take();
+				if (next instanceof FlushRequest) {
+					savePages(batch);
+					FlushRequest request = (FlushRequest) next;
+					request.complete(null);
+					if (request.isLast)
+						return;
+					continue;
+				}
+
+				if (failure != null) {
+					next.cancel(false); // Drain the queue after an error.
+					batch.clear();
+					continue;
+				}
+
+				try {
+					batch.add(next.get());
+
+					// Collect pages as long as their parsing is already finished.
+					Future<WiktionaryPage> following = queue.peek();
+					if (batch.size() >= MAX_BATCH_SIZE || following == null 
+							|| !following.isDone())
+						savePages(batch);
+				} catch (ExecutionException e) {
+					failure = e.getCause();
+				} catch (InterruptedException e) {
+					throw e;
+				} catch (Throwable e) {
+					failure = e;
+				}
+			}
+		} catch (InterruptedException e) {
+			// Pipeline has been stopped.
+		} finally {
+			// Release threads waiting for a flush that will not happen.
+			for (Future<WiktionaryPage> next : queue)
+				if (next instanceof FlushRequest)
+					((FlushRequest) next).completeExceptionally(
+							failure != null ? failure 
+							: new WiktionaryException("Parser pipeline stopped"));
+		}
+	}
+
+	/** Saves and clears the given batch of parsed pages. */
+	protected void savePages(final List<WiktionaryPage> batch) {
+		if (batch.isEmpty())
+			return;
+
+		try {
+			if (wiktionaryDB != null) {
+				ImportMetrics metrics = getMetrics();
+				long start = (metrics == null ? 0 : System.nanoTime());
+				synchronized (storeLock) {
+					wiktionaryDB.savePages(batch);
+				}
+				if (metrics != null)
+					metrics.recordBatchSave(System.nanoTime() - start);
+			}
+		} catch (Throwable e) {
+			failure = e;
+		} finally {
+			batch.clear();
+		}
+	}
+
+	/** Throws a {@link WiktionaryException} if one of the worker threads
+	 *  or the writer thread failed. */
+	protected void checkFailure() {
+		Throwable cause = failure;
+		if (cause == null)
+			return;
+
+		stopPipeline();
+		throw new WiktionaryException("Unable to parse and save pages", cause);
+	}
+
+	/** Throws a {@link WiktionaryException} if the writer thread failed or
+	 *  terminated unexpectedly. */
+	protected void checkWriter() {
+		checkFailure();
+		if (writer != null && !writer.isAlive()) {
+			stopPipeline();
+			throw new WiktionaryException("Writer thread terminated unexpectedly");
+		}
+	}
+
+	/** Terminates the worker and writer threads. The pipeline fields are
+	 *  reset only after the writer thread has ended. */
+	protected void stopPipeline() {
+		if (workers == null)
+			return;
+
+		workers.shutdownNow();
+		if (writer != Thread.currentThread()) {
+			writer.interrupt();
+			boolean interrupted = false;
+			while (writer.isAlive())
+				try {
+					writer.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+		ImportMetrics metrics = getMetrics();
+		if (metrics != null)
+			metrics.setQueueDepth(null);
+		workers = null;
+		writer = null;
+		writeQueue = null;
+		workerEntryParser = null;
+	}
+
+	protected static ThreadFactory createThreadFactory(final String namePrefix) {
+		final AtomicInteger threadNumber = new AtomicInteger(1);
+		return runnable -> {
+			Thread result = new Thread(runnable, 
+					namePrefix + threadNumber.getAndIncrement());
+			result.setDaemon(true);
+			return result;
+		};
+	}
+
+}
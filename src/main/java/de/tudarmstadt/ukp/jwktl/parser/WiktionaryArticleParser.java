@@ -17,6 +17,7 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser;
 
+import java.util.Set;
 import java.util.logging.Logger;
 
 import com.sleepycat.je.DatabaseException;
@@ -29,7 +30,9 @@ import de.tudarmstadt.ukp.jwktl.api.util.Language;
 import de.tudarmstadt.ukp.jwktl.parser.de.DEWiktionaryEntryParser;
 import de.tudarmstadt.ukp.jwktl.parser.en.ENWiktionaryEntryParser;
 import de.tudarmstadt.ukp.jwktl.parser.ru.RUWiktionaryEntryParser;
+import de.tudarmstadt.ukp.jwktl.parser.util.BlockHandlerProfiler;
 import de.tudarmstadt.ukp.jwktl.parser.util.IDumpInfo;
+import de.tudarmstadt.ukp.jwktl.parser.util.ImportMetrics;
 
 /**
  * Parses a Wiktionary XML dump and stores the parsed information as a 
@@ -49,6 +52,9 @@ public class WiktionaryArticleParser extends WiktionaryPageParser<WiktionaryPage
 	
 	protected IWritableWiktionaryEdition wiktionaryDB;
 	protected IWiktionaryEntryParser entryParser;
+	protected boolean isUnchanged;
+	protected BlockHandlerProfiler profiler;
+	protected Set<? extends ILanguage> languageFilter;
 	
 	/** Creates a caching article parser that saves the parsed Wiktionary
 	 *  data into a Berkeley DB within the given target directory. A 
@@ -83,23 +89,53 @@ public class WiktionaryArticleParser extends WiktionaryPageParser<WiktionaryPage
 		if (wiktionaryDB != null)
 			wiktionaryDB.setLanguage(language);
 		
-		if (entryParser != null)
+		if (entryParser != null) {
+			configureEntryParser(entryParser);
 			return;
-		if (Language.ENGLISH.equals(language)) {
-			entryParser = new ENWiktionaryEntryParser();
-		} else
-		if (Language.GERMAN.equals(language)) {
-			entryParser = new DEWiktionaryEntryParser();
-		} else
-		if (Language.RUSSIAN.equals(language)) {
-			entryParser = new RUWiktionaryEntryParser();
-		} else 	
+		}
+		entryParser = configureEntryParser(createEntryParser(language));
+		logger.info("Automatically determined dump format: " + language);
+	}
+
+	/** Prepares the given entry parser for being used by this article 
+	 *  parser, i.e., activates the block handler profiling and the
+	 *  language filter if necessary. */
+	protected IWiktionaryEntryParser configureEntryParser(
+			final IWiktionaryEntryParser entryParser) {
+		if (!(entryParser instanceof WiktionaryEntryParser))
+			return entryParser;
+		
+		WiktionaryEntryParser parser = (WiktionaryEntryParser) entryParser;
+		if (profiler != null)
+			parser.setProfiler(profiler);
+		if (languageFilter != null)
+			parser.setLanguageFilter(languageFilter);
+		return entryParser;
+	}
+	
+	/** Factory method for creating the language-specific entry parser 
+	 *  of the given Wiktionary language edition.
+	 *  @throws WiktionaryException if the language is not supported. */
+	protected IWiktionaryEntryParser createEntryParser(final ILanguage language) {
+		if (Language.ENGLISH.equals(language))
+			return new ENWiktionaryEntryParser();
+		else
+		if (Language.GERMAN.equals(language))
+			return new DEWiktionaryEntryParser();
+		else
+		if (Language.RUSSIAN.equals(language))
+			return new RUWiktionaryEntryParser();
+		else
 			throw new WiktionaryException("Language " + language 
 					+ " is not supported");
-		
-		logger.info("Automatically determined dump format: " + language);
 	}
 	
+	@Override
+	public void onPageStart() {
+		super.onPageStart();
+		isUnchanged = false;
+	}
+
 	@Override
 	public void onPageEnd() {
 		saveParsedWiktionaryPage();
@@ -109,6 +145,8 @@ public class WiktionaryArticleParser extends WiktionaryPageParser<WiktionaryPage
 	@Override
 	public void onClose(final IDumpInfo dumpInfo) {
 		super.onClose(dumpInfo);
+		if (profiler != null)
+			logger.info("Block handler profile:\n" + profiler.getSummary());
 		if (wiktionaryDB == null)
 			return;
 		
@@ -128,11 +166,19 @@ public class WiktionaryArticleParser extends WiktionaryPageParser<WiktionaryPage
 	
 	@Override
 	public void setText(String text) {
-//		long time = System.nanoTime();
-		if (isAllowed(page))
-			entryParser.parse(page, text);
-//		time = System.nanoTime() - time;
-//		System.out.println("parse " + (time / 1000) + "ms");
+		if (!isAllowed(page))
+			return;
+
+		// Skip pages that did not change since the previous parse.
+		isUnchanged = isUpToDate(page);
+		if (isUnchanged)
+			return;
+
+		ImportMetrics metrics = getMetrics();
+		long start = (metrics == null ? 0 : System.nanoTime());
+		entryParser.parse(page, text);
+		if (metrics != null)
+			metrics.recordParse(System.nanoTime() - start);
 	}
 	
 	protected void saveParsedWiktionaryPage() {
@@ -144,19 +190,63 @@ public class WiktionaryArticleParser extends WiktionaryPageParser<WiktionaryPage
 		if (wiktionaryDB == null)
 			return;
 		
+		if (isUnchanged) {
+			wiktionaryDB.retainPage(page.getId());
+			return;
+		}
+
 		try {
-//			long time = System.nanoTime();
+			ImportMetrics metrics = getMetrics();
+			long start = (metrics == null ? 0 : System.nanoTime());
 			wiktionaryDB.savePage(page);
-//			time = System.nanoTime() - time;
-//			System.out.println("saveWiktionaryPage " + (time / 1000) + "ms");
-			
-			if (dumpInfo.getProcessedPages() % 25000 == 0)
-				wiktionaryDB.commit();
+			if (metrics != null)
+				metrics.recordSave(System.nanoTime() - start);
 		} catch (DatabaseException e) {
 			throw new WiktionaryException("Unable to save page " + page.getTitle(), e);
 		}
 	}
 
+	/** Returns the profiler recording the block handler invocations of
+	 *  the entry parser or <code>null</code> if no profiling takes place. */
+	public BlockHandlerProfiler getProfiler() {
+		return profiler;
+	}
+
+	/** Activates the profiling of the entry parser's block handlers using
+	 *  the given profiler, whose summary is logged when the dump has been
+	 *  parsed. Must be called before parsing the dump. */
+	public void setProfiler(final BlockHandlerProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/** Returns the word languages whose entries are parsed or 
+	 *  <code>null</code> if all entries are parsed. */
+	public Set<? extends ILanguage> getLanguageFilter() {
+		return languageFilter;
+	}
+
+	/** Restricts the parsing to the entries of the given word languages.
+	 *  The language sections of all other languages are skipped before
+	 *  any block handler is invoked. Use <code>null</code> to parse the
+	 *  entries of all languages (default). Must be called before parsing 
+	 *  the dump. */
+	public void setLanguageFilter(final Set<? extends ILanguage> languageFilter) {
+		this.languageFilter = languageFilter;
+	}
+
+	/** Returns the metrics of the current dump import or 
+	 *  <code>null</code> if no metrics are collected. */
+	protected ImportMetrics getMetrics() {
+		return (dumpInfo == null ? null : dumpInfo.getMetrics());
+	}
+
+	/** Returns true if the Wiktionary edition already contains the given 
+	 *  page in its current revision. */
+	protected boolean isUpToDate(final IWiktionaryPage page) {
+		return (wiktionaryDB != null 
+				&& wiktionaryDB.isUpToDate(page.getId(), page.getRevision()));
+	}
+
 	protected boolean isAllowed(final IWiktionaryPage page) {
 		return (currentNamespace == null);
 	}
@@ -32,6 +32,7 @@ import java.util.logging.Logger;
 import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
 import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
 import de.tudarmstadt.ukp.jwktl.api.util.Language;
+import de.tudarmstadt.ukp.jwktl.parser.PageRecordCollector.PageRecord;
 import de.tudarmstadt.ukp.jwktl.parser.util.DumpInfo;
 import de.tudarmstadt.ukp.jwktl.parser.util.IDumpInfo;
 
@@ -51,6 +52,10 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 	protected List<IWiktionaryPageParser> parserRegistry;
 	protected boolean inPage;
 	protected DumpInfo dumpInfo;
+	protected Long resumePageId;
+	protected boolean skipPage;
+	protected String pageNamespace;
+	protected boolean skipUnusedContents;
 
 	// Should not be static (not thread-safe!)
 	protected DateFormat timestampFormat;
@@ -68,13 +73,30 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 		parserRegistry.add(pageParser);
 	}
 	
+	/** Returns true if the contents of XML elements not read by this
+	 *  parser are skipped. */
+	public boolean isSkipUnusedContents() {
+		return skipUnusedContents;
+	}
+
+	/** Skip the contents of XML elements that are not read by this parser
+	 *  (e.g., revision comments or hashes), which reduces the buffering
+	 *  effort for large dumps. By default, the contents of all elements
+	 *  are captured, so that subclasses can read them in 
+	 *  {@link #onElementEnd(String, XMLDumpHandler)}. Subclasses reading 
+	 *  additional elements should override 
+	 *  {@link #isContentElement(String)} instead. */
+	public void setSkipUnusedContents(boolean skipUnusedContents) {
+		this.skipUnusedContents = skipUnusedContents;
+	}
+
 	public Iterable<IWiktionaryPageParser> getPageParsers() {
 		return parserRegistry;
 	}
 	
 	@Override
 	public void parse(final File dumpFile) throws WiktionaryException {
-		dumpInfo = new DumpInfo(dumpFile, this);
+		dumpInfo = createDumpInfo(dumpFile);
 		super.parse(dumpFile);
 		onClose();
 	}
@@ -83,7 +105,7 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 	public void parseMultistream(File multistreamDumpFile,
 								 File indexFile,
 								 MultistreamFilter filter) throws WiktionaryException {
-		dumpInfo = new DumpInfo(multistreamDumpFile, this);
+		dumpInfo = createDumpInfo(multistreamDumpFile);
 		try {
 			new MultistreamXMLDumpParser(this).parseMultistream(multistreamDumpFile, indexFile, filter);
 			onClose();
@@ -92,6 +114,115 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 		}
 	}
 
+	/** Continues an interrupted parse of the given dump file. All pages 
+	 *  up to and including the page with the given ID are skipped without
+	 *  notifying the page parsers, since they have already been processed
+	 *  (e.g., the last page committed to the database; see 
+	 *  {@link WritableBerkeleyDBWiktionaryEdition#getCheckpointPageId()}). 
+	 *  @throws WiktionaryException in case of any parser errors. */
+	public void resume(final File dumpFile, long lastPageId) 
+			throws WiktionaryException {
+		resumePageId = lastPageId;
+		try {
+			parse(dumpFile);
+		} finally {
+			checkResumed();
+		}
+	}
+
+	/** Continues an interrupted parse of the given multistream dump file. 
+	 *  The index file is used to seek to the stream containing the page 
+	 *  with the given ID; the preceding streams are not decompressed at 
+	 *  all. Within this stream, all pages up to and including the given 
+	 *  page are skipped.
+	 *  @throws WiktionaryException in case of any parser errors. */
+	public void resumeMultistream(final File multistreamDumpFile,
+			final File indexFile, long lastPageId) throws WiktionaryException {
+		resumePageId = lastPageId;
+		try {
+			// Index entries are listed in the order of the streams.
+			final boolean[] found = new boolean[1];
+			parseMultistream(multistreamDumpFile, indexFile, (pageId, pageTitle) -> {
+				if (pageId == lastPageId)
+					found[0] = true;
+				return found[0];
+			});
+		} finally {
+			checkResumed();
+		}
+	}
+
+	private void checkResumed() {
+		if (resumePageId != null)
+			logger.warning("Resume page " + resumePageId + " not found in dump file");
+		resumePageId = null;
+	}
+
+	/** Parses the multistream dump using the given number of threads. In
+	 *  contrast to {@link #parseMultistream(File, File, MultistreamFilter)},
+	 *  the page parsers are started and ended only once for all streams. */
+	@Override
+	public void parseMultistream(File multistreamDumpFile,
+								 File indexFile,
+								 MultistreamFilter filter,
+								 int threadCount) throws WiktionaryException {
+		if (threadCount < 1)
+			throw new IllegalArgumentException("At least one thread required");
+
+		dumpInfo = createDumpInfo(multistreamDumpFile);
+		try {
+			onParserStart();
+			new MultistreamXMLDumpParser(this).parseMultistream(multistreamDumpFile,
+					indexFile, filter, threadCount, this::createCollector, this::replay);
+			onParserEnd();
+			onClose();
+		} catch (IOException e) {
+			throw new WiktionaryException(e);
+		}
+	}
+
+	PageRecordCollector createCollector() {
+		PageRecordCollector result = new PageRecordCollector();
+		result.setPullParsing(pullParsing);
+		result.setMetrics(metrics);
+		return result;
+	}
+
+	/** Notifies the registered page parsers about the site info and pages
+	 *  collected from a part of the dump file. */
+	void replay(final PageRecordCollector chunk) {
+		if (chunk.baseURL != null)
+			setBaseURL(chunk.baseURL);
+		chunk.namespaces.forEach(this::addNamespace);
+		if (chunk.siteInfoComplete)
+			onSiteInfoComplete();
+
+		for (PageRecord record : chunk.getPages()) {
+			if (resumePageId != null) {
+				if (resumePageId.equals(record.pageId))
+					resumePageId = null;
+				continue;
+			}
+
+			inPage = true;
+			onPageStart();
+			if (record.title != null)
+				setTitle(record.title);
+			if (record.pageId != null)
+				setPageId(record.pageId);
+			if (record.revision != null)
+				setRevision(record.revision);
+			if (record.hasTimestamp)
+				setTimestamp(record.timestamp);
+			if (record.author != null)
+				setAuthor(record.author);
+			if (record.text != null)
+				setText(record.text);
+			inPage = false;
+			onPageEnd();
+		}
+	}
+
 	@Override
 	protected void onParserStart() {
 		super.onParserStart();
@@ -117,16 +248,49 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 	protected void onClose() {
 		for (IWiktionaryPageParser pageParser : parserRegistry)
 			pageParser.onClose(dumpInfo);
+		if (metrics != null)
+			metrics.finish();
+	}
+
+	protected DumpInfo createDumpInfo(final File dumpFile) {
+		DumpInfo result = new DumpInfo(dumpFile, this);
+		result.setMetrics(metrics);
+		return result;
 	}
 	
 	@Override
 	protected void onElementStart(final String name, final XMLDumpHandler handler) {
 		if ("page".equals(name)) {
 			inPage = true;
-			onPageStart();
+			skipPage = (resumePageId != null);
+			if (!skipPage)
+				onPageStart();
 		}
 	}
 	
+	/** Hotspot that decides if the contents of the XML element with the
+	 *  given name are captured. All contents are captured unless 
+	 *  {@link #setSkipUnusedContents(boolean)} is activated, in which case
+	 *  only the elements read by this parser are selected. */
+	@Override
+	protected boolean isContentElement(final String name) {
+		if (!skipUnusedContents)
+			return true;
+
+		switch (name) {
+			case "base":
+			case "namespace":
+			case "id":
+			case "title":
+			case "timestamp":
+			case "text":
+			case "username":
+				return true;
+			default:
+				return false;
+		}
+	}
+
 	@Override
 	protected void onElementEnd(final String name, final XMLDumpHandler handler) {
 		// Check URL.
@@ -148,11 +312,17 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 		// Article.
 		if ("page".equals(name)) {
 			inPage = false;
-			onPageEnd();
+			if (!skipPage)
+				onPageEnd();
 		}
 		
-		// Article contents.
-		if (inPage) {
+		// Article contents; the pages before the resume page are skipped.
+		if (inPage && skipPage) {
+			if (resumePageId != null && "id".equals(name) 
+					&& "page".equals(handler.getParent())
+					&& resumePageId == Long.parseLong(handler.getContents()))
+				resumePageId = null;
+		} else if (inPage) {
 			if ("page".equals(handler.getParent())) {
 				if ("id".equals(name))
 					setPageId(Long.parseLong(handler.getContents()));					
@@ -183,6 +353,7 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 	}
 
 	protected void onPageStart() {
+		pageNamespace = null;
 		parserRegistry.forEach(IWiktionaryPageParser::onPageStart);
 	}
 	
@@ -190,6 +361,8 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 		parserRegistry.forEach(IWiktionaryPageParser::onPageEnd);
 		
 		dumpInfo.incrementProcessedPages();
+		if (metrics != null)
+			metrics.recordPage(pageNamespace);
 		if (dumpInfo.getProcessedPages() % 25000 == 0)
 			logger.info("Parsed " + dumpInfo.getProcessedPages() + " pages");
 	}
@@ -238,6 +411,7 @@ public class WiktionaryDumpParser extends XMLDumpParser implements IWiktionaryMu
 			else
 				title = title.substring(idx + 1);
 		}
+		pageNamespace = namespace;
 		for (IWiktionaryPageParser pageParser : parserRegistry)
 			pageParser.setTitle(title, namespace);
 	}
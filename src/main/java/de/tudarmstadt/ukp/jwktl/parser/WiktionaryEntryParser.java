@@ -17,11 +17,10 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 
@@ -29,8 +28,13 @@ import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
 import de.tudarmstadt.ukp.jwktl.api.IWiktionarySense;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
 import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
+import de.tudarmstadt.ukp.jwktl.parser.components.BlockHeaderDispatcher;
+import de.tudarmstadt.ukp.jwktl.parser.util.BlockHandlerProfiler;
+import de.tudarmstadt.ukp.jwktl.parser.util.BlockHandlerProfiler.Method;
+import de.tudarmstadt.ukp.jwktl.parser.util.BlockHandlerProfiler.PageProfile;
 import de.tudarmstadt.ukp.jwktl.parser.util.IBlockHandler;
 import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
+import de.tudarmstadt.ukp.jwktl.parser.util.WikitextLexer;
 
 /**
  * Base implementation for parsing the textual contents of an article page in
@@ -43,7 +47,10 @@ import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
  * differences between the individual Wiktionary language editions, there
  * should be one subclass of this parser for each language edition, which
  * cares about language-specific adaptation and the selection of the 
- * block handlers used.
+ * block handlers used. Use {@link #setProfiler(BlockHandlerProfiler)} to
+ * measure the time and memory required by the individual block handlers
+ * and {@link #setLanguageFilter(Set)} to skip the sections of all other 
+ * word languages.
  * @author Christian M. Meyer
  * @author Christof Müller
  */
@@ -56,6 +63,7 @@ public abstract class WiktionaryEntryParser implements IWiktionaryEntryParser {
 	
 	private static Logger logger = Logger.getLogger(WiktionaryEntryParser.class.getName());
 	
+	// Markup removed by the WikitextLexer.
 	protected static final Pattern COMMENT_PATTERN = Pattern.compile("\\<!--((?!--\\>)[^\0])*?--\\>");
 	protected static final Pattern IMAGE_PATTERN = Pattern.compile("\\[\\[Image:([^\\]]+?)\\|[^\\]]+?\\]\\]");
 	protected static final Pattern REFERENCES_PATTERN = Pattern.compile("<ref[^>]*>.+?</ref>");
@@ -64,6 +72,10 @@ public abstract class WiktionaryEntryParser implements IWiktionaryEntryParser {
 	protected String redirectTemplate;
 	protected long entryId;
 	protected List<IBlockHandler> handlers;
+	protected BlockHeaderDispatcher dispatcher;
+	protected BlockHandlerProfiler profiler;
+	protected PageProfile pageProfile;
+	protected Set<ILanguage> languageFilter;
 
 	/** Instanciates the entry parser for the given language. 
 	 *  @param redirectName denotes the language-specific prefix used for 
@@ -87,16 +99,15 @@ public abstract class WiktionaryEntryParser implements IWiktionaryEntryParser {
 		
 		final String LINE_SEPERATOR = "\n";	
 		
-		// Remove html comments.
-		text = COMMENT_PATTERN.matcher(text).replaceAll("");      
-		text = IMAGE_PATTERN.matcher(text).replaceAll("");
-		text = REFERENCES_PATTERN.matcher(text).replaceAll("");
-		BufferedReader reader = new BufferedReader(new StringReader(text));
+		// Remove html comments, images, and references.
+		WikitextLexer lexer = new WikitextLexer(text);
+		if (profiler != null)
+			pageProfile = profiler.startPage(page.getTitle());
 		try {
 		
 		// contains information shared by workers. 
 		ParsingContext context = createParsingContext(page);
-		String line = reader.readLine();
+		String line = nextLine(lexer);
 		IBlockHandler handler = null;
 		IBlockHandler unfinishedHandler = null;
 		ParseStatus status = ParseStatus.IN_HEAD;
@@ -105,7 +116,6 @@ public abstract class WiktionaryEntryParser implements IWiktionaryEntryParser {
 		boolean parserTakeControl = false;
 		boolean EOT = (line == null);
 		while (!EOT) {
-			line = line.trim();
 			String lineSep = line + LINE_SEPERATOR;
 			if (status == ParseStatus.IN_HEAD) {
 				// HEAD
@@ -115,52 +125,55 @@ public abstract class WiktionaryEntryParser implements IWiktionaryEntryParser {
 				}
 				
 				// continue only when the worker finishes processing head part.
-				if (handler != null && handler.processHead(lineSep, context)){
+				if (handler != null && processHead(handler, lineSep, context)){
 					logger.fine("processing " + line);
 					status = ParseStatus.IN_BODY;
 					unfinishedHandler = handler;
 				}
-				line = reader.readLine();
+				line = nextLine(lexer);
 				
 			} else 
 			if (status == ParseStatus.IN_BODY) {
 				// BODY
 				if (!parserTakeControl) {						
-					parserTakeControl = !handler.processBody(lineSep, context);
+					parserTakeControl = !processBody(handler, lineSep, context);
 					if (parserTakeControl) {
 						if (isStartOfBlock(line)) {
-							handler.fillContent(context);
+							fillContent(handler, context);
 							unfinishedHandler = null;								
 							handler = null;
 							status = ParseStatus.IN_HEAD;
 							parserTakeControl = false;
 						} else
-							line = reader.readLine();
+							line = nextLine(lexer);
 					} else
-						line = reader.readLine();
+						line = nextLine(lexer);
 				} else {						
 					if (isStartOfBlock(line)) {
-						handler.fillContent(context);
+						fillContent(handler, context);
 						unfinishedHandler = null;
 						handler = null;
 						status = ParseStatus.IN_HEAD;
 						parserTakeControl = false;
 					} else {
-						handler.processBody(lineSep, context);
-						line = reader.readLine();
+						processBody(handler, lineSep, context);
+						line = nextLine(lexer);
 					}
 				}
 			}
 			
 			if (line == null) {
 				if (unfinishedHandler != null)
-					unfinishedHandler.fillContent(context);
+					fillContent(unfinishedHandler, context);
 				EOT = true;
 			}
 		}
 
-		} catch (IOException e) {
-			throw new RuntimeException("Error while parsing text of article " + page.getTitle(), e);
+		} finally {
+			if (pageProfile != null) {
+				pageProfile.finish();
+				pageProfile = null;
+			}
 		}
 	}
 	
@@ -181,28 +194,161 @@ public abstract class WiktionaryEntryParser implements IWiktionaryEntryParser {
 			return false;
 	}
 
+	/** Returns the next line of the given lexer. If a language filter
+	 *  is set, all sections of languages not contained in the filter are
+	 *  skipped, such that no block handler processes them. */
+	protected String nextLine(final WikitextLexer lexer) {
+		String line = lexer.nextLine();
+		if (languageFilter == null)
+			return line;
+
+		while (line != null && isLanguageSectionStart(line)
+				&& !isAllowedLanguage(getSectionLanguage(line))) {
+			do
+				line = lexer.nextLine();
+			while (line != null && !isLanguageSectionStart(line));
+		}
+		return line;
+	}
+
+	/** Hotspot for deciding if the given line starts the section of a
+	 *  new word language. Language sections can only be skipped if this 
+	 *  method is implemented; the default implementation returns 
+	 *  <code>false</code>. */
+	protected boolean isLanguageSectionStart(final String line) {
+		return false;
+	}
+
+	/** Hotspot for determining the word language of the section starting
+	 *  with the given line. Returns <code>null</code> if the language is 
+	 *  unknown. */
+	protected ILanguage getSectionLanguage(final String line) {
+		return null;
+	}
+
+	/** Returns true if entries of the given word language are to be 
+	 *  parsed according to the language filter. */
+	protected boolean isAllowedLanguage(final ILanguage language) {
+		return (languageFilter == null 
+				|| (language != null && languageFilter.contains(language)));
+	}
+
 	/** Hotspot for deciding if the given line is a potential start of a new
 	 *  article constituent. This may include headlines, templates, or other 
 	 *  typographic variants. */
 	protected abstract boolean isStartOfBlock(final String line);
 
-	/** Find a handler that is willing to handle the given line. */
+	/** Find a handler that is willing to handle the given line. The
+	 *  handlers are asked in the order of their registration, but 
+	 *  handlers relying on fixed labels or declaring header prefixes are 
+	 *  resolved using a {@link BlockHeaderDispatcher}. */
 	protected IBlockHandler selectHandler(final String line) {
-		for (IBlockHandler handler : handlers) {
-			if (handler.canHandle(line))
+		if (dispatcher == null)
+			dispatcher = new BlockHeaderDispatcher(handlers);
+		
+		int labelHandler = dispatcher.findLabelHandler(line);
+		for (int idx : dispatcher.getCustomHandlers(line)) {
+			if (idx > labelHandler)
+				break;
+			if (!dispatcher.hasHeaderPrefix(idx, line))
+				continue;
+			
+			IBlockHandler handler = dispatcher.getHandler(idx);
+			if (canHandle(handler, line))
 				return handler;
 		}
-		return null;
+		if (labelHandler < dispatcher.size())
+			return dispatcher.getHandler(labelHandler);
+		else
+			return null;
+	}
+
+	/** Invokes {@link IBlockHandler#canHandle(String)} and records the
+	 *  invocation if a profiler is active. */
+	protected boolean canHandle(final IBlockHandler handler, final String line) {
+		if (pageProfile == null)
+			return handler.canHandle(line);
+
+		pageProfile.begin();
+		boolean result = handler.canHandle(line);
+		pageProfile.end(handler, Method.CAN_HANDLE);
+		return result;
+	}
+
+	/** Invokes {@link IBlockHandler#processHead(String, ParsingContext)} and 
+	 *  records the invocation if a profiler is active. */
+	protected boolean processHead(final IBlockHandler handler, 
+			final String line, final ParsingContext context) {
+		if (pageProfile == null)
+			return handler.processHead(line, context);
+
+		pageProfile.begin();
+		boolean result = handler.processHead(line, context);
+		pageProfile.end(handler, Method.PROCESS_HEAD);
+		return result;
+	}
+
+	/** Invokes {@link IBlockHandler#processBody(String, ParsingContext)} and 
+	 *  records the invocation if a profiler is active. */
+	protected boolean processBody(final IBlockHandler handler, 
+			final String line, final ParsingContext context) {
+		if (pageProfile == null)
+			return handler.processBody(line, context);
+
+		pageProfile.begin();
+		boolean result = handler.processBody(line, context);
+		pageProfile.end(handler, Method.PROCESS_BODY);
+		return result;
+	}
+
+	/** Invokes {@link IBlockHandler#fillContent(ParsingContext)} and 
+	 *  records the invocation if a profiler is active. */
+	protected void fillContent(final IBlockHandler handler, 
+			final ParsingContext context) {
+		if (pageProfile == null) {
+			handler.fillContent(context);
+			return;
+		}
+
+		pageProfile.begin();
+		handler.fillContent(context);
+		pageProfile.end(handler, Method.FILL_CONTENT);
 	}
 
 	/** Register the given handler that will be invoked during the parsing. */
 	protected void register(final IBlockHandler handler) {
 		handlers.add(handler);
+		dispatcher = null;
 	}
 	
 	/** Returns the language of this parser's Wiktionary edition. */
 	public ILanguage getLanguage() {
 		return language;
 	}
+
+	/** Returns the profiler recording the block handler invocations or
+	 *  <code>null</code> if no profiling takes place. */
+	public BlockHandlerProfiler getProfiler() {
+		return profiler;
+	}
+
+	/** Activates the profiling of the block handler invocations using the
+	 *  given profiler. Use <code>null</code> to deactivate the profiling. */
+	public void setProfiler(final BlockHandlerProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/** Returns the word languages whose entries are parsed or 
+	 *  <code>null</code> if all entries are parsed. */
+	public Set<ILanguage> getLanguageFilter() {
+		return languageFilter;
+	}
+
+	/** Restricts the parsing to the entries of the given word languages; 
+	 *  the sections of all other languages are skipped. Use 
+	 *  <code>null</code> to parse the entries of all languages. */
+	public void setLanguageFilter(final Set<? extends ILanguage> languages) {
+		this.languageFilter = (languages == null ? null : new HashSet<>(languages));
+	}
 			
 }
@@ -18,41 +18,91 @@
 package de.tudarmstadt.ukp.jwktl.parser;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.logging.Logger;
 
 import com.sleepycat.je.DatabaseException;
 import com.sleepycat.persist.EntityCursor;
+import com.sleepycat.persist.PrimaryIndex;
+import com.sleepycat.persist.StoreConfig;
 
 import de.tudarmstadt.ukp.jwktl.JWKTL;
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
 import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
 import de.tudarmstadt.ukp.jwktl.api.entry.BerkeleyDBWiktionaryEdition;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntryCodec;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPageCache;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionarySense;
 import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
 import de.tudarmstadt.ukp.jwktl.parser.util.IDumpInfo;
 
 /**
  * Extends the Berkeley DB implementation by providing the possibility for 
  * modifying the contents. This is required by the parsers which need writing
  * access to the database, but not by the querying and iterating interface. 
+ * The databases are opened in deferred-write mode, i.e., the saved pages
+ * are kept in the cache and written to disk only when the cache is full,
+ * every {@link #getFlushInterval()} pages or {@link #getFlushBytes()} 
+ * bytes, on {@link #commit()}, and when closing the database. Use {@link #openForUpdate(File, Long)} for 
+ * incrementally updating a previously parsed database with a newer dump:
+ * pages whose revision did not change are retained, changed and new pages
+ * are replaced, and pages that are no longer contained in the dump are 
+ * removed when saving the properties. Each commit records the last saved
+ * page in a checkpoint file, so that an interrupted parse can be continued
+ * using {@link #openForResume(File, Long)}.
  * @author Christian M. Meyer
  */
 public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdition
 		implements IWritableWiktionaryEdition {
 
+	private static final Logger logger = Logger.getLogger(WritableBerkeleyDBWiktionaryEdition.class.getName());
+
+	/** The name of the checkpoint file of a partially parsed database. */
+	public static final String CHECKPOINT_FILE_NAME = "wiktionary.checkpoint";
+	/** The checkpoint property denoting the last page saved before the
+	 *  checkpoint. */
+	public static final String CHECKPOINT_PAGE_ID_PROPERTY = "checkpoint.page_id";
+
+	/** The default number of saved pages after which the database 
+	 *  is flushed to disk. */
+	public static final long DEFAULT_FLUSH_INTERVAL = 25000;
+
 	protected long pageCount;
 	protected long entryCount;
 	protected long senseCount;
+	protected long flushInterval;
+	protected long unflushedPages;
+	protected long flushBytes;
+	protected long unflushedBytes;
+	protected BitSet presentPageIds;
+	protected Long lastSavedPageId;
+	protected Properties checkpoint;
 	
-	// default = false; old behaviour of before 0.15.1; this needs significantly longer time!
+	// default = false; old behaviour of before 0.15.1; requires an additional pass over the entry index.
 	protected boolean entryIndexByTitle;
 	
 	/** Shorthand for {@link #WritableBerkeleyDBWiktionaryEdition(File, 
@@ -78,6 +128,95 @@ public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdi
 		pageCount = 0;
 		entryCount = 0;
 		senseCount = 0;
+		flushInterval = DEFAULT_FLUSH_INTERVAL;
+	}
+
+	/** Opens an existing writable Wiktionary database for an incremental
+	 *  update or for resuming an interrupted parse. The counts and 
+	 *  settings of the previous parse are kept. */
+	protected WritableBerkeleyDBWiktionaryEdition(final File dbPath,
+			final Long cacheSize, boolean isUpdate) {
+		super(dbPath, false, false, false, cacheSize);
+		flushInterval = DEFAULT_FLUSH_INTERVAL;
+		if (isUpdate) {
+			if (language == null) {
+				close();
+				throw new WiktionaryException("No parsed Wiktionary found at " + dbPath);
+			}
+			pageCount = getCount(properties, "database.pages");
+			entryCount = getCount(properties, "database.entries");
+			senseCount = getCount(properties, "database.sense");
+			entryIndexByTitle = titleOrderedEntryIds;
+			presentPageIds = new BitSet();
+		} else {
+			if (checkpoint == null) {
+				close();
+				throw new WiktionaryException("No checkpoint found at " + dbPath);
+			}
+			pageCount = getCount(checkpoint, "database.pages");
+			entryCount = getCount(checkpoint, "database.entries");
+			senseCount = getCount(checkpoint, "database.sense");
+			entryIndexByTitle = Boolean.parseBoolean(
+					checkpoint.getProperty(ENTRY_INDEX_BY_TITLE_PROPERTY));
+			lastSavedPageId = getCheckpointPageId();
+			String lang = checkpoint.getProperty("wiktionary.language");
+			if (language == null && lang != null)
+				language = Language.get(lang);
+		}
+	}
+
+	/** Opens the parsed Wiktionary database at the given path for an 
+	 *  incremental update with a newer dump of the same Wiktionary 
+	 *  language edition. Only pages whose revision differs from the
+	 *  stored one need to be parsed and saved again (see 
+	 *  {@link #isUpToDate(long, long)}); pages that are neither saved nor
+	 *  retained are removed by {@link #saveProperties(IDumpInfo)}. 
+	 *  @param cacheSize denotes the size of the cache (in Bytes) used by the
+	 *  	Berkeley DB. 
+	 *  @throws WiktionaryException if there is no parsed Wiktionary 
+	 *  	database at the given path. */
+	public static WritableBerkeleyDBWiktionaryEdition openForUpdate(
+			final File dbPath, final Long cacheSize) {
+		return new WritableBerkeleyDBWiktionaryEdition(dbPath, cacheSize, true);
+	}
+
+	/** Opens the partially parsed Wiktionary database at the given path 
+	 *  for resuming an interrupted parse. The database is in the state of
+	 *  the last {@link #commit()}, which is recorded by a checkpoint file.
+	 *  Use {@link #getCheckpointPageId()} to determine the last page saved
+	 *  before this commit and pass it to 
+	 *  {@link WiktionaryDumpParser#resume(File, long)}. 
+	 *  @param cacheSize denotes the size of the cache (in Bytes) used by the
+	 *  	Berkeley DB. 
+	 *  @throws WiktionaryException if there is no checkpoint at the 
+	 *  	given path, e.g., because the parse has already been completed 
+	 *  	or was interrupted before the first commit. */
+	public static WritableBerkeleyDBWiktionaryEdition openForResume(
+			final File dbPath, final Long cacheSize) {
+		return new WritableBerkeleyDBWiktionaryEdition(dbPath, cacheSize, false);
+	}
+
+	/** Returns the ID of the last page saved before the most recent
+	 *  checkpoint or <code>null</code> if there is no checkpoint. The
+	 *  checkpoint is written on each {@link #commit()} while parsing 
+	 *  and removed once the parse is complete. All pages preceding this 
+	 *  page in the dump file are contained in the database. */
+	public Long getCheckpointPageId() {
+		String value = (checkpoint == null ? null 
+				: checkpoint.getProperty(CHECKPOINT_PAGE_ID_PROPERTY));
+		return (value == null ? null : Long.valueOf(value));
+	}
+
+	/** Returns true if the database has been opened for an incremental
+	 *  update. */
+	public boolean isUpdate() {
+		return presentPageIds != null;
+	}
+
+	private static long getCount(final Properties properties, 
+			final String property) {
+		String value = properties.getProperty(property);
+		return (value == null ? 0 : Long.parseLong(value));
 	}
 
 	@Override
@@ -85,8 +224,205 @@ public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdi
 			boolean overwriteExisting, final Long cacheSize) throws DatabaseException {
 		if (allowCreateNew)
 			prepareTargetDirectory(dbPath, overwriteExisting);
+		else
+			loadCheckpoint();
 		super.connect(isReadOnly, allowCreateNew, overwriteExisting, cacheSize);
 	}
+
+	// The checkpoint describes the storage settings of a partially 
+	// parsed database, which has no property file yet.
+	private void loadCheckpoint() throws DatabaseException {
+		File checkpointFile = new File(dbPath, CHECKPOINT_FILE_NAME);
+		if (!checkpointFile.exists())
+			return;
+
+		checkpoint = new Properties();
+		try (Reader reader = new InputStreamReader(new FileInputStream(checkpointFile), "UTF-8")) {
+			checkpoint.load(reader);
+		} catch (IOException e) {
+			throw new DatabaseException("Unable to load checkpoint file", e){};
+		}
+		separateEntries = Boolean.parseBoolean(
+				checkpoint.getProperty(SEPARATE_ENTRIES_PROPERTY));
+		entryCodecVersion = Integer.parseInt(
+				checkpoint.getProperty(ENTRY_CODEC_PROPERTY, "0"));
+	}
+
+	@Override
+	protected void doClose() {
+		// Closing writes all saved pages, so the checkpoint is advanced 
+		// unless the parse is complete.
+		if (store != null && lastSavedPageId != null && presentPageIds == null) {
+			try {
+				store.sync();
+				saveCheckpoint();
+			} catch (DatabaseException e) {
+				throw new WiktionaryException("Unable to flush database", e);
+			}
+		}
+		super.doClose();
+	}
+
+	/** Records the last saved page and the current counts in the 
+	 *  checkpoint file, which is replaced atomically. */
+	protected void saveCheckpoint() {
+		Properties result = new Properties();
+		result.setProperty(CHECKPOINT_PAGE_ID_PROPERTY, Long.toString(lastSavedPageId));
+		if (language != null)
+			result.setProperty("wiktionary.language", language.getCode());
+		result.setProperty("database.pages", Long.toString(pageCount));
+		result.setProperty("database.entries", Long.toString(entryCount));
+		result.setProperty("database.sense", Long.toString(senseCount));
+		result.setProperty(SEPARATE_ENTRIES_PROPERTY, Boolean.toString(separateEntries));
+		result.setProperty(ENTRY_INDEX_BY_TITLE_PROPERTY, Boolean.toString(entryIndexByTitle));
+		if (entryCodec != null)
+			result.setProperty(ENTRY_CODEC_PROPERTY, Integer.toString(entryCodecVersion));
+
+		File checkpointFile = new File(dbPath, CHECKPOINT_FILE_NAME);
+		File tempFile = new File(dbPath, CHECKPOINT_FILE_NAME + ".tmp");
+		try {
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8")) {
+				result.store(writer, "JWKTL " + JWKTL.getVersion() + " checkpoint");
+			}
+			Files.move(tempFile.toPath(), checkpointFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new WiktionaryException("Unable to save checkpoint file", e);
+		}
+		checkpoint = result;
+	}
+
+	@Override
+	protected StoreConfig createStoreConfig(boolean isReadOnly,
+			boolean allowCreateNew) {
+		StoreConfig result = super.createStoreConfig(isReadOnly, allowCreateNew);
+		result.setDeferredWrite(!isReadOnly);
+		return result;
+	}
+
+	@Override
+	public boolean isUpToDate(long pageId, long revision) {
+		if (presentPageIds == null || revision == 0)
+			return false;
+
+		ensureOpen();
+		try {
+			WiktionaryPage stored = pageById.get(pageId);
+			return (stored != null && stored.getRevision() == revision);
+		} catch (DatabaseException e) {
+			throw new WiktionaryException(e);
+		}
+	}
+
+	@Override
+	public void retainPage(long pageId) {
+		if (presentPageIds != null)
+			markPresent(pageId);
+	}
+
+	protected synchronized void markPresent(long pageId) {
+		if (pageId < 0 || pageId > Integer.MAX_VALUE)
+			throw new WiktionaryException("Unsupported page ID " + pageId);
+		presentPageIds.set((int) pageId);
+	}
+
+	/** Returns true if the entries are stored separately from their pages,
+	 *  which allows for loading a single entry without deserializing the
+	 *  entire page. */
+	public boolean getSeparateEntries() {
+		return separateEntries;
+	}
+
+	/** Controls whether the entries are stored separately from their 
+	 *  pages or embedded in the page records (default). Separate entries
+	 *  only pay off together with {@link #setLazyEntryLoading(boolean)} 
+	 *  or {@link #setCompactEntries(boolean)}, which both enable them; 
+	 *  otherwise, loading a page requires an additional cursor over its 
+	 *  entries. Databases with separate entries cannot be read by JWKTL
+	 *  versions prior to 1.1.1. Embedding the entries disables the 
+	 *  compact entries. This setting must not be changed after the first
+	 *  page has been saved. */
+	public void setSeparateEntries(boolean separateEntries) {
+		this.separateEntries = separateEntries;
+		if (!separateEntries)
+			setCompactEntries(false);
+	}
+
+	/** Controls when the entries of a page are loaded. Enabling the lazy
+	 *  loading also stores the entries separately from their pages, 
+	 *  which is required for loading them on first access. */
+	@Override
+	public void setLazyEntryLoading(boolean lazyEntryLoading) {
+		super.setLazyEntryLoading(lazyEntryLoading);
+		if (lazyEntryLoading)
+			separateEntries = true;
+	}
+
+	/** Returns true if the entries are stored in the compact binary format
+	 *  of the {@link WiktionaryEntryCodec}. */
+	public boolean getCompactEntries() {
+		return entryCodec != null;
+	}
+
+	/** Controls whether the entries are stored in the compact binary 
+	 *  format of the {@link WiktionaryEntryCodec} instead of the 
+	 *  reflection-based binding of the Berkeley DB (default). The compact
+	 *  format encodes language codes, parts of speech, relation types, and
+	 *  grammatical features using a dictionary, which yields smaller 
+	 *  records that can be read faster. Compact entries are always stored
+	 *  separately from their pages. This setting must not be changed after
+	 *  the first page has been saved. */
+	public void setCompactEntries(boolean compactEntries) {
+		if (compactEntries == (entryCodec != null))
+			return;
+
+		if (compactEntries) {
+			entryCodec = new WiktionaryEntryCodec();
+			entryCodecVersion = WiktionaryEntryCodec.VERSION;
+			storedCodeCount = 0;
+			separateEntries = true;
+		} else {
+			entryCodec = null;
+			entryCodecVersion = 0;
+		}
+	}
+
+	/** Returns the number of saved pages after which the database is 
+	 *  flushed to disk. */
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	/** Sets the number of saved pages after which the database is flushed
+	 *  to disk. Use 0 to flush only on explicit calls of {@link #commit()}
+	 *  and when closing the database. Larger intervals reduce the I/O, 
+	 *  but require a larger cache. */
+	public void setFlushInterval(long flushInterval) {
+		if (flushInterval < 0)
+			throw new IllegalArgumentException("Flush interval must not be negative");
+		this.flushInterval = flushInterval;
+	}
+
+	/** Returns the estimated size (in bytes) of the saved pages after 
+	 *  which the database is flushed to disk or 0 if there is no such 
+	 *  limit. */
+	public long getFlushBytes() {
+		return flushBytes;
+	}
+
+	/** Sets the estimated size (in bytes) of the saved pages after which 
+	 *  the database is flushed to disk, in addition to the 
+	 *  {@link #setFlushInterval(long) flush interval}. The size of a page
+	 *  is estimated from the number and length of its elements (see 
+	 *  {@link WiktionaryPageCache#estimatePageSize(WiktionaryPage)}), so
+	 *  the limit adapts the flushing to pages of varying size. Choose a 
+	 *  limit below the cache size to avoid the eviction of unflushed 
+	 *  data. Use 0 to disable the limit (default). */
+	public void setFlushBytes(long flushBytes) {
+		if (flushBytes < 0)
+			throw new IllegalArgumentException("Flush size must not be negative");
+		this.flushBytes = flushBytes;
+	}
 	
 	/** Returns the setting if {@link IWiktionaryEntry}s should be ordered 
    *  alphabetically. */
@@ -102,12 +438,23 @@ public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdi
 		this.language = language;
 	}
 	
+	/** Writes the pages saved so far to disk and runs a checkpoint. In 
+	 *  contrast to closing and reopening the database, the cache remains
+	 *  intact. Unless updating an existing database, the last saved page
+	 *  is recorded in a checkpoint file, which allows for resuming the 
+	 *  parse (see {@link #openForResume(File, Long)}). */
 	public void commit() throws WiktionaryException {
-		boolean isReadOnly = env.getConfig().getReadOnly();
-		Long cacheSize = env.getConfig().getCacheSize();
-		//env.sync();
-		doClose();
-		connect(isReadOnly, false, false, cacheSize);
+		ensureOpen();
+		try {
+			store.sync();
+			env.sync();
+			unflushedPages = 0;
+			unflushedBytes = 0;
+		} catch (DatabaseException e) {
+			throw new WiktionaryException("Unable to flush database", e);
+		}
+		if (lastSavedPageId != null && presentPageIds == null)
+			saveCheckpoint();
 	}
 	
 //	public void saveProperties(final WiktionaryArticleParser parser)
@@ -116,33 +463,10 @@ public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdi
 		// Assign numeric id's to the WiktionaryEntry:s in alphabetical
 		// order. This used to be the case in old versions and thus
 		// is done for compatibility reasons.
-		if (entryIndexByTitle) {
-			long pageId = 0;
-			long entryId = 0;
-			entryById = null;
-			EntityCursor<WiktionaryPage> pageCursor = pageByTitle.entities();
-			while (pageCursor.next() != null) {
-				WiktionaryPage page = pageCursor.current();
-				if (page.getEntryCount() > 0) {
-					for (WiktionaryEntry entry : page.entries())
-						entry.setId(entryId++);
-					//pageCursor.update(page);
-					//pageById.put(page); // Save
-					pageById.putNoReturn(page);
-				}
-
-				pageId++;
-				if (pageId % 100000 == 0) {
-					String lastKey = page.getTitle();
-					pageCursor.close();
-					commit();
-					pageCursor = pageByTitle.entities(lastKey, false, null, false);
-					System.err.println("Indexed " + pageId + " pages");
-				}
-			}
-			pageCursor.close();
-			entryById = store.getSecondaryIndex(entryByKey, Long.class, "entryId");
-		}
+		if (presentPageIds != null)
+			removeMissingPages();
+		if (entryIndexByTitle)
+			indexEntriesByTitle();
 		
 		try {
 			// Saves a property file along with the database storage files that
@@ -156,6 +480,12 @@ public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdi
 			props.put("database.pages", Long.toString(pageCount));
 			props.put("database.entries", Long.toString(entryCount));
 			props.put("database.sense", Long.toString(senseCount));
+			if (entryIndexByTitle)
+				props.put(ENTRY_INDEX_BY_TITLE_PROPERTY, "true");
+			if (separateEntries)
+				props.put(SEPARATE_ENTRIES_PROPERTY, "true");
+			if (entryCodec != null)
+				props.put(ENTRY_CODEC_PROPERTY, Integer.toString(entryCodecVersion));
 			
 			props.put("jwktl.version", JWKTL.getVersion());
 			int i = 1;
@@ -183,6 +513,13 @@ public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdi
     		} finally {
     			writer.close();
     		}
+
+			// The parse is complete and cannot be resumed anymore.
+			File checkpointFile = new File(dbPath, CHECKPOINT_FILE_NAME);
+			if (checkpointFile.exists() && !checkpointFile.delete())
+				logger.warning("Unable to delete checkpoint file " + checkpointFile);
+			checkpoint = null;
+			lastSavedPageId = null;
 				/*
 			properties.put("wiktionary.language", language.getCode());
 			properties.put("wiktionary.dumpfile", dumpInfo.getDumpFile().toString());
@@ -212,22 +549,170 @@ public class WritableBerkeleyDBWiktionaryEdition extends BerkeleyDBWiktionaryEdi
 		}
 	}
 	
+	/** Removes all pages that have been neither saved nor retained since
+	 *  opening the database for an incremental update. */
+	protected void removeMissingPages() {
+		List<Long> missingPageIds = new ArrayList<>();
+		try {
+			try (EntityCursor<Long> pageIds = pageById.keys()) {
+				for (Long pageId : pageIds)
+					if (!presentPageIds.get(pageId.intValue()))
+						missingPageIds.add(pageId);
+			}
+			for (Long pageId : missingPageIds)
+				deletePage(pageId);
+		} catch (DatabaseException e) {
+			throw new WiktionaryException("Unable to remove pages", e);
+		}
+		if (!missingPageIds.isEmpty())
+			logger.info("Removed " + missingPageIds.size() + " pages");
+	}
+
+	/** Removes the page with the given ID along with its entries and the
+	 *  proxies of its entries and senses. */
+	protected void deletePage(long pageId) throws DatabaseException {
+		if (pageCache != null)
+			pageCache.invalidate(pageId);
+		if (!pageById.delete(pageId))
+			return;
+
+		pageCount--;
+		deleteProxies(pageId);
+		if (entryCodec != null)
+			deletePageRange(encodedEntryByKey, pageId);
+		else if (separateEntries)
+			deletePageRange(entryRecordByKey, pageId);
+	}
+
+	// Remove the entry and sense proxies of the given page.
+	private void deleteProxies(long pageId) throws DatabaseException {
+		entryCount -= deletePageRange(entryByKey, pageId);
+		senseCount -= deletePageRange(senseByKey, pageId);
+	}
+
+	// Keys of a page's entries and senses start with "<pageId>:", which
+	// are sorted before "<pageId>;".
+	private static int deletePageRange(final PrimaryIndex<String, ?> index,
+			long pageId) throws DatabaseException {
+		int result = 0;
+		try (EntityCursor<String> keys = index.keys(pageId + ":", true, 
+				pageId + ";", false)) {
+			while (keys.next() != null) {
+				keys.delete();
+				result++;
+			}
+		}
+		return result;
+	}
+
+	/** Assigns consecutive entry IDs in alphabetical order of the page 
+	 *  titles. Instead of rewriting each page, only the entry proxies are 
+	 *  updated, which rebuilds the entry ID index. The pages are traversed
+	 *  using the keys of the title index and thus need not be loaded. The
+	 *  IDs are assigned to the entries when loading a page. */
+	protected void indexEntriesByTitle() {
+		long pageNum = 0;
+		long entryId = 0;
+		try (EntityCursor<Long> pageIds = pageByTitle.keysIndex().entities()) {
+			for (Long pageId : pageIds) {
+				for (int idx = 0; ; idx++) {
+					WiktionaryEntryProxy entry = entryByKey.get(pageId + ":" + idx);
+					if (entry == null)
+						break;
+
+					entry.setEntryId(entryId++);
+					entryByKey.putNoReturn(entry);
+				}
+
+				if (++pageNum % 100000 == 0)
+					logger.info("Indexed " + pageNum + " pages");
+			}
+		} catch (DatabaseException e) {
+			throw new WiktionaryException("Unable to index entries", e);
+		}
+		titleOrderedEntryIds = true;
+	}
+
 	/** Adds the given Wiktionary page to the database. 
 	 *  @throws DatabaseException if the page could not be stored, which is,
 	 *      i.e. the case if the DB is in read-only mode. */
 	public void savePage(final WiktionaryPage page) throws DatabaseException {
-		WiktionaryPage existing = pageById.put(page);
-		if (existing == null) {
+		savePages(Collections.singletonList(page));
+	}
+
+	/** Adds the given Wiktionary pages to the database. The pages, their
+	 *  entries, and the proxies of their entries and senses are inserted 
+	 *  in the order of their keys, which avoids random B-tree accesses.
+	 *  The proxies of a previously saved version of a page are replaced.
+	 *  @throws DatabaseException if the pages could not be stored, which is,
+	 *      i.e. the case if the DB is in read-only mode. */
+	@Override
+	public void savePages(final Collection<WiktionaryPage> pages) 
+			throws DatabaseException {
+		storePages(pages, true);
+	}
+
+	/** Saves the given modified pages like {@link #savePages(Collection)},
+	 *  but without advancing the checkpoint. */
+	@Override
+	public void updatePages(final Collection<WiktionaryPage> pages) 
+			throws DatabaseException {
+		storePages(pages, false);
+	}
+
+	/** Stores the given pages. If the pages have been saved in the order of
+	 *  the dump file, the checkpoint is advanced to the highest page ID,
+	 *  which is recorded with the next {@link #commit()}. */
+	protected void storePages(final Collection<WiktionaryPage> pages,
+			boolean dumpOrder) throws DatabaseException {
+		if (pages.isEmpty())
+			return;
+
+		List<WiktionaryPage> sortedPages = new ArrayList<>(pages);
+		if (sortedPages.size() > 1)
+			sortedPages.sort(Comparator.comparingLong(WiktionaryPage::getId));
+
+		List<WiktionaryEntryProxy> entryProxies = new ArrayList<>();
+		List<WiktionarySenseProxy> senseProxies = new ArrayList<>();
+		for (WiktionaryPage page : sortedPages) {
+			WiktionaryPage existing = storePage(page);
+			if (separateEntries)
+				storeEntries(page);
+			if (presentPageIds != null)
+				markPresent(page.getId());
+			if (existing != null)
+				deleteProxies(page.getId());
+			else
+				pageCount++;
+			if (flushBytes > 0)
+				unflushedBytes += WiktionaryPageCache.estimatePageSize(page);
+
 			for (WiktionaryEntry entry : page.entries()) {
-				entryByKey.put(new WiktionaryEntryProxy(entry));
-				for (WiktionarySense sense : entry.senses()) {
-					senseByKey.put(new WiktionarySenseProxy(sense));
-					senseCount++;
-				}
-				entryCount++;
+				entryProxies.add(new WiktionaryEntryProxy(entry));
+				for (WiktionarySense sense : entry.senses())
+					senseProxies.add(new WiktionarySenseProxy(sense));
 			}
-			pageCount++;
 		}
+
+		entryProxies.sort(Comparator.comparing(WiktionaryEntryProxy::getEntryKey));
+		for (WiktionaryEntryProxy entryProxy : entryProxies)
+			entryByKey.putNoReturn(entryProxy);
+		entryCount += entryProxies.size();
+
+		senseProxies.sort(Comparator.comparing(WiktionarySenseProxy::getSenseKey));
+		for (WiktionarySenseProxy senseProxy : senseProxies)
+			senseByKey.putNoReturn(senseProxy);
+		senseCount += senseProxies.size();
+
+		if (dumpOrder) {
+			long pageId = sortedPages.get(sortedPages.size() - 1).getId();
+			if (lastSavedPageId == null || pageId > lastSavedPageId)
+				lastSavedPageId = pageId;
+		}
+		unflushedPages += sortedPages.size();
+		if ((flushInterval > 0 && unflushedPages >= flushInterval)
+				|| (flushBytes > 0 && unflushedBytes >= flushBytes))
+			commit();
 	}
 	
 }
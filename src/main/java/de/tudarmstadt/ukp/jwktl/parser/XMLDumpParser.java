@@ -27,8 +27,13 @@ import javax.xml.parsers.FactoryConfigurationError;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.parser.util.ImportMetrics;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -50,37 +55,65 @@ public abstract class XMLDumpParser implements IWiktionaryDumpParser {
 
 	protected class XMLDumpHandler extends DefaultHandler {
 
-		protected StringBuffer contentBuffer;
+		protected StringBuilder contentBuffer;
 		protected Stack<String> tags;
+		protected boolean captureContents;
+		protected long handlerNanos;
 
 		@Override
 		public void startDocument() throws SAXException {
 			tags = new Stack<>();
-			contentBuffer = new StringBuffer();
+			if (contentBuffer == null)
+				contentBuffer = new StringBuilder();
+			contentBuffer.setLength(0);
+			captureContents = false;
 			onParserStart();
 		}
 			
 		@Override
 		public void characters(char[] ch, int start, int length)
 				throws SAXException {
-			contentBuffer.append(ch, start, length);
+			if (captureContents)
+				contentBuffer.append(ch, start, length);
 		}
 
 		@Override
 		public void startElement(String uri, String localName, String qName,
 				Attributes attributes) throws SAXException {
-			tags.push(qName);
+			startElement(qName);
+		}
+
+		protected void startElement(final String name) {
+			tags.push(name);
 			contentBuffer.setLength(0);
+			captureContents = isContentElement(name);
 			
-			onElementStart(qName, this);			
+			if (metrics == null) {
+				onElementStart(name, this);
+			} else {
+				long start = System.nanoTime();
+				onElementStart(name, this);
+				handlerNanos += System.nanoTime() - start;
+			}
 		}
 		
 		@Override
 		public void endElement(String uri, String localName, String qName)
 			throws SAXException {
+			endElement(qName);
+		}
+
+		protected void endElement(final String name) {
 			tags.pop();		
 			
-			onElementEnd(qName, this);
+			if (metrics == null) {
+				onElementEnd(name, this);
+			} else {
+				long start = System.nanoTime();
+				onElementEnd(name, this);
+				handlerNanos += System.nanoTime() - start;
+			}
+			captureContents = !tags.isEmpty() && isContentElement(tags.peek());
 		}
 		
 		@Override
@@ -111,6 +144,55 @@ public abstract class XMLDumpParser implements IWiktionaryDumpParser {
 	 *  detection of the file format. */
 	public static final String BZ2_FILE_EXTENSION = ".bz2";
 
+	protected int decompressionThreads = 1;
+	protected boolean pullParsing;
+	protected ImportMetrics metrics;
+
+	/** Returns the number of threads used for decompressing bzip2 
+	 *  compressed dump files. */
+	public int getDecompressionThreads() {
+		return decompressionThreads;
+	}
+
+	/** Sets the number of threads used for decompressing bzip2 compressed 
+	 *  dump files. Using more than one thread decodes the bzip2 blocks
+	 *  of the dump file in parallel. The default is one thread. */
+	public void setDecompressionThreads(int decompressionThreads) {
+		if (decompressionThreads < 1)
+			throw new IllegalArgumentException("At least one thread required");
+		this.decompressionThreads = decompressionThreads;
+	}
+
+	/** Returns true if the dump is read using a StAX pull parser rather 
+	 *  than a SAX parser. */
+	public boolean isPullParsing() {
+		return pullParsing;
+	}
+
+	/** Read the dump using a StAX pull parser rather than a SAX parser.
+	 *  The pull parser copies text only for the elements selected by 
+	 *  {@link #isContentElement(String)} and reuses the content buffer 
+	 *  across pages, which reduces the allocation rate for large dumps. 
+	 *  The hotspots are invoked in the same way for both parsers. */
+	public void setPullParsing(boolean pullParsing) {
+		this.pullParsing = pullParsing;
+	}
+
+	/** Returns the metrics of the dump import or <code>null</code> if
+	 *  no metrics are collected. */
+	public ImportMetrics getMetrics() {
+		return metrics;
+	}
+
+	/** Activates the collection of performance metrics for parsing dump
+	 *  files. The time spent for reading and decompressing the dump file
+	 *  and the time spent for XML parsing (excluding the hotspots) are 
+	 *  measured by this parser; further metrics are reported by the
+	 *  subclasses and page parsers. Use <code>null</code> to deactivate
+	 *  the measurement (default). */
+	public void setMetrics(final ImportMetrics metrics) {
+		this.metrics = metrics;
+	}
 
 	/** Parses the given XML dump file. The file format is automatically
 	 *  detected using the file extension: it can be either bzip2 compressed
@@ -125,9 +207,33 @@ public abstract class XMLDumpParser implements IWiktionaryDumpParser {
 	}
 
 	protected void parseStream(InputStream in) throws IOException {
+		if (metrics == null) {
+			parseStream(in, new XMLDumpHandler());
+			return;
+		}
+
+		// Measure the time spent outside of reading and the hotspots.
+		long start = System.nanoTime();
+		MeteredInputStream meteredIn = new MeteredInputStream(in, metrics);
+		XMLDumpHandler handler = new XMLDumpHandler();
+		try {
+			parseStream(meteredIn, handler);
+		} finally {
+			metrics.recordXml(System.nanoTime() - start 
+					- meteredIn.getReadNanos() - handler.handlerNanos);
+		}
+	}
+
+	private void parseStream(final InputStream in, 
+			final XMLDumpHandler handler) throws IOException {
+		if (pullParsing) {
+			parsePullStream(in, handler);
+			return;
+		}
+
 		try {
 			// Run the SAX parser.
-			getParser().parse(in, new XMLDumpHandler());
+			getParser().parse(in, handler);
 		} catch (SAXException e) {
 			throw new WiktionaryException("XML parse error", e);
 		} finally {
@@ -138,6 +244,75 @@ public abstract class XMLDumpParser implements IWiktionaryDumpParser {
 		}
 	}
 
+	protected void parsePullStream(final InputStream in, 
+			final XMLDumpHandler handler) throws IOException {
+		XMLStreamReader reader = null;
+		try {
+			reader = getPullParserFactory().createXMLStreamReader(in);
+			handler.startDocument();
+			char[] textBuffer = new char[8192];
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+					case XMLStreamConstants.START_ELEMENT:
+						handler.startElement(getName(reader));
+						break;
+
+					case XMLStreamConstants.END_ELEMENT:
+						handler.endElement(getName(reader));
+						break;
+
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+					case XMLStreamConstants.SPACE:
+						if (!handler.captureContents)
+							break;
+						// Copy the text in chunks without creating a string.
+						int length = reader.getTextLength();
+						for (int offset = 0; offset < length; ) {
+							int n = reader.getTextCharacters(offset, textBuffer, 0, textBuffer.length);
+							if (n <= 0)
+								break;
+							handler.contentBuffer.append(textBuffer, 0, n);
+							offset += n;
+						}
+						break;
+
+					case XMLStreamConstants.END_DOCUMENT:
+						handler.endDocument();
+						break;
+				}
+			}
+		} catch (XMLStreamException | SAXException e) {
+			throw new WiktionaryException("XML parse error", e);
+		} finally {
+			try {
+				if (reader != null)
+					reader.close();
+			} catch (XMLStreamException ignored) {
+			}
+			try {
+				in.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	private static String getName(final XMLStreamReader reader) {
+		String prefix = reader.getPrefix();
+		if (prefix == null || prefix.isEmpty())
+			return reader.getLocalName();
+		else
+			return prefix + ":" + reader.getLocalName();
+	}
+
+	/** Hotspot that decides if the text contents of the XML element with 
+	 *  the given name are required by {@link #onElementEnd(String, 
+	 *  XMLDumpHandler)}. The contents of all other elements are skipped. 
+	 *  By default, the contents of all elements are captured. */
+	protected boolean isContentElement(final String name) {
+		return true;
+	}
+
 	/** Hotspot that is invoked on starting the parser. Use this hotspot to 
 	 *  initialize your data. */
 	protected void onParserStart() {}
@@ -157,6 +332,8 @@ public abstract class XMLDumpParser implements IWiktionaryDumpParser {
 	// Open the dump file; decompress if necessary.
 	private InputStream openDumpFile(File dumpFile) throws IOException {
 		if (dumpFile.getName().endsWith(BZ2_FILE_EXTENSION)) {
+			if (decompressionThreads > 1)
+				return new ParallelBZip2InputStream(dumpFile, decompressionThreads);
 			return new ChainedCBZip2InputStream(dumpFile);
 		} else {
 			return new FileInputStream(dumpFile);
@@ -173,6 +350,13 @@ public abstract class XMLDumpParser implements IWiktionaryDumpParser {
 		}
 	}
 
+	private static XMLInputFactory getPullParserFactory() {
+		XMLInputFactory result = XMLInputFactory.newInstance();
+		result.setProperty(XMLInputFactory.IS_COALESCING, false);
+		result.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		return result;
+	}
+
 	private SAXParserFactory getParserFactory() {
 		try {
 			// prefer Java's built-in SAX parser over any bundled ones.
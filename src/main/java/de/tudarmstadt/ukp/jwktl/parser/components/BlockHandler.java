@@ -17,6 +17,9 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser.components;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import de.tudarmstadt.ukp.jwktl.parser.util.IBlockHandler;
 import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
 import de.tudarmstadt.ukp.jwktl.parser.util.StringUtils;
@@ -43,7 +46,7 @@ public abstract class BlockHandler implements IBlockHandler {
 	}
 	
 	public boolean canHandle(String blockHeader) {
-		blockHeader = StringUtils.strip(blockHeader, "{}=: ");
+		blockHeader = normalizeHeader(blockHeader);
 		for (String label : labels)
 			if (label.equals(blockHeader))
 				return true;
@@ -64,5 +67,28 @@ public abstract class BlockHandler implements IBlockHandler {
 	protected String[] getLabels() {
 		return labels;
 	}
+
+	/** Removes the markup surrounding the label of the given block 
+	 *  header, e.g., "Synonyms" for "====Synonyms====". */
+	public static String normalizeHeader(final String blockHeader) {
+		return StringUtils.strip(blockHeader, "{}=: ");
+	}
+
+	/** Returns the header prefixes for a handler that accepts a header 
+	 *  if it equals one of the given lower case labels after stripping the 
+	 *  given characters and converting it to lower case, i.e., the 
+	 *  stripped characters and the first letter of each label in lower
+	 *  and upper case. */
+	protected static String[] getStrippedLabelPrefixes(final String stripChars,
+			final Iterable<String> labels) {
+		Set<String> result = new LinkedHashSet<>();
+		for (int i = 0; i < stripChars.length(); i++)
+			result.add(stripChars.substring(i, i + 1));
+		for (String label : labels) {
+			result.add(label.substring(0, 1));
+			result.add(label.substring(0, 1).toUpperCase());
+		}
+		return result.toArray(new String[result.size()]);
+	}
 	
 }
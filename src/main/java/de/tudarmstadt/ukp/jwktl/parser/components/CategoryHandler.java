@@ -31,6 +31,7 @@ import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
  */
 public class CategoryHandler extends BlockHandler {
 	private Pattern categoryPattern;
+	private String categoryPrefix;
 	private Set<String> categories = new HashSet<>();
 
 	/** Instantiate the categories worker using the given categories head. This
@@ -39,10 +40,14 @@ public class CategoryHandler extends BlockHandler {
 	public CategoryHandler(final String categoryHead) {
 		categoryPattern = Pattern.compile(
 			"\\[\\[:?" + categoryHead + ":([^\\]]+)\\]\\]");
+		categoryPrefix = categoryHead + ":";
 	}
 	
 	public boolean canHandle(String blockHeader) {
-		return blockHeader != null && categoryPattern.matcher(blockHeader).find();
+		// Categories may appear anywhere in the line, so test for the 
+		// categories head before applying the pattern.
+		return blockHeader != null && blockHeader.contains(categoryPrefix)
+				&& categoryPattern.matcher(blockHeader).find();
 	}
 	
 	public boolean processHead(final String textLine, final ParsingContext context) {
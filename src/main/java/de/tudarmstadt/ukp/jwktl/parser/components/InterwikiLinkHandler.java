@@ -45,6 +45,11 @@ public class InterwikiLinkHandler extends BlockHandler {
 		return (line.contains(":") && !line.contains(categoryHead) && isBracketed);
 	}
 
+	@Override
+	public String[] getHeaderPrefixes() {
+		return new String[]{"[["};
+	}
+
 	@Override
 	public boolean processHead(String textLine, ParsingContext context) {
 		// Extract the language of the interwiki link.
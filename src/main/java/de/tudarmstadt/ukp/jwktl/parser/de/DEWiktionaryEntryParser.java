@@ -19,6 +19,7 @@ package de.tudarmstadt.ukp.jwktl.parser.de;
 
 import de.tudarmstadt.ukp.jwktl.api.RelationType;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
 import de.tudarmstadt.ukp.jwktl.api.util.Language;
 import de.tudarmstadt.ukp.jwktl.parser.IWiktionaryEntryParser;
 import de.tudarmstadt.ukp.jwktl.parser.WiktionaryEntryParser;
@@ -90,4 +91,16 @@ public class DEWiktionaryEntryParser extends WiktionaryEntryParser {
 			|| (line.startsWith("'''") && line.endsWith("'''"));
 	}
 
+	/** Language sections start with a second-level headline, e.g., 
+	 *  "== Wort ({{Sprache|Deutsch}}) ==". */
+	@Override
+	protected boolean isLanguageSectionStart(final String line) {
+		return line.startsWith("==") && line.length() > 2 && line.charAt(2) != '=';
+	}
+
+	@Override
+	protected ILanguage getSectionLanguage(final String line) {
+		return DEWordLanguageHandler.findLanguage(line);
+	}
+
 }
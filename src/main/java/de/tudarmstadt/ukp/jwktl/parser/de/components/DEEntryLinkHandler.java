@@ -67,6 +67,11 @@ public class DEEntryLinkHandler extends DEBlockHandler {
 		return false;
 	}
 
+	@Override
+	public String[] getHeaderPrefixes() {
+		return new String[]{"{{"};
+	}
+
 	@Override
 	public boolean processHead(final String textLine, final ParsingContext context) {
 		if (entryLink != null) {
@@ -59,6 +59,11 @@ public class DEPartOfSpeechHandler extends DEBlockHandler {
 			return false;
 	}
 
+	@Override
+	public String[] getHeaderPrefixes() {
+		return new String[]{"===", "'''"};
+	}
+
 	/** Extract the part of speech tags and additional grammatical
 	 *  information. */
 	@Override
@@ -75,6 +75,11 @@ public class DEWordFormHandler extends DEBlockHandler {
 		return (tableType != null);
 	}
 
+	@Override
+	public String[] getHeaderPrefixes() {
+		return new String[]{"{{"};
+	}
+
 	public boolean processHead(final String textLine, final ParsingContext context) {
 		wordForms = new ArrayList<>();
 		return true;
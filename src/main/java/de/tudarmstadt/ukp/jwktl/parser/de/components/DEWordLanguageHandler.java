@@ -55,6 +55,21 @@ public class DEWordLanguageHandler extends DEBlockHandler {
 		language = Language.findByName(matcher.group(2));
 		return true;
 	}
+
+	@Override
+	public String[] getHeaderPrefixes() {
+		return new String[]{"=="};
+	}
+
+	/** Returns the word language denoted by the given section header or 
+	 *  <code>null</code> if the header does not contain a known language. */
+	public static ILanguage findLanguage(final String blockHeader) {
+		Matcher matcher = LANGUAGE_PATTERN.matcher(blockHeader);
+		if (!matcher.find())
+			return null;
+
+		return Language.findByName(matcher.group(2));
+	}
 		
 	/** Store the word and its language in the parsing context. */
 	public void fillContent(final ParsingContext context) {
@@ -33,11 +33,18 @@ import de.tudarmstadt.ukp.jwktl.parser.util.StringUtils;
 public class ENEtymologyHandler extends ENBlockHandler {	
 	private static List<String> SPELLINGS = Arrays.asList("etymology", "etymolgy",
 			"eytomology", "etmology", "eymology");
+	private static final String[] HEADER_PREFIXES = 
+			getStrippedLabelPrefixes("{}=: 1234567890", SPELLINGS);
 	protected StringBuffer contentBuffer;
 
 	public boolean canHandle(String blockHeader) {
 		return SPELLINGS.contains(StringUtils.strip(blockHeader, "{}=: 1234567890").toLowerCase());
 	}
+
+	@Override
+	public String[] getHeaderPrefixes() {
+		return HEADER_PREFIXES;
+	}
 	
 	@Override
 	public boolean processHead(String textLine, ParsingContext context) {	
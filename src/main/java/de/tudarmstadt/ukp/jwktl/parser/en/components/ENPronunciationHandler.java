@@ -18,14 +18,15 @@
 package de.tudarmstadt.ukp.jwktl.parser.en.components;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import de.tudarmstadt.ukp.jwktl.api.IPronunciation;
 import de.tudarmstadt.ukp.jwktl.api.IPronunciation.PronunciationType;
 import de.tudarmstadt.ukp.jwktl.api.entry.Pronunciation;
-import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser.Template;
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateTokenizer;
 import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
 import de.tudarmstadt.ukp.jwktl.parser.util.StringUtils;
 
@@ -35,11 +36,9 @@ import de.tudarmstadt.ukp.jwktl.parser.util.StringUtils;
  */
 public class ENPronunciationHandler extends ENBlockHandler {
 
-	private static final Pattern PRONUNCIATION_CONTEXT = Pattern.compile("\\{\\{(?:a|sense)\\|([^}|]+?)}}");
-	private static final Pattern PRONUNCIATION = Pattern.compile("\\{\\{(?:IPA|SAMPA)\\|.+?}}");
-	private static final Pattern PRONUNCIATION_AUDIO = Pattern.compile("\\{\\{audio\\|([^}|]+?)(?:\\|([^}|]+?)(?:\\|lang=[^}|]+)?)?}}");
-	private static final Pattern PRONUNCIATION_RYHME = Pattern.compile("\\{\\{rhymes\\|([^}|]+?)}}");
-	private static final Pattern PRONUNCIATION_RAW = Pattern.compile("\\{\\{\\w+-(?:IPA|pron)(?:\\|.*?)?}}");
+	private static final Pattern PRONUNCIATION_RAW = Pattern.compile("\\w+-(?:IPA|pron)");
+	private static final String[] HEADER_PREFIXES = getStrippedLabelPrefixes(
+			"{}=: 1234567890", Arrays.asList("pronunciation"));
 
 	protected List<IPronunciation> pronunciations;
 
@@ -51,6 +50,11 @@ public class ENPronunciationHandler extends ENBlockHandler {
 		
 		return false;
 	}
+
+	@Override
+	public String[] getHeaderPrefixes() {
+		return HEADER_PREFIXES;
+	}
 	
 	@Override
 	public boolean processHead(final String textLine, final ParsingContext context) {
@@ -60,41 +64,59 @@ public class ENPronunciationHandler extends ENBlockHandler {
 
 	@Override
 	public boolean processBody(final String textLine, final ParsingContext context) {
+		// Collect the templates of the line first, since the context 
+		// applies to all pronunciations of the line.
 		final StringBuilder ctx = new StringBuilder();
-		Matcher matcher = PRONUNCIATION_CONTEXT.matcher(textLine); 
-		while (matcher.find())
-			ctx.append(" ").append(matcher.group(1));
+		final List<Template> transcriptions = new ArrayList<>();
+		final List<String> rawPronunciations = new ArrayList<>();
+		Template audio = null;
+		Template rhyme = null;
+		final TemplateTokenizer tokenizer = new TemplateTokenizer(textLine);
+		while (tokenizer.next()) {
+			final Template template = tokenizer.getTemplate();
+			if (template == null)
+				continue;
 
-		final Matcher pronunMatcher = PRONUNCIATION.matcher(textLine);
-		while (pronunMatcher.find()) {
-			TemplateParser.parse(pronunMatcher.group(), template -> {
-				final PronunciationType type = PronunciationType.valueOf(template.getName());
-				for (int i = 0; i<template.getNumberedParamsCount(); i++) {
-					String pronunciation = template.getNumberedParam(i);
-					if (!pronunciation.trim().isEmpty()) {
-						pronunciations.add(new Pronunciation(type, pronunciation, ctx.toString().trim()));
-					}
-				}
-				return null;
-			});
+			final String name = template.getName();
+			if (("a".equals(name) || "sense".equals(name)) && template.getParamsCount() == 1
+					&& template.getNumberedParamsCount() == 1)
+				ctx.append(" ").append(template.getNumberedParam(0));
+			else
+			if ("IPA".equals(name) || "SAMPA".equals(name))
+				transcriptions.add(template);
+			else
+			if (PRONUNCIATION_RAW.matcher(name).matches())
+				rawPronunciations.add(tokenizer.getText());
+			else
+			if ("audio".equals(name) && audio == null && isAudio(template))
+				audio = template;
+			else
+			if ("rhymes".equals(name) && rhyme == null && template.getParamsCount() == 1
+					&& template.getNumberedParamsCount() == 1)
+				rhyme = template;
 		}
-		matcher = PRONUNCIATION_RAW.matcher(textLine);
-		while (matcher.find()) {
-			pronunciations.add(new Pronunciation(PronunciationType.RAW, matcher.group(0), null));
+
+		for (Template template : transcriptions) {
+			final PronunciationType type = PronunciationType.valueOf(template.getName());
+			for (String pronunciation : template.getNumberedParams())
+				if (!pronunciation.trim().isEmpty())
+					pronunciations.add(new Pronunciation(type, pronunciation, ctx.toString().trim()));
 		}
+		for (String pronunciation : rawPronunciations)
+			pronunciations.add(new Pronunciation(PronunciationType.RAW, pronunciation, null));
 
 		//TODO: english pronunciation key/AHD
 		//TODO: separate property for sense
-		matcher = PRONUNCIATION_AUDIO.matcher(textLine); 
-		if (matcher.find()) {
-			String note = ctx + " " + matcher.group(2);
+		if (audio != null) {
+			String note = ctx.toString();
+			if (audio.getNumberedParamsCount() > 1)
+				note += " " + audio.getNumberedParam(1);
 			pronunciations.add(new Pronunciation(PronunciationType.AUDIO, 
-					matcher.group(1), note.trim()));
+					audio.getNumberedParam(0), note.trim()));
 		}
-		matcher = PRONUNCIATION_RYHME.matcher(textLine); 
-		if (matcher.find())
+		if (rhyme != null)
 			pronunciations.add(new Pronunciation(PronunciationType.RHYME, 
-					matcher.group(1), ctx.toString().trim()));
+					rhyme.getNumberedParam(0), ctx.toString().trim()));
 		
 		/*System.out.println(">>>>" + textLine);
 		for (Pronunciation p : pronunciations)
@@ -103,6 +125,19 @@ public class ENPronunciationHandler extends ENBlockHandler {
 		
 		return false;
 	}
+
+	/** Checks if the given template has the form 
+	 *  <code>{{audio|file|note|lang=...}}</code>, where the note and the 
+	 *  language are optional. */
+	protected static boolean isAudio(final Template template) {
+		int numbered = template.getNumberedParamsCount();
+		int named = template.getNamedParamsCount();
+		if (numbered < 1 || numbered > 2 || named > 1)
+			return false;
+		if (named == 1 && template.getNamedParam("lang") == null)
+			return false;
+		return !template.getNumberedParam(0).isEmpty();
+	}
 	
 	public void fillContent(final ParsingContext context) {		
 		// There is no PosEntry yet - store the pronunciations in the context
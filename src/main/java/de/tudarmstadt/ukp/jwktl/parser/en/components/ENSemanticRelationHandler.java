@@ -17,14 +17,11 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser.en.components;
 
-import java.util.Locale;
-
 import de.tudarmstadt.ukp.jwktl.api.RelationType;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionarySense;
-import de.tudarmstadt.ukp.jwktl.parser.util.SimilarityUtils;
-
-import static de.tudarmstadt.ukp.jwktl.api.entry.WikiString.removeWikiLinks;
+import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
+import de.tudarmstadt.ukp.jwktl.parser.util.SenseMatcher;
 
 /**
  * Parser component for extracting
@@ -35,13 +32,28 @@ import static de.tudarmstadt.ukp.jwktl.api.entry.WikiString.removeWikiLinks;
  * sense using {@link #findMatchingSense(WiktionaryEntry, String)}.
  */
 public class ENSemanticRelationHandler extends ENRelationHandler {
+
+	protected SenseMatcher senseMatcher;
+
 	public ENSemanticRelationHandler(RelationType relationType, String... labels) {
 		super(relationType, labels);
 	}
 
+	@Override
+	public void fillContent(final ParsingContext context) {
+		// The word lists of the block share the gloss vectors of the entry.
+		try {
+			super.fillContent(context);
+		} finally {
+			senseMatcher = null;
+		}
+	}
+
 	@Override
 	protected WiktionarySense findMatchingSense(WiktionaryEntry posEntry, WordList wordList) {
-		WiktionarySense matchingSense = findMatchingSense(posEntry, wordList.comment);
+		if (senseMatcher == null || senseMatcher.getEntry() != posEntry)
+			senseMatcher = new SenseMatcher(posEntry);
+		WiktionarySense matchingSense = senseMatcher.findMatchingSense(wordList.comment);
 
 		if (matchingSense != null) {
 			return matchingSense;
@@ -55,51 +67,9 @@ public class ENSemanticRelationHandler extends ENRelationHandler {
 	 * corresponds to the specified comment (sense marker). The matching
 	 * of the corresponding word sense is achieved by word similarity
 	 * metrics. Returns <code>null</code> if no matching word sense
-	 * could be found.
+	 * could be found (see {@link SenseMatcher}).
 	 */
 	public static WiktionarySense findMatchingSense(final WiktionaryEntry entry, final String marker) {
-		// Monosemous entries.
-		if (entry.getSenseCount() == 1)
-			return entry.getSense(1);
-
-		// Empty sense marker.
-		if (marker == null || marker.isEmpty())
-			return null;
-
-		WiktionarySense best1Gram = null;
-		WiktionarySense best3Gram = null;
-		double best1GramScore = -1;
-		double best3GramScore = -1;
-
-		for (WiktionarySense sense : entry.senses()) {
-			if (sense.getIndex() <= 0)
-				continue; // Skip unassigned sense.
-
-			String gloss = removeWikiLinks(sense.getGloss().getText()).toLowerCase(Locale.ENGLISH);
-			double similarity = SimilarityUtils.wordSim(marker, gloss);
-			if (similarity > best1GramScore){
-				best1GramScore = similarity;
-				best1Gram = sense;
-			}
-			similarity = SimilarityUtils.similarity(marker, gloss);
-			if (similarity > best3GramScore){
-				best3GramScore = similarity;
-				best3Gram = sense;
-			}
-		}
-
-		if (best1Gram == null && best3Gram == null) {
-			return null;
-		}
-
-		if (best1GramScore <= 0 && best3GramScore <= 0) {
-			return null;
-		}
-
-		if (best1GramScore > best3GramScore) {
-			return best1Gram;
-		} else {
-			return best3Gram;
-		}
+		return new SenseMatcher(entry).findMatchingSense(marker);
 	}
 }
@@ -107,6 +107,11 @@ public class ENSenseHandler extends ENBlockHandler {
 		return (partOfSpeech != null);
 	}
 
+	@Override
+	public String[] getHeaderPrefixes() {
+		return new String[]{"==="};
+	}
+
 	/**
 	 * Process head
 	 */
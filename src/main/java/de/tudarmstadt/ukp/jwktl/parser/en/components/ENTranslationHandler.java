@@ -18,9 +18,9 @@
 package de.tudarmstadt.ukp.jwktl.parser.en.components;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -33,10 +33,12 @@ import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
 import de.tudarmstadt.ukp.jwktl.api.util.Language;
 import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
 import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser.Template;
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateTokenizer;
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateTokenizer.TokenType;
 import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
+import de.tudarmstadt.ukp.jwktl.parser.util.SenseMatcher;
 
 import static de.tudarmstadt.ukp.jwktl.api.entry.WikiString.removeWikiLinks;
-import static de.tudarmstadt.ukp.jwktl.parser.en.components.ENSemanticRelationHandler.findMatchingSense;
 import static de.tudarmstadt.ukp.jwktl.parser.util.StringUtils.cleanText;
 
 /**
@@ -46,18 +48,6 @@ import static de.tudarmstadt.ukp.jwktl.parser.util.StringUtils.cleanText;
  */
 public class ENTranslationHandler extends ENBlockHandler {
 	private static final Pattern LANGUAGE = Pattern.compile("^\\*:?\\s*(.*?):\\s*");
-	private static final Pattern SEPARATOR = Pattern.compile("(?:]]|}}|\\))\\s*([;,])");
-
-	private static final Pattern WIKILINK_TRANSLATION = Pattern.compile("(?:\\[\\[.*?]]\\s*)+");
-	private static final Pattern TEMPLATE_TRANSLATION = Pattern.compile("\\{\\{t.*?}}");
-
-	private static final Pattern TRANSLATION = Pattern.compile(
-		"^" +
-		"(?<prefix>.*\\s+)??" +
-		"(?<content>" + WIKILINK_TRANSLATION + "|" + TEMPLATE_TRANSLATION + ")" +
-		"(?<postfix>.*)" +
-		"$"
-	);
 
 	private String currentSense;
 	private Map<String, List<IWiktionaryTranslation>> sensNum2trans;
@@ -82,7 +72,8 @@ public class ENTranslationHandler extends ENBlockHandler {
 		if (text.startsWith("{{trans-mid}}") || text.startsWith("{{mid}}"))
 			return true;
 		if (text.startsWith("{{trans-top|") && text.contains("}}")) {
-			final Template template = TemplateParser.parseTemplate(text.substring(2, text.indexOf("}}")));
+			final TemplateTokenizer tokenizer = new TemplateTokenizer(text);
+			final Template template = (tokenizer.next() ? tokenizer.getTemplate() : null);
 			if (template != null && template.getNumberedParamsCount() >= 1) {
 				currentSense = template.getNumberedParam(0);
 			}
@@ -122,26 +113,23 @@ public class ENTranslationHandler extends ENBlockHandler {
 	}
 
 	private IWiktionaryTranslation parseTranslation(ILanguage languageHeader, String text) {
-		Matcher matcher = TRANSLATION.matcher(text);
-		if (!matcher.matches()) {
+		final int[] content = findTranslation(text);
+		if (content == null) {
 			return null;
 		}
-		final String prefix = matcher.group("prefix");
-		final String content = matcher.group("content");
-		final String postfix = matcher.group("postfix");
 
 		WiktionaryTranslation translation;
-		if (content.startsWith("{{")) {
-			translation = parseTemplate(content);
+		final String contentText = text.substring(content[0], content[1]);
+		if (contentText.startsWith("{{")) {
+			translation = parseTemplate(contentText);
 		} else {
-			translation = new WiktionaryTranslation(languageHeader, cleanText(removeWikiLinks(content)));
+			translation = new WiktionaryTranslation(languageHeader, cleanText(removeWikiLinks(contentText)));
 		}
 
 		if (translation != null) {
-			String additionalInformation = "";
-			if (prefix != null) {
-				additionalInformation += prefix.trim();
-			}
+			final String prefix = text.substring(0, content[0]);
+			final String postfix = text.substring(content[1]);
+			String additionalInformation = prefix.trim();
 			if (translation.getGender() != null) {
 				additionalInformation += " {{" + translation.getGender() + "}} ";
 			}
@@ -156,21 +144,92 @@ public class ENTranslationHandler extends ENBlockHandler {
 		}
 	}
 
+	/** Returns the start and end position of the translation within the 
+	 *  given text or <code>null</code> if there is none. The translation is
+	 *  a template whose name starts with "t" or a sequence of links 
+	 *  (including trailing white space) at the start of the text or after 
+	 *  white space. A translation at the start of the text is preferred;
+	 *  otherwise, the last one is used. Templates and links nested in 
+	 *  other templates are ignored. */
+	static int[] findTranslation(final String text) {
+		final TemplateTokenizer tokenizer = new TemplateTokenizer(text);
+		int[] result = null;
+		boolean inLinks = false;
+		while (tokenizer.next()) {
+			final int start = tokenizer.getStart();
+			final TokenType type = tokenizer.getType();
+			if (type == TokenType.TEXT) {
+				if (inLinks) {
+					// Links separated by white space form a sequence.
+					while (result[1] < tokenizer.getEnd() && isSpace(text.charAt(result[1])))
+						result[1]++;
+					inLinks = (result[1] == tokenizer.getEnd());
+				}
+				continue;
+			}
+			if (type == TokenType.LINK && inLinks && result[1] == start) {
+				result[1] = tokenizer.getEnd();
+				continue;
+			}
+
+			inLinks = false;
+			if (result != null && result[0] == 0)
+				break;
+			if (start > 0 && !isSpace(text.charAt(start - 1)))
+				continue;
+			if (type == TokenType.LINK) {
+				result = new int[]{start, tokenizer.getEnd()};
+				inLinks = true;
+			} else
+			if (text.charAt(start + 2) == 't')
+				result = new int[]{start, tokenizer.getEnd()};
+		}
+		return result;
+	}
+
+	/** Splits the given text at each comma or semicolon that follows a 
+	 *  template, link, or closing parenthesis (and optional white space),
+	 *  provided that the preceding part forms a translation. Separators 
+	 *  nested in templates or links are ignored. */
 	static List<String> splitTranslationParts(String text) {
 		List<String> results = new ArrayList<>();
-		Matcher m = SEPARATOR.matcher(text);
+		TemplateTokenizer tokenizer = new TemplateTokenizer(text);
 		int lastStart = 0;
-		while (m.find()) {
-			final String candidate = text.substring(lastStart, m.start(1)).trim();
-			if (TRANSLATION.matcher(candidate).matches()) {
-				results.add(candidate);
-				lastStart = m.end(1);
+		boolean afterClosing = false;
+		while (tokenizer.next()) {
+			if (tokenizer.getType() != TokenType.TEXT) {
+				afterClosing = true;
+				continue;
+			}
+
+			for (int i = tokenizer.getStart(); i < tokenizer.getEnd(); i++) {
+				char c = text.charAt(i);
+				if (c == ',' || c == ';') {
+					if (afterClosing) {
+						final String candidate = text.substring(lastStart, i).trim();
+						if (findTranslation(candidate) != null) {
+							results.add(candidate);
+							lastStart = i + 1;
+						}
+					}
+					afterClosing = false;
+				} else
+				if (c == ')' || ((c == ']' || c == '}') && i > 0 && text.charAt(i - 1) == c))
+					afterClosing = true;
+				else
+				if (!isSpace(c))
+					afterClosing = false;
 			}
 		}
 		results.add(text.substring(lastStart).trim());
 		return results;
 	}
 
+	/** Checks if the given character is white space (<code>\s</code>). */
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
 	private WiktionaryTranslation parseTemplate(String templateString) {
 		Template template = TemplateParser.parseTemplate(templateString.substring(2, templateString.length() - 2));
 		if (template == null || template.getNumberedParamsCount() <= 1) {
@@ -199,20 +258,16 @@ public class ENTranslationHandler extends ENBlockHandler {
 	public void fillContent(final ParsingContext context) {
 		WiktionaryEntry posEntry = context.findEntry();
 		if (posEntry != null) {
-			for (Entry<String, List<IWiktionaryTranslation>> trans : sensNum2trans.entrySet()) {
-				WiktionarySense targetSense = findSense(posEntry, trans.getKey());
+			// Match all sense markers of the block at once.
+			Iterator<WiktionarySense> senseIter = new SenseMatcher(posEntry)
+					.findMatchingSenses(sensNum2trans.keySet()).iterator();
+			for (List<IWiktionaryTranslation> translations : sensNum2trans.values()) {
+				WiktionarySense targetSense = senseIter.next();
+				if (targetSense == null)
+					targetSense = posEntry.getUnassignedSense();
 
-				trans.getValue().forEach(targetSense::addTranslation);
+				translations.forEach(targetSense::addTranslation);
 			}
 		}
 	}
-
-	private WiktionarySense findSense(WiktionaryEntry entry, String marker) {
-		WiktionarySense sense = findMatchingSense(entry, marker);
-		if (sense != null) {
-			return sense;
-		} else {
-			return entry.getUnassignedSense();
-		}
-	}
 }
@@ -42,15 +42,23 @@ public class ENWordLanguageHandler extends ENBlockHandler implements IBlockHandl
 			return true;
 		}
 		
-		language = null;
-//		System.out.println(textLine);
+		language = findLanguage(blockHeader);
+		return (language != null);
+	}
+
+	@Override
+	public String[] getHeaderPrefixes() {
+		return new String[]{"=", "----"};
+	}
+
+	/** Returns the word language denoted by the given section header or 
+	 *  <code>null</code> if the header does not contain a known language. */
+	public static ILanguage findLanguage(final String blockHeader) {
 		Matcher matcher = LANGUAGE_HEADER.matcher(blockHeader);
 		if (!matcher.find())
-			return false;
-				
-//		System.out.println(matcher.group(1));
-		language = Language.findByName(matcher.group(1));
-		return (language != null);
+			return null;
+
+		return Language.findByName(matcher.group(1));
 	}
 
 	@Override
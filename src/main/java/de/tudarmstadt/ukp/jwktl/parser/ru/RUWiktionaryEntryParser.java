@@ -18,6 +18,7 @@
 package de.tudarmstadt.ukp.jwktl.parser.ru;
 
 import java.util.Map;
+import java.util.function.Predicate;
 
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
@@ -44,6 +45,10 @@ import de.tudarmstadt.ukp.jwktl.parser.util.ParsingContext;
  */
 public class RUWiktionaryEntryParser extends WiktionaryEntryParser {
 	
+	/** Converter shared by all pages (and parser instances), since its
+	 *  mappings are immutable. */
+	private static final WikokitToJWKTL CONVERTER = new WikokitToJWKTL();
+	
 	/** Initializes the Russian entry parser. That is, the language and the
 	 *  redirection pattern is defined. */
 	public RUWiktionaryEntryParser() {
@@ -60,11 +65,13 @@ public class RUWiktionaryEntryParser extends WiktionaryEntryParser {
 				
 		// RUSSIAN PARSER.
 		try {
+		Predicate<LanguageType> filter = null;
+		if (languageFilter != null)
+			filter = (lang) -> lang != null 
+					&& isAllowedLanguage(CONVERTER.convertLang(lang));
 		WordBase word = new WordBase(page.getTitle(), LanguageType.get("ru"), 
-				new StringBuffer(text));
+				text, filter);
 		
-		// Convert to WordBase to ParsedWordEntry.
-		WikokitToJWKTL jwktlConverter = new WikokitToJWKTL();   
 		String page_title = word.getPageTitle();
 //    	ParsedWordEntry jwktlParsedWordEntry = new ParsedWordEntry();      
         //Lemma
@@ -89,8 +96,8 @@ public class RUWiktionaryEntryParser extends WiktionaryEntryParser {
             for (WPOS w_pos : w_pos_all) {
 //            	WiktionaryEntry jwktlPosEntry = new WiktionaryEntry();
             	WiktionaryEntry jwktlPosEntry = page.createEntry();
-                jwktlPosEntry.addPartOfSpeech(jwktlConverter.convertPOS(w_pos.getPOS()));
-                jwktlPosEntry.setWordLanguage(jwktlConverter.convertLang(lang_type));                
+                jwktlPosEntry.addPartOfSpeech(CONVERTER.convertPOS(w_pos.getPOS()));
+                jwktlPosEntry.setWordLanguage(CONVERTER.convertLang(lang_type));                
 //                etymology_n ++;          
                
                 Map<Relation, WRelation[]> m_relations = w_pos.getAllRelations();
@@ -106,12 +113,12 @@ public class RUWiktionaryEntryParser extends WiktionaryEntryParser {
                     			System.err.println("INFLECTION: " + page.getTitle() + " " + w_meaning.getWikifiedText());
                     			jwktlPosEntry.addPos(PartOfSpeech.WORD_FORM);
                     		}*/ // these are not really inflections!!
-                    jwktlPosEntry.addSense(jwktlConverter.convertMeaningToSenseEntry(jwktlPosEntry, page_title, w_meaning, m_relations, translations, i));                    
+                    jwktlPosEntry.addSense(CONVERTER.convertMeaningToSenseEntry(jwktlPosEntry, page_title, w_meaning, m_relations, translations, i));                    
                
                 }
                 // some stubs don't have definition, but they have translations
                 if(w_meaning_all.length == 0 && translations.length > 0) {                	
-                	jwktlConverter.addTranslationsToPosEntry(translations, jwktlPosEntry);                	
+                	CONVERTER.addTranslationsToPosEntry(translations, jwktlPosEntry);                	
                 }
 //                jwktlParsedWordEntry.addPosEntry(jwktlPosEntry);
                 page.addEntry(jwktlPosEntry);
@@ -17,6 +17,7 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser.ru;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -50,13 +51,13 @@ import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.word.WTranslationEnt
 @SuppressWarnings("deprecation")
 public class WikokitToJWKTL {
 	
-	private Map<String, PartOfSpeech> posMap;
-	private Map<Relation, RelationType> relationMap;
+	/** Part of speech mapping shared by all converter instances. */
+	private static final Map<String, PartOfSpeech> POS_MAP;
+	/** Relation type mapping shared by all converter instances. */
+	private static final Map<Relation, RelationType> RELATION_MAP;
 	
-	/** Initializes the converter and its part of speech and relation type
-	 *  mappings. */
-	public WikokitToJWKTL() {
-		posMap = new HashMap<>();
+	static {
+		Map<String, PartOfSpeech> posMap = new HashMap<>();
 //		posMap.put("unknown", PartOfSpeech.UNKNOWN);
 		posMap.put("noun", PartOfSpeech.NOUN);
 		posMap.put("verb", PartOfSpeech.VERB);
@@ -128,7 +129,9 @@ public class WikokitToJWKTL {
 		posMap.put("prefix of compound words", PartOfSpeech.PREFIX);
 	    
 		
-		relationMap = new HashMap<>();
+		POS_MAP = Collections.unmodifiableMap(posMap);
+		
+		Map<Relation, RelationType> relationMap = new HashMap<>();
 		relationMap.put(Relation.synonymy, RelationType.SYNONYM);
 		relationMap.put(Relation.antonymy, RelationType.ANTONYM);
 		relationMap.put(Relation.hypernymy, RelationType.HYPERNYM);
@@ -138,11 +141,17 @@ public class WikokitToJWKTL {
 		relationMap.put(Relation.troponymy, RelationType.TROPONYM);
 		relationMap.put(Relation.coordinate_term, RelationType.COORDINATE_TERM);
 		relationMap.put(Relation.otherwise_related, RelationType.SEE_ALSO);
+		RELATION_MAP = Collections.unmodifiableMap(relationMap);
 	}
 	
+	/** Initializes the converter. The part of speech and relation type 
+	 *  mappings are immutable and shared by all instances, so a single 
+	 *  converter may be reused for any number of pages. */
+	public WikokitToJWKTL() {}
+	
 	/** Converts a Wikokit part of speech to JWKTL. */
 	public PartOfSpeech convertPOS(POS wikoPos){	
-		PartOfSpeech result = posMap.get(wikoPos.toString());
+		PartOfSpeech result = POS_MAP.get(wikoPos.toString());
 		return result;
 	}
 	
@@ -184,7 +193,7 @@ public class WikokitToJWKTL {
 		
 			// Relation Words
 			for (Entry<Relation, WRelation[]> rel : wikoRelations.entrySet()) {
-				RelationType relType = relationMap.get(rel.getKey());
+				RelationType relType = RELATION_MAP.get(rel.getKey());
 				WRelation[] wr = rel.getValue();
 				if (meaningNr< wr.length && null != wr[meaningNr]) {
 					WRelation curRel = wr[meaningNr];                
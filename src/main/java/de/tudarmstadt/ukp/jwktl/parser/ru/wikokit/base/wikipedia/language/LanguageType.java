@@ -17,10 +17,11 @@
 //http://en.wiktionary.org/wiki/Wiktionary:Index_to_templates/languages#Template_table
 package de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.language;
 
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.multi.ru.name.LanguageTypeRu;
 
@@ -48,6 +49,12 @@ import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.multi.ru.name.Langua
  *  http://en.wikipedia.org/wiki/ISO_639
  *  http://meta.wikimedia.org/wiki/List_of_Wikipedias
  *  http://en.wikipedia.org/wiki/List_of_languages_by_number_of_native_speakers
+ *
+ * Thread safety: the maps below are filled by the constants during the 
+ * class initialization (which the JVM runs exactly once and publishes
+ * safely) and are frozen afterwards, so that concurrent lookups need no
+ * locking. Codes and names added by addNonUnique*() after the class 
+ * initialization are kept in concurrent overlay maps.
  */
 public class LanguageType {
     
@@ -75,6 +82,13 @@ public class LanguageType {
     /** If there are more than one language code for the language */
     private static Map<String, LanguageType> multiple_codes2type = new HashMap<>();
 
+    /** True after the class initialization, i.e. the maps above are read-only. */
+    private static boolean frozen;
+
+    /** Language names and codes added after the class initialization. */
+    private static final Map<String, LanguageType> runtime_names2type = new ConcurrentHashMap<>();
+    private static final Map<String, LanguageType> runtime_codes2type = new ConcurrentHashMap<>();
+
 
     private LanguageType(String code,String name,String english_name) {
         this.code = code;
@@ -152,7 +166,8 @@ public class LanguageType {
     /** Checks weather exists the language code 'code'. */
     public static boolean has(String code) {
         return code2name.containsKey(code) ||
-               multiple_codes2type.containsKey(code);
+               multiple_codes2type.containsKey(code) ||
+               (null != code && runtime_codes2type.containsKey(code));
     }
     
     public String toString() { return code; }
@@ -182,13 +197,17 @@ public class LanguageType {
         if(null != (lt = multiple_codes2type.get(code)))
             return  lt;
 
+        if(null != code && null != (lt = runtime_codes2type.get(code)))
+            return  lt;
+
         throw new NullPointerException("Null LanguageType (get)");
     }
 
     /** Checks weather exists the language name in English. */
     public static boolean hasEnglishName(String english) {
         return english2lang.containsKey(english) ||
-        multiple_names2type.containsKey(english);
+        multiple_names2type.containsKey(english) ||
+        (null != english && runtime_names2type.containsKey(english));
     }
     
     /** Gets LanguageType by language name in English.
@@ -206,6 +225,9 @@ public class LanguageType {
         if(null != (lt = multiple_names2type.get(english)))
             return  lt;
 
+        if(null != english && null != (lt = runtime_names2type.get(english)))
+            return  lt;
+
         return null; // throw new NullPointerException("Null LanguageType (getByEnglishName)");
     }
 
@@ -214,7 +236,7 @@ public class LanguageType {
         return code2name.size();
     }
     
-    /** Gets all languages. */
+    /** Gets all languages (read-only). */
     public static Map<String, LanguageType> getAllLanguages() {
         return code2lang;
     }
@@ -229,7 +251,8 @@ public class LanguageType {
         return addNonUniqueCode(lt, code);
     }
 
-    /** Adds one more language name for this language.
+    /** Adds one more language name for this language. Names added after
+     * the class initialization are stored in a concurrent overlay.
      */
     public static LanguageType addNonUniqueName(LanguageType lt, String english_name) {
 
@@ -245,17 +268,20 @@ public class LanguageType {
             return null;
         }
 
-        if(multiple_names2type.containsKey(english_name)) {
+        if(multiple_names2type.containsKey(english_name)
+                || (frozen && runtime_names2type.putIfAbsent(english_name, lt) != null)) {
             System.out.println("Error in LanguageType.addNonUniqueName(): the language '"+english_name+
                     "' is already presented in the map multiple_names2type!");
             return null;
         }
 
-        multiple_names2type.put(english_name, lt);
+        if(!frozen)
+            multiple_names2type.put(english_name, lt);
         return lt;
     }
     
-    /** Adds one more language code for this language.
+    /** Adds one more language code for this language. Codes added after
+     * the class initialization are stored in a concurrent overlay.
      */
     public static LanguageType addNonUniqueCode(LanguageType lt, String code) {
 
@@ -273,13 +299,15 @@ public class LanguageType {
             return null;
         }
         
-        if(multiple_codes2type.containsKey(code)) {
+        if(multiple_codes2type.containsKey(code)
+                || (frozen && runtime_codes2type.putIfAbsent(code, lt) != null)) {
             System.out.println("Error in LanguageType.addNonUniqueName(): the language '"+code+
                     "' is already presented in the map multiple_codes2type!");
             return null;
         }
         
-        multiple_codes2type.put(code, lt);
+        if(!frozen)
+            multiple_codes2type.put(code, lt);
         return lt;
     }
 
@@ -288,27 +316,27 @@ public class LanguageType {
     /** The set of unknown language codes, which were found during parsing.
      * There is only one message for one uknown language code (for concise logging).
      */
-    private static Set<String> unknown_lang_code = new HashSet<>();
-    private static Set<String> unknown_lang_name = new HashSet<>();
+    private static final Set<String> unknown_lang_code = ConcurrentHashMap.newKeySet();
+    private static final Set<String> unknown_lang_name = ConcurrentHashMap.newKeySet();
 
     /** Checks weather exists the unknown language code 'code'. */
     public static boolean hasUnknownLangCode(String code) {
-        return unknown_lang_code.contains(code);
+        return null != code && unknown_lang_code.contains(code);
     }
 
     /** Adds unknown language code 'code'. */
     public static boolean addUnknownLangCode(String code) {
-        return unknown_lang_code.add(code);
+        return null != code && unknown_lang_code.add(code);
     }
 
     /** Checks weather exists the unknown language name. */
     public static boolean hasUnknownLangName(String name) {
-        return unknown_lang_name.contains(name);
+        return null != name && unknown_lang_name.contains(name);
     }
 
     /** Adds unknown language name. */
     public static boolean addUnknownLangName(String code) {
-        return unknown_lang_name.add(code);
+        return null != code && unknown_lang_name.add(code);
     }
 
     /////////////////////////////////////
@@ -3625,4 +3653,15 @@ public class LanguageType {
     
     // public static final LanguageType avk = new LanguageType("avk", "Kotava", "Kotava");
     
+    // Freezes the maps after all constants above have been created. Must
+    // remain the last static initializer of this class.
+    static {
+        code2name           = Collections.unmodifiableMap(code2name);
+        code2lang           = Collections.unmodifiableMap(code2lang);
+        english2lang        = Collections.unmodifiableMap(english2lang);
+        multiple_names2type = Collections.unmodifiableMap(multiple_names2type);
+        multiple_codes2type = Collections.unmodifiableMap(multiple_codes2type);
+        frozen = true;
+    }
+
 }
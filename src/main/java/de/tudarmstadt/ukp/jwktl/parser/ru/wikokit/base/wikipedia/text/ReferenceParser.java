@@ -98,4 +98,16 @@ public class ReferenceParser {
         Matcher m = ptrn_ref_boundaries.matcher(text.toString());
         return new StringBuffer(m.replaceAll(""));
     }
+
+    /** Removes refences from the text.
+     * The text itself is returned (not copied) if there are no references.
+     */
+    public static CharSequence removeReferences(CharSequence text)
+    {
+        if(null == text || 0 == text.length()) {
+            return "";
+        }
+        
+        return WikiParser.removeAll(ptrn_ref_boundaries, text);
+    }
 }
@@ -141,6 +141,30 @@ public class WikiParser {
         return new StringBuffer(m.replaceAll(""));
     }
     
+    /** Removes all comments: &lt;!-- ... -->.
+     * The text itself is returned (not copied) if there are no comments. */
+    public static CharSequence removeHTMLComments(CharSequence text) {
+        return removeAll(ptrn_html_comment, text);
+    }
+    
+    /** Removes all matches of the pattern from the text, i.e. the same as
+     * replaceAll(""), but the text itself is returned (not copied) if
+     * there is nothing to remove. */
+    static CharSequence removeAll(Pattern p, CharSequence text) {
+        Matcher m = p.matcher(text);
+        if(!m.find())
+            return text;
+        
+        StringBuilder result = new StringBuilder(text.length());
+        int end = 0;
+        do {
+            result.append(text, end, m.start());
+            end = m.end();
+        } while(m.find());
+        result.append(text, end, text.length());
+        return result;
+    }
+    
     /** Removes preformatted code (e.g. xml): &lt;pre> ... &lt;/pre>.*/
     public static StringBuffer removePreCode(StringBuffer text) {
         Matcher m = ptrn_pre_code.matcher(text.toString());
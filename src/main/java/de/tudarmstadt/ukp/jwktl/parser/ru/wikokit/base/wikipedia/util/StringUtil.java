@@ -15,6 +15,7 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.util;
 
+import java.nio.CharBuffer;
 import java.text.StringCharacterIterator;
 import java.util.List;
 import java.util.ArrayList;
@@ -31,6 +32,18 @@ public class StringUtil {
     private final static List<String>   NULL_STRING_LIST  = new ArrayList<>(0);
     private final static StringBuffer   NULL_STRINGBUFFER = new StringBuffer("");
     
+    /** Returns a read-only view of text[start, end) without copying it.
+     *
+     * The view is a buffer with position 0 and limit end-start, so that
+     * length(), charAt(), subSequence() and toString() refer to the slice
+     * only. It should be used as CharSequence: the relative get() methods
+     * of the buffer would move its position and thus change the view.
+     * The view is valid as long as the text is not modified. */
+    public static CharSequence slice(CharSequence text, int start, int end)
+    {
+        return CharBuffer.wrap(text, start, end).slice();
+    }
+
     public static String join(String token, String[] strings )
     {
         if (null == strings || 0==strings.length)
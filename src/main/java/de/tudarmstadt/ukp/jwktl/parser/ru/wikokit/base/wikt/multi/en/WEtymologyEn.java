@@ -77,7 +77,8 @@ public class WEtymologyEn {
             return NULL_LANG_TEXT_ARRAY;
         }
 
-        Matcher m = ptrn_3d_level_etymology.matcher(lt_source.text.toString());
+        String source_text = lt_source.text.toString();
+        Matcher m = ptrn_3d_level_etymology.matcher(source_text);
         boolean b_next = m.find();
 
                         // Position of Etymology block in the lt_source.text:
@@ -107,14 +108,14 @@ public class WEtymologyEn {
         LanguageType lang = lt_source.getLanguage();
         while(b_next) {
 
-            LangText lt = new LangText(lang);
+            StringBuffer lt_text = new StringBuffer();
             if(bfirst) {
                 bfirst = false;
-                lt.text.append(lt_source.text.substring(0, start1));
-                lt.text.append(lt_source.text.substring(end1, start));
+                lt_text.append(source_text.substring(0, start1));
+                lt_text.append(source_text.substring(end1, start));
             } else
-                lt.text.append(lt_source.text.substring(start, end));
-            etymology_sections.add(lt);
+                lt_text.append(source_text.substring(start, end));
+            etymology_sections.add(new LangText(lang, lt_text));
 
             b_next = m.find();
             if(b_next) {
@@ -123,9 +124,8 @@ public class WEtymologyEn {
             }
         }
 
-        LangText lt = new LangText(lang);
-        lt.text.append(lt_source.text.substring(end));
-        etymology_sections.add(lt); // last Etymology section
+        StringBuffer lt_text = new StringBuffer(source_text.substring(end));
+        etymology_sections.add(new LangText(lang, lt_text)); // last Etymology section
 
         return etymology_sections.toArray(NULL_LANG_TEXT_ARRAY);
     }
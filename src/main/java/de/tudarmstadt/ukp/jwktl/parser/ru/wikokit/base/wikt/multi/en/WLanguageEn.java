@@ -77,15 +77,16 @@ public class WLanguageEn {
      * @param  page_title word which are described in this article 'text'*/
     public static LangText[] splitToLanguageSections (
             String page_title,
-            StringBuffer text)
+            CharSequence text)
     {
         if(null == text || 0 == text.length()) {
             return NULL_LANG_TEXT_ARRAY;
         }
 
         List<LangText> lang_sections = new ArrayList<>(); // result will be stored to
+        List<StringBuffer> lang_texts = new ArrayList<>(); // texts of lang_sections
 
-        Matcher m = ptrn_2nd_level.matcher(text.toString());
+        Matcher m = ptrn_2nd_level.matcher(text);
 
         int i = 0;
         boolean b_next = m.find();
@@ -97,17 +98,19 @@ public class WLanguageEn {
             b_known_lang = null != lang_type;
 
             if(b_known_lang) {
-                LangText lt = new LangText(lang_type);
+                StringBuffer lt_text = new StringBuffer();
+                LangText lt = new LangText(lang_type, lt_text);
 
-                m.appendReplacement(lt.text, "");   // "First {{-ru-}}" (add the text before the first lang code)
+                m.appendReplacement(lt_text, "");   // "First {{-ru-}}" (add the text before the first lang code)
                 lang_sections.add(lt);
+                lang_texts.add(lt_text);
 
                 b_next = m.find();
                 while(b_next) {
 
                     if(b_known_lang) {
                         i++;                                                    // text belongs to previous lang code:
-                        m.appendReplacement(lang_sections.get(i-1).text, "");   // i.e. {{-prev lang code-}} current text {{-current lang code
+                        m.appendReplacement(lang_texts.get(i-1), "");   // i.e. {{-prev lang code-}} current text {{-current lang code
                     } else {
                         m.appendReplacement(new StringBuffer(), "");   // {{-unknown-}} just reset the text within the unknown lang {{-known-}}
                     }
@@ -118,18 +121,20 @@ public class WLanguageEn {
                     b_next = m.find();
 
                     if (b_known_lang) {
-                        lt = new LangText(lang_type);
+                        lt_text = new StringBuffer();
+                        lt = new LangText(lang_type, lt_text);
                         //m.appendReplacement(lang_sections.get(i-1).text, "");   // text belongs to previous lang code:
                         lang_sections.add(lt);                                  // i.e. {{-prev lang code-}} current text {{-current lang code-}}
+                        lang_texts.add(lt_text);
                         if(!b_next) {
-                            m.appendTail(lang_sections.get(i).text);
+                            m.appendTail(lang_texts.get(i));
                         }
                     }
                 }
             }
         }
         if(0==i && b_known_lang && b_at_least_one_lang) {
-            m.appendTail(lang_sections.get(i).text);
+            m.appendTail(lang_texts.get(i));
         }
 
         if(b_known_lang && 0 == lang_sections.size()) {
@@ -116,7 +116,7 @@ public class WPOSEn {
         // save all text for unknown POS
         pos_section_alone.add( new POSText(
                         POS.unknown,
-                        lt.text) );
+                        new StringBuffer(lt.text)) );
         return pos_section_alone;
     }
     /** page_title - word which are described in this article 'text'
@@ -132,7 +132,8 @@ public class WPOSEn {
             return NULL_POS_TEXT_LIST;
         }
 
-        Matcher m = ptrn_3_or_4_level.matcher(lt.text.toString());
+        String lt_text = lt.text.toString();
+        Matcher m = ptrn_3_or_4_level.matcher(lt_text);
 
         int n_pos = countPOSSections(m);
 
@@ -176,7 +177,7 @@ public class WPOSEn {
                 b_next = m.find();
                 if (!b_next) {
                     POS p = POSTemplateEn.get(pos_header_old);
-                    POSText pt = new POSText(p, lt.text.substring(end_old));
+                    POSText pt = new POSText(p, lt_text.substring(end_old));
                     pos_sections.add(pt);
 
                     break search_POS;
@@ -187,7 +188,7 @@ public class WPOSEn {
             POS p = POSTemplateEn.get(pos_header_old);
             pos_header_old = pos_header;
 
-            POSText pt = new POSText(p, lt.text.substring(end_old, m.start()));
+            POSText pt = new POSText(p, lt_text.substring(end_old, m.start()));
             pos_sections.add(pt);
 
             end_old = m.end();
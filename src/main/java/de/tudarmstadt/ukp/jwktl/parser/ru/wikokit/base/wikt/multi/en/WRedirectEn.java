@@ -37,7 +37,7 @@ public class WRedirectEn {
      * @return if this is not a redirect then return null
      */
     public static String getRedirect(String page_title,
-                                      StringBuffer text) {
+                                      CharSequence text) {
 
         // #REDIRECT [[pagename]] (or #redirect [[pagename]]
 
@@ -21,6 +21,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.language.LanguageType;
+import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.util.StringUtil;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.util.LangText;
 
 /** Language lets you know the language of the word in question. It is almost
@@ -136,71 +137,60 @@ public class WLanguageRu {
     }
 
     /** Splits an article text into language sections.
+     *
+     * The text of a language section is a read-only view (see
+     * StringUtil.slice()) of the given article text, i.e. the text is not copied, except for the
+     * first section, which is preceded by the text before the first lang
+     * code. The slices are valid as long as the article text is not
+     * modified.
      *
      * @param  page_title word which are described in this article 'text'*/
     public static LangText[] splitToLanguageSections (
             String page_title,
-            StringBuffer text)
+            CharSequence text)
     {
         if(null == text || 0 == text.length()) {
             return NULL_LANG_TEXT_ARRAY;
         }
 
-        List<LangText> lang_sections = new ArrayList<>(); // result will be stored to
-
-        Matcher m = ptrn_lang.matcher(text.toString());
-
-        int i = 0;
-        boolean b_next = m.find();
-        boolean b_at_least_one_lang = b_next; // at least one language section was recognized
-        boolean b_known_lang = true;
-        if(b_next) {
-
-            LanguageType lang_type = getLanguageType(m, page_title);
-            b_known_lang = null != lang_type;
+        Matcher m = ptrn_lang.matcher(text);
 
-            if(b_known_lang) {
-                LangText lt = new LangText(lang_type);
-
-                m.appendReplacement(lt.text, "");   // "First {{-ru-}}" (add the text before the first lang code)
-                lang_sections.add(lt);
-
-                b_next = m.find();
-                while(b_next) {
-
-                    if(b_known_lang) {
-                        i++;                                                    // text belongs to previous lang code:
-                        m.appendReplacement(lang_sections.get(i-1).text, "");   // i.e. {{-prev lang code-}} current text {{-current lang code
-                    } else {
-                        m.appendReplacement(new StringBuffer(), "");   // {{-unknown-}} just reset the text within the unknown lang {{-known-}}
-                    }
+        if(!m.find()) {
+//            System.out.println("Warning: Ok. I guess that this is an article about Russian word, without language code. Word = '" + page_title + "'; in WLanguageRu.splitToLanguageSections()");
+            LangText[] lang_sections = new LangText[1];
+            lang_sections[0] = new LangText(LanguageType.ru, text);
+            return lang_sections;
+        }
 
-                    lang_type = getLanguageType(m, page_title);
-                    b_known_lang = null != lang_type;
+        LanguageType lang_type = getLanguageType(m, page_title);
+        if(null == lang_type)   // i.e. skip the whole article if the first lang code is unknown
+            return NULL_LANG_TEXT_ARRAY;
 
-                    b_next = m.find();
+        List<LangText> lang_sections = new ArrayList<>(); // result will be stored to
 
-                    if (b_known_lang) {
-                        lt = new LangText(lang_type);
-                        //m.appendReplacement(lang_sections.get(i-1).text, "");   // text belongs to previous lang code:
-                        lang_sections.add(lt);                                  // i.e. {{-prev lang code-}} current text {{-current lang code-}}
-                        if(!b_next) {
-                            m.appendTail(lang_sections.get(i).text);
-                        }
-                    }
-                }
+        int head_end = m.start();   // "First {{-ru-}}" (the text before the first lang code)
+        int start = m.end();        // "{{-lang code-}} <start> text <end> {{-next lang code-}}"
+        boolean b_next;
+        do {
+            b_next = m.find();
+            int end = b_next ? m.start() : text.length();
+
+            if(null != lang_type) {     // the text within an unknown lang is skipped
+                CharSequence lang_text;
+                if(lang_sections.isEmpty() && head_end > 0) {
+                    lang_text = new StringBuilder(head_end + end - start)
+                            .append(text, 0, head_end)
+                            .append(text, start, end);
+                } else
+                    lang_text = StringUtil.slice(text, start, end);
+                lang_sections.add(new LangText(lang_type, lang_text));
             }
-        }
-        if(0==i && b_known_lang && b_at_least_one_lang) {
-            m.appendTail(lang_sections.get(i).text);
-        }
 
-        if(b_known_lang && 0 == lang_sections.size()) {
-//            System.out.println("Warning: Ok. I guess that this is an article about Russian word, without language code. Word = '" + page_title + "'; in WLanguageRu.splitToLanguageSections()");
-            LangText lt = new LangText(LanguageType.ru);
-            lt.text = text;
-            lang_sections.add(lt);
-        }
+            if(b_next) {
+                lang_type = getLanguageType(m, page_title);
+                start = m.end();
+            }
+        } while(b_next);
 
         return lang_sections.toArray(NULL_LANG_TEXT_ARRAY);
     }
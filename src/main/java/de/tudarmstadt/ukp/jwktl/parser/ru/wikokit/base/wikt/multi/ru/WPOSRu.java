@@ -22,6 +22,7 @@ import java.util.regex.Pattern;
 
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.language.LanguageType;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.text.WikiParser;
+import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.util.StringUtil;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.util.StringUtilRegular;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.constant.POS;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.util.LangText;
@@ -82,6 +83,14 @@ public class WPOSRu {
     private final static Pattern ptrn_title_add_template_without_lang = Pattern.compile(
             "(?m)^\\Q{{заголовок|add=\\E([^}]{1,4})\\s*"); // ?  1-4 = len(I,..,VIII,..)
 
+    /** Template {{заголовок|add=..}} without language code anywhere in the text. */
+    private final static Pattern ptrn_title_add_without_lang = Pattern.compile(
+            "{{заголовок|add=", Pattern.LITERAL);
+
+    /** Template {{phrase|..}} anywhere in the text, see isPhrasePOS(). */
+    private final static Pattern ptrn_phrase = Pattern.compile(
+            "{{phrase", Pattern.LITERAL);
+
     /** Gets first two letter after ==Морфологические и синтаксические свойства==
      * e.g. "{{" or "Су"ществительное, or "Гл"агол...
      */
@@ -125,11 +134,12 @@ public class WPOSRu {
             LangText    lt)
     {
         String  pos_title = "";
-        if(null == lt.text || 0 == lt.text.length()) {
+        CharSequence text = lt.text;
+        if(null == text || 0 == text.length()) {
             return NULL_POS_TEXT_ARRAY;
         }
 
-        Matcher m = ptrn_2nd_level.matcher(lt.text.toString());
+        Matcher m = ptrn_2nd_level.matcher(text);
         boolean b_next = m.find();
 
         if(b_next && m.groupCount() > 0 && isSecondLevelHeaderWordNotPOS(m.group(1)))
@@ -142,15 +152,14 @@ public class WPOSRu {
 
                         // there is only one ==Second level header== in this language in this word
             POSText[] pos_section_alone = new POSText[1];
-            pos_section_alone[0] = guessPOS(lt.text);
+            pos_section_alone[0] = guessPOS(text);
             return pos_section_alone;
         }
                                                                 // there are more than one POS in this language in this word
         List<POSText> pos_sections = new ArrayList<>();  // result will be stored to
-        StringBuffer current_pos_section = new StringBuffer();
 
         int start, end; // "<start> == Verb I == ... <end> == Verb II ==" position of POS block in the lt.text
-
+                        // (the current POS block is a view of the lt.text, it is copied only if it is a POS section)
         start = 0;
         pos_title = WikiParser.removeAcuteAccent(new StringBuffer(m.group(1)), LanguageType.ru).toString();
         b_next = m.find();
@@ -162,17 +171,17 @@ public class WPOSRu {
         }
 
         while(b_next) {
-            current_pos_section.append(lt.text.substring(start, end));
+            CharSequence current_pos_section = StringUtil.slice(text, start, end);
 
             POS p = guessPOSWith2ndLevelHeader(page_title, pos_title, current_pos_section);
             if(null != p) { // OK. It's POS header, though it's possible that p=unknown :(
-                POSText pt = new POSText(p, current_pos_section.toString());
-                current_pos_section.setLength(0);
+                POSText pt = new POSText(p, new StringBuffer(current_pos_section));
                 pos_sections.add(pt);
+                start = end;
 
             } else {
                 // null, if this is another 2nd level header, e.g. Bibliography or References
-                current_pos_section.append(""); // +??? this Bibliography text
+                // +??? this Bibliography text remains in the current POS block
                 // todo ...
             }
 
@@ -181,18 +190,15 @@ public class WPOSRu {
             pos_title = WikiParser.removeAcuteAccent(new StringBuffer(m.group(1)), LanguageType.ru).toString();
 
             b_next = m.find();
-            if(b_next) {
-                start = end;
+            if(b_next)
                 end = m.start();
-            }
         }
 
-        current_pos_section.append(lt.text.substring(end)); // last POS section
+        CharSequence current_pos_section = StringUtil.slice(text, start, text.length()); // last POS section
 
         POS p = guessPOSWith2ndLevelHeader(page_title, pos_title, current_pos_section);
         if(null != p) { // OK. It's last POS header, though it's possible that p=unknown :(
-            POSText pt = new POSText(p, current_pos_section.toString());
-            current_pos_section.setLength(0);
+            POSText pt = new POSText(p, new StringBuffer(current_pos_section));
             pos_sections.add(pt);
         }
 
@@ -260,14 +266,14 @@ public class WPOSRu {
             LangText    lt)
     {
         Matcher m;
-        String lt_text = lt.text.toString();
+        CharSequence text = lt.text;
         boolean lang_code_presented;
 
-        if(lt_text.contains("{{заголовок|add=")) {
-            m = ptrn_title_add_template_without_lang.matcher( lt_text );
+        if(ptrn_title_add_without_lang.matcher( text ).find()) {
+            m = ptrn_title_add_template_without_lang.matcher( text );
             lang_code_presented = false;
         } else {
-            m = ptrn_title_add_template.matcher( lt_text );
+            m = ptrn_title_add_template.matcher( text );
             lang_code_presented = true;
         }
 
@@ -277,7 +283,6 @@ public class WPOSRu {
             return NULL_POS_TEXT_ARRAY;
 
         List<POSText> pos_sections = new ArrayList<>();  // result will be stored to
-        StringBuffer current_pos_section = new StringBuffer();
 
         int start, end; // "<start> {{заголовок|...|add=I}} ...
                         //    <end> {{заголовок|...|add=II}}" position of POS block in the lt.text
@@ -295,17 +300,15 @@ public class WPOSRu {
         }
 
         while(b_next) {
-            current_pos_section.append(lt.text.substring(start, end));
-
-            POSText pt = guessPOS (current_pos_section);
+            POSText pt = guessPOS (StringUtil.slice(text, start, end));
 
             if(null != pt.getPOSType()) { // OK. It's POS header, though it's possible that p=unknown :(
                 pos_sections.add(pt);
-                current_pos_section.setLength(0);
+                start = end;
 
             } else {
                 // null, if this is another 2nd level header, e.g. Bibliography or References
-                current_pos_section.append(""); // +??? this Bibliography text
+                // +??? this Bibliography text remains in the current POS block
                 // todo ...
             }
 
@@ -314,17 +317,12 @@ public class WPOSRu {
             //pos_title = WikiParser.removeAcuteAccent(new StringBuffer(m.group(1)), LanguageType.ru).toString();
 
             b_next = m.find();
-            if(b_next) {
-                start = end;
+            if(b_next)
                 end = m.start();
-            }
         }
 
-        current_pos_section.append(lt.text.substring(end)); // last POS section
-
-        POSText pt = guessPOS (current_pos_section);
+        POSText pt = guessPOS (StringUtil.slice(text, start, text.length())); // last POS section
         if(null != pt.getPOSType()) { // OK. It's last POS header, though it's possible that p=unknown :(
-            current_pos_section.setLength(0);
             pos_sections.add(pt);
         }
 
@@ -367,15 +365,23 @@ public class WPOSRu {
      * |шаблон=Гл11b/c
      * {{Гл1a</PRE>
      */
-    public static POSText guessPOS (StringBuffer text)
+    public static POSText guessPOS (CharSequence text)
     {
-        POS p_type = POS.unknown;
-
         if(null == text || 0 == text.length()) {
-            return new POSText(p_type, "");
+            return new POSText(POS.unknown, "");
         }
 
-        Matcher m = ptrn_morpho_then_2letters.matcher(text.toString());
+        return new POSText(guessPOSType(text), new StringBuffer(text));
+    }
+
+    /** Gets the POS of the (non-empty) text, see guessPOS().
+     * The text itself is not copied.
+     */
+    private static POS guessPOSType (CharSequence text)
+    {
+        POS p_type = POS.unknown;
+
+        Matcher m = ptrn_morpho_then_2letters.matcher(text);
         boolean b = m.find();
         if(b) {
             String two_letters = m.group(1);
@@ -384,7 +390,7 @@ public class WPOSRu {
                 // if \1=="{{" then get first letters till space
                 // substring started after the symbol "{{"
                 //String pos_name = StringUtilRegular.getLettersTillSpace(text.substring(m.end())).toLowerCase();
-                String pos_name = StringUtilRegular.getLettersTillSpaceHyphenOrPipe(text.substring(m.end())).toLowerCase();
+                String pos_name = StringUtilRegular.getLettersTillSpaceHyphenOrPipe(text.subSequence(m.end(), text.length()).toString()).toLowerCase();
                 if(POSTemplateRu.has(pos_name)) {
                     p_type = checkIfSuchPOSExist(pos_name);
                 } /*else {
@@ -404,7 +410,7 @@ public class WPOSRu {
                 p_type = POS.phrase;
         }
 
-        return new POSText(p_type, new StringBuffer(text));
+        return p_type;
     }
 
     /** Checks whether the text describes a phrase. It is true if the text
@@ -418,9 +424,9 @@ public class WPOSRu {
      * @param text
      * @return
      */
-    private static boolean isPhrasePOS (StringBuffer text)
+    private static boolean isPhrasePOS (CharSequence text)
     {
-        return text.toString().contains("{{phrase");
+        return ptrn_phrase.matcher(text).find();
     }
 
     public static POS checkIfSuchPOSExist(String pos_name) {
@@ -470,12 +476,15 @@ public class WPOSRu {
      * @param page_title    word, name of the article, e.g. "lead"
      * @param pos_title     extracted 2nd level title, e.g. "lead I", "lead II", or "Adverb" (old style)
      */
-    public static POS guessPOSWith2ndLevelHeader (String page_title,String pos_title, StringBuffer text)
+    public static POS guessPOSWith2ndLevelHeader (String page_title,String pos_title, CharSequence text)
     {
-        POSText pt = guessPOS (text);
+        if(null == text || 0 == text.length()) {
+            return POS.unknown;
+        }
 
-        if(POS.unknown != pt.getPOSType() || null == text || 0 == text.length()) {
-            return pt.getPOSType();
+        POS p_type = guessPOSType (text);
+        if(POS.unknown != p_type) {
+            return p_type;
         }
 
         // compare pos_title with POSType
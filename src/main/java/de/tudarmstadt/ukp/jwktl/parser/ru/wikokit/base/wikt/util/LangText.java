@@ -24,8 +24,9 @@ public class LangText {
     /** Language of the text, e.g. the article about one word can contain "en" block for English word, "de", "fr", etc. */
     private LanguageType lang;
     
-    /** Text */
-    public StringBuffer text;
+    /** Text, either a buffer of its own or a read-only slice (view) of the
+     * whole article text, see WLanguageRu.splitToLanguageSections(). */
+    public CharSequence text;
     
     public LangText() {}
     
@@ -35,6 +36,11 @@ public class LangText {
         //text = _text;
     }
 
+    public LangText(LanguageType _lang, CharSequence _text) {
+        lang = _lang;
+        text = _text;
+    }
+
     /** Gets language of the text, e.g. "en" for English word, "de", "fr", etc. */
     public LanguageType getLanguage() {
         return lang;
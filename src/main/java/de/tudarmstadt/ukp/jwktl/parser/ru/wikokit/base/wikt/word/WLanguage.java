@@ -15,6 +15,10 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.word;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
 //import wikt.constant.POS;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.language.LanguageType;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.multi.en.WLanguageEn;
@@ -68,11 +72,38 @@ public class WLanguage {
     public static WLanguage[] parse (
                     LanguageType wikt_lang,
                     String page_title,
-                    StringBuffer text)
+                    CharSequence text)
+    {
+        return parse(wikt_lang, page_title, text, null);
+    }
+
+    /** Parses text, creates and fills array of homonym (WLanguage) for each language
+     * accepted by the given filter. The language sections are split first, so
+     * the POS, meanings, relations, etc. of the rejected languages are not parsed.
+     *
+     * @param wikt_lang     language of Wiktionary
+     * @param page_title    word which are described in this article 'text'
+     * @param text
+     * @param lang_filter   accepts the languages to be parsed, null means all languages
+     */
+    public static WLanguage[] parse (
+                    LanguageType wikt_lang,
+                    String page_title,
+                    CharSequence text,
+                    Predicate<LanguageType> lang_filter)
     {
         // = Level I. Language =
         LangText[] lang_sections = splitToLanguageSections(wikt_lang, page_title, text);
 
+        if(null != lang_filter && lang_sections.length > 0) {
+            List<LangText> accepted = new ArrayList<LangText>(lang_sections.length);
+            for(LangText lt : lang_sections) {
+                if(lang_filter.test(lt.getLanguage()))
+                    accepted.add(lt);
+            }
+            lang_sections = accepted.toArray(new LangText[accepted.size()]);
+        }
+
         if(0==lang_sections.length) {
             return NULL_WLANGUAGE_ARRAY;
         }
@@ -137,7 +168,7 @@ public class WLanguage {
     public static LangText[] splitToLanguageSections (
                     LanguageType wikt_lang,
                     String page_title,
-                    StringBuffer text)
+                    CharSequence text)
     {
         LangText[] lang_sections; // result will be stored to
 
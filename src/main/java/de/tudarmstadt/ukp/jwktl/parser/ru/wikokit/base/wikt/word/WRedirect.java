@@ -33,7 +33,7 @@ public class WRedirect {
      */
     public static String getRedirect(LanguageType wikt_lang,
                                       String page_title,
-                                      StringBuffer text) {
+                                      CharSequence text) {
 
         // #ПЕРЕНАПРАВЛЕНИЕ [[нелётный]]
         // #REDIRECT [[burn one's fingers]]
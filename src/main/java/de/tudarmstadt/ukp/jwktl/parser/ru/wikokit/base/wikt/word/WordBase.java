@@ -15,6 +15,8 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.word;
 
+import java.util.function.Predicate;
+
 //import wikt.util.LangText;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.language.LanguageType;
 import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.text.ReferenceParser;
@@ -61,19 +63,32 @@ public class WordBase {
     public WordBase(
             String _page_title,
             LanguageType wikt_lang, // constant for the Wiktionary dump
-            StringBuffer text) {
+            CharSequence text) {
+        this(_page_title, wikt_lang, text, null);
+    }
+
+    /** Parses the article text, but only the language sections accepted
+     * by the given filter (null means all languages).
+     * Creates and stores parsed data to the word (WordBase)
+     * for the given Wiktionary (defined by wikt_lang language).
+     */
+    public WordBase(
+            String _page_title,
+            LanguageType wikt_lang, // constant for the Wiktionary dump
+            CharSequence text,
+            Predicate<LanguageType> lang_filter) {
         
         page_title = _page_title;
 
         // remove <!-- comments --> and <ref> ... </ref>
-        StringBuffer s = WikiParser.removeHTMLComments(
+        CharSequence s = WikiParser.removeHTMLComments(
                             ReferenceParser.removeReferences (text));
 
         redirect_target = WRedirect.getRedirect(wikt_lang, page_title, s);
 
         if (null == redirect_target) {    // it is not a redirect
             //LangText[] lang_sections = WLanguage.splitToLanguageSections(wikt_lang, page_title, s);
-            lang = WLanguage.parse(wikt_lang, page_title, s);
+            lang = WLanguage.parse(wikt_lang, page_title, s, lang_filter);
         }
         template_not_def = WLanguage.hasOnlyTemplatesWithoutDefinitions(wikt_lang, lang);
     }
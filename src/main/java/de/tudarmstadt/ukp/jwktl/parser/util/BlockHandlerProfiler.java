@@ -0,0 +1,380 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the invocation counts, the cumulative processing time, and the
+ * allocated memory of the {@link IBlockHandler}s used by a
+ * {@link de.tudarmstadt.ukp.jwktl.parser.WiktionaryEntryParser}. The
+ * statistics are kept per handler class and per handler method. For each
+ * handler, the pages requiring the most processing time are retained.
+ * Use {@link de.tudarmstadt.ukp.jwktl.parser.WiktionaryEntryParser#setProfiler(BlockHandlerProfiler)}
+ * to activate the profiling. The processing time is measured as the 
+ * CPU time of the current thread if supported by the JVM's 
+ * {@link ThreadMXBean}; otherwise, the wall-clock time is used. The 
+ * measurement of the allocated memory requires a JVM providing the 
+ * <code>com.sun.management.ThreadMXBean</code> extension, which is 
+ * checked at runtime; otherwise, only counts and times are recorded. 
+ * A profiler may be shared by multiple entry parsers running on 
+ * different threads.
+ */
+public class BlockHandlerProfiler {
+
+	/** The profiled methods of an {@link IBlockHandler}. */
+	public enum Method {
+		CAN_HANDLE,
+		PROCESS_HEAD,
+		PROCESS_BODY,
+		FILL_CONTENT
+	}
+
+	/** The default number of slowest pages retained per handler. */
+	public static final int DEFAULT_SLOWEST_PAGE_COUNT = 10;
+
+	protected static final int METHOD_COUNT = Method.values().length;
+
+	/** The processing time of a single page by a certain handler. */
+	public static class PageTiming {
+
+		protected final String title;
+		protected final long nanos;
+
+		public PageTiming(final String title, long nanos) {
+			this.title = title;
+			this.nanos = nanos;
+		}
+
+		/** Returns the title of the page. */
+		public String getTitle() {
+			return title;
+		}
+
+		/** Returns the time (in nanoseconds) the handler spent for 
+		 *  processing the page. */
+		public long getNanos() {
+			return nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s (%.2f ms)", title, nanos / 1000000.0);
+		}
+
+	}
+
+	/** The accumulated statistics of a single handler class. */
+	public static class HandlerStatistics {
+
+		protected final String handlerName;
+		protected final long[] invocations;
+		protected final long[] nanos;
+		protected final long[] allocatedBytes;
+		protected final PriorityQueue<PageTiming> slowestPages;
+		protected final int slowestPageCount;
+
+		protected HandlerStatistics(final String handlerName, 
+				int slowestPageCount) {
+			this.handlerName = handlerName;
+			this.slowestPageCount = slowestPageCount;
+			invocations = new long[METHOD_COUNT];
+			nanos = new long[METHOD_COUNT];
+			allocatedBytes = new long[METHOD_COUNT];
+			slowestPages = new PriorityQueue<>(slowestPageCount + 1,
+					Comparator.comparingLong(PageTiming::getNanos));
+		}
+
+		protected synchronized void add(final long[] pageData, 
+				final String title) {
+			long pageNanos = 0;
+			for (int i = 0; i < METHOD_COUNT; i++) {
+				invocations[i] += pageData[i];
+				nanos[i] += pageData[METHOD_COUNT + i];
+				allocatedBytes[i] += pageData[2 * METHOD_COUNT + i];
+				pageNanos += pageData[METHOD_COUNT + i];
+			}
+			if (slowestPageCount <= 0)
+				return;
+			if (slowestPages.size() < slowestPageCount)
+				slowestPages.add(new PageTiming(title, pageNanos));
+			else
+			if (slowestPages.peek().getNanos() < pageNanos) {
+				slowestPages.poll();
+				slowestPages.add(new PageTiming(title, pageNanos));
+			}
+		}
+
+		/** Returns the fully qualified class name of the handler. */
+		public String getHandlerName() {
+			return handlerName;
+		}
+
+		/** Returns the number of invocations of the given method. */
+		public synchronized long getInvocations(final Method method) {
+			return invocations[method.ordinal()];
+		}
+
+		/** Returns the cumulative time (in nanoseconds) spent in the 
+		 *  given method. */
+		public synchronized long getNanos(final Method method) {
+			return nanos[method.ordinal()];
+		}
+
+		/** Returns the cumulative number of bytes allocated in the given 
+		 *  method or zero if the allocation is not measured. */
+		public synchronized long getAllocatedBytes(final Method method) {
+			return allocatedBytes[method.ordinal()];
+		}
+
+		/** Returns the cumulative time (in nanoseconds) spent in all 
+		 *  methods of the handler. */
+		public synchronized long getTotalNanos() {
+			long result = 0;
+			for (long value : nanos)
+				result += value;
+			return result;
+		}
+
+		/** Returns the cumulative number of bytes allocated in all 
+		 *  methods of the handler. */
+		public synchronized long getTotalAllocatedBytes() {
+			long result = 0;
+			for (long value : allocatedBytes)
+				result += value;
+			return result;
+		}
+
+		/** Returns the pages requiring the most processing time by this
+		 *  handler, starting with the slowest page. */
+		public synchronized List<PageTiming> getSlowestPages() {
+			List<PageTiming> result = new ArrayList<>(slowestPages);
+			result.sort(Comparator.comparingLong(PageTiming::getNanos).reversed());
+			return result;
+		}
+
+	}
+
+	/** Accumulates the measurements of a single page. Page profiles
+	 *  are not thread-safe and should only be used by the thread
+	 *  parsing the page. */
+	public class PageProfile {
+
+		protected final String title;
+		protected final Map<Class<?>, long[]> data;
+		protected long startNanos;
+		protected long startBytes;
+
+		protected PageProfile(final String title) {
+			this.title = title;
+			data = new HashMap<>();
+		}
+
+		/** Starts the measurement of a handler invocation. */
+		public void begin() {
+			if (measureAllocation)
+				startBytes = getAllocatedBytes();
+			startNanos = getNanos();
+		}
+
+		/** Stops the measurement of the given handler's method that has 
+		 *  been invoked since the last call of {@link #begin()}. */
+		public void end(final IBlockHandler handler, final Method method) {
+			long elapsed = getNanos() - startNanos;
+			long allocated = (measureAllocation ? getAllocatedBytes() - startBytes : 0);
+			long[] values = data.get(handler.getClass());
+			if (values == null) {
+				values = new long[3 * METHOD_COUNT];
+				data.put(handler.getClass(), values);
+			}
+			int idx = method.ordinal();
+			values[idx]++;
+			values[METHOD_COUNT + idx] += elapsed;
+			values[2 * METHOD_COUNT + idx] += allocated;
+		}
+
+		/** Adds the measurements of this page to the profiler's 
+		 *  statistics. */
+		public void finish() {
+			for (Map.Entry<Class<?>, long[]> entry : data.entrySet()) {
+				String name = entry.getKey().getName();
+				statistics.computeIfAbsent(name, n -> new HandlerStatistics(n, slowestPageCount))
+						.add(entry.getValue(), title);
+			}
+			data.clear();
+		}
+
+	}
+
+	protected final Map<String, HandlerStatistics> statistics;
+	protected final int slowestPageCount;
+	protected final ThreadMXBean threadBean;
+	protected final boolean measureCpuTime;
+	protected final AllocationMeter allocationMeter;
+	protected final boolean measureAllocation;
+
+	/** Creates a profiler retaining the {@link #DEFAULT_SLOWEST_PAGE_COUNT}
+	 *  slowest pages per handler and measuring the allocated memory if 
+	 *  supported by the JVM. */
+	public BlockHandlerProfiler() {
+		this(DEFAULT_SLOWEST_PAGE_COUNT, true);
+	}
+
+	/** Creates a profiler retaining the given number of slowest pages per
+	 *  handler. The allocated memory is only measured if 
+	 *  measureAllocation is true and the JVM supports the measurement. */
+	public BlockHandlerProfiler(int slowestPageCount, boolean measureAllocation) {
+		if (slowestPageCount < 0)
+			throw new IllegalArgumentException("Page count must not be negative");
+
+		this.slowestPageCount = slowestPageCount;
+		statistics = new ConcurrentHashMap<>();
+		threadBean = ManagementFactory.getThreadMXBean();
+		boolean cpuTime = false;
+		try {
+			if (threadBean.isCurrentThreadCpuTimeSupported()) {
+				if (!threadBean.isThreadCpuTimeEnabled())
+					threadBean.setThreadCpuTimeEnabled(true);
+				cpuTime = true;
+			}
+		} catch (UnsupportedOperationException | SecurityException e) {
+			cpuTime = false;
+		}
+		measureCpuTime = cpuTime;
+
+		AllocationMeter meter = null;
+		if (measureAllocation) {
+			try {
+				meter = AllocationMeter.create(threadBean);
+			} catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+				meter = null;
+			}
+		}
+		allocationMeter = meter;
+		this.measureAllocation = (meter != null);
+	}
+
+	/** Starts the profiling of the page with the given title. */
+	public PageProfile startPage(final String title) {
+		return new PageProfile(title);
+	}
+
+	protected long getNanos() {
+		return (measureCpuTime ? threadBean.getCurrentThreadCpuTime() : System.nanoTime());
+	}
+
+	protected long getAllocatedBytes() {
+		return allocationMeter.getAllocatedBytes();
+	}
+
+	/** Returns true if the processing time is measured as the CPU time 
+	 *  of the current thread rather than the wall-clock time. */
+	public boolean isMeasuringCpuTime() {
+		return measureCpuTime;
+	}
+
+	/** Returns true if the allocated memory is being measured. */
+	public boolean isMeasuringAllocation() {
+		return measureAllocation;
+	}
+
+	/** Returns the statistics of the given handler class or 
+	 *  <code>null</code> if the handler has not been invoked yet. */
+	public HandlerStatistics getStatistics(final Class<? extends IBlockHandler> handlerClass) {
+		return statistics.get(handlerClass.getName());
+	}
+
+	/** Returns the statistics of all invoked handlers, starting with the 
+	 *  handler requiring the most processing time. */
+	public List<HandlerStatistics> getStatistics() {
+		List<HandlerStatistics> result = new ArrayList<>(statistics.values());
+		result.sort(Comparator.comparingLong(HandlerStatistics::getTotalNanos).reversed());
+		return Collections.unmodifiableList(result);
+	}
+
+	/** Removes all statistics collected so far. */
+	public void reset() {
+		statistics.clear();
+	}
+
+	/** Returns a human-readable report of the collected statistics. */
+	public String getSummary() {
+		StringBuilder result = new StringBuilder();
+		result.append(String.format("%-40s %-13s %12s %12s %14s%n", 
+				"Handler", "Method", "Calls", "Time [ms]", "Alloc. [KB]"));
+		for (HandlerStatistics stats : getStatistics()) {
+			String name = stats.getHandlerName();
+			name = name.substring(name.lastIndexOf('.') + 1);
+			for (Method method : Method.values())
+				result.append(String.format("%-40s %-13s %12d %12.1f %14d%n",
+						name, method, stats.getInvocations(method),
+						stats.getNanos(method) / 1000000.0,
+						stats.getAllocatedBytes(method) / 1024));
+			List<PageTiming> slowest = stats.getSlowestPages();
+			if (!slowest.isEmpty())
+				result.append("  slowest pages: ").append(slowest).append(String.format("%n"));
+		}
+		return result.toString();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[handlers=" + statistics.size() + "]";
+	}
+
+	/** Reads the memory allocated by the current thread. The vendor-specific
+	 *  bean is only referenced by this class, which is not loaded unless 
+	 *  the allocation is to be measured. */
+	protected static class AllocationMeter {
+
+		protected final com.sun.management.ThreadMXBean threadBean;
+
+		protected AllocationMeter(final com.sun.management.ThreadMXBean threadBean) {
+			this.threadBean = threadBean;
+		}
+
+		/** Returns a meter for the given bean or <code>null</code> if the 
+		 *  bean does not support the measurement of allocated memory. */
+		protected static AllocationMeter create(final ThreadMXBean bean) {
+			if (!(bean instanceof com.sun.management.ThreadMXBean))
+				return null;
+
+			com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+			if (!threadBean.isThreadAllocatedMemorySupported())
+				return null;
+			if (!threadBean.isThreadAllocatedMemoryEnabled())
+				threadBean.setThreadAllocatedMemoryEnabled(true);
+			return new AllocationMeter(threadBean);
+		}
+
+		protected long getAllocatedBytes() {
+			return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+
+	}
+
+}
@@ -35,6 +35,7 @@ public class DumpInfo implements IDumpInfo {
 	protected Set<String> namespaces;
 	protected int processedPages;
 	protected IWiktionaryDumpParser parser;
+	protected ImportMetrics metrics;
 	
 	/** Instanciate the dump info object for the given dump file and parser 
 	 *  object. */
@@ -89,4 +90,14 @@ public class DumpInfo implements IDumpInfo {
 		return parser;
 	}
 
+	@Override
+	public ImportMetrics getMetrics() {
+		return metrics;
+	}
+
+	/** Assign the metrics of the dump import. */
+	public void setMetrics(final ImportMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 }
@@ -29,6 +29,15 @@ public interface IBlockHandler {
 	/** Return <code>true</code> if the handler requests to process the article
 	 *  constituent starting at the given line of text. */
 	boolean canHandle(final String blockHeader);
+
+	/** Returns the prefixes of all block headers the handler might accept 
+	 *  (ignoring leading white space) or <code>null</code> if the handler 
+	 *  needs to be asked for any header. The prefixes are a necessary 
+	 *  condition for {@link #canHandle(String)} that allows skipping
+	 *  the handler without invoking its custom logic. */
+	default String[] getHeaderPrefixes() {
+		return null;
+	}
 	
 	/** If the handler requested to process this constituent, this hotspot 
 	 *  will be called for processing the section header of this 
@@ -57,6 +57,13 @@ public interface IDumpInfo {
 	 *  dump info object. */
 	IWiktionaryDumpParser getParser();
 
+	/** Returns the metrics of the dump import, which can be used by the
+	 *  page parsers for reporting their performance, or <code>null</code>
+	 *  if no metrics are collected. */
+	default ImportMetrics getMetrics() {
+		return null;
+	}
+
 	/** Reset the dump information, such the number of processed pages. This 
 	 *  is to be called before a new dump file is being processed. Users of 
 	 *  this interface should normally not invoke this method. */
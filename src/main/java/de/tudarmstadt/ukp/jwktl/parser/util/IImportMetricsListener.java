@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+/**
+ * Listener for the progress of a dump import that can be registered
+ * using {@link ImportMetrics#addListener(IImportMetricsListener)}. The 
+ * listener is invoked by the thread processing the dump file and should 
+ * thus return quickly.
+ */
+public interface IImportMetricsListener {
+
+	/** Invoked each time the configured number of pages has been 
+	 *  processed (see {@link ImportMetrics#setReportInterval(long)}). */
+	void onProgress(final ImportMetrics metrics);
+
+	/** Invoked once after the dump file has been processed completely. */
+	default void onFinished(final ImportMetrics metrics) {}
+
+}
@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+
+/**
+ * Collects performance metrics of a dump import, such as the throughput,
+ * the time spent in the different processing steps, and the latencies of
+ * parsing and saving pages. Use 
+ * {@link de.tudarmstadt.ukp.jwktl.parser.XMLDumpParser#setMetrics(ImportMetrics)}
+ * to activate the measurement; the metrics are then shared with the 
+ * registered page parsers via {@link IDumpInfo#getMetrics()}. The metrics 
+ * can be observed using an {@link IImportMetricsListener} or via JMX 
+ * (see {@link #registerMBean(String)}). All methods are thread-safe.
+ */
+public class ImportMetrics implements ImportMetricsMBean {
+
+	/** The default number of pages after which the listeners are 
+	 *  notified. */
+	public static final long DEFAULT_REPORT_INTERVAL = 25000;
+
+	/** The JMX domain used for registering the metrics. */
+	public static final String MBEAN_DOMAIN = "de.tudarmstadt.ukp.jwktl";
+
+	protected final AtomicLong pages;
+	protected final LongAdder bytes;
+	protected final LongAdder decompressionNanos;
+	protected final LongAdder xmlNanos;
+	protected final LongAdder storageNanos;
+	protected final Map<String, LongAdder> namespaceCounts;
+	protected final LatencyHistogram parseLatency;
+	protected final LatencyHistogram saveLatency;
+	protected final LatencyHistogram batchSaveLatency;
+	protected final List<IImportMetricsListener> listeners;
+	protected volatile IntSupplier queueDepth;
+	protected volatile long startTime;
+	protected volatile long endTime;
+	protected volatile long startGcMillis;
+	protected volatile long endGcMillis;
+	protected long reportInterval;
+	protected ObjectName mbeanName;
+
+	/** Creates a new metrics object and starts the time measurement. */
+	public ImportMetrics() {
+		pages = new AtomicLong();
+		bytes = new LongAdder();
+		decompressionNanos = new LongAdder();
+		xmlNanos = new LongAdder();
+		storageNanos = new LongAdder();
+		namespaceCounts = new ConcurrentHashMap<>();
+		parseLatency = new LatencyHistogram();
+		saveLatency = new LatencyHistogram();
+		batchSaveLatency = new LatencyHistogram();
+		listeners = new CopyOnWriteArrayList<>();
+		reportInterval = DEFAULT_REPORT_INTERVAL;
+		startTime = System.nanoTime();
+		startGcMillis = getTotalGcMillis();
+	}
+
+	/** Registers a listener that is notified about the import progress. */
+	public void addListener(final IImportMetricsListener listener) {
+		listeners.add(listener);
+	}
+
+	/** Removes the given listener. */
+	public void removeListener(final IImportMetricsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/** Returns the number of pages after which the listeners are 
+	 *  notified. */
+	public long getReportInterval() {
+		return reportInterval;
+	}
+
+	/** Sets the number of pages after which the listeners are notified. */
+	public void setReportInterval(long reportInterval) {
+		if (reportInterval < 1)
+			throw new IllegalArgumentException("Report interval must be positive");
+		this.reportInterval = reportInterval;
+	}
+
+	/** Sets the gauge reporting the number of pages waiting to be parsed
+	 *  or saved, or <code>null</code> if there is no such queue. */
+	public void setQueueDepth(final IntSupplier queueDepth) {
+		this.queueDepth = queueDepth;
+	}
+
+
+	// -- Recording --
+
+	/** Counts a processed page of the given namespace (<code>null</code>
+	 *  for the main namespace) and notifies the listeners if necessary. */
+	public void recordPage(final String namespace) {
+		long pageCount = pages.incrementAndGet();
+		namespaceCounts.computeIfAbsent(namespace == null ? "" : namespace, 
+				ns -> new LongAdder()).increment();
+		if (!listeners.isEmpty() && pageCount % reportInterval == 0)
+			for (IImportMetricsListener listener : listeners)
+				listener.onProgress(this);
+	}
+
+	/** Adds the given number of decompressed bytes and the time spent 
+	 *  for reading them. */
+	public void recordRead(long byteCount, long nanos) {
+		if (byteCount > 0)
+			bytes.add(byteCount);
+		decompressionNanos.add(nanos);
+	}
+
+	/** Adds the given time spent for XML parsing. */
+	public void recordXml(long nanos) {
+		if (nanos > 0)
+			xmlNanos.add(nanos);
+	}
+
+	/** Adds the time spent for parsing a single page text. */
+	public void recordParse(long nanos) {
+		parseLatency.record(nanos);
+	}
+
+	/** Adds the time spent for saving a single page. */
+	public void recordSave(long nanos) {
+		saveLatency.record(nanos);
+		storageNanos.add(nanos);
+	}
+
+	/** Adds the time spent for saving a batch of pages. The latency is
+	 *  recorded in a separate histogram, since it does not correspond to
+	 *  the latency of saving a single page. */
+	public void recordBatchSave(long nanos) {
+		batchSaveLatency.record(nanos);
+		storageNanos.add(nanos);
+	}
+
+	/** Stops the time measurement and notifies the listeners that the 
+	 *  import has been finished. */
+	public void finish() {
+		endTime = System.nanoTime();
+		endGcMillis = getTotalGcMillis();
+		for (IImportMetricsListener listener : listeners)
+			listener.onFinished(this);
+	}
+
+	@Override
+	public void reset() {
+		pages.set(0);
+		bytes.reset();
+		decompressionNanos.reset();
+		xmlNanos.reset();
+		storageNanos.reset();
+		namespaceCounts.clear();
+		parseLatency.reset();
+		saveLatency.reset();
+		batchSaveLatency.reset();
+		endTime = 0;
+		startTime = System.nanoTime();
+		startGcMillis = getTotalGcMillis();
+	}
+
+	/** Returns the accumulated collection time of all garbage collectors 
+	 *  of the virtual machine. */
+	protected static long getTotalGcMillis() {
+		long result = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			long millis = gc.getCollectionTime();
+			if (millis > 0) // -1 if undefined.
+				result += millis;
+		}
+		return result;
+	}
+
+
+	// -- Statistics --
+
+	@Override
+	public long getPages() {
+		return pages.get();
+	}
+
+	@Override
+	public double getPagesPerSecond() {
+		return perSecond(pages.get());
+	}
+
+	@Override
+	public long getBytes() {
+		return bytes.sum();
+	}
+
+	@Override
+	public double getBytesPerSecond() {
+		return perSecond(bytes.sum());
+	}
+
+	@Override
+	public Map<String, Long> getNamespaceCounts() {
+		Map<String, Long> result = new TreeMap<>();
+		namespaceCounts.forEach((namespace, count) -> result.put(namespace, count.sum()));
+		return result;
+	}
+
+	@Override
+	public int getQueueDepth() {
+		IntSupplier gauge = queueDepth;
+		return (gauge == null ? 0 : gauge.getAsInt());
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		long end = endTime;
+		return ((end == 0 ? System.nanoTime() : end) - startTime) / 1000000;
+	}
+
+	@Override
+	public long getDecompressionMillis() {
+		return decompressionNanos.sum() / 1000000;
+	}
+
+	@Override
+	public long getXmlMillis() {
+		return xmlNanos.sum() / 1000000;
+	}
+
+	@Override
+	public long getParseMillis() {
+		return parseLatency.getTotalNanos() / 1000000;
+	}
+
+	@Override
+	public long getStorageMillis() {
+		return storageNanos.sum() / 1000000;
+	}
+
+	@Override
+	public long getGcMillis() {
+		return (endTime == 0 ? getTotalGcMillis() : endGcMillis) - startGcMillis;
+	}
+
+	@Override
+	public double getParseMeanMicros() {
+		return parseLatency.getMeanNanos() / 1000.0;
+	}
+
+	@Override
+	public long getParseP99Micros() {
+		return parseLatency.getPercentileNanos(99) / 1000;
+	}
+
+	@Override
+	public double getSaveMeanMicros() {
+		return saveLatency.getMeanNanos() / 1000.0;
+	}
+
+	@Override
+	public long getSaveP99Micros() {
+		return saveLatency.getPercentileNanos(99) / 1000;
+	}
+
+	@Override
+	public double getBatchSaveMeanMicros() {
+		return batchSaveLatency.getMeanNanos() / 1000.0;
+	}
+
+	@Override
+	public long getBatchSaveP99Micros() {
+		return batchSaveLatency.getPercentileNanos(99) / 1000;
+	}
+
+	/** Returns the latency histogram of parsing the page texts. */
+	public LatencyHistogram getParseLatency() {
+		return parseLatency;
+	}
+
+	/** Returns the latency histogram of saving single parsed pages. */
+	public LatencyHistogram getSaveLatency() {
+		return saveLatency;
+	}
+
+	/** Returns the latency histogram of saving batches of parsed pages. */
+	public LatencyHistogram getBatchSaveLatency() {
+		return batchSaveLatency;
+	}
+
+	protected double perSecond(long count) {
+		long millis = getElapsedMillis();
+		return (millis == 0 ? 0.0 : count * 1000.0 / millis);
+	}
+
+
+	// -- JMX --
+
+	/** Registers the metrics at the platform MBean server using the 
+	 *  given name. 
+	 *  @throws WiktionaryException if the registration failed. */
+	public synchronized void registerMBean(final String name) {
+		try {
+			ObjectName objectName = new ObjectName(MBEAN_DOMAIN 
+					+ ":type=ImportMetrics,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			mbeanName = objectName;
+		} catch (JMException e) {
+			throw new WiktionaryException("Unable to register MBean", e);
+		}
+	}
+
+	/** Removes the metrics from the platform MBean server if they have
+	 *  been registered before. */
+	public synchronized void unregisterMBean() {
+		if (mbeanName == null)
+			return;
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(mbeanName))
+				server.unregisterMBean(mbeanName);
+		} catch (JMException e) {
+			throw new WiktionaryException("Unable to unregister MBean", e);
+		} finally {
+			mbeanName = null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d pages (%.1f/s), %.1f MB (%.1f MB/s), "
+				+ "decompression %d ms, XML %d ms, parse %d ms, storage %d ms, "
+				+ "GC %d ms, parse latency [%s], save latency [%s], "
+				+ "batch save latency [%s]",
+				getPages(), getPagesPerSecond(), 
+				getBytes() / 1048576.0, getBytesPerSecond() / 1048576.0,
+				getDecompressionMillis(), getXmlMillis(), getParseMillis(), 
+				getStorageMillis(), getGcMillis(), parseLatency, saveLatency,
+				batchSaveLatency);
+	}
+
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.util.Map;
+
+/**
+ * JMX management interface of the {@link ImportMetrics}. All durations
+ * are given in milliseconds, all latencies in microseconds.
+ */
+public interface ImportMetricsMBean {
+
+	/** Returns the number of processed pages. */
+	long getPages();
+
+	/** Returns the average number of processed pages per second. */
+	double getPagesPerSecond();
+
+	/** Returns the number of decompressed bytes read from the dump file. */
+	long getBytes();
+
+	/** Returns the average number of decompressed bytes per second. */
+	double getBytesPerSecond();
+
+	/** Returns the number of processed pages per namespace. Pages of
+	 *  the main namespace are counted with an empty namespace name. */
+	Map<String, Long> getNamespaceCounts();
+
+	/** Returns the number of pages waiting to be parsed or saved. */
+	int getQueueDepth();
+
+	/** Returns the elapsed time since the start of the import. */
+	long getElapsedMillis();
+
+	/** Returns the time spent for reading and decompressing the dump. */
+	long getDecompressionMillis();
+
+	/** Returns the time spent for XML parsing, excluding the page parsers. */
+	long getXmlMillis();
+
+	/** Returns the time spent for parsing the page texts, summed over
+	 *  all parser threads. */
+	long getParseMillis();
+
+	/** Returns the time spent for saving the parsed pages. */
+	long getStorageMillis();
+
+	/** Returns the time spent for garbage collection since the start of
+	 *  the import, as reported by the garbage collectors of the virtual 
+	 *  machine (including collections caused by other activities). */
+	long getGcMillis();
+
+	/** Returns the mean latency of parsing a page text. */
+	double getParseMeanMicros();
+
+	/** Returns an upper bound of the 99th percentile latency of parsing
+	 *  a page text. */
+	long getParseP99Micros();
+
+	/** Returns the mean latency of saving a single page. */
+	double getSaveMeanMicros();
+
+	/** Returns an upper bound of the 99th percentile latency of saving a 
+	 *  single page. */
+	long getSaveP99Micros();
+
+	/** Returns the mean latency of saving a batch of pages. */
+	double getBatchSaveMeanMicros();
+
+	/** Returns an upper bound of the 99th percentile latency of saving a 
+	 *  batch of pages. */
+	long getBatchSaveP99Micros();
+
+	/** Resets all counters and restarts the time measurement. */
+	void reset();
+
+}
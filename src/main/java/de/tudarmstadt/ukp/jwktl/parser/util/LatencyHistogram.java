@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latencies (in nanoseconds) with exponentially 
+ * growing buckets: bucket <i>i</i> counts the latencies between 
+ * 2<sup><i>i</i>-1</sup> (exclusive) and 2<sup><i>i</i></sup> (inclusive) 
+ * nanoseconds. Recording a latency is lock-free and does not allocate 
+ * any objects. The percentiles are approximated by the upper bound of 
+ * the corresponding bucket.
+ */
+public class LatencyHistogram {
+
+	protected static final int BUCKET_COUNT = 64;
+
+	protected final AtomicLongArray buckets;
+	protected final LongAdder count;
+	protected final LongAdder totalNanos;
+
+	/** Creates an empty histogram. */
+	public LatencyHistogram() {
+		buckets = new AtomicLongArray(BUCKET_COUNT);
+		count = new LongAdder();
+		totalNanos = new LongAdder();
+	}
+
+	/** Adds the given latency (in nanoseconds) to the histogram. */
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+		buckets.incrementAndGet(bucketOf(nanos));
+		count.increment();
+		totalNanos.add(nanos);
+	}
+
+	protected static int bucketOf(long nanos) {
+		return (nanos <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(nanos - 1));
+	}
+
+	/** Returns the number of recorded latencies. */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/** Returns the sum of all recorded latencies (in nanoseconds). */
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	/** Returns the mean latency (in nanoseconds) or 0 if no latency 
+	 *  has been recorded. */
+	public double getMeanNanos() {
+		long n = count.sum();
+		return (n == 0 ? 0.0 : (double) totalNanos.sum() / n);
+	}
+
+	/** Returns an upper bound of the given percentile (between 0 and 100)
+	 *  of the recorded latencies (in nanoseconds) or 0 if no latency has 
+	 *  been recorded. */
+	public long getPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("Invalid percentile " + percentile);
+
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return (i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << i);
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/** Removes all recorded latencies. */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			buckets.set(i, 0);
+		count.reset();
+		totalNanos.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() 
+				+ ", mean=" + Math.round(getMeanNanos() / 1000.0) + "us"
+				+ ", p50<=" + getPercentileNanos(50) / 1000 + "us"
+				+ ", p99<=" + getPercentileNanos(99) / 1000 + "us";
+	}
+
+}
@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import de.tudarmstadt.ukp.jwktl.api.entry.WikiString;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionarySense;
+
+/**
+ * Finds the word sense of an entry whose gloss corresponds to a given
+ * sense marker (e.g., the gloss of a translation or relation block). The
+ * similarity scores equal those of {@link SimilarityUtils#wordSim(String, 
+ * String)} and {@link SimilarityUtils#similarity(String, String)}, but the
+ * word and trigram vectors of the glosses are computed only once per 
+ * entry and stored as sorted arrays of hashed features. Scoring a marker
+ * thus requires a single merge of two primitive arrays per sense. The
+ * gloss vectors are recomputed if the senses of the entry or their glosses
+ * change. A matcher should only be kept while processing its entry (e.g., 
+ * within a single {@link IBlockHandler#fillContent(ParsingContext)} call),
+ * since it references the entry and its senses.
+ */
+public class SenseMatcher {
+
+	/**
+	 * Bag of hashed features (i.e., words or trigrams) stored as arrays of
+	 * feature hashes in ascending order and their counts.
+	 */
+	public static class FeatureVector {
+
+		protected final long[] hashes;
+		protected final int[] counts;
+		protected final double[] logCounts;
+		protected final double logCountSum;
+
+		protected FeatureVector(final long[] features, int length) {
+			Arrays.sort(features, 0, length);
+			int size = 0;
+			for (int i = 0; i < length; i++)
+				if (i == 0 || features[i] != features[i - 1])
+					size++;
+			hashes = new long[size];
+			counts = new int[size];
+			int j = -1;
+			for (int i = 0; i < length; i++) {
+				if (i == 0 || features[i] != features[i - 1])
+					hashes[++j] = features[i];
+				counts[j]++;
+			}
+			
+			logCounts = new double[size];
+			double sum = 0.0;
+			for (int i = 0; i < size; i++) {
+				logCounts[i] = Math.log(counts[i]);
+				sum += logCounts[i];
+			}
+			logCountSum = sum;
+		}
+
+		/** Creates the vector of the lowercased words (i.e., sequences of 
+		 *  the characters <code>[a-zA-Z_0-9]</code>) of the given text. */
+		public static FeatureVector words(final CharSequence text) {
+			long[] features = new long[16];
+			int length = 0;
+			int n = text.length();
+			int i = 0;
+			while (i < n) {
+				if (!isWordChar(text.charAt(i))) {
+					i++;
+					continue;
+				}
+
+				long hash = FNV_OFFSET;
+				while (i < n && isWordChar(text.charAt(i))) {
+					char c = text.charAt(i++);
+					if (c >= 'A' && c <= 'Z')
+						c += 'a' - 'A';
+					hash = (hash ^ c) * FNV_PRIME;
+				}
+				if (length == features.length)
+					features = Arrays.copyOf(features, length * 2);
+				features[length++] = hash;
+			}
+			return new FeatureVector(features, length);
+		}
+
+		/** Creates the vector of the character trigrams of the given text.
+		 *  Each whitespace-separated token is padded with an underscore 
+		 *  on both sides; trigrams containing digits or any of the 
+		 *  characters <code>?!-_/</code> (except for the padding) are 
+		 *  ignored. */
+		public static FeatureVector trigrams(final CharSequence text) {
+			long[] features = new long[Math.max(16, text.length() + 16)];
+			int length = 0;
+			int n = text.length();
+			int start = 0;
+			while (start <= n) {
+				int end = start;
+				while (end < n && !isWhitespace(text.charAt(end)))
+					end++;
+
+				// Padded token: '_' text[start..end) '_'.
+				int paddedLength = end - start + 2;
+				for (int i = 0; i + 3 <= paddedLength; i++) {
+					char c0 = paddedChar(text, start, paddedLength, i);
+					char c1 = paddedChar(text, start, paddedLength, i + 1);
+					char c2 = paddedChar(text, start, paddedLength, i + 2);
+					if (!isValidTrigram(c0, c1, c2))
+						continue;
+
+					if (length == features.length)
+						features = Arrays.copyOf(features, length * 2);
+					features[length++] = ((((FNV_OFFSET ^ c0) * FNV_PRIME 
+							^ c1) * FNV_PRIME) ^ c2) * FNV_PRIME;
+				}
+				start = end + 1;
+			}
+			return new FeatureVector(features, length);
+		}
+
+		/** Returns the number of distinct features. */
+		public int size() {
+			return hashes.length;
+		}
+
+		/** Returns the similarity of the two vectors, which is defined as 
+		 *  <code>2 * common / (a + b)</code> with <code>a</code> and 
+		 *  <code>b</code> being the sums of the log-probabilities of the 
+		 *  features of each vector and <code>common</code> the sum for the
+		 *  features of the first vector shared with the second one. The 
+		 *  probabilities are relative to the sum of the maximum counts of 
+		 *  the features of the first vector. Equals 
+		 *  {@link SimilarityUtils#similarity(java.util.Map, java.util.Map)}
+		 *  (up to rounding). */
+		public static double similarity(final FeatureVector a, 
+				final FeatureVector b) {
+			double all = 0.0;
+			double commonLogCountSum = 0.0;
+			int commonCount = 0;
+			int j = 0;
+			for (int i = 0; i < a.hashes.length; i++) {
+				long hash = a.hashes[i];
+				while (j < b.hashes.length && b.hashes[j] < hash)
+					j++;
+				if (j < b.hashes.length && b.hashes[j] == hash) {
+					all += Math.max(a.counts[i], b.counts[j]);
+					commonLogCountSum += a.logCounts[i];
+					commonCount++;
+				} else
+					all += a.counts[i];
+			}
+
+			double logAll = Math.log(all);
+			double common = logProbabilitySum(commonLogCountSum, commonCount, logAll);
+			return 2 * common / (logProbabilitySum(a.logCountSum, a.hashes.length, logAll)
+					+ logProbabilitySum(b.logCountSum, b.hashes.length, logAll));
+		}
+
+		// Returns sum(log(count_i / all)) for n features.
+		private static double logProbabilitySum(double logCountSum, int n,
+				double logAll) {
+			return (n == 0 ? 0.0 : logCountSum - n * logAll);
+		}
+
+		private static char paddedChar(final CharSequence text, int start,
+				int paddedLength, int idx) {
+			if (idx == 0 || idx == paddedLength - 1)
+				return '_';
+			else
+				return text.charAt(start + idx - 1);
+		}
+
+		// Equivalent to matching the trigram against ^_?[^0-9\?!\-_/]*_?$
+		private static boolean isValidTrigram(char c0, char c1, char c2) {
+			if (c0 != '_' && isExcluded(c0))
+				return false;
+			if (isExcluded(c1))
+				return false;
+			if (c2 != '_' && isExcluded(c2))
+				return false;
+			return true;
+		}
+
+		private static boolean isExcluded(char c) {
+			return (c >= '0' && c <= '9') || c == '?' || c == '!' 
+					|| c == '-' || c == '_' || c == '/';
+		}
+
+		private static boolean isWordChar(char c) {
+			return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+					|| (c >= '0' && c <= '9') || c == '_';
+		}
+
+		// Equivalent to \s.
+		private static boolean isWhitespace(char c) {
+			return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' 
+					|| c == '\f' || c == '\r';
+		}
+
+	}
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	protected final WiktionaryEntry entry;
+	protected WiktionarySense[] senses;
+	protected String[] glossTexts;
+	protected FeatureVector[] glossWords;
+	protected FeatureVector[] glossTrigrams;
+
+	/** Instanciates a matcher for the senses of the given entry. The 
+	 *  gloss vectors are computed when matching the first marker. */
+	public SenseMatcher(final WiktionaryEntry entry) {
+		this.entry = entry;
+	}
+
+	/** Returns the entry whose senses are matched. */
+	public WiktionaryEntry getEntry() {
+		return entry;
+	}
+
+	/** Returns the word sense whose gloss corresponds to the given sense
+	 *  marker, which is the only sense of monosemous entries. Returns 
+	 *  <code>null</code> if no matching word sense could be found. */
+	public WiktionarySense findMatchingSense(final String marker) {
+		return findMatchingSenses(Collections.singletonList(marker)).get(0);
+	}
+
+	/** Returns the matching word sense for each of the given markers (or
+	 *  <code>null</code> if there is none) in the same order. The markers 
+	 *  are scored in a single pass over the gloss vectors. */
+	public List<WiktionarySense> findMatchingSenses(final Collection<String> markers) {
+		// Monosemous entries.
+		if (entry.getSenseCount() == 1)
+			return new ArrayList<>(Collections.nCopies(markers.size(), entry.getSense(1)));
+
+		// Empty sense markers remain unmatched.
+		int markerCount = markers.size();
+		FeatureVector[] markerWords = new FeatureVector[markerCount];
+		FeatureVector[] markerTrigrams = new FeatureVector[markerCount];
+		int idx = 0;
+		for (String marker : markers) {
+			if (marker != null && !marker.isEmpty()) {
+				markerWords[idx] = FeatureVector.words(marker);
+				markerTrigrams[idx] = FeatureVector.trigrams(marker);
+			}
+			idx++;
+		}
+
+		ensureGlossVectors();
+		int[] best1Gram = new int[markerCount];
+		int[] best3Gram = new int[markerCount];
+		double[] best1GramScore = new double[markerCount];
+		double[] best3GramScore = new double[markerCount];
+		Arrays.fill(best1GramScore, -1);
+		Arrays.fill(best3GramScore, -1);
+		for (int i = 0; i < senses.length; i++)
+			for (int j = 0; j < markerCount; j++) {
+				if (markerWords[j] == null)
+					continue;
+
+				double similarity = FeatureVector.similarity(markerWords[j], glossWords[i]);
+				if (similarity > best1GramScore[j]) {
+					best1GramScore[j] = similarity;
+					best1Gram[j] = i;
+				}
+				similarity = FeatureVector.similarity(markerTrigrams[j], glossTrigrams[i]);
+				if (similarity > best3GramScore[j]) {
+					best3GramScore[j] = similarity;
+					best3Gram[j] = i;
+				}
+			}
+
+		List<WiktionarySense> result = new ArrayList<>(markerCount);
+		for (int j = 0; j < markerCount; j++) {
+			if (best1GramScore[j] <= 0 && best3GramScore[j] <= 0)
+				result.add(null); // Also if there are no senses or no marker.
+			else if (best1GramScore[j] > best3GramScore[j])
+				result.add(senses[best1Gram[j]]);
+			else
+				result.add(senses[best3Gram[j]]);
+		}
+		return result;
+	}
+
+	/** Computes the gloss vectors unless they are still up to date. */
+	protected void ensureGlossVectors() {
+		if (senses != null && isUpToDate())
+			return;
+
+		List<WiktionarySense> assignedSenses = new ArrayList<>();
+		for (WiktionarySense sense : entry.senses())
+			if (sense.getIndex() > 0) // Skip unassigned sense.
+				assignedSenses.add(sense);
+
+		senses = assignedSenses.toArray(new WiktionarySense[assignedSenses.size()]);
+		glossTexts = new String[senses.length];
+		glossWords = new FeatureVector[senses.length];
+		glossTrigrams = new FeatureVector[senses.length];
+		for (int i = 0; i < senses.length; i++) {
+			glossTexts[i] = senses[i].getGloss().getText();
+			String gloss = WikiString.removeWikiLinks(glossTexts[i])
+					.toLowerCase(Locale.ENGLISH);
+			glossWords[i] = FeatureVector.words(gloss);
+			glossTrigrams[i] = FeatureVector.trigrams(gloss);
+		}
+	}
+
+	/** Tests if the entry still has the same senses with the same glosses
+	 *  as when the gloss vectors have been computed. */
+	protected boolean isUpToDate() {
+		int i = 0;
+		for (WiktionarySense sense : entry.senses()) {
+			if (sense.getIndex() <= 0)
+				continue;
+			if (i >= senses.length || senses[i] != sense
+					|| glossTexts[i] != sense.getGloss().getText())
+				return false;
+			i++;
+		}
+		return (i == senses.length);
+	}
+
+}
@@ -32,6 +32,7 @@ import java.util.regex.Pattern;
 public class SimilarityUtils {
 	
 	protected static final Pattern NGRAM_PATTERN = Pattern.compile("^_?[^0-9\\?!\\-_/]*_?$");
+	protected static final Pattern WORD_PATTERN = Pattern.compile("\\w+");
 	
   /**
    * Compute N Grams.
@@ -80,8 +81,7 @@ public class SimilarityUtils {
 	 */
 	protected static Map<String, Integer> computeWord2count(final String text) {
 		Map<String, Integer> word2count = new HashMap<>();
-		Pattern wordPattern = Pattern.compile("\\w+");
-		Matcher matcher = wordPattern.matcher(text);
+		Matcher matcher = WORD_PATTERN.matcher(text);
 		while(matcher.find()) {
 			String w = matcher.group().toLowerCase();
 			if (word2count.containsKey(w))
@@ -42,16 +42,13 @@ public /*static*/ final class StringUtils {
 				fieldCount++;
 		
 		String[] result = new String[fieldCount];
-		int i;
-		int idx = 0;
-		do {
-			i = text.indexOf(divider);
-			if (i >= 0) {
-				result[idx++] = text.substring(0, i);
-				text = text.substring(i + 1);
-			}
-		} while (i >= 0);
-		result[idx] = text;
+		int start = 0;
+		for (int idx = 0; idx < fieldCount - 1; idx++) {
+			int i = text.indexOf(divider, start);
+			result[idx] = text.substring(start, i);
+			start = i + 1;
+		}
+		result[fieldCount - 1] = text.substring(start);
 		return result;
 	}
 
@@ -59,12 +56,13 @@ public /*static*/ final class StringUtils {
 	 *  specified text. The method thus corresponds to the trim function,
 	 *  but with arbitrary characters. */
 	public static String strip(final String text, final String characters) {
-		String result = text;
-		while (result.length() > 0 && characters.indexOf(result.charAt(0)) >= 0)
-			result = result.substring(1);
-		while (result.length() > 0 && characters.indexOf(result.charAt(result.length() - 1)) >= 0)
-			result = result.substring(0, result.length() - 1);
-		return result;
+		int start = 0;
+		int end = text.length();
+		while (start < end && characters.indexOf(text.charAt(start)) >= 0)
+			start++;
+		while (end > start && characters.indexOf(text.charAt(end - 1)) >= 0)
+			end--;
+		return text.substring(start, end);
 	}
 
 	private static final Pattern LITERATURE_PATTERN = Pattern.compile("\\{\\{Literatur\\|[^}]+\\}\\}|<ref[^>]*>.*?</ref>");
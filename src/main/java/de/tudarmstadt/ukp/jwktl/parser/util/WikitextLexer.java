@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+/**
+ * Lexer for the wikitext of an article page that removes HTML comments,
+ * image links, and references and subsequently yields the trimmed lines of
+ * the remaining text. The markup is removed from a single character array 
+ * in linear time, which avoids creating intermediate copies of the page 
+ * and bounds the processing time of pathological pages. The removed 
+ * markup corresponds to the (successively applied) patterns 
+ * <code>&lt;!--((?!--&gt;)[^\0])*?--&gt;</code>, 
+ * <code>\[\[Image:([^\]]+?)\|[^\]]+?\]\]</code>, and
+ * <code>&lt;ref[^&gt;]*&gt;.+?&lt;/ref&gt;</code>. Lines are separated by 
+ * <code>\n</code>, <code>\r</code>, or <code>\r\n</code> and trimmed as 
+ * by {@link String#trim()}. A lexer instance is not thread-safe.
+ */
+public class WikitextLexer {
+
+	protected final char[] buffer;
+	protected final int length;
+	protected int position;
+	protected int lineStart;
+	protected int lineEnd;
+
+	/** Creates a lexer for the given wikitext. */
+	public WikitextLexer(final String text) {
+		buffer = text.toCharArray();
+		int len = removeComments(buffer, buffer.length);
+		len = removeImages(buffer, len);
+		length = removeReferences(buffer, len);
+	}
+
+	/** Returns the wikitext without comments, image links, and 
+	 *  references. */
+	public static String clean(final String text) {
+		WikitextLexer lexer = new WikitextLexer(text);
+		return new String(lexer.buffer, 0, lexer.length);
+	}
+
+	/** Advances to the next line and returns true, or returns false if 
+	 *  the end of the text has been reached. */
+	public boolean next() {
+		if (position >= length)
+			return false;
+
+		int start = position;
+		int end = start;
+		while (end < length && buffer[end] != '\n' && buffer[end] != '\r')
+			end++;
+		position = end;
+		if (position < length) {
+			if (buffer[position] == '\r' && position + 1 < length 
+					&& buffer[position + 1] == '\n')
+				position++;
+			position++;
+		}
+
+		while (start < end && buffer[start] <= ' ')
+			start++;
+		while (end > start && buffer[end - 1] <= ' ')
+			end--;
+		lineStart = start;
+		lineEnd = end;
+		return true;
+	}
+
+	/** Advances to the next line and returns it, or returns 
+	 *  <code>null</code> if the end of the text has been reached. */
+	public String nextLine() {
+		return (next() ? getLine() : null);
+	}
+
+	/** Returns the current (trimmed) line. */
+	public String getLine() {
+		return new String(buffer, lineStart, lineEnd - lineStart);
+	}
+
+	/** Returns the offset of the current line within 
+	 *  {@link #getBuffer()}. */
+	public int getLineStart() {
+		return lineStart;
+	}
+
+	/** Returns the end offset (exclusive) of the current line within 
+	 *  {@link #getBuffer()}. */
+	public int getLineEnd() {
+		return lineEnd;
+	}
+
+	/** Returns the character array containing the cleaned wikitext, 
+	 *  which must not be modified. Only the first {@link #getLength()} 
+	 *  characters are valid. */
+	public char[] getBuffer() {
+		return buffer;
+	}
+
+	/** Returns the length of the cleaned wikitext. */
+	public int getLength() {
+		return length;
+	}
+
+
+	// -- Markup removal --
+	// All methods compact the buffer in place. Since characters are only
+	// written before the current read position, the positions cached for
+	// the remaining text stay valid, which keeps the processing linear.
+
+	protected static int removeComments(final char[] buf, int len) {
+		int w = 0;
+		int r = 0;
+		int close = -1;
+		int nul = -1;
+		while (r < len) {
+			if (buf[r] == '<' && startsWith(buf, len, r, "<!--")) {
+				if (close < r + 4)
+					close = indexOf(buf, len, "-->", r + 4);
+				if (nul < r + 4)
+					nul = indexOf(buf, len, '\0', r + 4);
+				if (close < len && nul > close) {
+					r = close + 3;
+					continue;
+				}
+			}
+			buf[w++] = buf[r++];
+		}
+		return w;
+	}
+
+	protected static int removeImages(final char[] buf, int len) {
+		int w = 0;
+		int r = 0;
+		int bracket = -1;
+		int pipe = -1;
+		while (r < len) {
+			if (buf[r] == '[' && startsWith(buf, len, r, "[[Image:")) {
+				if (bracket < r + 8)
+					bracket = indexOf(buf, len, ']', r + 8);
+				if (pipe < r + 9)
+					pipe = indexOf(buf, len, '|', r + 9);
+				if (bracket + 1 < len && buf[bracket + 1] == ']' 
+						&& pipe <= bracket - 2) {
+					r = bracket + 2;
+					continue;
+				}
+			}
+			buf[w++] = buf[r++];
+		}
+		return w;
+	}
+
+	protected static int removeReferences(final char[] buf, int len) {
+		int w = 0;
+		int r = 0;
+		int tagEnd = -1;
+		int close = -1;
+		int lineBreak = -1;
+		while (r < len) {
+			if (buf[r] == '<' && startsWith(buf, len, r, "<ref")) {
+				if (tagEnd < r + 4)
+					tagEnd = indexOf(buf, len, '>', r + 4);
+				if (tagEnd < len) {
+					if (close < tagEnd + 2)
+						close = indexOf(buf, len, "</ref>", tagEnd + 2);
+					if (lineBreak < tagEnd + 1)
+						lineBreak = indexOfLineBreak(buf, len, tagEnd + 1);
+					if (close < len && lineBreak >= close) {
+						r = close + 6;
+						continue;
+					}
+				}
+			}
+			buf[w++] = buf[r++];
+		}
+		return w;
+	}
+
+	protected static boolean startsWith(final char[] buf, int len, int offset,
+			final String prefix) {
+		if (offset + prefix.length() > len)
+			return false;
+		for (int i = 0; i < prefix.length(); i++)
+			if (buf[offset + i] != prefix.charAt(i))
+				return false;
+		return true;
+	}
+
+	/** Returns the position of the first occurrence of the given character
+	 *  at or after the given offset or len if there is no such position. */
+	protected static int indexOf(final char[] buf, int len, char c, int from) {
+		for (int i = from; i < len; i++)
+			if (buf[i] == c)
+				return i;
+		return len;
+	}
+
+	/** Returns the position of the first occurrence of the given string
+	 *  at or after the given offset or len if there is no such position. */
+	protected static int indexOf(final char[] buf, int len, final String s, int from) {
+		char first = s.charAt(0);
+		for (int i = from; i <= len - s.length(); i++)
+			if (buf[i] == first && startsWith(buf, len, i, s))
+				return i;
+		return len;
+	}
+
+	/** Returns the position of the first line terminator (as defined by 
+	 *  {@link java.util.regex.Pattern}) at or after the given offset or 
+	 *  len if there is no such position. */
+	protected static int indexOfLineBreak(final char[] buf, int len, int from) {
+		for (int i = from; i < len; i++) {
+			char c = buf[i];
+			if (c == '\n' || c == '\r' || c == '\u0085' 
+					|| c == '\u2028' || c == '\u2029')
+				return i;
+		}
+		return len;
+	}
+
+}
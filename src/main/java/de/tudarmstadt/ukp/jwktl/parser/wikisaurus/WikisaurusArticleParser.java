@@ -20,13 +20,14 @@ package de.tudarmstadt.ukp.jwktl.parser.wikisaurus;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Logger;
 
 import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
 import de.tudarmstadt.ukp.jwktl.api.RelationType;
@@ -44,13 +45,25 @@ import static de.tudarmstadt.ukp.jwktl.parser.en.components.ENSemanticRelationHa
 /**
  * (Yet experimental) parser for the Wikisaurus entries (i.e., wiki pages
  * in the Wikisaurus namespace that contain thesaurus-like information). 
+ * The parsed entries are collected by a {@link WikisaurusEntrySorter} 
+ * during the parse and integrated into the Wiktionary pages as a separate
+ * phase after all articles have been saved. This phase visits the pages 
+ * in alphabetical order of their titles and saves them in batches, 
+ * such that each page is written at most once.
  * @author Yevgen Chebotar
  * @author Christian M. Meyer
  */
 public class WikisaurusArticleParser implements IWiktionaryPageParser {
 
+	private static final Logger logger = Logger.getLogger(WikisaurusArticleParser.class.getName());
+
+	/** The default number of pages saved at once when integrating the 
+	 *  Wikisaurus entries. */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
 	protected IWritableWiktionaryEdition wiktionaryDB;
-	protected List<WikisaurusEntry> entryQueue;
+	protected WikisaurusEntrySorter entrySorter;
+	protected int batchSize;
 	protected String currentTitle;
 	protected String currentNamespace;
 
@@ -59,8 +72,16 @@ public class WikisaurusArticleParser implements IWiktionaryPageParser {
 	
 	/** Instanciates the parser for the given database. */
 	public WikisaurusArticleParser(final IWritableWiktionaryEdition wiktionaryDB) {
+		this(wiktionaryDB, new WikisaurusEntrySorter());
+	}
+	
+	/** Instanciates the parser for the given database using the given
+	 *  sorter for collecting the parsed Wikisaurus entries. */
+	public WikisaurusArticleParser(final IWritableWiktionaryEdition wiktionaryDB,
+			final WikisaurusEntrySorter entrySorter) {
 		this.wiktionaryDB = wiktionaryDB;
-		entryQueue = new LinkedList<>();
+		this.entrySorter = entrySorter;
+		batchSize = DEFAULT_BATCH_SIZE;
 		
 		notFoundRelation = new HashMap<>();
 		relTypeMap = new HashMap<>();
@@ -111,7 +132,7 @@ public class WikisaurusArticleParser implements IWiktionaryPageParser {
 			return;
 		
 		for (WikisaurusEntry entry : parseWikisaurusEntries(currentTitle, text))
-			saveWikisaurusEntry(entry, true);
+			entrySorter.add(entry);
 	}
 
 	protected Set<WikisaurusEntry> parseWikisaurusEntries(final String title, 
@@ -195,24 +216,31 @@ public class WikisaurusArticleParser implements IWiktionaryPageParser {
 	}
 	
 	public void onParserEnd(final IDumpInfo dumpInfo) {
-		// Save the remaining entries.
-		for (WikisaurusEntry entry : entryQueue)
-			saveWikisaurusEntry(entry, false);
-		entryQueue.clear();
+		// Merge the sorted entries with the pages in alphabetical order
+		// and save all relations of a page at once.
+		List<WiktionaryPage> batch = new ArrayList<>();
+		entrySorter.merge((entries) -> {
+			WiktionaryPage page = wiktionaryDB.getPageForWord(entries.get(0).getTitle());
+			if (page == null) {
+				logger.fine("Page not found: " + entries.get(0).getTitle());
+				return;
+			}
+			
+			for (WikisaurusEntry entry : entries)
+				addWikisaurusEntry(page, entry);
+			batch.add(page);
+			if (batch.size() >= batchSize) {
+				wiktionaryDB.updatePages(batch);
+				batch.clear();
+			}
+		});
+		wiktionaryDB.updatePages(batch);
 	}
 
-	protected void saveWikisaurusEntry(final WikisaurusEntry wikisaurusEntry,
-			boolean allowCaching) {
-		// Find the Wiktionary page for this Wikisaurus entry.
-		WiktionaryPage page = wiktionaryDB.getPageForWord(wikisaurusEntry.getTitle());
-		if (page == null) {
-			if (allowCaching)
-				entryQueue.add(wikisaurusEntry);
-			else
-				System.err.println("PAGE NOT FOUND: " + wikisaurusEntry.getTitle());
-			return;
-		}
-		
+	/** Adds the relations of the given Wikisaurus entry to the matching
+	 *  word senses of the given page. The page is not saved. */
+	protected void addWikisaurusEntry(final WiktionaryPage page,
+			final WikisaurusEntry wikisaurusEntry) {
 		// Find the Wiktionary entry within the Wiktionary page.
 		for (WiktionaryEntry entry : page.entries()) {
 			if (!Language.equals(entry.getWordLanguage(), wikisaurusEntry.getLanguage()))
@@ -222,14 +250,26 @@ public class WikisaurusArticleParser implements IWiktionaryPageParser {
 			
 			WiktionarySense sense = findMatchingSense(entry, wikisaurusEntry.getSenseDefinition());
 			if (sense == null) {
-				System.err.println("Unable to find source word sense: " + wikisaurusEntry);
+				logger.fine("Unable to find source word sense: " + wikisaurusEntry);
 				continue;
 			}
 
 			wikisaurusEntry.getRelations().forEach(sense::addRelation);
 		}
-		
-		wiktionaryDB.savePage(page);
+	}
+
+	/** Returns the number of pages saved at once when integrating the
+	 *  Wikisaurus entries. */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/** Sets the number of pages saved at once when integrating the
+	 *  Wikisaurus entries. Larger batches require more memory. */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1)
+			throw new IllegalArgumentException("Batch size must be positive");
+		this.batchSize = batchSize;
 	}
 	
 	/** Extracts sense definition from Wikisaurus line. */
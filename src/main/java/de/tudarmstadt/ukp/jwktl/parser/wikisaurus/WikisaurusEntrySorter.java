@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.wikisaurus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
+import de.tudarmstadt.ukp.jwktl.api.RelationType;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryRelation;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+
+/**
+ * External sort of {@link WikisaurusEntry}s by their page title. The 
+ * entries are buffered in memory until a configurable limit is reached.
+ * The buffer is then sorted and spilled to a temporary file (a sorted 
+ * run). {@link #merge(Consumer)} finally merges all runs and reports the
+ * entries grouped by their title in alphabetical order. Hence, the memory
+ * consumption is bounded regardless of the number of entries.
+ */
+public class WikisaurusEntrySorter {
+
+	/** The default number of entries kept in memory before spilling. */
+	public static final int DEFAULT_MAX_BUFFERED_ENTRIES = 10000;
+
+	protected static final Comparator<WikisaurusEntry> TITLE_ORDER
+			= Comparator.comparing(WikisaurusEntry::getTitle);
+
+	protected final int maxBufferedEntries;
+	protected final File tempDir;
+	protected List<WikisaurusEntry> buffer;
+	protected List<File> runs;
+	protected long entryCount;
+
+	/** Instanciates a sorter that keeps up to 
+	 *  {@link #DEFAULT_MAX_BUFFERED_ENTRIES} in memory and spills the
+	 *  sorted runs to the default temporary-file directory. */
+	public WikisaurusEntrySorter() {
+		this(DEFAULT_MAX_BUFFERED_ENTRIES, null);
+	}
+
+	/** Instanciates a sorter that keeps up to the given number of entries
+	 *  in memory and spills the sorted runs to the given directory (or
+	 *  the default temporary-file directory if <code>null</code>). */
+	public WikisaurusEntrySorter(int maxBufferedEntries, final File tempDir) {
+		if (maxBufferedEntries < 1)
+			throw new IllegalArgumentException("At least one buffered entry required");
+		
+		this.maxBufferedEntries = maxBufferedEntries;
+		this.tempDir = tempDir;
+		buffer = new ArrayList<>();
+		runs = new ArrayList<>();
+	}
+
+	/** Adds the given entry. Spills the buffered entries to a new sorted 
+	 *  run if the buffer limit is reached. */
+	public void add(final WikisaurusEntry entry) {
+		buffer.add(entry);
+		entryCount++;
+		if (buffer.size() >= maxBufferedEntries)
+			spill();
+	}
+
+	/** Passes all entries to the given consumer in alphabetical order of
+	 *  their titles. All entries sharing the same title are passed as one 
+	 *  list in the order of their addition. The sorter is empty 
+	 *  afterwards. */
+	public void merge(final Consumer<List<WikisaurusEntry>> consumer) {
+		buffer.sort(TITLE_ORDER);
+		List<RunReader> readers = new ArrayList<>(runs.size() + 1);
+		try {
+			for (File run : runs)
+				readers.add(new FileRunReader(readers.size(), run));
+			readers.add(new BufferRunReader(readers.size(), buffer.iterator()));
+
+			PriorityQueue<RunReader> queue = new PriorityQueue<>(readers.size(),
+					Comparator.comparing((RunReader reader) -> reader.current.getTitle())
+							.thenComparingInt(reader -> reader.index));
+			for (RunReader reader : readers)
+				if (reader.advance())
+					queue.add(reader);
+
+			List<WikisaurusEntry> group = new ArrayList<>();
+			while (!queue.isEmpty()) {
+				RunReader reader = queue.poll();
+				if (!group.isEmpty() && !group.get(0).getTitle().equals(reader.current.getTitle())) {
+					consumer.accept(group);
+					group = new ArrayList<>();
+				}
+				group.add(reader.current);
+				if (reader.advance())
+					queue.add(reader);
+			}
+			if (!group.isEmpty())
+				consumer.accept(group);
+		} catch (IOException e) {
+			throw new WiktionaryException("Unable to merge Wikisaurus entries", e);
+		} finally {
+			for (RunReader reader : readers)
+				reader.close();
+			clear();
+		}
+	}
+
+	/** Removes all entries and deletes the temporary files. */
+	public void clear() {
+		buffer.clear();
+		for (File run : runs)
+			if (!run.delete())
+				run.deleteOnExit();
+		runs.clear();
+		entryCount = 0;
+	}
+
+	/** Returns the number of entries added since the last merge. */
+	public long size() {
+		return entryCount;
+	}
+
+	/** Returns the number of sorted runs spilled to disk so far. */
+	public int getRunCount() {
+		return runs.size();
+	}
+
+	protected void spill() {
+		buffer.sort(TITLE_ORDER);
+		File run = null;
+		try {
+			run = File.createTempFile("wikisaurus", ".run", tempDir);
+			runs.add(run);
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(run)))) {
+				for (WikisaurusEntry entry : buffer)
+					writeEntry(out, entry);
+			}
+		} catch (IOException e) {
+			throw new WiktionaryException("Unable to spill Wikisaurus entries to " + run, e);
+		}
+		buffer.clear();
+	}
+
+
+	// -- Serialization --
+
+	protected static void writeEntry(final DataOutputStream out,
+			final WikisaurusEntry entry) throws IOException {
+		writeText(out, entry.getTitle());
+		writeString(out, entry.getPartOfSpeech() == null ? null : entry.getPartOfSpeech().name());
+		writeString(out, entry.getLanguage() == null ? null : entry.getLanguage().getCode());
+		writeString(out, entry.getSenseDefinition());
+		out.writeInt(entry.getRelations().size());
+		for (WiktionaryRelation relation : entry.getRelations()) {
+			writeText(out, relation.getTarget());
+			writeString(out, relation.getTargetSense());
+			out.writeUTF(relation.getRelationType().name());
+		}
+	}
+
+	protected static WikisaurusEntry readEntry(final DataInputStream in)
+			throws IOException {
+		String title;
+		try {
+			title = readText(in);
+		} catch (EOFException e) {
+			return null;
+		}
+		String partOfSpeech = readString(in);
+		String language = readString(in);
+		ILanguage lang = (language == null ? null : Language.get(language));
+		WikisaurusEntry result = new WikisaurusEntry(title,
+				partOfSpeech == null ? null : PartOfSpeech.valueOf(partOfSpeech),
+				lang, readString(in));
+		int relationCount = in.readInt();
+		for (int i = 0; i < relationCount; i++)
+			result.addRelation(readText(in), readString(in),
+					RelationType.valueOf(in.readUTF()));
+		return result;
+	}
+
+	// Unlike writeUTF, the length prefix allows texts of any length.
+	private static void writeText(final DataOutputStream out,
+			final String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readText(final DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(final DataOutputStream out,
+			final String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null)
+			writeText(out, value);
+	}
+
+	private static String readString(final DataInputStream in) throws IOException {
+		return (in.readBoolean() ? readText(in) : null);
+	}
+
+
+	// -- Run readers --
+
+	protected static abstract class RunReader {
+
+		protected final int index;
+		protected WikisaurusEntry current;
+
+		protected RunReader(int index) {
+			this.index = index;
+		}
+
+		/** Moves to the next entry of the run and returns false if there
+		 *  are no entries left. */
+		protected abstract boolean advance() throws IOException;
+
+		protected void close() {}
+
+	}
+
+	protected static class BufferRunReader extends RunReader {
+
+		protected final Iterator<WikisaurusEntry> entries;
+
+		protected BufferRunReader(int index, final Iterator<WikisaurusEntry> entries) {
+			super(index);
+			this.entries = entries;
+		}
+
+		@Override
+		protected boolean advance() {
+			current = (entries.hasNext() ? entries.next() : null);
+			return (current != null);
+		}
+
+	}
+
+	protected static class FileRunReader extends RunReader {
+
+		protected final DataInputStream in;
+
+		protected FileRunReader(int index, final File run) throws IOException {
+			super(index);
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+		}
+
+		@Override
+		protected boolean advance() throws IOException {
+			current = readEntry(in);
+			return (current != null);
+		}
+
+		@Override
+		protected void close() {
+			try {
+				in.close();
+			} catch (IOException e) {
+				// Ignore, since the run is deleted anyway.
+			}
+		}
+
+	}
+
+}
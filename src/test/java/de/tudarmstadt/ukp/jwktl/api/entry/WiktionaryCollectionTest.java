@@ -21,6 +21,8 @@ import java.io.File;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import de.tudarmstadt.ukp.jwktl.JWKTL;
 import de.tudarmstadt.ukp.jwktl.WiktionaryDataTestCase;
@@ -448,4 +450,44 @@ public class WiktionaryCollectionTest extends WiktionaryDataTestCase {
 			assertEntry(expected[i++], entry);
 	}
 	
+	/***/
+	public void testConcurrentLookup() throws Exception {
+		WiktionaryCollection collection = new WiktionaryCollection();
+		wkt = collection;
+		collection.addEdition(JWKTL.openEdition(wktDE.getParsedData()));
+		collection.addEdition(JWKTL.openEdition(wktEN.getParsedData()));
+		int senseCount = collection.getSensesForWord("parameter", true).size();
+		assertEquals(2, collection.getPagesForWord("parameter", true).size());
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			collection.setExecutor(executor);
+			assertEntries(collection.getEntriesForWord("parameter", true), DE_PARAMETER, EN_PARAMETER);
+			assertEquals(senseCount, collection.getSensesForWord("parameter", true).size());
+			assertEntries(collection.getEntriesForWordAsync("parameter", null, true).get(), DE_PARAMETER, EN_PARAMETER);
+			assertEquals(senseCount, collection.getSensesForWordAsync("parameter", null, true).get().size());
+			assertEquals(2, collection.getPagesForWordAsync("parameter", null, true).get().size());
+			assertEntries(collection.getEntriesForWord("parameter"), EN_PARAMETER);
+		} finally {
+			executor.shutdown();
+		}
+		assertNull(collection.lookupExecutor);
+
+		// Without an executor, the collection uses its own thread pool.
+		collection.setExecutor(null);
+		assertEntries(collection.getEntriesForWordAsync("parameter", null, true).get(), DE_PARAMETER, EN_PARAMETER);
+		ExecutorService lookupExecutor = collection.lookupExecutor;
+		assertNotNull(lookupExecutor);
+		collection.close();
+		assertTrue(lookupExecutor.isShutdown());
+		assertNull(collection.lookupExecutor);
+
+		// A closed collection does not create a new thread pool.
+		try {
+			collection.getEntriesForWordAsync("parameter", null, true);
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {}
+		assertNull(collection.lookupExecutor);
+	}
+
 }
@@ -18,13 +18,19 @@
 package de.tudarmstadt.ukp.jwktl.api.entry;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.sleepycat.persist.EntityStore;
 
 import de.tudarmstadt.ukp.jwktl.WiktionaryDataTestCase;
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
 import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryFormatter;
 import de.tudarmstadt.ukp.jwktl.api.util.Language;
 
 /**
@@ -54,6 +60,60 @@ public class WiktionaryEditionTest extends WiktionaryDataTestCase {
 		wkt.close();
 	}
 
+	/***/
+	public void testConcurrentReads() throws Exception {
+		wkt = new BerkeleyDBWiktionaryEdition(wktEN.getParsedData());
+		wkt.setPageCache(new WiktionaryPageCache(1));
+		final int expectedPages = countPages(wkt.getAllPages());
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 32; i++)
+				results.add(executor.submit(() -> {
+					assertEquals(EN_PARAMETER.getPage(), wkt.getPageForWord("parameter").getId());
+					assertEquals("place", wkt.getEntryForId(EN_PLACE1.getPage(), 0).getWord());
+					WiktionaryFormatter.instance().formatPage(wkt.getPageForId(EN_PLACE1.getPage()));
+					return countPages(wkt.getAllPages());
+				}));
+			for (Future<Integer> result : results)
+				assertEquals(expectedPages, (int) result.get());
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(wkt.openCursors.isEmpty());
+	}
+
+	protected static int countPages(final Iterable<IWiktionaryPage> pages) {
+		int result = 0;
+		for (IWiktionaryPage page : pages)
+			if (page.getEntryCount() >= 0)
+				result++;
+		return result;
+	}
+
+	/***/
+	public void testPageCache() {
+		wkt = new BerkeleyDBWiktionaryEdition(wktEN.getParsedData());
+		WiktionaryPageCache cache = new WiktionaryPageCache(1);
+		wkt.setPageCache(cache);
+		IWiktionaryPage place = wkt.getPageForWord("place");
+		assertSame(place, wkt.getPageForWord("place"));
+		assertSame(place, wkt.getPageForId(EN_PLACE1.getPage()));
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		IWiktionaryPage parameter = wkt.getPageForId(EN_PARAMETER.getPage());
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertNotSame(place, wkt.getPageForWord("place"));
+		assertNotSame(parameter, wkt.getPageForWord("parameter"));
+		assertEquals(3, cache.getEvictionCount());
+		assertEquals(EN_PARAMETER.getPage(), wkt.getPageForId(EN_PARAMETER.getPage()).getId());
+		assertTrue(cache.getEstimatedBytes() > 0);
+		wkt.close();
+		assertEquals(0, cache.size());
+	}
+
 	/***/
 	public void testGetPage() {
 		// German Language.
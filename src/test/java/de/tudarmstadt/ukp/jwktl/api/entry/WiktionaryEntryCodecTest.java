@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.api.entry;
+
+import java.util.Arrays;
+
+import de.tudarmstadt.ukp.jwktl.api.IPronunciation.PronunciationType;
+import de.tudarmstadt.ukp.jwktl.api.IQuotation;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryRelation;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryRelation.LinkType;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryTranslation;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryWordForm;
+import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
+import de.tudarmstadt.ukp.jwktl.api.RelationType;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalCase;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalGender;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalNumber;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link WiktionaryEntryCodec}.
+ */
+public class WiktionaryEntryCodecTest extends TestCase {
+
+	/***/
+	public void testRoundTrip() {
+		WiktionaryEntryCodec codec = new WiktionaryEntryCodec();
+		WiktionaryEntry entry = createEntry();
+		WiktionaryEntry result = decode(codec, codec.encode(entry));
+
+		assertEquals(42, result.getId());
+		assertEquals(1, result.getIndex());
+		assertEquals("Haus", result.getHeader());
+		assertEquals(Language.GERMAN, result.getWordLanguage());
+		assertEquals(Arrays.asList(PartOfSpeech.NOUN, null, PartOfSpeech.PROPER_NOUN),
+				result.getPartsOfSpeech());
+		assertEquals(Arrays.asList(GrammaticalGender.NEUTER), result.getGenders());
+		assertEquals("From {{etyl|goh|de}} ''hūs''.", result.getWordEtymology().getText());
+		assertNull(result.getUsageNotes());
+		assertEquals("Häuser", result.getEntryLink());
+		assertEquals("plural", result.getEntryLinkType());
+
+		assertEquals(2, result.getPronunciations().size());
+		assertEquals(PronunciationType.IPA, result.getPronunciations().get(0).getType());
+		assertEquals("haʊ̯s", result.getPronunciations().get(0).getText());
+		assertEquals("Germany", result.getPronunciations().get(0).getNote());
+		assertNull(result.getPronunciations().get(1));
+
+		IWiktionaryWordForm wordForm = result.getWordForms().get(0);
+		assertEquals("Häusern", wordForm.getWordForm());
+		assertEquals(GrammaticalNumber.PLURAL, wordForm.getNumber());
+		assertEquals(GrammaticalCase.DATIVE, wordForm.getCase());
+		assertNull(wordForm.getTense());
+
+		assertEquals(2, result.getSenseCount());
+		WiktionarySense unassigned = result.getUnassignedSense();
+		assertEquals(0, unassigned.getIndex());
+		assertEquals("Nachbarhaus", unassigned.getRelations().get(0).getTarget());
+		WiktionarySense sense = result.getSense(1);
+		assertEquals(1, sense.getIndex());
+		assertEquals("1", sense.getMarker());
+		assertEquals("[[building]]", sense.getGloss().getText());
+		assertEquals("Das Haus ist groß.", sense.getExamples().get(0).getText());
+		assertEquals("The house is big.", sense.getExamples().get(0).getTranslation().getText());
+		IQuotation quotation = sense.getQuotations().get(0);
+		assertEquals("Goethe", quotation.getSource().getText());
+		assertEquals(2, quotation.getLines().size());
+		assertNull(quotation.getLines().get(1));
+		assertEquals(Arrays.asList(new WikiString("Duden")).toString(),
+				sense.getReferences().toString());
+
+		IWiktionaryRelation relation = sense.getRelations().get(0);
+		assertEquals("Gebäude", relation.getTarget());
+		assertEquals(RelationType.HYPERNYM, relation.getRelationType());
+		assertEquals("1", relation.getTargetSense());
+		assertEquals(LinkType.WIKISAURUS, relation.getLinkType());
+
+		IWiktionaryTranslation translation = sense.getTranslations().get(0);
+		assertEquals(Language.ENGLISH, translation.getLanguage());
+		assertEquals("house", translation.getTranslation());
+		assertEquals("haus", translation.getTransliteration());
+		assertEquals("(building)", translation.getAdditionalInformation());
+		assertEquals("building", translation.getRawSense());
+		assertTrue(translation.isCheckNeeded());
+		assertEquals("n", ((WiktionaryTranslation) translation).getGender());
+		assertNull(sense.getTranslations().get(1).getTransliteration());
+		assertFalse(sense.getTranslations().get(1).isCheckNeeded());
+
+		assertEquals(42, result.getPageId());
+		assertEquals(42, sense.getEntryId());
+	}
+
+	/***/
+	public void testDictionary() {
+		WiktionaryEntryCodec codec = new WiktionaryEntryCodec();
+		byte[] first = codec.encode(createEntry());
+		int valueCount = codec.getValueCount();
+		assertTrue(valueCount > 0);
+		byte[] second = codec.encode(createEntry());
+		assertEquals(valueCount, codec.getValueCount());
+		assertTrue(Arrays.equals(first, second));
+
+		// Restore the dictionary for another codec.
+		WiktionaryEntryCodec restored = new WiktionaryEntryCodec();
+		for (int code = valueCount - 1; code >= 0; code--)
+			restored.putValue(code, codec.getValue(code));
+		assertEquals(valueCount, restored.getValueCount());
+		assertEquals("Gebäude", decode(restored, first).getSense(1)
+				.getRelations().get(0).getTarget());
+
+		try {
+			decode(new WiktionaryEntryCodec(), first);
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {}
+	}
+
+	/***/
+	public void testUnknownFields() {
+		WiktionaryEntryCodec codec = new WiktionaryEntryCodec();
+		byte[] data = codec.encode(createEntry());
+
+		// Fields with the unknown numbers 14 and 15 are skipped.
+		byte[] extended = Arrays.copyOf(data, data.length + 6);
+		int i = data.length;
+		extended[i++] = (byte) (14 << 3);
+		extended[i++] = (byte) 0x96;
+		extended[i++] = 0x01;
+		extended[i++] = (byte) (15 << 3 | 2);
+		extended[i++] = 1;
+		extended[i++] = 'x';
+		assertEquals("Haus", decode(codec, extended).getHeader());
+
+		data[0] = (byte) (WiktionaryEntryCodec.VERSION + 1);
+		try {
+			codec.decode(data);
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {}
+
+		try {
+			codec.decode(Arrays.copyOf(extended, extended.length - 1));
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {}
+	}
+
+	/***/
+	public void testPriorVersion() {
+		WiktionaryEntryCodec codec = new WiktionaryEntryCodec();
+		byte[] data = codec.encode(createEntry());
+		assertEquals(WiktionaryEntryCodec.VERSION, data[0]);
+
+		// A newer codec reads the records of this version, including a
+		// field with the unknown number 14.
+		WiktionaryEntryCodec newerCodec = new WiktionaryEntryCodec() {
+			@Override
+			protected int getVersion() {
+				return VERSION + 1;
+			}
+		};
+		for (int code = 0; code < codec.getValueCount(); code++)
+			newerCodec.putValue(code, codec.getValue(code));
+		byte[] extended = Arrays.copyOf(data, data.length + 2);
+		extended[data.length] = (byte) (14 << 3);
+		extended[data.length + 1] = 0x05;
+		assertEquals("Haus", decode(newerCodec, extended).getHeader());
+		assertEquals(WiktionaryEntryCodec.VERSION + 1, newerCodec.encode(createEntry())[0]);
+
+		// Records of a newer or an invalid version are rejected.
+		try {
+			codec.decode(newerCodec.encode(createEntry()));
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {}
+		extended[0] = 0;
+		try {
+			newerCodec.decode(extended);
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {}
+	}
+
+	/***/
+	public void testText() {
+		WiktionaryEntryCodec codec = new WiktionaryEntryCodec();
+		String text = "a\u0000é€😀\ud800z";
+		StringBuilder longText = new StringBuilder();
+		for (int i = 0; i < 100; i++)
+			longText.append(text);
+		WiktionaryEntry entry = new WiktionaryEntry();
+		entry.setHeader(text);
+		entry.getUnassignedSense().setGloss(new WikiString(longText.toString()));
+		entry.getUnassignedSense().setMarker("");
+
+		WiktionaryEntry result = decode(codec, codec.encode(entry));
+		assertEquals(text, result.getHeader());
+		assertEquals(longText.toString(), result.getUnassignedSense().getGloss().getText());
+		assertEquals("", result.getUnassignedSense().getMarker());
+		assertNull(result.getWordForms());
+		assertNull(result.getGenders());
+		assertEquals(0, result.getSenseCount());
+	}
+
+	protected static WiktionaryEntry decode(final WiktionaryEntryCodec codec,
+			final byte[] data) {
+		WiktionaryPage page = new WiktionaryPage();
+		page.setId(42);
+		page.setTitle("Haus");
+		WiktionaryEntry result = codec.decode(data);
+		result.init(page);
+		return result;
+	}
+
+	protected static WiktionaryEntry createEntry() {
+		WiktionaryEntry result = new WiktionaryEntry();
+		result.setId(42);
+		result.index = 1;
+		result.setHeader("Haus");
+		result.setWordLanguage(Language.GERMAN);
+		result.addPartOfSpeech(PartOfSpeech.NOUN);
+		result.addPartOfSpeech(null);
+		result.addPartOfSpeech(PartOfSpeech.PROPER_NOUN);
+		result.addGender(GrammaticalGender.NEUTER);
+		result.setWordEtymology(new WikiString("From {{etyl|goh|de}} ''hūs''."));
+		result.setEntryLink("Häuser", "plural");
+		result.addPronunciation(new Pronunciation(PronunciationType.IPA, "haʊ̯s", "Germany"));
+		result.addPronunciation(null);
+		WiktionaryWordForm wordForm = new WiktionaryWordForm("Häusern");
+		wordForm.setNumber(GrammaticalNumber.PLURAL);
+		wordForm.setCase(GrammaticalCase.DATIVE);
+		result.addWordForm(wordForm);
+		result.getUnassignedSense().addRelation(
+				new WiktionaryRelation("Nachbarhaus", RelationType.SEE_ALSO));
+
+		WiktionarySense sense = result.createSense();
+		sense.setMarker("1");
+		sense.setGloss(new WikiString("[[building]]"));
+		sense.addExample(new WiktionaryExample(new WikiString("Das Haus ist groß."),
+				new WikiString("The house is big.")));
+		Quotation quotation = new Quotation();
+		quotation.setSource(new WikiString("Goethe"));
+		quotation.addLine(new WikiString("Ein Haus."));
+		quotation.addLine(null);
+		sense.addQuotation(quotation);
+		sense.addReference(new WikiString("Duden"));
+		WiktionaryRelation relation = new WiktionaryRelation("Gebäude", RelationType.HYPERNYM);
+		relation.setTargetSense("1");
+		relation.setLinkType(LinkType.WIKISAURUS);
+		sense.addRelation(relation);
+		WiktionaryTranslation translation = new WiktionaryTranslation(Language.ENGLISH, "house");
+		translation.setTransliteration("haus");
+		translation.setAdditionalInformation("(building)");
+		translation.setRawSense("building");
+		translation.setCheckNeeded(true);
+		translation.setGender("n");
+		sense.addTranslation(translation);
+		sense.addTranslation(new WiktionaryTranslation(Language.get("fra"), "maison"));
+		result.addSense(sense);
+		result.addSense(result.createSense());
+		return result;
+	}
+
+}
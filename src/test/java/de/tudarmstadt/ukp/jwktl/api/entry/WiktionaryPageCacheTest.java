@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.api.entry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link WiktionaryPageCache}.
+ */
+public class WiktionaryPageCacheTest extends TestCase {
+
+	/***/
+	public void testLeastRecentlyUsed() {
+		WiktionaryPageCache cache = new WiktionaryPageCache(2);
+		cache.put(createPage(1, "one"));
+		cache.put(createPage(2, "two"));
+		assertNotNull(cache.get(1));
+		cache.put(createPage(3, "three"));
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get(2));
+		assertNull(cache.getByTitle("two"));
+		assertEquals("one", cache.getByTitle("one").getTitle());
+		assertEquals(3, cache.get(3).getId());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(0.6, cache.getHitRate(), 0.0001);
+	}
+
+	/***/
+	public void testMaxBytes() {
+		WiktionaryPageCache cache = new WiktionaryPageCache(0, 1);
+		cache.put(createPage(1, "one"));
+		assertEquals(1, cache.size());
+		cache.put(createPage(2, "two"));
+		assertEquals(1, cache.size());
+		assertNotNull(cache.get(2));
+
+		WiktionaryPage large = createPage(3, "large");
+		for (int i = 0; i < 10; i++)
+			large.addEntry(large.createEntry());
+		cache = new WiktionaryPageCache(0, 2 * cache.estimateSize(large));
+		cache.put(large);
+		cache.put(createPage(1, "one"));
+		assertEquals(2, cache.size());
+		long bytes = cache.getEstimatedBytes();
+		cache.invalidate(1);
+		assertTrue(cache.getEstimatedBytes() < bytes);
+		cache.clear();
+		assertEquals(0, cache.getEstimatedBytes());
+	}
+
+	/***/
+	public void testReplace() {
+		WiktionaryPageCache cache = new WiktionaryPageCache(10);
+		cache.put(createPage(1, "old"));
+		cache.put(createPage(1, "new"));
+		assertEquals(1, cache.size());
+		assertNull(cache.getByTitle("old"));
+		assertEquals("new", cache.get(1).getTitle());
+	}
+
+	/***/
+	public void testConcurrentLazyLoading() throws Exception {
+		final int threads = 8;
+		final CountDownLatch started = new CountDownLatch(threads);
+		final AtomicInteger loaderCalls = new AtomicInteger();
+		final WiktionaryPage page = createPage(1, "lazy");
+		page.setEntryLoader(() -> {
+			loaderCalls.incrementAndGet();
+			// Give the other threads time to access the page.
+			try {
+				started.await(1, TimeUnit.SECONDS);
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			List<WiktionaryEntry> result = new ArrayList<>();
+			for (int i = 0; i < 3; i++)
+				result.add(new WiktionaryEntry());
+			return result;
+		});
+		final WiktionaryPageCache cache = new WiktionaryPageCache(10);
+
+		// The cache loads the entries of the shared page, while the other
+		// threads access them directly.
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				final boolean usesCache = (i == 0);
+				results.add(executor.submit(() -> {
+					started.countDown();
+					if (usesCache)
+						cache.put(page);
+					assertEquals(3, page.getEntryCount());
+					for (WiktionaryEntry entry : page.entries())
+						assertSame(page, entry.getPage());
+				}));
+			}
+			for (Future<?> result : results)
+				result.get();
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, loaderCalls.get());
+		assertSame(page, cache.get(1));
+	}
+
+	protected static WiktionaryPage createPage(long id, final String title) {
+		WiktionaryPage result = new WiktionaryPage();
+		result.setId(id);
+		result.setTitle(title);
+		return result;
+	}
+
+}
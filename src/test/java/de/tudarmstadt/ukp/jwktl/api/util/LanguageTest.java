@@ -77,6 +77,41 @@ public class LanguageTest extends TestCase {
 		assertEquals("nmn", Language.findByName("!xóõ").getCode());
 		assertEquals("nmn", Language.findByName("ǃXóõ").getCode());		
 	}
+
+	/***/
+	public void testLookupEdgeCases() {
+		assertNull(Language.get(null));
+		assertNull(Language.findByCode(null));
+		assertNull(Language.findByName(null));
+		assertNull(Language.findByName(""));
+		assertNull(Language.findByName("Unknown language"));
+		assertEquals("eng", Language.findByName(" English\t").getCode());
+		assertEquals("afa", Language.findByName("Afro-Asiatic languages ").getCode());
+		assertSame(Language.ENGLISH, Language.findByName("eNgLiSh"));
+		assertSame(Language.findByCode("en"), Language.findByName("English"));
+	}
+
+	/***/
+	public void testConcurrentLookups() throws Exception {
+		final String[] names = {"English", "German", "Russian", "Dimili", "!Xóõ"};
+		Thread[] threads = new Thread[4];
+		final boolean[] failed = new boolean[1];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < 10000; i++)
+						if (Language.findByName(names[i % names.length]) == null
+								|| Language.findByCode("de") != Language.GERMAN)
+							failed[0] = true;
+				}
+			};
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertFalse(failed[0]);
+	}
 	
 	/***/
 	public void testISOCodes() {
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser.Template;
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateTokenizer.TokenType;
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link TemplateTokenizer}.
+ */
+public class TemplateTokenizerTest extends TestCase {
+
+	/***/
+	public void testTokenize() {
+		assertTokens("");
+		assertTokens("plain text", "TEXT:plain text");
+		assertTokens("{{t+|fr|bas}}, {{t+|fr|grave}}", 
+				"TEMPLATE:{{t+|fr|bas}}", "TEXT:, ", "TEMPLATE:{{t+|fr|grave}}");
+		assertTokens("a [[b|c]] d", "TEXT:a ", "LINK:[[b|c]]", "TEXT: d");
+		assertTokens("{{a|{{b|c}}|[[d|e]]}}x", 
+				"TEMPLATE:{{a|{{b|c}}|[[d|e]]}}", "TEXT:x");
+		assertTokens("[[a|{{b}}]]", "LINK:[[a|{{b}}]]");
+		assertTokens("{{a}}}", "TEMPLATE:{{a}}", "TEXT:}");
+		assertTokens("}} x {{", "TEXT:}} x {{");
+		assertTokens("{{a {{b}} c", "TEXT:{{a ", "TEMPLATE:{{b}}", "TEXT: c");
+		assertTokens("{{a|[[b}}", "TEMPLATE:{{a|[[b}}");
+		assertTokens("{{ {{a}} [[b]] {{c", "TEXT:{{ ", "TEMPLATE:{{a}}", 
+				"TEXT: ", "LINK:[[b]]", "TEXT: {{c");
+	}
+
+	/***/
+	public void testTemplate() {
+		TemplateTokenizer tokenizer = new TemplateTokenizer(
+				"{{t|ja|舟|tr=[[ふね]], fúne|{{g|m=x}}|sc=Jpan}}");
+		assertTrue(tokenizer.next());
+		Template template = tokenizer.getTemplate();
+		assertEquals("t", template.getName());
+		assertEquals(3, template.getNumberedParamsCount());
+		assertEquals("ja", template.getNumberedParam(0));
+		assertEquals("舟", template.getNumberedParam(1));
+		assertEquals("{{g|m=x}}", template.getNumberedParam(2));
+		assertEquals("[[ふね]], fúne", template.getNamedParam("tr"));
+		assertEquals("Jpan", template.getNamedParam("sc"));
+		assertEquals("t|ja|舟|tr=[[ふね]], fúne|{{g|m=x}}|sc=Jpan", tokenizer.getContent());
+		assertFalse(tokenizer.next());
+
+		template = TemplateParser.parseTemplate("a||b|");
+		assertEquals("a", template.getName());
+		assertEquals(3, template.getNumberedParamsCount());
+		assertEquals("", template.getNumberedParam(2));
+		assertEquals(0, TemplateParser.parseTemplate("").getParamsCount());
+	}
+
+	/***/
+	public void testUnbalancedBrackets() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 100000; i++)
+			text.append("{{[[x}}");
+		TemplateTokenizer tokenizer = new TemplateTokenizer(text);
+		int templates = 0;
+		long start = System.nanoTime();
+		while (tokenizer.next())
+			if (tokenizer.getType() == TokenType.TEMPLATE)
+				templates++;
+		assertEquals(100000, templates);
+		assertTrue(System.nanoTime() - start < 5000000000L);
+
+		text.setLength(0);
+		for (int i = 0; i < 100000; i++)
+			text.append("{{[[");
+		tokenizer = new TemplateTokenizer(text);
+		assertTrue(tokenizer.next());
+		assertEquals(TokenType.TEXT, tokenizer.getType());
+		assertEquals(text.length(), tokenizer.getEnd());
+		assertFalse(tokenizer.next());
+	}
+
+	protected static void assertTokens(final String text, final String... expected) {
+		List<String> actual = new ArrayList<>();
+		TemplateTokenizer tokenizer = new TemplateTokenizer(text);
+		while (tokenizer.next())
+			actual.add(tokenizer.getType() + ":" + tokenizer.getText());
+		assertEquals(text, java.util.Arrays.asList(expected), actual);
+	}
+
+}
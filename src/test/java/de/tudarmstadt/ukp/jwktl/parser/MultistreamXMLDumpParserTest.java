@@ -18,6 +18,9 @@
 package de.tudarmstadt.ukp.jwktl.parser;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -59,6 +62,16 @@ public class MultistreamXMLDumpParserTest extends TestCase {
 		assertEquals(200, pageCount.get());
 	}
 
+	public void testParseConcurrently() throws Exception {
+		TreeSet<Long> offsets = new TreeSet<>();
+		offsets.add(654L);
+		offsets.add(261373L);
+		final List<Integer> chunkPages = new ArrayList<>();
+		subject.parse(multistreamDump, offsets, 3, PageRecordCollector::new,
+				chunk -> chunkPages.add(chunk.getPages().size()));
+		assertEquals(Arrays.asList(0, 100, 100), chunkPages);
+	}
+
 	public void testCollectOffsets() throws Exception {
 		final TreeSet<Long> offsets = subject.collectOffsets(multistreamDumpIndex, (pageId, pageTitle) ->
 				pageTitle.equals("nonsense") || pageTitle.equals("abattoir"));
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.tools.bzip2.CBZip2OutputStream;
+
+import junit.framework.TestCase;
+
+public class ParallelBZip2InputStreamTest extends TestCase {
+	public void testConsumeMultistream() throws Exception {
+		InputStream stream = new ParallelBZip2InputStream(
+				new File("src/test/resources/enwiktionary-20150224-pages-articles-multistream.xml.bz2"), 4);
+		MessageDigest md5 = MessageDigest.getInstance("MD5");
+		long count = 0;
+		int n;
+		byte[] buffer = new byte[8192];
+		while ((n = stream.read(buffer)) != -1) {
+			count += n;
+			md5.update(buffer, 0, n);
+		}
+		String signature = new BigInteger(1, md5.digest()).toString(16);
+		assertEquals(1800617, count);
+		assertEquals("bde6a439065407c9c74c83b1f2f97520", signature);
+
+		stream.close();
+	}
+
+	public void testConsumeMultipleBlocks() throws Exception {
+		// Single stream with 100k blocks and a second, concatenated stream.
+		byte[] data = createText(750000);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		compress(data, 0, 600000, compressed);
+		compress(data, 600000, data.length, compressed);
+
+		InputStream stream = new ParallelBZip2InputStream(
+				new ByteArrayInputStream(compressed.toByteArray()), 3);
+		assertTrue(Arrays.equals(data, readFully(stream)));
+		stream.close();
+	}
+
+	public void testSingleByteRead() throws Exception {
+		byte[] data = createText(250000);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		compress(data, 0, data.length, compressed);
+
+		InputStream stream = new ParallelBZip2InputStream(
+				new ByteArrayInputStream(compressed.toByteArray()), 2);
+		for (byte expected : data)
+			assertEquals(expected & 0xFF, stream.read());
+		assertEquals(-1, stream.read());
+		stream.close();
+	}
+
+	public void testInvalidHeader() throws Exception {
+		InputStream stream = new ParallelBZip2InputStream(
+				new File("src/test/resources/XMLDumpParserErrorHeaderTest.xml.bz2"), 2);
+		try {
+			readFully(stream);
+			fail("IOException expected");
+		} catch (IOException e) {
+		} finally {
+			stream.close();
+		}
+	}
+
+	public void testBlockMagicInPayload() throws Exception {
+		byte[] data = createText(250000);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		compress(data, 0, data.length, out);
+		final byte[] compressed = out.toByteArray();
+
+		// Treat two 48 bit patterns from the payload of the first block
+		// and one from the second block like block markers. This is 
+		// equivalent to the block magic occurring in the compressed data
+		// and requires merging the false blocks until their CRC matches.
+		final long[] falseMagic = {
+				readBits(compressed, 1000 * 8 + 3),
+				readBits(compressed, 2000 * 8 + 5),
+				readBits(compressed, compressed.length - 1000 * 8)};
+		final int[] falseMatches = new int[1];
+		InputStream stream = new ParallelBZip2InputStream(
+				new ByteArrayInputStream(compressed), 2) {
+			@Override
+			protected boolean isBlockMagic(long bits) {
+				for (long magic : falseMagic)
+					if (bits == magic) {
+						falseMatches[0]++;
+						return true;
+					}
+				return super.isBlockMagic(bits);
+			}
+		};
+		assertTrue(Arrays.equals(data, readFully(stream)));
+		assertTrue(falseMatches[0] >= 3);
+		stream.close();
+	}
+
+	public void testBlockCRCMismatch() throws Exception {
+		byte[] data = createText(50000);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		compress(data, 0, data.length, out);
+		byte[] compressed = out.toByteArray();
+		compressed[10] ^= 0x01; // "BZh1", block magic, block CRC.
+
+		InputStream stream = new ParallelBZip2InputStream(
+				new ByteArrayInputStream(compressed), 2);
+		try {
+			readFully(stream);
+			fail("IOException expected");
+		} catch (IOException e) {
+		} finally {
+			stream.close();
+		}
+	}
+
+	public void testComputeCRC() {
+		assertEquals(0xFC891918, ParallelBZip2InputStream.computeCrc(
+				"123456789".getBytes()));
+	}
+
+	protected static long readBits(byte[] data, int bitOffset) {
+		long result = 0;
+		for (int i = bitOffset; i < bitOffset + 48; i++)
+			result = (result << 1) | ((data[i >>> 3] >>> (7 - (i & 7))) & 1);
+		return result;
+	}
+
+	protected static byte[] createText(int length) {
+		Random random = new Random(42);
+		String[] words = {"wiktionary", "page", "sense", "{{t+|de|Wort}}",
+				"[[link]]", "entry", "\n", "==English==", "translation"};
+		ByteArrayOutputStream result = new ByteArrayOutputStream(length);
+		while (result.size() < length) {
+			byte[] word = words[random.nextInt(words.length)].getBytes();
+			result.write(word, 0, word.length);
+			result.write(' ');
+		}
+		return Arrays.copyOf(result.toByteArray(), length);
+	}
+
+	protected static void compress(byte[] data, int from, int to,
+			final OutputStream out) throws IOException {
+		out.write('B');
+		out.write('Z');
+		CBZip2OutputStream bzip2 = new CBZip2OutputStream(out, 1);
+		bzip2.write(data, from, to - from);
+		bzip2.close();
+	}
+
+	protected static byte[] readFully(final InputStream stream) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int n;
+		while ((n = stream.read(buffer)) != -1)
+			result.write(buffer, 0, n);
+		return result.toByteArray();
+	}
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.tudarmstadt.ukp.jwktl.WiktionaryTestCase;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.entry.BerkeleyDBWiktionaryEdition;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.IWiktionaryIterator;
+import de.tudarmstadt.ukp.jwktl.parser.en.ENWiktionaryEntryParser;
+
+/**
+ * Test case for {@link ParallelWiktionaryArticleParser}.
+ */
+public class ParallelWiktionaryArticleParserTest extends WiktionaryTestCase {
+
+	protected File testDump;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		testDump = new File(RESOURCE_PATH, "enwiktionary-20150224-pages-articles-multistream.xml.bz2");
+	}
+
+	/***/
+	public void testParallelEqualsSequential() {
+		File sequentialDir = new File(workDir, "sequential");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(sequentialDir, true);
+		new WiktionaryDumpParser(new WiktionaryArticleParser(db)).parse(testDump);
+
+		File parallelDir = new File(workDir, "parallel");
+		db = new WritableBerkeleyDBWiktionaryEdition(parallelDir, true);
+		new WiktionaryDumpParser(new ParallelWiktionaryArticleParser(db,
+				ENWiktionaryEntryParser::new, 4, 2)).parse(testDump);
+
+		List<String> expected = describe(sequentialDir);
+		List<String> actual = describe(parallelDir);
+		assertTrue(expected.size() > 100);
+		assertEquals(expected, actual);
+	}
+
+	/***/
+	public void testWorkerFailure() {
+		File failureDir = new File(workDir, "failure");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(failureDir, true);
+		ParallelWiktionaryArticleParser parser = new ParallelWiktionaryArticleParser(db,
+				() -> (page, text) -> {
+					throw new WiktionaryException("Broken page " + page.getTitle());
+				}, 2, 2);
+		try {
+			new WiktionaryDumpParser(parser).parse(testDump);
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {
+			assertTrue(e.getCause().getMessage().startsWith("Broken page"));
+		}
+		db.close();
+	}
+
+	/***/
+	public void testWriterFailure() {
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "writer"), true) {
+			@Override
+			public void savePages(final Collection<WiktionaryPage> pages) {
+				throw new IllegalStateException("Broken writer");
+			}
+		};
+		ParallelWiktionaryArticleParser parser = new ParallelWiktionaryArticleParser(db,
+				ENWiktionaryEntryParser::new, 2, 1);
+		try {
+			new WiktionaryDumpParser(parser).parse(testDump);
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertNull(parser.writer);
+		db.close();
+	}
+
+	/***/
+	public void testPageOrder() {
+		final List<Long> savedPages = Collections.synchronizedList(new ArrayList<>());
+		final List<Long> parsedPages = Collections.synchronizedList(new ArrayList<>());
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "order"), true) {
+			@Override
+			public void savePages(final Collection<WiktionaryPage> pages) {
+				for (WiktionaryPage page : pages)
+					savedPages.add(page.getId());
+			}
+		};
+		WiktionaryDumpParser parser = new WiktionaryDumpParser(new WiktionaryPageParser<WiktionaryPage>() {
+			protected WiktionaryPage createPage() {
+				return new WiktionaryPage();
+			}
+
+			public void setText(final String text) {}
+
+			@Override
+			public void onPageEnd() {
+				if (currentNamespace == null)
+					parsedPages.add(page.getId());
+			}
+		});
+		parser.register(new ParallelWiktionaryArticleParser(db,
+				ENWiktionaryEntryParser::new, 3, 1));
+		parser.parse(testDump);
+		assertFalse(savedPages.isEmpty());
+		assertEquals(parsedPages, savedPages);
+	}
+
+	/***/
+	public void testUpToDateCheckDuringSave() {
+		final AtomicBoolean saving = new AtomicBoolean();
+		final AtomicInteger overlaps = new AtomicInteger();
+		final AtomicInteger checks = new AtomicInteger();
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "uptodate"), true) {
+			@Override
+			public void savePages(final Collection<WiktionaryPage> pages) {
+				saving.set(true);
+				try {
+					Thread.sleep(2);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				saving.set(false);
+			}
+
+			@Override
+			public boolean isUpToDate(long pageId, long revision) {
+				checks.incrementAndGet();
+				if (saving.get())
+					overlaps.incrementAndGet();
+				return false;
+			}
+		};
+		new WiktionaryDumpParser(new ParallelWiktionaryArticleParser(db,
+				ENWiktionaryEntryParser::new, 2, 1)).parse(testDump);
+		assertTrue(checks.get() > 100);
+		assertEquals(0, overlaps.get());
+	}
+
+	protected static List<String> describe(final File parsedData) {
+		List<String> result = new ArrayList<>();
+		BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(parsedData);
+		try {
+			IWiktionaryIterator<IWiktionaryPage> pages = edition.getAllPages();
+			for (IWiktionaryPage page : pages) {
+				StringBuilder description = new StringBuilder();
+				description.append(page.getId()).append(' ').append(page.getTitle());
+				for (IWiktionaryEntry entry : page.getEntries())
+					description.append(" | ").append(entry.getKey())
+							.append(' ').append(entry.getWordLanguage())
+							.append(' ').append(entry.getPartOfSpeech())
+							.append(' ').append(entry.getSenseCount())
+							.append(' ').append(entry.getTranslations().size());
+				result.add(description.toString());
+			}
+		} finally {
+			edition.close();
+		}
+		return result;
+	}
+
+}
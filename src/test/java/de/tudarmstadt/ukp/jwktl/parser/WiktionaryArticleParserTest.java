@@ -157,6 +157,25 @@ public class WiktionaryArticleParserTest extends WiktionaryTestCase {
 		} catch (WiktionaryException e) {}
 	}
 	
+	/***/
+	public void testIncrementalUpdate() {
+		File dbDir = new File(workDir, "update/");
+		MyWiktionaryDumpParser entryParser = new MyWiktionaryDumpParser();
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		new WiktionaryDumpParser(new WiktionaryArticleParser(db, entryParser)).parse(testDump);
+		assertEquals(2, entryParser.getPages().size());
+
+		// Unchanged pages are neither parsed nor removed.
+		entryParser = new MyWiktionaryDumpParser();
+		db = WritableBerkeleyDBWiktionaryEdition.openForUpdate(dbDir, null);
+		assertTrue(db.isUpdate());
+		assertTrue(db.isUpToDate(9, 10763));
+		assertFalse(db.isUpToDate(9, 10800));
+		new WiktionaryDumpParser(new WiktionaryArticleParser(db, entryParser)).parse(testDump);
+		assertEquals(0, entryParser.getPages().size());
+		assertParsedData(dbDir);
+	}
+
 	/***/
 	public void testLargeDump() {
 		MyWiktionaryDumpParser parser = new MyWiktionaryDumpParser();
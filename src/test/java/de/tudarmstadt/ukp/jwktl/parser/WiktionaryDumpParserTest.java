@@ -94,6 +94,15 @@ public class WiktionaryDumpParserTest extends TestCase {
 	
 	/***/
 	public void testParsedInformation() {
+		assertParsedInformation(false);
+	}
+
+	/***/
+	public void testParsedInformationPullParsing() {
+		assertParsedInformation(true);
+	}
+
+	protected void assertParsedInformation(boolean pullParsing) {
 		Queue<String> expectedValues = new LinkedList<>();
 		expectedValues.offer("setBaseURL: http://de.wiktionary.org/wiki/Wiktionary:Hauptseite");
 		expectedValues.offer("addNamespace: Diskussion");
@@ -115,12 +124,48 @@ public class WiktionaryDumpParserTest extends TestCase {
 		expectedValues.offer("onPageEnd");
 				
 		MyWiktionaryDumpParser parser = new MyWiktionaryDumpParser(expectedValues);
+		parser.setPullParsing(pullParsing);
+		assertEquals(pullParsing, parser.isPullParsing());
 		parser.parse(new File("src/test/resources/WiktionaryDumpParserTest.xml"));
 		assertTrue(expectedValues.isEmpty());
 	}
 	
+	/***/
+	public void testSkipUnusedContents() {
+		assertEquals("MediaWiki 1.16alpha-wmf", parseGenerator(false, false));
+		assertEquals("MediaWiki 1.16alpha-wmf", parseGenerator(false, true));
+		assertEquals("", parseGenerator(true, false));
+		assertEquals("", parseGenerator(true, true));
+	}
+
+	protected String parseGenerator(boolean skipUnusedContents, boolean pullParsing) {
+		final StringBuilder result = new StringBuilder();
+		WiktionaryDumpParser parser = new WiktionaryDumpParser() {
+			@Override
+			protected void onElementEnd(String name, XMLDumpHandler handler) {
+				if ("generator".equals(name))
+					result.append(handler.getContents());
+				super.onElementEnd(name, handler);
+			}
+		};
+		assertFalse(parser.isSkipUnusedContents());
+		parser.setSkipUnusedContents(skipUnusedContents);
+		parser.setPullParsing(pullParsing);
+		parser.parse(new File("src/test/resources/WiktionaryDumpParserTest.xml"));
+		return result.toString();
+	}
+
 	/***/
 	public void testParseEmptyFields() {
+		assertParseEmptyFields(false);
+	}
+
+	/***/
+	public void testParseEmptyFieldsPullParsing() {
+		assertParseEmptyFields(true);
+	}
+
+	protected void assertParseEmptyFields(boolean pullParsing) {
 		Queue<String> expectedValues = new LinkedList<>();
 		expectedValues.offer("onPageStart");
 			expectedValues.offer("setTitle: ");
@@ -134,9 +179,30 @@ public class WiktionaryDumpParserTest extends TestCase {
 		expectedValues.offer("onPageEnd");
 				
 		MyWiktionaryDumpParser parser = new MyWiktionaryDumpParser(expectedValues);
+		parser.setPullParsing(pullParsing);
 		parser.parse(new File("src/test/resources/WiktionaryDumpParserNullTest.xml"));
+		assertTrue(expectedValues.isEmpty());
 	}
 	
+	/***/
+	public void testResume() {
+		Queue<String> expectedValues = new LinkedList<>();
+		expectedValues.offer("setBaseURL: http://de.wiktionary.org/wiki/Wiktionary:Hauptseite");
+		expectedValues.offer("addNamespace: Diskussion");
+		expectedValues.offer("onPageStart");
+			expectedValues.offer("setTitle: Page 2");
+			expectedValues.offer("setPageId: 10");
+			expectedValues.offer("setRevision: 10764");
+			expectedValues.offer("setTimestamp: 2004-09-17T08:34:29Z");
+			expectedValues.offer("setAuthor: TJ");
+			expectedValues.offer("setText: Text 2\n\n      Test Test");
+		expectedValues.offer("onPageEnd");
+
+		MyWiktionaryDumpParser parser = new MyWiktionaryDumpParser(expectedValues);
+		parser.resume(new File("src/test/resources/WiktionaryDumpParserTest.xml"), 9);
+		assertTrue(expectedValues.isEmpty());
+	}
+
 	/***/
 	public void testParseTimestamp() throws Exception {
 		Calendar expected = new GregorianCalendar(1956, Calendar.MARCH, 17,
@@ -184,6 +250,118 @@ public class WiktionaryDumpParserTest extends TestCase {
 		assertEquals(306L, last);
 	}
 
+	public void testParseMultistreamParallel() throws Exception {
+		final File multistreamDump = new File("src/test/resources/enwiktionary-20150224-pages-articles-multistream.xml.bz2");
+		final File multistreamDumpIndex = new File("src/test/resources/enwiktionary-20150224-pages-articles-multistream-index.txt.bz2");
+
+		final List<String> expected = new ArrayList<>();
+		new WiktionaryDumpParser(new RecordingParser(expected)).parse(multistreamDump);
+
+		final List<String> actual = new ArrayList<>();
+		final int[] parserCalls = new int[2];
+		new WiktionaryDumpParser(new RecordingParser(actual) {
+			@Override
+			public void onParserStart(IDumpInfo dumpInfo) {
+				parserCalls[0]++;
+			}
+
+			@Override
+			public void onParserEnd(IDumpInfo dumpInfo) {
+				parserCalls[1]++;
+			}
+		}).parseMultistream(multistreamDump, multistreamDumpIndex,
+				(pageId, pageTitle) -> true, 4);
+
+		assertTrue(expected.size() > 1000);
+		assertEquals(expected, actual);
+		assertEquals(1, parserCalls[0]);
+		assertEquals(1, parserCalls[1]);
+
+		final List<String> pulled = new ArrayList<>();
+		WiktionaryDumpParser parser = new WiktionaryDumpParser(new RecordingParser(pulled));
+		parser.setPullParsing(true);
+		parser.parseMultistream(multistreamDump, multistreamDumpIndex,
+				(pageId, pageTitle) -> true, 4);
+		assertEquals(expected, pulled);
+	}
+
+	public void testResumeMultistream() throws Exception {
+		final File multistreamDump = new File("src/test/resources/enwiktionary-20150224-pages-articles-multistream.xml.bz2");
+		final File multistreamDumpIndex = new File("src/test/resources/enwiktionary-20150224-pages-articles-multistream-index.txt.bz2");
+
+		final List<Long> pageIds = new ArrayList<>();
+		new WiktionaryDumpParser(new EmptyParser() {
+			@Override public void setPageId(long pageId) {
+				pageIds.add(pageId);
+			}
+		}).parse(multistreamDump);
+
+		// Resume in the middle of the second stream.
+		final long lastPageId = pageIds.get(150);
+		final List<Long> resumedPageIds = new ArrayList<>();
+		final int[] pageStarts = new int[1];
+		new WiktionaryDumpParser(new EmptyParser() {
+			@Override public void onPageStart() {
+				pageStarts[0]++;
+			}
+
+			@Override public void setPageId(long pageId) {
+				resumedPageIds.add(pageId);
+			}
+		}).resumeMultistream(multistreamDump, multistreamDumpIndex, lastPageId);
+
+		assertEquals(pageIds.subList(151, pageIds.size()), resumedPageIds);
+		assertEquals(resumedPageIds.size(), pageStarts[0]);
+	}
+
+	static class RecordingParser extends EmptyParser {
+		private final List<String> events;
+
+		RecordingParser(final List<String> events) {
+			this.events = events;
+		}
+
+		@Override
+		public void onSiteInfoComplete(IDumpInfo dumpInfo) {
+			events.add("siteinfo " + dumpInfo.getDumpLanguage());
+		}
+
+		@Override
+		public void onPageEnd() {
+			events.add("end");
+		}
+
+		@Override
+		public void setAuthor(String author) {
+			events.add("author " + author);
+		}
+
+		@Override
+		public void setRevision(long revisionId) {
+			events.add("revision " + revisionId);
+		}
+
+		@Override
+		public void setTimestamp(Date timestamp) {
+			events.add("timestamp " + timestamp);
+		}
+
+		@Override
+		public void setPageId(long pageId) {
+			events.add("id " + pageId);
+		}
+
+		@Override
+		public void setTitle(String title, String namespace) {
+			events.add("title " + namespace + ":" + title);
+		}
+
+		@Override
+		public void setText(String text) {
+			events.add("text " + text.hashCode());
+		}
+	}
+
 	static class EmptyParser implements  IWiktionaryPageParser {
 		@Override
 		public void onParserStart(IDumpInfo dumpInfo) {
@@ -0,0 +1,554 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.tudarmstadt.ukp.jwktl.WiktionaryTestCase;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionarySense;
+import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.entry.BerkeleyDBWiktionaryEdition;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPageCache;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+import de.tudarmstadt.ukp.jwktl.parser.util.DumpInfo;
+
+/**
+ * Test case for {@link WritableBerkeleyDBWiktionaryEdition}.
+ */
+public class WritableBerkeleyDBWiktionaryEditionTest extends WiktionaryTestCase {
+
+	/***/
+	public void testCommitKeepsConnection() {
+		final int[] connects = new int[1];
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "commit"), true) {
+			@Override
+			protected void connect(boolean isReadOnly, boolean allowCreateNew,
+					boolean overwriteExisting, final Long cacheSize) {
+				connects[0]++;
+				super.connect(isReadOnly, allowCreateNew, overwriteExisting, cacheSize);
+			}
+		};
+		try {
+			db.savePage(createPage(1, "one"));
+			db.commit();
+			assertEquals(1, connects[0]);
+			assertEquals("one", db.getPageForId(1).getTitle());
+			db.savePage(createPage(2, "two"));
+			assertEquals("two", db.getPageForWord("two").getTitle());
+		} finally {
+			db.close();
+		}
+	}
+
+	/***/
+	public void testFlushInterval() {
+		final int[] commits = new int[1];
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "flush"), true) {
+			@Override
+			public void commit() {
+				commits[0]++;
+				super.commit();
+			}
+		};
+		try {
+			assertEquals(WritableBerkeleyDBWiktionaryEdition.DEFAULT_FLUSH_INTERVAL,
+					db.getFlushInterval());
+			db.setFlushInterval(3);
+			for (int i = 1; i <= 7; i++)
+				db.savePage(createPage(i, "page" + i));
+			assertEquals(2, commits[0]);
+
+			db.setFlushInterval(0);
+			for (int i = 8; i <= 20; i++)
+				db.savePage(createPage(i, "page" + i));
+			assertEquals(2, commits[0]);
+		} finally {
+			db.close();
+		}
+	}
+
+	/***/
+	public void testFlushBytes() {
+		final int[] commits = new int[1];
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "flush-bytes"), true) {
+			@Override
+			public void commit() {
+				commits[0]++;
+				super.commit();
+			}
+		};
+		try {
+			assertEquals(0, db.getFlushBytes());
+			db.setFlushInterval(0);
+			long pageSize = WiktionaryPageCache.estimatePageSize(createPage(1, "page1", 2));
+			db.setFlushBytes(3 * pageSize);
+			for (int i = 1; i <= 7; i++)
+				db.savePage(createPage(i, "page" + i, 2));
+			assertEquals(2, commits[0]);
+
+			// Larger pages are flushed more often.
+			for (int i = 8; i <= 10; i++)
+				db.savePage(createPage(i, "page" + i, 8));
+			assertEquals(5, commits[0]);
+
+			db.setFlushBytes(0);
+			for (int i = 11; i <= 20; i++)
+				db.savePage(createPage(i, "page" + i, 2));
+			assertEquals(5, commits[0]);
+		} finally {
+			db.close();
+		}
+		try {
+			db.setFlushBytes(-1);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {}
+	}
+
+	/***/
+	public void testDeferredWritePersistence() {
+		File dbDir = new File(workDir, "persist");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setFlushInterval(0);
+		for (int i = 1; i <= 10; i++)
+			db.savePage(createPage(i, "page" + i));
+		db.close();
+
+		db = new WritableBerkeleyDBWiktionaryEdition(dbDir, false, null) {
+			@Override
+			protected void prepareTargetDirectory(final File targetDirectory,
+					final boolean overwriteExisting) {}
+		};
+		try {
+			assertEquals("page7", db.getPageForId(7).getTitle());
+		} finally {
+			db.close();
+		}
+	}
+
+	/***/
+	public void testSavePages() {
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "batch"), true);
+		try {
+			List<WiktionaryPage> pages = new ArrayList<>();
+			for (long id : new long[]{12, 3, 100, 7}) {
+				WiktionaryPage page = createPage(id, "page" + id);
+				for (int i = 0; i < 3; i++) {
+					WiktionaryEntry entry = page.createEntry();
+					page.addEntry(entry);
+					entry.addSense(entry.createSense());
+				}
+				pages.add(page);
+			}
+			db.savePages(pages);
+			db.savePages(Collections.singletonList(createPage(12, "page12")));
+			assertEquals(4, db.pageCount);
+			assertEquals(9, db.entryCount);
+			assertEquals(18, db.senseCount);
+			assertNull(db.getSenseForKey("12:0:1"));
+
+			IWiktionarySense sense = db.getSenseForKey("100:2:1");
+			assertEquals("page100", sense.getPage().getTitle());
+			assertEquals(2, sense.getEntry().getIndex());
+			assertEquals(3, db.getPageForWord("page7").getEntryCount());
+		} finally {
+			db.close();
+		}
+	}
+
+	/***/
+	public void testEntryIndexByTitle() {
+		File dbDir = new File(workDir, "title");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		db.setEntryIndexByTitle(true);
+		List<WiktionaryPage> pages = new ArrayList<>();
+		pages.add(createPage(1, "beta", 2));
+		pages.add(createPage(2, "alpha", 1));
+		pages.add(createPage(3, "gamma", 3));
+		pages.add(createPage(4, "delta", 0));
+		db.savePages(pages);
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		assertEquals(5, db.getPageForWord("gamma").getEntry(2).getId());
+		db.close();
+
+		BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		try {
+			assertEquals("alpha", edition.getEntryForId(0).getPage().getTitle());
+			assertEquals("beta", edition.getEntryForId(1).getPage().getTitle());
+			assertEquals(1, edition.getEntryForId(2).getIndex());
+			assertEquals("gamma", edition.getEntryForId(3).getPage().getTitle());
+			List<Long> entryIds = new ArrayList<>();
+			for (IWiktionaryEntry entry : edition.getPageForWord("beta").getEntries())
+				entryIds.add(entry.getId());
+			assertEquals(Arrays.asList(1L, 2L), entryIds);
+			assertEquals(0, edition.getPageForId(2).getEntry(0).getId());
+		} finally {
+			edition.close();
+		}
+	}
+
+	/***/
+	public void testEntryIndexByTitleMissingProxy() {
+		File dbDir = new File(workDir, "title-missing");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true) {
+			@Override
+			protected void indexEntriesByTitle() {
+				super.indexEntriesByTitle();
+				entryByKey.delete("3:0");
+			}
+		};
+		db.setLanguage(Language.ENGLISH);
+		db.setEntryIndexByTitle(true);
+		db.setSeparateEntries(true);
+		db.savePages(Arrays.asList(createPage(1, "beta", 2), createPage(3, "gamma", 2)));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		// Entries without a proxy keep the IDs they were stored with.
+		for (boolean lazyEntryLoading : new boolean[]{false, true}) {
+			BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+			edition.setLazyEntryLoading(lazyEntryLoading);
+			try {
+				assertEquals(2, edition.getPageForWord("gamma").getEntryCount());
+				assertEquals(0, edition.getEntryForId(3, 0).getId());
+				assertEquals(1, edition.getEntryForId(3, 1).getIndex());
+				assertEquals(1, edition.getEntryForId(1, 1).getId());
+			} finally {
+				edition.close();
+			}
+		}
+	}
+
+	/***/
+	public void testSeparateEntries() {
+		File dbDir = new File(workDir, "separate");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		assertFalse(db.getSeparateEntries());
+		db.setSeparateEntries(true);
+		db.savePage(createPage(5, "five", 4));
+		db.savePage(createPage(5, "five", 3));
+		db.savePage(createPage(51, "fifty-one", 12));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		for (boolean lazyEntryLoading : new boolean[]{false, true}) {
+			BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+			edition.setLazyEntryLoading(lazyEntryLoading);
+			try {
+				IWiktionaryEntry entry = edition.getEntryForId(5, 1);
+				assertEquals(1, entry.getIndex());
+				assertEquals("five", entry.getPage().getTitle());
+				assertNull(edition.getEntryForId(5, 3));
+				assertNull(edition.getEntryForId(6, 0));
+				assertEquals(3, edition.getPageForId(5).getEntryCount());
+				assertEquals("5:2:0", edition.getSenseForKey("5:2:0").getKey());
+
+				// Entries are ordered by index rather than by key.
+				List<? extends IWiktionaryEntry> entries = edition.getPageForId(51).getEntries();
+				assertEquals(12, entries.size());
+				for (int i = 0; i < entries.size(); i++)
+					assertEquals("51:" + i, entries.get(i).getKey());
+			} finally {
+				edition.close();
+			}
+		}
+	}
+
+	/***/
+	public void testConcurrentLazyLoading() throws Exception {
+		File dbDir = new File(workDir, "concurrent-lazy");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		db.setLazyEntryLoading(true);
+		for (long id = 1; id <= 20; id++)
+			db.savePage(createPage(id, "page" + id, (int) id % 4 + 1));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		final BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		edition.setLazyEntryLoading(true);
+		edition.setPageCache(new WiktionaryPageCache(5));
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < 32; i++)
+				results.add(executor.submit(() -> {
+					for (long id = 1; id <= 20; id++) {
+						IWiktionaryPage page = edition.getPageForId(id);
+						assertEquals(id % 4 + 1, page.getEntryCount());
+						for (IWiktionaryEntry entry : page.getEntries())
+							assertSame(page, entry.getPage());
+						assertEquals(id, edition.getEntryForId(id, 0).getPage().getId());
+					}
+				}));
+			for (Future<?> result : results)
+				result.get();
+		} finally {
+			executor.shutdown();
+			edition.close();
+		}
+	}
+
+	/***/
+	public void testAccessAfterClose() {
+		File dbDir = new File(workDir, "closed");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		db.setLazyEntryLoading(true);
+		assertTrue(db.getSeparateEntries());
+		db.savePage(createPage(5, "five", 3));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		// By default, the entries are loaded together with their page.
+		BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		assertFalse(edition.isLazyEntryLoading());
+		IWiktionaryPage page = edition.getPageForId(5);
+		IWiktionaryEntry entry = edition.getEntryForId(5, 1);
+		edition.close();
+		assertEquals(3, page.getEntryCount());
+		assertEquals("5:1", page.getEntries().get(1).getKey());
+		assertEquals(3, entry.getPage().getEntryCount());
+
+		// Lazily loaded entries are only available while the edition is open.
+		edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		edition.setLazyEntryLoading(true);
+		page = edition.getPageForId(5);
+		entry = edition.getEntryForId(5, 1);
+		assertEquals(1, entry.getIndex());
+		edition.close();
+		try {
+			page.getEntryCount();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {}
+		try {
+			entry.getPage().getEntries();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {}
+	}
+
+	/***/
+	public void testEmbeddedEntries() {
+		File dbDir = new File(workDir, "embedded");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		assertFalse(db.getSeparateEntries());
+		db.setSeparateEntries(false);
+		db.savePage(createPage(5, "five", 2));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		try {
+			assertEquals(1, edition.getEntryForId(5, 1).getIndex());
+			assertEquals(2, edition.getPageForWord("five").getEntryCount());
+		} finally {
+			edition.close();
+		}
+	}
+
+	/***/
+	public void testCompactEntries() {
+		File dbDir = new File(workDir, "compact");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		assertFalse(db.getCompactEntries());
+		db.setCompactEntries(true);
+		assertTrue(db.getSeparateEntries());
+		WiktionaryPage page = createPage(5, "five", 3);
+		page.getEntry(1).setWordLanguage(Language.GERMAN);
+		page.getEntry(1).addPartOfSpeech(PartOfSpeech.NOUN);
+		page.getEntry(1).addSense(page.getEntry(1).createSense());
+		db.savePage(page);
+		db.savePage(createPage(6, "six", 1));
+		db.close();
+
+		db = WritableBerkeleyDBWiktionaryEdition.openForResume(dbDir, null);
+		assertTrue(db.getCompactEntries());
+		db.savePage(createPage(6, "six", 0));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		try {
+			IWiktionaryEntry entry = edition.getEntryForId(5, 1);
+			assertEquals("five", entry.getPage().getTitle());
+			assertEquals(Language.GERMAN, entry.getWordLanguage());
+			assertEquals(PartOfSpeech.NOUN, entry.getPartOfSpeech());
+			assertEquals(3, edition.getPageForId(5).getEntryCount());
+			assertEquals("5:1:1", edition.getSenseForKey("5:1:1").getKey());
+			assertEquals(0, edition.getPageForId(6).getEntryCount());
+			assertNull(edition.getEntryForId(6, 0));
+		} finally {
+			edition.close();
+		}
+
+		db = WritableBerkeleyDBWiktionaryEdition.openForUpdate(dbDir, null);
+		assertTrue(db.getCompactEntries());
+		page = createPage(7, "seven", 1);
+		page.getEntry(0).setWordLanguage(Language.GERMAN);
+		page.getEntry(0).addPartOfSpeech(PartOfSpeech.VERB);
+		db.savePage(page);
+		db.retainPage(6);
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		try {
+			assertNull(edition.getPageForId(5));
+			assertNull(edition.getEntryForId(5, 1));
+			IWiktionaryEntry entry = edition.getEntryForId(7, 0);
+			assertEquals(Language.GERMAN, entry.getWordLanguage());
+			assertEquals(PartOfSpeech.VERB, entry.getPartOfSpeech());
+		} finally {
+			edition.close();
+		}
+	}
+
+	/***/
+	public void testOpenForUpdate() {
+		File dbDir = new File(workDir, "update");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		assertFalse(db.isUpdate());
+		for (long id = 1; id <= 3; id++) {
+			WiktionaryPage page = createPage(id, "page" + id, 2);
+			page.setRevision(100 + id);
+			for (WiktionaryEntry entry : page.entries())
+				entry.addSense(entry.createSense());
+			db.savePage(page);
+		}
+		assertFalse(db.isUpToDate(1, 101));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		db.close();
+
+		db = WritableBerkeleyDBWiktionaryEdition.openForUpdate(dbDir, null);
+		assertTrue(db.isUpToDate(1, 101));
+		assertFalse(db.isUpToDate(2, 101));
+		assertFalse(db.isUpToDate(4, 104));
+		db.retainPage(1);
+		WiktionaryPage page = createPage(2, "page2", 1);
+		page.setRevision(202);
+		db.savePage(page);
+		db.savePage(createPage(4, "page4", 1));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		assertEquals(3, db.pageCount);
+		assertEquals(4, db.entryCount);
+		assertEquals(6, db.senseCount);
+		db.close();
+
+		BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		try {
+			assertNull(edition.getPageForId(3));
+			assertNull(edition.getEntryForId(3, 0));
+			assertNull(edition.getSenseForKey("3:1:1"));
+			assertEquals(1, edition.getPageForId(2).getEntryCount());
+			assertNull(edition.getEntryForId(2, 1));
+			assertNull(edition.getSenseForKey("2:1:1"));
+			assertEquals("page1", edition.getSenseForKey("1:1:1").getPage().getTitle());
+			assertEquals("page4", edition.getPageForWord("page4").getTitle());
+		} finally {
+			edition.close();
+		}
+	}
+
+	/***/
+	public void testOpenForUpdateMissing() {
+		try {
+			WritableBerkeleyDBWiktionaryEdition.openForUpdate(new File(workDir, "missing"), null);
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {}
+	}
+
+	/***/
+	public void testOpenForResume() {
+		File dbDir = new File(workDir, "resume");
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(dbDir, true);
+		db.setLanguage(Language.ENGLISH);
+		db.setFlushInterval(2);
+		db.setSeparateEntries(true);
+		assertNull(db.getCheckpointPageId());
+		db.savePages(Arrays.asList(createPage(3, "three", 1), createPage(7, "seven", 2)));
+		assertEquals(Long.valueOf(7), db.getCheckpointPageId());
+		db.savePage(createPage(5, "five", 1));
+
+		// Updated pages do not advance the checkpoint.
+		db.updatePages(Collections.singletonList(createPage(12, "twelve", 1)));
+		assertEquals(Long.valueOf(7), db.getCheckpointPageId());
+		db.savePage(createPage(8, "eight", 1));
+		db.close();
+
+		// Closing an incomplete database advances the checkpoint.
+		db = WritableBerkeleyDBWiktionaryEdition.openForResume(dbDir, null);
+		assertEquals(Long.valueOf(8), db.getCheckpointPageId());
+		assertEquals(5, db.pageCount);
+		assertEquals(6, db.entryCount);
+		assertTrue(db.getSeparateEntries());
+		db.savePage(createPage(9, "nine", 1));
+		db.saveProperties(new DumpInfo(new File("dump.xml"), new WiktionaryDumpParser()));
+		assertNull(db.getCheckpointPageId());
+		assertFalse(new File(dbDir, WritableBerkeleyDBWiktionaryEdition.CHECKPOINT_FILE_NAME).exists());
+		db.close();
+
+		BerkeleyDBWiktionaryEdition edition = new BerkeleyDBWiktionaryEdition(dbDir);
+		try {
+			assertEquals(2, edition.getPageForWord("seven").getEntryCount());
+			assertEquals("nine", edition.getEntryForId(9, 0).getPage().getTitle());
+		} finally {
+			edition.close();
+		}
+
+		try {
+			WritableBerkeleyDBWiktionaryEdition.openForResume(dbDir, null);
+			fail("WiktionaryException expected");
+		} catch (WiktionaryException e) {}
+	}
+
+	protected static WiktionaryPage createPage(long id, final String title,
+			int entryCount) {
+		WiktionaryPage result = createPage(id, title);
+		for (int i = 0; i < entryCount; i++)
+			result.addEntry(result.createEntry());
+		return result;
+	}
+
+	protected static WiktionaryPage createPage(long id, final String title) {
+		WiktionaryPage result = new WiktionaryPage();
+		result.setId(id);
+		result.setTitle(title);
+		return result;
+	}
+
+}
@@ -21,9 +21,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.Queue;
+import javax.xml.stream.XMLStreamException;
 
 import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
 import junit.framework.TestCase;
+
 import org.xml.sax.SAXException;
 
 /**
@@ -98,9 +100,15 @@ public class XMLDumpParserTest extends TestCase {
 		expectedValues.offer("onElementEnd: dump_parser_test");
 		expectedValues.offer("onParserEnd");
 				
+		Queue<String> pullExpectedValues = new LinkedList<>(expectedValues);
 		MyXMLDumpParser parser = new MyXMLDumpParser(expectedValues);
 		parser.parse(new File("src/test/resources/XMLDumpParserTest.xml.bz2"));
 		assertTrue(expectedValues.isEmpty());
+
+		parser = new MyXMLDumpParser(pullExpectedValues);
+		parser.setPullParsing(true);
+		parser.parse(new File("src/test/resources/XMLDumpParserTest.xml.bz2"));
+		assertTrue(pullExpectedValues.isEmpty());
 	}
 	
 	/***/
@@ -139,6 +147,17 @@ public class XMLDumpParserTest extends TestCase {
 		}
 	}
 
+	/***/
+	public void testPullParsingErrors() {
+		parser.setPullParsing(true);
+		try {
+			parser.parse(new File("src/test/resources/XMLDumpParserErrorXMLTest.xml"));
+			fail("WiktionaryException/XMLStreamException expected");
+		} catch (WiktionaryException e) {
+			assertTrue(e.getCause() instanceof XMLStreamException);
+		}
+	}
+
 	public void testParseMultistreamWithNormalParser() throws Exception {
 		parser.parse(new File("src/test/resources/enwiktionary-20150224-pages-articles-multistream.xml.bz2"));
 	}
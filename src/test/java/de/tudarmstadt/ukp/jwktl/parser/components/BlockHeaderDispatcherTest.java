@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.components;
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.tudarmstadt.ukp.jwktl.api.RelationType;
+import de.tudarmstadt.ukp.jwktl.parser.en.components.ENEtymologyHandler;
+import de.tudarmstadt.ukp.jwktl.parser.en.components.ENRelationHandler;
+import de.tudarmstadt.ukp.jwktl.parser.en.components.ENSemanticRelationHandler;
+import de.tudarmstadt.ukp.jwktl.parser.en.components.ENSenseHandler;
+import de.tudarmstadt.ukp.jwktl.parser.en.components.ENTranslationHandler;
+import de.tudarmstadt.ukp.jwktl.parser.en.components.ENWordLanguageHandler;
+import de.tudarmstadt.ukp.jwktl.parser.util.IBlockHandler;
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link BlockHeaderDispatcher}.
+ */
+public class BlockHeaderDispatcherTest extends TestCase {
+
+	/***/
+	public void testDispatch() {
+		List<IBlockHandler> handlers = Arrays.<IBlockHandler>asList(
+				new ENSemanticRelationHandler(RelationType.SYNONYM, "Synonyms", "Synomyms"),
+				new ENEtymologyHandler(),
+				new ENRelationHandler(RelationType.DERIVED_TERM, "Derived terms"),
+				new ENSemanticRelationHandler(RelationType.SEE_ALSO, "Synonyms"),
+				new ENTranslationHandler(),
+				new ENWordLanguageHandler(),
+				new ENSenseHandler());
+		BlockHeaderDispatcher dispatcher = new BlockHeaderDispatcher(handlers);
+		assertEquals(7, dispatcher.size());
+		assertTrue(Arrays.equals(new int[]{1, 5, 6}, dispatcher.getCustomHandlers()));
+		assertEquals(0, dispatcher.findLabelHandler("====Synonyms===="));
+		assertEquals(0, dispatcher.findLabelHandler("==== Synomyms ===="));
+		assertEquals(2, dispatcher.findLabelHandler("====Derived terms===="));
+		assertEquals(4, dispatcher.findLabelHandler("====Translations===="));
+		assertEquals(7, dispatcher.findLabelHandler("===Noun==="));
+		assertEquals(7, dispatcher.findLabelHandler("==English=="));
+
+		assertTrue(Arrays.equals(new int[]{1, 5, 6}, dispatcher.getCustomHandlers("===Noun===")));
+		assertTrue(Arrays.equals(new int[]{5}, dispatcher.getCustomHandlers(" ----")));
+		assertTrue(Arrays.equals(new int[]{1}, dispatcher.getCustomHandlers("{{etymology}}")));
+		assertTrue(Arrays.equals(new int[0], dispatcher.getCustomHandlers("[[fr:Noun]]")));
+		assertTrue(dispatcher.hasHeaderPrefix(6, "  ===Noun==="));
+		assertFalse(dispatcher.hasHeaderPrefix(6, "==English=="));
+		assertTrue(dispatcher.hasHeaderPrefix(5, "==English=="));
+		assertFalse(dispatcher.hasHeaderPrefix(5, "-- English"));
+
+		for (String header : new String[]{"====Synonyms====", "===Etymology 2===",
+				"====Derived terms====", "====Translations====", "===Noun===",
+				"==English==", "===Unknown===", "----", " ==English==", 
+				"{{-etym-}}", "Etymology", "[[fr:Noun]]", "[[Category:English nouns]]",
+				"== Pronunciation =="})
+			assertSame(header, selectLinear(handlers, header), 
+					select(dispatcher, header));
+	}
+
+	protected static IBlockHandler selectLinear(final List<IBlockHandler> handlers,
+			final String header) {
+		for (IBlockHandler handler : handlers)
+			if (handler.canHandle(header))
+				return handler;
+		return null;
+	}
+
+	protected static IBlockHandler select(final BlockHeaderDispatcher dispatcher,
+			final String header) {
+		int labelHandler = dispatcher.findLabelHandler(header);
+		for (int idx : dispatcher.getCustomHandlers(header)) {
+			if (idx > labelHandler)
+				break;
+			if (!dispatcher.hasHeaderPrefix(idx, header))
+				continue;
+			if (dispatcher.getHandler(idx).canHandle(header))
+				return dispatcher.getHandler(idx);
+		}
+		return (labelHandler < dispatcher.size() ? dispatcher.getHandler(labelHandler) : null);
+	}
+
+	/***/
+	public void testHeaderPrefixesSkipHandler() {
+		final int[] invocations = new int[1];
+		IBlockHandler handler = new ENSenseHandler() {
+			@Override
+			public boolean canHandle(final String blockHeader) {
+				invocations[0]++;
+				return super.canHandle(blockHeader);
+			}
+		};
+		BlockHeaderDispatcher dispatcher = new BlockHeaderDispatcher(
+				Arrays.asList(new ENWordLanguageHandler(), handler));
+		for (String header : new String[]{"==English==", "[[fr:Noun]]", 
+				"----", "===Noun==="})
+			select(dispatcher, header);
+		assertEquals(1, invocations[0]);
+	}
+
+}
@@ -22,10 +22,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Set;
 
 import junit.framework.TestCase;
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
 import de.tudarmstadt.ukp.jwktl.parser.WiktionaryEntryParser;
 
 /**
@@ -35,6 +37,11 @@ import de.tudarmstadt.ukp.jwktl.parser.WiktionaryEntryParser;
 public abstract class DEWiktionaryEntryParserTest extends TestCase {
 
 	protected IWiktionaryPage parse(final String fileName) throws IOException {
+		return parse(fileName, null);
+	}
+
+	protected IWiktionaryPage parse(final String fileName,
+			final Set<ILanguage> languageFilter) throws IOException {
 		StringBuilder text = new StringBuilder();
 		BufferedReader reader = new BufferedReader(
 				new InputStreamReader(new FileInputStream(
@@ -46,6 +53,7 @@ public abstract class DEWiktionaryEntryParserTest extends TestCase {
 		reader.close();
 		WiktionaryPage result = new WiktionaryPage();
 		WiktionaryEntryParser parser = new DEWiktionaryEntryParser();
+		parser.setLanguageFilter(languageFilter);
 		parser.parse(result, text.toString());
 		return result;
 	}
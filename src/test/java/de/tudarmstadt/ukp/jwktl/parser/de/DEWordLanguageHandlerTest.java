@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.de;
+
+import java.util.Collections;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+import de.tudarmstadt.ukp.jwktl.parser.de.components.DEWordLanguageHandler;
+
+/**
+ * Test case for {@link DEWordLanguageHandler}.
+ */
+public class DEWordLanguageHandlerTest extends DEWiktionaryEntryParserTest {
+
+	/***/
+	public void testFindLanguage() throws Exception {
+		assertEquals(Language.GERMAN, DEWordLanguageHandler.findLanguage(
+				"== April ({{Sprache|Deutsch}}) =="));
+		assertEquals(Language.ENGLISH, DEWordLanguageHandler.findLanguage(
+				"== April ({{Sprache|Englisch}}) =="));
+		assertNull(DEWordLanguageHandler.findLanguage("=== Übersetzungen ==="));
+	}
+
+	/***/
+	public void testAprilLanguageFilter() throws Exception {
+		IWiktionaryPage page = parse("April.txt");
+		int entryCount = page.getEntryCount();
+		assertTrue(entryCount > 1);
+
+		page = parse("April.txt", Collections.<ILanguage>singleton(Language.ENGLISH));
+		assertTrue(page.getEntryCount() > 0);
+		assertTrue(page.getEntryCount() < entryCount);
+		for (IWiktionaryEntry entry : page.getEntries())
+			assertEquals(Language.ENGLISH, entry.getWordLanguage());
+
+		page = parse("April.txt", Collections.<ILanguage>singleton(Language.GERMAN));
+		assertTrue(page.getEntryCount() > 0);
+		for (IWiktionaryEntry entry : page.getEntries())
+			assertEquals(Language.GERMAN, entry.getWordLanguage());
+	}
+
+}
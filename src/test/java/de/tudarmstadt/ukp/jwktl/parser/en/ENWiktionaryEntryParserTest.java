@@ -22,11 +22,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Set;
 
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
 import de.tudarmstadt.ukp.jwktl.api.entry.WiktionarySense;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
 import de.tudarmstadt.ukp.jwktl.parser.WiktionaryEntryParser;
 import de.tudarmstadt.ukp.jwktl.parser.en.components.ENBlockHandler;
 import de.tudarmstadt.ukp.jwktl.parser.en.components.ENEntryFactory;
@@ -40,6 +42,11 @@ import junit.framework.TestCase;
 public abstract class ENWiktionaryEntryParserTest extends TestCase {
 
 	protected IWiktionaryPage parse(final String fileName) throws IOException {
+		return parse(fileName, null);
+	}
+
+	protected IWiktionaryPage parse(final String fileName,
+			final Set<ILanguage> languageFilter) throws IOException {
 		StringBuilder text = new StringBuilder();
 		BufferedReader reader = new BufferedReader(
 				new InputStreamReader(new FileInputStream(
@@ -52,6 +59,7 @@ public abstract class ENWiktionaryEntryParserTest extends TestCase {
 		WiktionaryPage result = new WiktionaryPage();
 		result.setTitle(fileName.replace(".txt", ""));
 		WiktionaryEntryParser parser = new ENWiktionaryEntryParser();
+		parser.setLanguageFilter(languageFilter);
 		parser.parse(result, text.toString());
 		return result;
 	}
@@ -130,6 +130,7 @@ public class ENPronunciationHandlerTest extends ENWiktionaryEntryParserTest {
 		w.processBody("* {{IPA|/fɹiː/}}, {{SAMPA|/fri:/}}", null);
 		w.processBody("* {{audio|en-us-free.ogg|Audio (US)|lang=en}}", null);
 		w.processBody("* {{audio|En-uk-free.ogg|Audio (UK)|lang=en}}", null);
+		w.processBody("* {{audio|en-au-free.ogg|lang=en}}", null);
 		w.processBody("*: {{rhymes|iː}}", null);
 
 		w.processBody("* {{a|RP}} {{IPA|/dɒɡ/}}, {{SAMPA|/dQg/}}", null);
@@ -166,6 +167,7 @@ public class ENPronunciationHandlerTest extends ENWiktionaryEntryParserTest {
 		assertPronunciation(PronunciationType.SAMPA, "/fri:/", "", iter.next());
 		assertPronunciation(PronunciationType.AUDIO, "en-us-free.ogg", "Audio (US)", iter.next());
 		assertPronunciation(PronunciationType.AUDIO, "En-uk-free.ogg", "Audio (UK)", iter.next());
+		assertPronunciation(PronunciationType.AUDIO, "en-au-free.ogg", "", iter.next());
 		assertPronunciation(PronunciationType.RHYME, "iː", "", iter.next());
 
 		assertPronunciation(PronunciationType.IPA, "/dɒɡ/", "RP", iter.next());
@@ -194,6 +196,16 @@ public class ENPronunciationHandlerTest extends ENWiktionaryEntryParserTest {
 		assertFalse(iter.hasNext());
 	}
 
+	public void testNestedTemplates() {
+		ENPronunciationHandler w = new ENPronunciationHandler();
+		w.processHead("", new ParsingContext(null));
+		w.processBody("* {{a|UK}} {{IPA|/ˈwɔːtə/|qual1={{a|RP}}}} {{audio|en-uk-water.ogg}}", null);
+		Iterator<IPronunciation> iter = w.getPronunciations().iterator();
+		assertPronunciation(PronunciationType.IPA, "/ˈwɔːtə/", "UK", iter.next());
+		assertPronunciation(PronunciationType.AUDIO, "en-uk-water.ogg", "UK", iter.next());
+		assertFalse(iter.hasNext());
+	}
+
 	public void testFlippedLanguageParameter() {
 		ENPronunciationHandler w = new ENPronunciationHandler();
 		w.processHead("", new ParsingContext(null));
@@ -323,6 +323,21 @@ public class ENTranslationHandlerTest extends ENWiktionaryEntryParserTest {
 		assertEquals("tietää mitä saa", translations.get(1).getTranslation());
 	}
 
+	public void testWikiLinkSequenceAfterPrefix() {
+		final IWiktionaryTranslation translation = process("* German: in eine [[Richtung]] [[gehen]] (''figurative'')").get(0);
+		assertEquals("Richtung gehen", translation.getTranslation());
+		assertEquals("in eine(figurative)", translation.getAdditionalInformation());
+	}
+
+	public void testNestedTranslationTemplatesAreIgnored() {
+		final List<IWiktionaryTranslation> translations = process(
+				"* Swedish: {{qualifier|use {{t|sv|kommer att}} + infinitive}}",
+				"* German: {{t+|de|gehen}} {{qualifier|or {{t|de|laufen}}}}");
+		assertEquals(1, translations.size());
+		assertEquals("gehen", translations.get(0).getTranslation());
+		assertEquals("{{qualifier|or {{t|de|laufen}}}}", translations.get(0).getAdditionalInformation());
+	}
+
 	public void testSplitTranslationsSingleItem() {
 		final List<String> results = ENTranslationHandler.splitTranslationParts("{{t+|fr|bas}}");
 		assertEquals(1, results.size());
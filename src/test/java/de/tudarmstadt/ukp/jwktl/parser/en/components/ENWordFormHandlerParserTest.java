@@ -200,7 +200,7 @@ public class ENWordFormHandlerParserTest extends ENWiktionaryEntryParserTest {
 		handler = new ENWordFormHandler("Ancient Fuzzy Die");
 		handler.parse("{{en-proper noun|head=[[ancient|Ancient]] [[fuzzy|Fuzzy]] [[die|Die]]|Depending on meaning, either '''Ancient Fuzzy Die''' or '''[[Ancient Fuzzy Dice]]'''}}");
 		actualIter = handler.getWordForms().iterator();
-//		assertWordFormNoun("Depending on meaning, either '''Ancient Fuzzy Die''' or '''[[Ancient Fuzzy Dice]]'''", GrammaticalNumber.PLURAL, actualIter.next());
+		assertWordFormNoun("Depending on meaning, either '''Ancient Fuzzy Die''' or '''[[Ancient Fuzzy Dice]]'''", GrammaticalNumber.PLURAL, actualIter.next());
 		assertFalse(actualIter.hasNext());
 	}
 	
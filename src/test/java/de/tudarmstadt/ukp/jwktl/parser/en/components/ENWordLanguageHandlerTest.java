@@ -17,6 +17,9 @@
  ******************************************************************************/
 package de.tudarmstadt.ukp.jwktl.parser.en.components;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
@@ -102,6 +105,26 @@ public class ENWordLanguageHandlerTest extends ENWiktionaryEntryParserTest {
 		assertFalse(entryIter.hasNext());
 	}
 
+	/***/
+	public void testMayLanguageFilter() throws Exception {
+		IWiktionaryPage page = parse("may.txt", Collections.singleton(Language.ENGLISH));
+		Iterator<? extends IWiktionaryEntry> entryIter = page.getEntries().iterator();
+		assertEntry(Language.ENGLISH, PartOfSpeech.VERB, 4, entryIter.next());
+		assertEntry(Language.ENGLISH, PartOfSpeech.NOUN, 1, entryIter.next());
+		assertEntry(Language.ENGLISH, PartOfSpeech.VERB, 1, entryIter.next());
+		assertFalse(entryIter.hasNext());
+
+		page = parse("may.txt", new HashSet<ILanguage>(Arrays.asList(
+				Language.findByName("Kurdish"), Language.findByName("Tatar"))));
+		entryIter = page.getEntries().iterator();
+		assertEntry(Language.findByName("Kurdish"), PartOfSpeech.NOUN, 1, entryIter.next());
+		assertEntry(Language.findByName("Tatar"), PartOfSpeech.NOUN, 1, entryIter.next());
+		assertFalse(entryIter.hasNext());
+
+		page = parse("may.txt", Collections.<ILanguage>emptySet());
+		assertEquals(0, page.getEntryCount());
+	}
+
 	/***/
 	public void testPortmanteau() throws Exception {
 		IWiktionaryPage page = parse("portmanteau.txt");
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.ru;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import de.tudarmstadt.ukp.jwktl.IntegrationTest;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * Benchmark of the memory allocated by {@link RUWiktionaryEntryParser}
+ * for the articles in <code>src/test/resources/articles-ru</code>. The
+ * number of bytes allocated per page is reported on the console. Like 
+ * the other {@link IntegrationTest}s, the benchmark is excluded from the 
+ * default build. It is skipped if the JVM cannot measure the allocated 
+ * memory.
+ */
+@Category(IntegrationTest.class)
+public class WikokitAllocationBenchmarkTest {
+
+	protected static final int WARMUP_ITERATIONS = 200;
+	protected static final int ITERATIONS = 1000;
+
+	@Test
+	public void testAllocatedBytesPerPage() throws Exception {
+		com.sun.management.ThreadMXBean threadBean = getThreadBean();
+		assumeNotNull(threadBean);
+
+		RUWiktionaryEntryParser parser = new RUWiktionaryEntryParser();
+		File[] files = new File("src/test/resources/articles-ru").listFiles();
+		assertTrue(files.length > 0);
+		long totalBytes = 0;
+		for (File file : files) {
+			String text = readArticle(file);
+			for (int i = 0; i < WARMUP_ITERATIONS; i++)
+				parse(parser, file.getName(), text);
+
+			long threadId = Thread.currentThread().getId();
+			long bytes = threadBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < ITERATIONS; i++)
+				parse(parser, file.getName(), text);
+			bytes = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+			System.out.println(file.getName() + ": " + (bytes / ITERATIONS) 
+					+ " bytes allocated per page");
+			totalBytes += bytes;
+		}
+		System.out.println("articles-ru: " + (totalBytes / ITERATIONS / files.length) 
+				+ " bytes allocated per page on average");
+	}
+
+	protected static com.sun.management.ThreadMXBean getThreadBean() {
+		java.lang.management.ThreadMXBean result = ManagementFactory.getThreadMXBean();
+		if (!(result instanceof com.sun.management.ThreadMXBean))
+			return null;
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) result;
+		if (!threadBean.isThreadAllocatedMemorySupported()
+				|| !threadBean.isThreadAllocatedMemoryEnabled())
+			return null;
+		return threadBean;
+	}
+
+	protected static String readArticle(final File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	protected static void parse(final RUWiktionaryEntryParser parser,
+			final String title, final String text) {
+		WiktionaryPage page = new WiktionaryPage();
+		page.setTitle(title);
+		parser.parse(page, text);
+	}
+
+}
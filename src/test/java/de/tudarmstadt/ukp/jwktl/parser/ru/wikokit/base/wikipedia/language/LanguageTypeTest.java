@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.language;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link LanguageType}.
+ */
+public class LanguageTypeTest extends TestCase {
+
+	/***/
+	public void testLookup() {
+		assertSame(LanguageType.ru, LanguageType.get("ru"));
+		assertSame(LanguageType.aar, LanguageType.get("aa"));
+		assertTrue(LanguageType.has("aa"));
+		assertFalse(LanguageType.has("xx-unknown"));
+		assertFalse(LanguageType.has(null));
+		assertSame(LanguageType.aus_gun, LanguageType.getByEnglishName("Kurnai"));
+		assertNull(LanguageType.getByEnglishName("Unknown language"));
+		assertNull(LanguageType.getByEnglishName(null));
+		try {
+			LanguageType.get("xx-unknown");
+			fail("NullPointerException expected");
+		} catch (NullPointerException e) {}
+	}
+
+	/***/
+	public void testFrozenRegistry() {
+		int size = LanguageType.size();
+		try {
+			LanguageType.getAllLanguages().put("xx", LanguageType.ru);
+			fail("UnsupportedOperationException expected");
+		} catch (UnsupportedOperationException e) {}
+
+		// Runtime additions are kept in an overlay.
+		assertSame(LanguageType.ru, LanguageType.addNonUnique(LanguageType.ru, 
+				"ru-test", "Russian (test)"));
+		assertSame(LanguageType.ru, LanguageType.get("ru-test"));
+		assertSame(LanguageType.ru, LanguageType.getByEnglishName("Russian (test)"));
+		assertNull(LanguageType.addNonUniqueCode(LanguageType.en, "ru-test"));
+		assertNull(LanguageType.addNonUniqueCode(LanguageType.en, "ru"));
+		assertSame(LanguageType.ru, LanguageType.get("ru-test"));
+		assertEquals(size, LanguageType.size());
+	}
+
+	/***/
+	public void testConcurrentAccess() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++)
+				results.add(executor.submit(new Callable<Integer>() {
+					public Integer call() {
+						int added = 0;
+						for (int i = 0; i < 1000; i++) {
+							String code = "unknown" + (i % 100);
+							assertSame(LanguageType.ru, LanguageType.get("ru"));
+							if (!LanguageType.hasUnknownLangCode(code) 
+									&& LanguageType.addUnknownLangCode(code))
+								added++;
+						}
+						return added;
+					}
+				}));
+
+			int added = 0;
+			for (Future<Integer> result : results)
+				added += result.get();
+			assertEquals(100, added);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.multi.ru;
+
+import java.nio.CharBuffer;
+
+import junit.framework.TestCase;
+import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikipedia.language.LanguageType;
+import de.tudarmstadt.ukp.jwktl.parser.ru.wikokit.base.wikt.util.LangText;
+
+/**
+ * Test case for {@link WLanguageRu}.
+ */
+public class WLanguageRuTest extends TestCase {
+
+	/***/
+	public void testSplitToLanguageSections() {
+		LangText[] sections = WLanguageRu.splitToLanguageSections("test",
+				"{{also}}\n= {{-ru-}} =\nru text\n= {{-xx-}} =\nunknown\n"
+				+ "= {{-en-}} =\nen text\n{{заголовок|de|add=}}\nde text");
+		assertEquals(3, sections.length);
+		assertEquals(LanguageType.ru, sections[0].getLanguage());
+		assertEquals("{{also}}\n=  =\nru text\n= ", sections[0].text.toString());
+		assertEquals(LanguageType.en, sections[1].getLanguage());
+		assertEquals(" =\nen text\n", sections[1].text.toString());
+		assertEquals(LanguageType.de, sections[2].getLanguage());
+		assertEquals("\nde text", sections[2].text.toString());
+	}
+
+	/***/
+	public void testSectionsAreViews() {
+		StringBuilder text = new StringBuilder("= {{-ru-}} =\nru text\n= {{-en-}} =\nen text");
+		LangText[] sections = WLanguageRu.splitToLanguageSections("test", text);
+		assertEquals(2, sections.length);
+		CharSequence section = sections[1].text;
+		assertTrue(section instanceof CharBuffer);
+		assertEquals(0, ((CharBuffer) section).position());
+		assertEquals(10, section.length());
+		assertEquals(' ', section.charAt(0));
+		assertEquals("en", section.subSequence(3, 5).toString());
+		assertEquals(" =\nen text", section.toString());
+
+		// The section is not a copy of the page text.
+		text.setCharAt(text.length() - 1, 'X');
+		assertEquals(" =\nen texX", section.toString());
+	}
+
+	/***/
+	public void testSplitWithoutLanguageCode() {
+		String text = "# text without language code";
+		LangText[] sections = WLanguageRu.splitToLanguageSections("test", text);
+		assertEquals(1, sections.length);
+		assertEquals(LanguageType.ru, sections[0].getLanguage());
+		assertSame(text, sections[0].text);
+
+		assertEquals(0, WLanguageRu.splitToLanguageSections("test", "").length);
+		assertEquals(0, WLanguageRu.splitToLanguageSections("test",
+				"= {{-xx-}} =\nunknown\n= {{-ru-}} =\nru text").length);
+	}
+
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.parser.en.ENWiktionaryEntryParser;
+import de.tudarmstadt.ukp.jwktl.parser.en.components.ENSenseHandler;
+import de.tudarmstadt.ukp.jwktl.parser.util.BlockHandlerProfiler.HandlerStatistics;
+import de.tudarmstadt.ukp.jwktl.parser.util.BlockHandlerProfiler.Method;
+import de.tudarmstadt.ukp.jwktl.parser.util.BlockHandlerProfiler.PageTiming;
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link BlockHandlerProfiler}.
+ */
+public class BlockHandlerProfilerTest extends TestCase {
+
+	/***/
+	public void testProfileEntryParser() throws Exception {
+		BlockHandlerProfiler profiler = new BlockHandlerProfiler(1, true);
+		ENWiktionaryEntryParser parser = new ENWiktionaryEntryParser();
+		parser.setProfiler(profiler);
+		WiktionaryPage abate = parse(parser, "abate");
+		WiktionaryPage plant = parse(parser, "plant");
+
+		// Profiling does not affect the parsing results.
+		ENWiktionaryEntryParser plainParser = new ENWiktionaryEntryParser();
+		assertEquals(parse(plainParser, "abate").getEntryCount(), abate.getEntryCount());
+		assertEquals(parse(plainParser, "plant").getEntryCount(), plant.getEntryCount());
+
+		HandlerStatistics stats = profiler.getStatistics(ENSenseHandler.class);
+		assertNotNull(stats);
+		assertEquals(ENSenseHandler.class.getName(), stats.getHandlerName());
+		assertTrue(stats.getInvocations(Method.CAN_HANDLE) > 0);
+		assertEquals(abate.getEntryCount() + plant.getEntryCount(),
+				stats.getInvocations(Method.PROCESS_HEAD));
+		assertEquals(stats.getInvocations(Method.PROCESS_HEAD), 
+				stats.getInvocations(Method.FILL_CONTENT));
+		assertTrue(stats.getInvocations(Method.PROCESS_BODY) > 0);
+		assertTrue(stats.getTotalNanos() > 0);
+		assertEquals(ManagementFactory.getThreadMXBean().isCurrentThreadCpuTimeSupported(),
+				profiler.isMeasuringCpuTime());
+		if (profiler.isMeasuringAllocation())
+			assertTrue(stats.getTotalAllocatedBytes() > 0);
+
+		List<PageTiming> slowest = stats.getSlowestPages();
+		assertEquals(1, slowest.size());
+		assertTrue("abate".equals(slowest.get(0).getTitle()) 
+				|| "plant".equals(slowest.get(0).getTitle()));
+
+		List<HandlerStatistics> all = profiler.getStatistics();
+		assertTrue(all.contains(stats));
+		for (int i = 1; i < all.size(); i++)
+			assertTrue(all.get(i - 1).getTotalNanos() >= all.get(i).getTotalNanos());
+		assertTrue(profiler.getSummary().contains("ENSenseHandler"));
+
+		parser.setProfiler(null);
+		parse(parser, "abate");
+		assertEquals(stats.getInvocations(Method.PROCESS_HEAD), 
+				profiler.getStatistics(ENSenseHandler.class).getInvocations(Method.PROCESS_HEAD));
+		profiler.reset();
+		assertNull(profiler.getStatistics(ENSenseHandler.class));
+	}
+
+	/***/
+	public void testWithoutAllocation() throws Exception {
+		BlockHandlerProfiler profiler = new BlockHandlerProfiler(0, false);
+		assertFalse(profiler.isMeasuringAllocation());
+		ENWiktionaryEntryParser parser = new ENWiktionaryEntryParser();
+		parser.setProfiler(profiler);
+		parse(parser, "abate");
+		HandlerStatistics stats = profiler.getStatistics(ENSenseHandler.class);
+		assertEquals(0, stats.getTotalAllocatedBytes());
+		assertTrue(stats.getSlowestPages().isEmpty());
+	}
+
+	protected static WiktionaryPage parse(final ENWiktionaryEntryParser parser,
+			final String title) throws IOException {
+		String text = new String(Files.readAllBytes(new File(
+				"src/test/resources/articles-en/" + title + ".txt").toPath()),
+				StandardCharsets.UTF_8);
+		WiktionaryPage result = new WiktionaryPage();
+		result.setTitle(title);
+		parser.parse(result, text);
+		return result;
+	}
+
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.ObjectName;
+
+import de.tudarmstadt.ukp.jwktl.parser.WiktionaryArticleParser;
+import de.tudarmstadt.ukp.jwktl.parser.WiktionaryDumpParser;
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link ImportMetrics}.
+ */
+public class ImportMetricsTest extends TestCase {
+
+	/***/
+	public void testLatencyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentileNanos(99));
+		for (int i = 0; i < 99; i++)
+			histogram.record(1000);
+		histogram.record(1000000);
+		assertEquals(100, histogram.getCount());
+		assertEquals(99 * 1000 + 1000000, histogram.getTotalNanos());
+		assertEquals(1024, histogram.getPercentileNanos(50));
+		assertEquals(1024, histogram.getPercentileNanos(99));
+		assertEquals(1L << 20, histogram.getPercentileNanos(100));
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+	}
+
+	/***/
+	public void testListener() {
+		ImportMetrics metrics = new ImportMetrics();
+		metrics.setReportInterval(2);
+		final List<Long> reports = new ArrayList<>();
+		metrics.addListener(new IImportMetricsListener() {
+			@Override
+			public void onProgress(final ImportMetrics metrics) {
+				reports.add(metrics.getPages());
+			}
+
+			@Override
+			public void onFinished(final ImportMetrics metrics) {
+				reports.add(-metrics.getPages());
+			}
+		});
+		metrics.recordPage(null);
+		metrics.recordPage("Wikisaurus");
+		metrics.recordPage(null);
+		metrics.finish();
+		assertEquals(2, reports.size());
+		assertEquals(Long.valueOf(2), reports.get(0));
+		assertEquals(Long.valueOf(-3), reports.get(1));
+		assertEquals(Long.valueOf(2), metrics.getNamespaceCounts().get(""));
+		assertEquals(Long.valueOf(1), metrics.getNamespaceCounts().get("Wikisaurus"));
+	}
+
+	/***/
+	public void testSaveLatency() {
+		ImportMetrics metrics = new ImportMetrics();
+		metrics.recordSave(2000000);
+		metrics.recordBatchSave(5000000);
+		metrics.recordBatchSave(3000000);
+		assertEquals(1, metrics.getSaveLatency().getCount());
+		assertEquals(2, metrics.getBatchSaveLatency().getCount());
+		assertEquals(2000.0, metrics.getSaveMeanMicros(), 1e-9);
+		assertEquals(4000.0, metrics.getBatchSaveMeanMicros(), 1e-9);
+		assertEquals(10, metrics.getStorageMillis());
+		assertTrue(metrics.getGcMillis() >= 0);
+		metrics.reset();
+		assertEquals(0, metrics.getBatchSaveLatency().getCount());
+	}
+
+	/***/
+	public void testDumpParser() {
+		ImportMetrics metrics = new ImportMetrics();
+		WiktionaryDumpParser parser = new WiktionaryDumpParser(
+				new WiktionaryArticleParser(null, (page, text) -> {}));
+		parser.setMetrics(metrics);
+		parser.parse(new File("src/test/resources/WiktionaryDumpParserTest.xml"));
+		assertEquals(2, metrics.getPages());
+		assertEquals(new File("src/test/resources/WiktionaryDumpParserTest.xml").length(),
+				metrics.getBytes());
+		assertEquals(2, metrics.getParseLatency().getCount());
+		assertEquals(0, metrics.getSaveLatency().getCount());
+		assertEquals(0, metrics.getQueueDepth());
+	}
+
+	/***/
+	public void testRegisterMBean() throws Exception {
+		ImportMetrics metrics = new ImportMetrics();
+		metrics.recordPage(null);
+		metrics.registerMBean("test");
+		try {
+			ObjectName name = new ObjectName(ImportMetrics.MBEAN_DOMAIN 
+					+ ":type=ImportMetrics,name=" + ObjectName.quote("test"));
+			assertEquals(1L, ManagementFactory.getPlatformMBeanServer()
+					.getAttribute(name, "Pages"));
+		} finally {
+			metrics.unregisterMBean();
+		}
+	}
+
+}
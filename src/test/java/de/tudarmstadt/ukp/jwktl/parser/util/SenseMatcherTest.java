@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import de.tudarmstadt.ukp.jwktl.api.entry.WikiString;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionarySense;
+import de.tudarmstadt.ukp.jwktl.parser.util.SenseMatcher.FeatureVector;
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link SenseMatcher}.
+ */
+public class SenseMatcherTest extends TestCase {
+
+	/***/
+	public void testSimilarityEquivalence() {
+		String[] samples = {"", " ", "a", "drink", "to drink", "Drink  water",
+				"a [[beverage]]", "liquid, e.g. water", "H2O", "on/off", 
+				"really?!", "self-evident", "snake_case word", "Über straße",
+				"the the the", "\tcold\nwater "};
+		for (String a : samples)
+			for (String b : samples)
+				assertSimilarity(a, b);
+
+		Random random = new Random(42);
+		String alphabet = "abcAB _-?!/09 \tä";
+		for (int i = 0; i < 2000; i++)
+			assertSimilarity(randomText(random, alphabet), 
+					randomText(random, alphabet));
+	}
+
+	/***/
+	public void testFindMatchingSense() {
+		WiktionaryEntry entry = createEntry("a [[beverage]]",
+				"a clear liquid", "the act of drinking");
+		SenseMatcher matcher = new SenseMatcher(entry);
+		assertEquals(1, matcher.findMatchingSense("beverage").getIndex());
+		assertEquals(2, matcher.findMatchingSense("liquid").getIndex());
+		assertEquals(3, matcher.findMatchingSense("act of drinking").getIndex());
+		assertNull(matcher.findMatchingSense(""));
+		assertNull(matcher.findMatchingSense(null));
+		assertNull(matcher.findMatchingSense("xyz"));
+
+		List<WiktionarySense> senses = matcher.findMatchingSenses(
+				Arrays.asList("liquid", "xyz", "beverage"));
+		assertEquals(3, senses.size());
+		assertEquals(2, senses.get(0).getIndex());
+		assertNull(senses.get(1));
+		assertEquals(1, senses.get(2).getIndex());
+
+		entry = createEntry("only sense");
+		assertEquals(1, new SenseMatcher(entry).findMatchingSense(null).getIndex());
+	}
+
+	/***/
+	public void testChangedSenses() {
+		WiktionaryEntry entry = createEntry("a beverage", "a liquid");
+		SenseMatcher matcher = new SenseMatcher(entry);
+		assertEquals(2, matcher.findMatchingSense("liquid").getIndex());
+
+		// Added senses and changed glosses invalidate the gloss vectors.
+		WiktionarySense sense = entry.createSense();
+		sense.setGloss(new WikiString("a solid"));
+		entry.addSense(sense);
+		assertEquals(3, matcher.findMatchingSense("solid").getIndex());
+		entry.getSense(1).setGloss(new WikiString("a gas"));
+		assertEquals(1, matcher.findMatchingSense("gas").getIndex());
+		assertNull(matcher.findMatchingSense("beverage"));
+	}
+
+	protected static void assertSimilarity(final String a, final String b) {
+		String gloss = b.toLowerCase();
+		assertEquals(a + " / " + b, SimilarityUtils.wordSim(a, gloss),
+				FeatureVector.similarity(FeatureVector.words(a), FeatureVector.words(gloss)),
+				1e-9);
+		assertEquals(a + " / " + b, SimilarityUtils.similarity(a, gloss),
+				FeatureVector.similarity(FeatureVector.trigrams(a), FeatureVector.trigrams(gloss)),
+				1e-9);
+	}
+
+	protected static String randomText(final Random random, final String alphabet) {
+		char[] result = new char[random.nextInt(20)];
+		for (int i = 0; i < result.length; i++)
+			result[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+		return new String(result);
+	}
+
+	protected static WiktionaryEntry createEntry(final String... glosses) {
+		WiktionaryPage page = new WiktionaryPage();
+		WiktionaryEntry result = page.createEntry();
+		for (String gloss : glosses) {
+			WiktionarySense sense = result.createSense();
+			sense.setGloss(new WikiString(gloss));
+			result.addSense(sense);
+		}
+		page.addEntry(result);
+		return result;
+	}
+
+}
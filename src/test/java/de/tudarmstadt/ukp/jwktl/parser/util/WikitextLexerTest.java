@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link WikitextLexer}.
+ */
+public class WikitextLexerTest extends TestCase {
+
+	protected static final Pattern COMMENT_PATTERN = Pattern.compile("\\<!--((?!--\\>)[^\0])*?--\\>");
+	protected static final Pattern IMAGE_PATTERN = Pattern.compile("\\[\\[Image:([^\\]]+?)\\|[^\\]]+?\\]\\]");
+	protected static final Pattern REFERENCES_PATTERN = Pattern.compile("<ref[^>]*>.+?</ref>");
+
+	/***/
+	public void testClean() {
+		assertEquals("", WikitextLexer.clean(""));
+		assertEquals("ab", WikitextLexer.clean("a<!-- comment -->b"));
+		assertEquals("a\nb", WikitextLexer.clean("a<!-- multi\nline -->\nb"));
+		assertEquals("a<!-- open", WikitextLexer.clean("a<!-- open"));
+		assertEquals("a<!-- \0 -->", WikitextLexer.clean("a<!-- \0 -->"));
+		assertEquals("a-->", WikitextLexer.clean("a<!---->-->"));
+		assertEquals("xy", WikitextLexer.clean("x[[Image:a.jpg|thumb|caption]]y"));
+		assertEquals("x[[Image:|a]]", WikitextLexer.clean("x[[Image:|a]]"));
+		assertEquals("x[[Image:a|]]", WikitextLexer.clean("x[[Image:a|]]"));
+		assertEquals("]]", WikitextLexer.clean("[[Image:a.jpg|see [[link]]]]"));
+		assertEquals("word.", WikitextLexer.clean("word<ref name=\"x\">Source</ref>."));
+		assertEquals("a<ref>\nb</ref>", WikitextLexer.clean("a<ref>\nb</ref>"));
+		assertEquals("a<ref></ref>", WikitextLexer.clean("a<ref></ref>"));
+		assertEquals("ab", WikitextLexer.clean("a<ref>x<!-- -->y</ref>b"));
+		assertEquals("ab", WikitextLexer.clean("a[[Ima<!-- -->ge:x|y]]b"));
+	}
+
+	/***/
+	public void testLines() {
+		WikitextLexer lexer = new WikitextLexer("  ==English==  \r\n\n\t# gloss<!-- x -->\rlast ");
+		List<String> lines = new ArrayList<>();
+		String line;
+		while ((line = lexer.nextLine()) != null)
+			lines.add(line);
+		assertEquals(4, lines.size());
+		assertEquals("==English==", lines.get(0));
+		assertEquals("", lines.get(1));
+		assertEquals("# gloss", lines.get(2));
+		assertEquals("last", lines.get(3));
+		assertNull(lexer.nextLine());
+
+		lexer = new WikitextLexer("a\n");
+		assertTrue(lexer.next());
+		assertEquals(0, lexer.getLineStart());
+		assertEquals(1, lexer.getLineEnd());
+		assertFalse(lexer.next());
+	}
+
+	/***/
+	public void testEquivalence() throws IOException {
+		String[] tokens = {"<!--", "-->", "-", "<", ">", "[[Image:", "[[", 
+				"]]", "]", "|", "<ref", "<ref name=a>", "</ref>", "\n", "\r", 
+				"\r\n", " ", "\0", "\u2028", "a", "bc", "==", "Image:"};
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder text = new StringBuilder();
+			int n = random.nextInt(20);
+			for (int j = 0; j < n; j++)
+				text.append(tokens[random.nextInt(tokens.length)]);
+			String input = text.toString();
+			String expected = COMMENT_PATTERN.matcher(input).replaceAll("");
+			expected = IMAGE_PATTERN.matcher(expected).replaceAll("");
+			expected = REFERENCES_PATTERN.matcher(expected).replaceAll("");
+			assertEquals(input, expected, WikitextLexer.clean(input));
+
+			WikitextLexer lexer = new WikitextLexer(input);
+			BufferedReader reader = new BufferedReader(new StringReader(expected));
+			String line;
+			while ((line = reader.readLine()) != null)
+				assertEquals(input, line.trim(), lexer.nextLine());
+			assertNull(input, lexer.nextLine());
+		}
+	}
+
+	/***/
+	public void testPathologicalInput() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 50000; i++)
+			text.append("<!--<ref>[[Image:");
+		String input = text.toString();
+		long start = System.nanoTime();
+		assertEquals(input, WikitextLexer.clean(input));
+		assertTrue(System.nanoTime() - start < 5000000000L);
+	}
+
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.wikisaurus;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.tudarmstadt.ukp.jwktl.WiktionaryTestCase;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryRelation;
+import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
+import de.tudarmstadt.ukp.jwktl.api.RelationType;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionarySense;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+import de.tudarmstadt.ukp.jwktl.parser.WritableBerkeleyDBWiktionaryEdition;
+
+/**
+ * Test case for {@link WikisaurusArticleParser}.
+ */
+public class WikisaurusArticleParserTest extends WiktionaryTestCase {
+
+	/***/
+	public void testIntegrateEntries() {
+		final List<Integer> batchSizes = new ArrayList<>();
+		WritableBerkeleyDBWiktionaryEdition db = new WritableBerkeleyDBWiktionaryEdition(
+				new File(workDir, "db"), true) {
+			@Override
+			public void updatePages(final Collection<WiktionaryPage> pages) {
+				batchSizes.add(pages.size());
+				super.updatePages(pages);
+			}
+		};
+		try {
+			db.savePage(createPage(1, "drink"));
+			db.savePage(createPage(2, "water"));
+			db.savePage(createPage(3, "beer"));
+
+			WikisaurusArticleParser parser = new WikisaurusArticleParser(db,
+					new WikisaurusEntrySorter(1, workDir));
+			parser.setBatchSize(2);
+			parse(parser, "water", "==English==\n===Noun===\n"
+					+ "===={{ws sense|clear liquid}}====\n"
+					+ "=====Synonyms=====\n{{ws beginlist}}\n{{ws|aqua}}\n{{ws endlist}}\n");
+			parse(parser, "drink", "==English==\n===Noun===\n"
+					+ "===={{ws sense|beverage}}====\n"
+					+ "=====Hyponyms=====\n{{ws beginlist}}\n{{ws|beer}}\n{{ws|water}}\n{{ws endlist}}\n");
+			parse(parser, "water", "==English==\n===Noun===\n"
+					+ "===={{ws sense|clear liquid}}====\n"
+					+ "=====Antonyms=====\n{{ws beginlist}}\n{{ws|fire}}\n{{ws endlist}}\n");
+			parse(parser, "missing", "==English==\n===Noun===\n"
+					+ "===={{ws sense|none}}====\n"
+					+ "=====Synonyms=====\n{{ws beginlist}}\n{{ws|nothing}}\n{{ws endlist}}\n");
+			assertTrue(batchSizes.isEmpty());
+			parser.onParserEnd(null);
+
+			// Two pages in the first batch, none in the final one.
+			assertEquals("[2, 0]", batchSizes.toString());
+			assertEquals(0, workDir.listFiles((dir, name) -> name.endsWith(".run")).length);
+
+			List<IWiktionaryRelation> relations = db.getPageForWord("drink")
+					.getEntry(0).getSense(1).getRelations();
+			assertEquals(2, relations.size());
+			for (IWiktionaryRelation relation : relations)
+				assertEquals(RelationType.HYPONYM, relation.getRelationType());
+			relations = db.getPageForWord("water").getEntry(0).getSense(1).getRelations();
+			assertEquals(2, relations.size());
+			assertNull(db.getPageForWord("beer").getEntry(0).getSense(1).getRelations());
+		} finally {
+			db.close();
+		}
+	}
+
+	protected static void parse(final WikisaurusArticleParser parser,
+			final String title, final String text) {
+		parser.setTitle(title, "Wikisaurus");
+		parser.setText(text);
+	}
+
+	protected static WiktionaryPage createPage(long id, final String title) {
+		WiktionaryPage result = new WiktionaryPage();
+		result.setId(id);
+		result.setTitle(title);
+		WiktionaryEntry entry = result.createEntry();
+		entry.setWordLanguage(Language.ENGLISH);
+		entry.addPartOfSpeech(PartOfSpeech.NOUN);
+		WiktionarySense sense = entry.createSense();
+		entry.addSense(sense);
+		result.addEntry(entry);
+		return result;
+	}
+
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package de.tudarmstadt.ukp.jwktl.parser.wikisaurus;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.tudarmstadt.ukp.jwktl.WiktionaryTestCase;
+import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
+import de.tudarmstadt.ukp.jwktl.api.RelationType;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryRelation;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+
+/**
+ * Test case for {@link WikisaurusEntrySorter}.
+ */
+public class WikisaurusEntrySorterTest extends WiktionaryTestCase {
+
+	/***/
+	public void testMergeRuns() {
+		WikisaurusEntrySorter sorter = new WikisaurusEntrySorter(2, workDir);
+		String[] titles = {"drink", "beer", "water", "beer", "ale", "drink", "cider"};
+		for (int i = 0; i < titles.length; i++)
+			sorter.add(new WikisaurusEntry(titles[i], PartOfSpeech.NOUN, 
+					Language.ENGLISH, "sense" + i));
+		assertEquals(7, sorter.size());
+		assertEquals(3, sorter.getRunCount());
+		assertEquals(3, workDir.listFiles().length);
+
+		List<String> groups = new ArrayList<>();
+		sorter.merge((entries) -> {
+			StringBuilder group = new StringBuilder(entries.get(0).getTitle());
+			for (WikisaurusEntry entry : entries) {
+				assertEquals(entries.get(0).getTitle(), entry.getTitle());
+				group.append(" ").append(entry.getSenseDefinition());
+			}
+			groups.add(group.toString());
+		});
+		assertEquals("[ale sense4, beer sense1 sense3, cider sense6, "
+				+ "drink sense0 sense5, water sense2]", groups.toString());
+		assertEquals(0, sorter.size());
+		assertEquals(0, sorter.getRunCount());
+		assertEquals(0, workDir.listFiles().length);
+	}
+
+	/***/
+	public void testSerialization() {
+		WikisaurusEntrySorter sorter = new WikisaurusEntrySorter(1, workDir);
+		WikisaurusEntry entry = new WikisaurusEntry("drink", null, null, null);
+		entry.addRelation("beverage", null, RelationType.SYNONYM);
+		entry.addRelation("beer", "alcoholic drink", RelationType.HYPONYM);
+		sorter.add(entry);
+		sorter.add(new WikisaurusEntry("drink", PartOfSpeech.VERB, Language.GERMAN, ""));
+		assertEquals(2, sorter.getRunCount());
+
+		List<WikisaurusEntry> result = new ArrayList<>();
+		sorter.merge(result::addAll);
+		assertEquals(2, result.size());
+		entry = result.get(0);
+		assertEquals("drink", entry.getTitle());
+		assertNull(entry.getPartOfSpeech());
+		assertNull(entry.getLanguage());
+		assertNull(entry.getSenseDefinition());
+		assertEquals(2, entry.getRelations().size());
+		for (WiktionaryRelation relation : entry.getRelations())
+			if (relation.getRelationType() == RelationType.SYNONYM) {
+				assertEquals("beverage", relation.getTarget());
+				assertNull(relation.getTargetSense());
+			} else {
+				assertEquals("beer", relation.getTarget());
+				assertEquals("alcoholic drink", relation.getTargetSense());
+				assertEquals(RelationType.HYPONYM, relation.getRelationType());
+			}
+		entry = result.get(1);
+		assertEquals(PartOfSpeech.VERB, entry.getPartOfSpeech());
+		assertEquals(Language.GERMAN, entry.getLanguage());
+		assertEquals("", entry.getSenseDefinition());
+		assertTrue(entry.getRelations().isEmpty());
+	}
+
+	/***/
+	public void testLongTexts() {
+		StringBuilder text = new StringBuilder();
+		while (text.length() < 70000)
+			text.append("Getränk ");
+		WikisaurusEntrySorter sorter = new WikisaurusEntrySorter(1, workDir);
+		WikisaurusEntry entry = new WikisaurusEntry(text.toString(), null, null, text.toString());
+		entry.addRelation(text.toString(), text.toString(), RelationType.SYNONYM);
+		sorter.add(entry);
+		assertEquals(1, sorter.getRunCount());
+
+		List<WikisaurusEntry> result = new ArrayList<>();
+		sorter.merge(result::addAll);
+		assertEquals(1, result.size());
+		assertEquals(text.toString(), result.get(0).getTitle());
+		assertEquals(text.toString(), result.get(0).getSenseDefinition());
+		WiktionaryRelation relation = result.get(0).getRelations().iterator().next();
+		assertEquals(text.toString(), relation.getTarget());
+		assertEquals(text.toString(), relation.getTargetSense());
+	}
+
+	/***/
+	public void testInMemoryOnly() {
+		WikisaurusEntrySorter sorter = new WikisaurusEntrySorter(100, new File(workDir, "unused"));
+		sorter.add(new WikisaurusEntry("b", null, null, null));
+		sorter.add(new WikisaurusEntry("a", null, null, null));
+		assertEquals(0, sorter.getRunCount());
+		List<String> titles = new ArrayList<>();
+		sorter.merge((entries) -> titles.add(entries.get(0).getTitle()));
+		assertEquals("[a, b]", titles.toString());
+	}
+
+}